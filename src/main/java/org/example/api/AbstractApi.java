@@ -6,8 +6,10 @@ import org.example.exception.ApiException;
 import org.example.model.form.PaginationRequest;
 import org.example.model.form.PaginationQuery;
 import org.example.model.data.PaginationResponse;
+import org.example.util.SearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
@@ -35,8 +37,10 @@ public abstract class AbstractApi<T> {
     }
 
     /**
-     * Get entity by ID
+     * Get entity by ID. Query methods run read-only: Hibernate keeps no snapshots, never flushes,
+     * and the connection goes to the read replica when one is configured.
      */
+    @Transactional(readOnly = true)
     public T get(Integer id) {
         validateId(id);
         T entity = dao.select(id);
@@ -71,6 +75,7 @@ public abstract class AbstractApi<T> {
     /**
      * Get all entities
      */
+    @Transactional(readOnly = true)
     public List<T> getAll() {
         return dao.selectAll();
     }
@@ -140,6 +145,7 @@ public abstract class AbstractApi<T> {
     /**
      * Generic method to find by a single field value
      */
+    @Transactional(readOnly = true)
     public T getByField(String fieldName, Object value) {
         T entity = dao.selectByField(fieldName, value);
         if (Objects.isNull(entity)) {
@@ -151,13 +157,23 @@ public abstract class AbstractApi<T> {
     /**
      * Generic method to find by a single field value (returns null if not found)
      */
+    @Transactional(readOnly = true)
     public T findByField(String fieldName, Object value) {
         return dao.selectByField(fieldName, value);
     }
 
+    /**
+     * Generic method to find all entities whose field matches any of the given values
+     */
+    @Transactional(readOnly = true)
+    public List<T> getByFieldIn(String fieldName, Collection<?> values) {
+        return dao.selectByFieldIn(fieldName, values);
+    }
+
     /**
      * Generic method to find by multiple field values
      */
+    @Transactional(readOnly = true)
     public List<T> getByFields(String[] fieldNames, Object[] values) {
         return dao.selectByFields(fieldNames, values);
     }
@@ -165,6 +181,7 @@ public abstract class AbstractApi<T> {
     /**
      * Get entity by name field with validation
      */
+    @Transactional(readOnly = true)
     public T getByName(String name) {
         validateString(name, "Name");
         return getByField("name", name.trim());
@@ -173,6 +190,7 @@ public abstract class AbstractApi<T> {
     /**
      * Get entity by name field with validation (returns null if not found)
      */
+    @Transactional(readOnly = true)
     public T findByName(String name) {
         if (name == null || name.trim().isEmpty()) {
             return null;
@@ -183,14 +201,17 @@ public abstract class AbstractApi<T> {
     /**
      * Get entities by name pattern matching
      */
+    @Transactional(readOnly = true)
     public List<T> getByNameLike(String name) {
         validateString(name, "Name");
-        return dao.selectByFieldLike("name", name.trim());
+        List<T> indexed = searchIndexed("name", name.trim());
+        return indexed != null ? indexed : dao.selectByFieldLike("name", name.trim());
     }
 
     /**
      * Get entity by any field with validation
      */
+    @Transactional(readOnly = true)
     public T getByFieldWithValidation(String fieldName, Object value, String fieldDisplayName) {
         validateString(fieldName, "Field name");
         if (value == null) {
@@ -202,10 +223,12 @@ public abstract class AbstractApi<T> {
     /**
      * Get entities by field pattern matching with validation
      */
+    @Transactional(readOnly = true)
     public List<T> getByFieldLikeWithValidation(String fieldName, String value, String fieldDisplayName) {
         validateString(fieldName, "Field name");
         validateString(value, fieldDisplayName);
-        return dao.selectByFieldLike(fieldName, value.trim());
+        List<T> indexed = searchIndexed(fieldName, value.trim());
+        return indexed != null ? indexed : dao.selectByFieldLike(fieldName, value.trim());
     }
 
     // ========== ENHANCED PAGINATION METHODS ==========
@@ -214,16 +237,19 @@ public abstract class AbstractApi<T> {
      * Generalized pagination method that handles all types of queries.
      * This method replaces the need for multiple specific pagination methods.
      */
+    @Transactional(readOnly = true)
     public PaginationResponse<T> getPaginated(PaginationQuery query) {
         if (query == null) {
             throw new ApiException("Pagination query cannot be null");
         }
-        return dao.getPaginated(query);
+        PaginationResponse<T> indexed = searchIndexedPaginated(query);
+        return indexed != null ? indexed : dao.getPaginated(query);
     }
 
     /**
      * Get paginated results by field with validation
      */
+    @Transactional(readOnly = true)
     public PaginationResponse<T> getByFieldPaginatedWithValidation(String fieldName, Object value, PaginationRequest request, String fieldDisplayName) {
         validateString(fieldName, "Field name");
         if (value == null) {
@@ -238,6 +264,7 @@ public abstract class AbstractApi<T> {
     /**
      * Get paginated results by field pattern matching with validation
      */
+    @Transactional(readOnly = true)
     public PaginationResponse<T> getByFieldLikePaginatedWithValidation(String fieldName, String value, PaginationRequest request, String fieldDisplayName) {
         validateString(fieldName, "Field name");
         validateString(value, fieldDisplayName);
@@ -247,4 +274,44 @@ public abstract class AbstractApi<T> {
         return getPaginated(PaginationQuery.byFieldLike(fieldName, value.trim(), request));
     }
 
-} 
\ No newline at end of file
+    // ========== SEARCH INDEX ==========
+
+    /**
+     * In-memory index that answers pattern searches on some fields of this entity, or null
+     * (the default) to always search the database
+     */
+    protected SearchIndex getSearchIndex() {
+        return null;
+    }
+
+    /**
+     * Ranked matches from the search index, or null when the field is not indexed and the
+     * database has to be searched instead
+     */
+    protected List<T> searchIndexed(String fieldName, String value) {
+        SearchIndex index = getSearchIndex();
+        if (index == null || !index.covers(fieldName)) {
+            return null;
+        }
+        return dao.selectByIds(index.search(fieldName, value));
+    }
+
+    /**
+     * One page of ranked matches from the search index, or null when it cannot serve the query.
+     * An explicit sort order or a keyset page still goes to the database.
+     */
+    private PaginationResponse<T> searchIndexedPaginated(PaginationQuery query) {
+        PaginationRequest request = query.getPaginationRequest();
+        SearchIndex index = getSearchIndex();
+        if (query.getQueryType() != PaginationQuery.QueryType.BY_FIELD_LIKE || index == null
+                || !index.covers(query.getFieldName()) || request.isKeyset()
+                || (request.getSortBy() != null && !request.getSortBy().trim().isEmpty())) {
+            return null;
+        }
+        List<Integer> ranked = index.search(query.getFieldName(), query.getSearchPattern());
+        int from = Math.min(request.getOffset(), ranked.size());
+        int to = Math.min(from + request.getPageSize(), ranked.size());
+        return new PaginationResponse<>(dao.selectByIds(ranked.subList(from, to)), ranked.size(),
+            request.getPageNumber(), request.getPageSize());
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.api;
+
+import org.example.dao.ClientDao;
+import jakarta.annotation.PreDestroy;
+import org.example.dao.ProductDao;
+import org.example.model.constants.DbConstants;
+import org.example.pojo.ClientPojo;
+import org.example.pojo.ProductPojo;
+import org.example.util.AfterCommit;
+import org.example.util.SearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typeahead indexes over product names and barcodes and client names, used by ProductApi and
+ * ClientApi to answer name and barcode searches without a LIKE scan.
+ *
+ * Both indexes are loaded on a background thread once the context is up, and the APIs index every
+ * inserted or updated entity on this node once its transaction commits. Until loading has finished
+ * the getters return null and searches go to the database. Writes made on other nodes never reach
+ * this node's hooks, so every refreshMillis the entities updated since shortly before the previous
+ * load or refresh started are read again; a product or client created or renamed elsewhere shows up
+ * within about that long.
+ */
+@Service
+public class CatalogSearchIndex {
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private ClientDao clientDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SearchIndex products = new SearchIndex("name", "barcode");
+    private final SearchIndex clients = new SearchIndex("clientName");
+    private final AtomicBoolean warmed = new AtomicBoolean();
+    private final long refreshMillis;
+    private final long refreshOverlapMillis;
+    private final ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean ready;
+    // When the last successful load or refresh started; only touched by the refresh thread
+    private ZonedDateTime loadedAt;
+
+    public CatalogSearchIndex(
+            @Value("${catalog.search-index.refresh-ms:" + DbConstants.CatalogSearch.REFRESH_MILLIS + "}") long refreshMillis,
+            @Value("${catalog.search-index.refresh-overlap-ms:" + DbConstants.CatalogSearch.REFRESH_OVERLAP_MILLIS + "}") long refreshOverlapMillis) {
+        this.refreshMillis = refreshMillis;
+        this.refreshOverlapMillis = refreshOverlapMillis;
+    }
+
+    // The root and web contexts both publish a refresh event; load only once, off the startup thread
+    @EventListener(ContextRefreshedEvent.class)
+    public void warmUp() {
+        if (!warmed.compareAndSet(false, true)) {
+            return;
+        }
+        refreshExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (Exception e) {
+                System.err.println("Catalog search index refresh failed: " + e.getMessage());
+            }
+        }, 0, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Load the whole catalog the first time, and afterwards only the products and clients updated
+     * since refreshOverlapMillis before the previous load or refresh started. Entity versions keep
+     * a re-read row from replacing a newer indexed copy.
+     */
+    void refresh() {
+        ZonedDateTime startedAt = ZonedDateTime.now();
+        ZonedDateTime since = loadedAt == null ? null : loadedAt.minus(refreshOverlapMillis, ChronoUnit.MILLIS);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (since == null) {
+                productDao.scrollAll(this::index);
+                clientDao.scrollAll(this::index);
+            } else {
+                productDao.scrollUpdatedSince(since, this::index);
+                clientDao.scrollUpdatedSince(since, this::index);
+            }
+        });
+        loadedAt = startedAt;
+        ready = true;
+    }
+
+    /**
+     * Product index, or null while it is still loading
+     */
+    public SearchIndex getProducts() {
+        return ready ? products : null;
+    }
+
+    /**
+     * Client index, or null while it is still loading
+     */
+    public SearchIndex getClients() {
+        return ready ? clients : null;
+    }
+
+    /**
+     * Index the product once the current transaction commits, or straight away outside one
+     */
+    public void putAfterCommit(ProductPojo product) {
+        if (product != null && product.getId() != null) {
+            // The entity is read at commit, so later changes in the same transaction are included
+            AfterCommit.run(() -> index(product));
+        }
+    }
+
+    /**
+     * Index the client once the current transaction commits, or straight away outside one
+     */
+    public void putAfterCommit(ClientPojo client) {
+        if (client != null && client.getId() != null) {
+            AfterCommit.run(() -> index(client));
+        }
+    }
+
+    private void index(ProductPojo product) {
+        Map<String, String> values = new HashMap<>();
+        values.put("name", product.getName());
+        values.put("barcode", product.getBarcode());
+        products.put(product.getId(), product.getVersion(), values);
+    }
+
+    private void index(ClientPojo client) {
+        Map<String, String> values = new HashMap<>();
+        values.put("clientName", client.getClientName());
+        clients.put(client.getId(), client.getVersion(), values);
+    }
+}
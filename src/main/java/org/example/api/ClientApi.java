@@ -7,10 +7,12 @@ import org.springframework.stereotype.Service;
 import org.example.dao.ClientDao;
 import org.example.pojo.ClientPojo;
 import org.example.util.StringUtil;
+import java.util.Collection;
 import java.util.Objects;
 import java.util.List;
 import org.example.model.data.PaginationResponse;
 import org.example.model.form.PaginationRequest;
+import org.example.util.SearchIndex;
 
 @Service
 @Transactional
@@ -19,10 +21,42 @@ public class ClientApi extends AbstractApi<ClientPojo> {
     @Autowired
     private ProductApi productApi;
 
+    @Autowired
+    private CatalogSearchIndex searchIndex;
+
     public ClientApi() {
         super(ClientPojo.class);
     }
 
+    @Override
+    public void add(ClientPojo client) {
+        super.add(client);
+        searchIndex.putAfterCommit(client);
+    }
+
+    @Override
+    public void update(Integer id, ClientPojo client) {
+        super.update(id, client);
+        searchIndex.putAfterCommit(dao.select(id));
+    }
+
+    /**
+     * Client name searches are answered from the catalog search index
+     */
+    @Override
+    protected SearchIndex getSearchIndex() {
+        return searchIndex.getClients();
+    }
+
+    /**
+     * Get all clients with the given IDs in one query
+     */
+    @Transactional(readOnly = true)
+    public List<ClientPojo> getByIds(Collection<Integer> ids) {
+        return dao.selectByIds(ids);
+    }
+
+    @Transactional(readOnly = true)
     public ClientPojo getByName(String name) {
         if (name == null || name.trim().isEmpty()) {
             return null;
@@ -32,6 +66,7 @@ public class ClientApi extends AbstractApi<ClientPojo> {
         return findByField("clientName", formattedName);
     }
 
+    @Transactional(readOnly = true)
     public List<ClientPojo> getByNameLike(String name) {
         return getByFieldLikeWithValidation("clientName", name, "Client name");
     }
@@ -1,106 +1,133 @@
 package org.example.api;
 
+import jakarta.annotation.PreDestroy;
 import org.example.dao.DaySalesDao;
 import org.example.dao.OrderDao;
-import org.example.dao.OrderItemDao;
 import org.example.pojo.DaySalesPojo;
-import org.example.pojo.OrderItemPojo;
-import org.example.pojo.OrderPojo;
+import org.example.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.List;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class DaySalesScheduler {
+    private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
+    // Days recomputed per transaction during backfill
+    private static final int BACKFILL_CHUNK_DAYS = 31;
+
     @Autowired
     private DaySalesDao daySalesRepo;
     @Autowired
     private OrderDao orderDao;
     @Autowired
-    private OrderItemDao orderItemDao;
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "day-sales-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     // Runs every day at 11:59 PM IST (Asia/Kolkata timezone)
     @Scheduled(cron = "59 23 * * * *", zone = "Asia/Kolkata")
     @Transactional
     public void calculateDaySales() {
         // Calculate for the current day in IST
-        LocalDate today = LocalDate.now(ZoneId.of("Asia/Kolkata"));
+        LocalDate today = LocalDate.now(IST_ZONE);
 
         calculateDaySalesForDate(today);
     }
 
-    @jakarta.annotation.PostConstruct
-    @Transactional
-    public void backfillDaySales() {
-        LocalDate today = LocalDate.now(ZoneId.of("Asia/Kolkata"));
-        LocalDate yesterday = today.minusDays(1);
-        
-
-        
-        LocalDate lastCalculated = daySalesRepo.findLatestDate();
-        if (lastCalculated == null) {
-            lastCalculated = orderDao.findEarliestOrderDate();
-            if (lastCalculated == null) {
-                return;
+    // Kick off the backfill once the context is up so startup is not blocked on it
+    @EventListener(ContextRefreshedEvent.class)
+    public void scheduleBackfill() {
+        backfillExecutor.submit(() -> {
+            try {
+                backfillDaySales();
+            } catch (Exception e) {
+                System.err.println("Day sales backfill failed: " + e.getMessage());
+                e.printStackTrace();
             }
+        });
+    }
+
+    @PreDestroy
+    public void shutdownBackfill() {
+        backfillExecutor.shutdownNow();
+    }
+
+    public void backfillDaySales() {
+        LocalDate yesterday = LocalDate.now(IST_ZONE).minusDays(1);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDate start = transactionTemplate.execute(status -> {
+            LocalDate lastCalculated = daySalesRepo.findLatestDate();
+            return lastCalculated != null ? lastCalculated.plusDays(1) : orderDao.findEarliestOrderDate();
+        });
+        if (start == null) {
+            return;
         }
-        
-        LocalDate date = lastCalculated.plusDays(1);
-        while (!date.isAfter(yesterday)) {
-            calculateDaySalesForDate(date);
-            date = date.plusDays(1);
+
+        // Each chunk gets its own short transaction so a long gap never holds one open
+        while (!start.isAfter(yesterday) && !Thread.currentThread().isInterrupted()) {
+            LocalDate chunkEnd = start.plusDays(BACKFILL_CHUNK_DAYS - 1);
+            LocalDate end = chunkEnd.isAfter(yesterday) ? yesterday : chunkEnd;
+            LocalDate chunkStart = start;
+            transactionTemplate.executeWithoutResult(status -> calculateDaySalesForRange(chunkStart, end));
+            start = end.plusDays(1);
         }
     }
 
     // Helper to calculate day sales for a specific date
     @Transactional
     public void calculateDaySalesForDate(LocalDate date) {
-        List<OrderPojo> orders = orderDao.findOrdersByDate(date);
-        
-        int ordersCount = orders.size();
-        double totalRevenue = Math.round(orders.stream()
-            .mapToDouble(OrderPojo::getTotal)
-            .sum() * 100.0) / 100.0;
-        
-        // Calculate actual items count from order items
-        int itemsCount = 0;
-        for (OrderPojo order : orders) {
-            try {
-                List<OrderItemPojo> orderItems = orderItemDao.selectByOrderId(order.getId());
-                itemsCount += orderItems.stream()
-                    .mapToInt(OrderItemPojo::getQuantity)
-                    .sum();
-            } catch (Exception e) {
-                // If order items cannot be fetched, skip this order
-                System.err.println("Warning: Could not fetch order items for order " + order.getId() + ": " + e.getMessage());
-            }
+        calculateDaySalesForRange(date, date);
+    }
+
+    // Recompute every day in [startDate, endDate] from one grouped query and upsert them together
+    @Transactional
+    public void calculateDaySalesForRange(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, DaySalesPojo> daySalesByDate = new LinkedHashMap<>();
+        Map<LocalDate, Long> revenuePaiseByDate = new HashMap<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            DaySalesPojo daySales = new DaySalesPojo();
+            daySales.setDate(date.atStartOfDay(IST_ZONE));
+            daySales.setTotalRevenue(0.0);
+            daySales.setInvoicedOrdersCount(0);
+            daySales.setInvoicedItemsCount(0);
+            daySalesByDate.put(date, daySales);
         }
-        
-        // Check if day sales already exists for this date
-        DaySalesPojo existingDaySales = daySalesRepo.findByDate(date);
-        DaySalesPojo daySales;
-        
-        if (existingDaySales != null) {
-            daySales = existingDaySales;
-        } else {
-            daySales = new DaySalesPojo();
-            daySales.setDate(date.atStartOfDay(ZoneId.of("Asia/Kolkata")));
+
+        for (OrderDao.OrderSummaryRow row : orderDao.findOrderSummariesByDateRange(startDate, endDate)) {
+            LocalDate date = row.getDate().withZoneSameInstant(IST_ZONE).toLocalDate();
+            DaySalesPojo daySales = daySalesByDate.get(date);
+            if (daySales == null) {
+                continue;
+            }
+            daySales.setInvoicedOrdersCount(daySales.getInvoicedOrdersCount() + 1);
+            daySales.setInvoicedItemsCount(daySales.getInvoicedItemsCount() + (int) row.getItemCount());
+            revenuePaiseByDate.merge(date, row.getTotalPaise(), Long::sum);
         }
-        
-        daySales.setInvoicedOrdersCount(ordersCount);
-        daySales.setInvoicedItemsCount(itemsCount);
-        daySales.setTotalRevenue(totalRevenue);
-        
-        try {
-            daySalesRepo.saveOrUpdate(daySales);
-        } catch (Exception e) {
-            System.err.println("Error upserting day sales for date " + date + ": " + e.getMessage());
-            e.printStackTrace();
+
+        // Summed exactly in paise; converted to rupees once per day
+        for (Map.Entry<LocalDate, Long> revenue : revenuePaiseByDate.entrySet()) {
+            daySalesByDate.get(revenue.getKey()).setTotalRevenue(Money.toRupees(revenue.getValue()));
         }
+        // A failure propagates, so a backfill stops here instead of moving its latest date past the gap
+        daySalesRepo.saveOrUpdateAll(new ArrayList<>(daySalesByDate.values()));
     }
-} 
\ No newline at end of file
+}
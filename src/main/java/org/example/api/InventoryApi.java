@@ -11,8 +11,15 @@ import org.example.model.form.PaginationRequest;
 import org.example.model.form.PaginationQuery;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -28,10 +35,22 @@ public class InventoryApi extends AbstractApi<InventoryPojo> {
         super(InventoryPojo.class);
     }
 
+    @Transactional(readOnly = true)
     public InventoryPojo getByProductId(Integer productId) {
         return ((InventoryDao) dao).getByProductId(productId);
     }
 
+    /**
+     * Get a page of inventory rows already joined with their product details
+     */
+    @Transactional(readOnly = true)
+    public PaginationResponse<InventoryDao.InventoryProductRow> getWithProductPaginated(PaginationQuery query) {
+        if (query == null) {
+            throw new ApiException("Pagination query cannot be null");
+        }
+        return ((InventoryDao) dao).selectWithProductPaginated(query);
+    }
+
     /**
      * Validate product and its client before inventory operations
      */
@@ -78,6 +97,7 @@ public class InventoryApi extends AbstractApi<InventoryPojo> {
     /**
      * Check if sufficient inventory is available for a product
      */
+    @Transactional(readOnly = true)
     public void checkInventoryAvailability(Integer productId, Integer requiredQuantity) {
         validatePositive(requiredQuantity, "Required quantity");
         InventoryPojo inventory = getByProductId(productId);
@@ -96,19 +116,121 @@ public class InventoryApi extends AbstractApi<InventoryPojo> {
      */
     public void removeStock(Integer productId, Integer quantityToRemove) {
         validatePositive(quantityToRemove, "Quantity to remove");
-        InventoryPojo inventory = getByProductId(productId);
-        if (Objects.isNull(inventory)) {
-            throw new ApiException("No inventory found for product ID: " + productId);
+        validateProductAndClient(productId);
+
+        StockReservation reservation = decrement(Collections.singletonMap(productId, quantityToRemove));
+        if (!reservation.isSuccessful()) {
+            throw new ApiException(reservation.getFailureMessage());
         }
-        if (inventory.getQuantity() < quantityToRemove) {
-            throw new ApiException("Insufficient stock. Available: " + inventory.getQuantity() + ", Requested: " + quantityToRemove);
+    }
+
+    /**
+     * Outcome of a stock reservation. Failed lines carry the quantity that was on hand
+     * (null when the product has no inventory row) at the time the reservation was rejected.
+     */
+    public static class StockReservation {
+        private final Map<Integer, Integer> requestedByProductId;
+        private final Map<Integer, Integer> availableByFailedProductId;
+
+        private StockReservation(Map<Integer, Integer> requestedByProductId, Map<Integer, Integer> availableByFailedProductId) {
+            this.requestedByProductId = requestedByProductId;
+            this.availableByFailedProductId = availableByFailedProductId;
+        }
+
+        public boolean isSuccessful() {
+            return availableByFailedProductId.isEmpty();
+        }
+
+        public List<Integer> getFailedProductIds() {
+            return new ArrayList<>(availableByFailedProductId.keySet());
+        }
+
+        public Integer getAvailable(Integer productId) {
+            return availableByFailedProductId.get(productId);
+        }
+
+        public String getFailureMessage() {
+            List<String> messages = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> failure : availableByFailedProductId.entrySet()) {
+                Integer productId = failure.getKey();
+                if (failure.getValue() == null) {
+                    messages.add("No inventory found for product ID: " + productId);
+                } else if (availableByFailedProductId.size() == 1) {
+                    messages.add("Insufficient stock. Available: " + failure.getValue() + ", Requested: " + requestedByProductId.get(productId));
+                } else {
+                    messages.add("Insufficient stock for product ID " + productId + ". Available: " + failure.getValue()
+                        + ", Requested: " + requestedByProductId.get(productId));
+                }
+            }
+            return String.join("; ", messages);
+        }
+    }
+
+    /**
+     * Reserve stock for several products at once, keyed by product ID. Products and clients are
+     * validated with one query each, then every line is a single conditional decrement, all sent
+     * in one JDBC batch; there is no read of the inventory rows on the success path. Lines that
+     * could not be reserved are reported and left untouched, while the others stay decremented,
+     * so callers should fail the surrounding transaction when the reservation is not successful.
+     */
+    public StockReservation reserveStock(Map<Integer, Integer> quantitiesByProductId) {
+        if (Objects.isNull(quantitiesByProductId) || quantitiesByProductId.isEmpty()) {
+            return new StockReservation(new HashMap<>(), new LinkedHashMap<>());
+        }
+        for (Integer quantity : quantitiesByProductId.values()) {
+            validatePositive(quantity, "Quantity to remove");
+        }
+        validateProductsAndClients(quantitiesByProductId.keySet());
+        return decrement(quantitiesByProductId);
+    }
+
+    private StockReservation decrement(Map<Integer, Integer> quantitiesByProductId) {
+        List<Integer> failedProductIds = ((InventoryDao) dao).decrementIfAvailable(quantitiesByProductId);
+        Map<Integer, Integer> availableByFailedProductId = new LinkedHashMap<>();
+        if (!failedProductIds.isEmpty()) {
+            // Only read the rows back on the failure path, to say what was on hand
+            Map<Integer, Integer> onHand = new HashMap<>();
+            for (InventoryPojo inventory : ((InventoryDao) dao).selectByProductIds(failedProductIds)) {
+                onHand.put(inventory.getProductId(), inventory.getQuantity());
+            }
+            for (Integer productId : failedProductIds) {
+                availableByFailedProductId.put(productId, onHand.get(productId));
+            }
+        }
+        return new StockReservation(quantitiesByProductId, availableByFailedProductId);
+    }
+
+    /**
+     * Bulk form of validateProductAndClient
+     */
+    private void validateProductsAndClients(Set<Integer> productIds) {
+        Map<Integer, ProductPojo> productById = new HashMap<>();
+        for (ProductPojo product : productApi.getByIds(productIds)) {
+            productById.put(product.getId(), product);
+        }
+        Set<Integer> clientIds = new HashSet<>();
+        for (Integer productId : productIds) {
+            ProductPojo product = productById.get(productId);
+            if (product == null) {
+                throw new ApiException("Product with ID '" + productId + "' not found");
+            }
+            if (product.getClientId() != null && product.getClientId() > 0) {
+                clientIds.add(product.getClientId());
+            }
+        }
+
+        Map<Integer, ClientPojo> clientById = new HashMap<>();
+        for (ClientPojo client : clientApi.getByIds(clientIds)) {
+            clientById.put(client.getId(), client);
+        }
+        for (Integer clientId : clientIds) {
+            ClientPojo client = clientById.get(clientId);
+            if (client == null) {
+                throw new ApiException("Client for product not found");
+            }
+            if (!client.getStatus()) {
+                throw new ApiException("Client is not active");
+            }
         }
-        
-        validateProductAndClient(productId);
-        
-        InventoryPojo updatedInventory = new InventoryPojo();
-        updatedInventory.setProductId(inventory.getProductId());
-        updatedInventory.setQuantity(inventory.getQuantity() - quantityToRemove);
-        dao.update(inventory.getId(), updatedInventory);
     }
-} 
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import org.example.pojo.InvoicePojo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Map;
@@ -49,8 +50,33 @@ public class InvoiceApi extends AbstractApi<InvoicePojo> {
         invoiceDao.insert(invoice);
     }
 
+    /**
+     * Insert the invoices without the per-invoice duplicate lookup of add, so they are flushed as
+     * one JDBC batch; the caller has already checked the orders have no invoice
+     */
+    public void addAll(List<InvoicePojo> invoices) {
+        for (InvoicePojo invoice : invoices) {
+            if (Objects.isNull(invoice.getOrderId())) {
+                throw new ApiException("Order ID cannot be null");
+            }
+            if (Objects.isNull(invoice.getFilePath()) || invoice.getFilePath().trim().isEmpty()) {
+                throw new ApiException("File path cannot be null or empty");
+            }
+            invoiceDao.insert(invoice);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public InvoicePojo getByOrderId(Integer orderId) {
         return invoiceDao.selectByOrderId(orderId);
     }
 
+    /**
+     * Invoices of the given orders, in one query
+     */
+    @Transactional(readOnly = true)
+    public List<InvoicePojo> getByOrderIds(Collection<Integer> orderIds) {
+        return invoiceDao.selectByFieldIn("orderId", orderIds);
+    }
+
 }
\ No newline at end of file
@@ -3,20 +3,36 @@ package org.example.api;
 import org.example.model.data.InvoiceAppForm;
 import org.example.clients.InvoiceClient;
 import org.example.exception.ApiException;
+import org.example.model.constants.DbConstants;
+import org.example.util.InvoiceStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.function.Supplier;
+
 @Component
 public class InvoiceClientApi {
 
     @Autowired
     private InvoiceClient invoiceClient;
 
-    private static final String INVOICE_APP_URL = "http://localhost:8081/api/invoice";
-
     public String generateInvoice(InvoiceAppForm invoiceAppForm) {
+        return call(() -> invoiceClient.callInvoiceService(invoiceAppForm));
+    }
+
+    /**
+     * Generate the invoice and stream the PDF into the invoice store
+     */
+    public InvoiceStore.StoredInvoice writeInvoice(InvoiceAppForm invoiceAppForm, InvoiceStore invoiceStore) {
+        return call(() -> invoiceClient.writeInvoice(invoiceAppForm, invoiceStore));
+    }
+
+    private <T> T call(Supplier<T> invoiceCall) {
         try {
-            return invoiceClient.callInvoiceService(invoiceAppForm);
+            return invoiceCall.get();
+        } catch (ApiException e) {
+            // Refused by the bulkhead or circuit breaker without calling the service
+            throw e;
         } catch (org.springframework.web.client.ResourceAccessException e) {
             // Connection refused, timeout, or network issues
             throw new ApiException("Invoice service is not available. Please try again later. Error: " + e.getMessage());
@@ -31,7 +47,7 @@ public class InvoiceClientApi {
             throw new ApiException("Failed to communicate with invoice service: " + e.getMessage());
         } catch (Exception e) {
             // Any other unexpected exceptions
-            throw new ApiException("Failed to connect to invoice service at " + INVOICE_APP_URL + ": " + e.getMessage());
+            throw new ApiException("Failed to connect to invoice service at " + DbConstants.InvoiceService.URL + ": " + e.getMessage());
         }
     }
 }
@@ -0,0 +1,132 @@
+package org.example.api;
+
+import org.example.dao.InvoiceJobDao;
+import org.example.exception.ApiException;
+import org.example.model.constants.DbConstants;
+import org.example.model.enums.InvoiceJobStatus;
+import org.example.pojo.InvoiceJobPojo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Queue of invoice generation jobs, one per order. Jobs are claimed by InvoiceJobWorker and
+ * retried with exponential backoff until they succeed or run out of attempts.
+ */
+@Service
+@Transactional
+public class InvoiceJobApi extends AbstractApi<InvoiceJobPojo> {
+
+    public InvoiceJobApi() {
+        super(InvoiceJobPojo.class);
+    }
+
+    /**
+     * Queue invoice generation for the order. An order that already has a job keeps it, except
+     * that a FAILED job starts over; an order that is already invoiced gets a DONE job.
+     */
+    public InvoiceJobPojo submit(Integer orderId, boolean invoiced) {
+        validateId(orderId);
+        InvoiceJobPojo job = dao.select(orderId);
+        ZonedDateTime now = ZonedDateTime.now();
+        if (job == null) {
+            job = new InvoiceJobPojo();
+            job.setOrderId(orderId);
+            job.setStatus(invoiced ? InvoiceJobStatus.DONE : InvoiceJobStatus.PENDING);
+            job.setNextAttemptAt(now);
+            dao.insert(job);
+        } else if (job.getStatus() == InvoiceJobStatus.FAILED) {
+            job.setStatus(invoiced ? InvoiceJobStatus.DONE : InvoiceJobStatus.PENDING);
+            job.setAttempts(0);
+            job.setNextAttemptAt(now);
+            job.setLastError(null);
+        }
+        return job;
+    }
+
+    @Transactional(readOnly = true)
+    public InvoiceJobPojo getByOrderId(Integer orderId) {
+        validateId(orderId);
+        InvoiceJobPojo job = dao.select(orderId);
+        if (job == null) {
+            throw new ApiException("No invoice job for order ID: " + orderId);
+        }
+        return job;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isInProgress(Integer orderId) {
+        InvoiceJobPojo job = dao.select(orderId);
+        return job != null && (job.getStatus() == InvoiceJobStatus.PENDING || job.getStatus() == InvoiceJobStatus.RUNNING);
+    }
+
+    /**
+     * Those of the orders whose job is PENDING or RUNNING, in one query
+     */
+    @Transactional(readOnly = true)
+    public Set<Integer> getInProgressOrderIds(Collection<Integer> orderIds) {
+        Set<Integer> inProgress = new HashSet<>();
+        for (InvoiceJobPojo job : dao.selectByIds(orderIds)) {
+            if (job.getStatus() == InvoiceJobStatus.PENDING || job.getStatus() == InvoiceJobStatus.RUNNING) {
+                inProgress.add(job.getOrderId());
+            }
+        }
+        return inProgress;
+    }
+
+    /**
+     * Claim up to limit due jobs for this worker: each is marked RUNNING under a lease and its
+     * attempt is counted. Returns the order IDs claimed.
+     */
+    public List<Integer> claimDue(int limit) {
+        ZonedDateTime now = ZonedDateTime.now();
+        List<Integer> orderIds = new ArrayList<>();
+        for (InvoiceJobPojo job : ((InvoiceJobDao) dao).selectDueForUpdate(now, limit)) {
+            job.setStatus(InvoiceJobStatus.RUNNING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setNextAttemptAt(now.plus(Duration.ofMillis(DbConstants.InvoiceJobs.LEASE_MILLIS)));
+            orderIds.add(job.getOrderId());
+        }
+        return orderIds;
+    }
+
+    public void markDone(Integer orderId) {
+        InvoiceJobPojo job = getByOrderId(orderId);
+        job.setStatus(InvoiceJobStatus.DONE);
+        job.setLastError(null);
+    }
+
+    /**
+     * Record a failed attempt: the job is retried after a backoff, or marked FAILED once it has
+     * been attempted maxAttempts times
+     */
+    public void markFailed(Integer orderId, String error, int maxAttempts) {
+        InvoiceJobPojo job = getByOrderId(orderId);
+        if (error != null && error.length() > DbConstants.InvoiceJobs.LAST_ERROR_LENGTH) {
+            error = error.substring(0, DbConstants.InvoiceJobs.LAST_ERROR_LENGTH);
+        }
+        job.setLastError(error);
+        if (job.getAttempts() >= maxAttempts) {
+            job.setStatus(InvoiceJobStatus.FAILED);
+            return;
+        }
+        job.setStatus(InvoiceJobStatus.PENDING);
+        job.setNextAttemptAt(ZonedDateTime.now().plus(Duration.ofMillis(backoffMillis(job.getAttempts()))));
+    }
+
+    /**
+     * Delay before the retry that follows the given attempt: BACKOFF_BASE_MILLIS after the first,
+     * doubling each time up to BACKOFF_MAX_MILLIS
+     */
+    public static long backoffMillis(int attempts) {
+        int doublings = Math.max(0, Math.min(attempts - 1, 30));
+        return Math.min(DbConstants.InvoiceJobs.BACKOFF_BASE_MILLIS << doublings, DbConstants.InvoiceJobs.BACKOFF_MAX_MILLIS);
+    }
+}
@@ -1,35 +1,81 @@
 package org.example.api;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.example.dao.OrderItemDao;
 import org.example.dao.OrderDao;
+import org.example.dao.OrderIdGramDao;
+import org.example.dao.RebuildProgressDao;
 import org.example.exception.ApiException;
+import org.example.model.constants.DbConstants;
 import org.example.model.enums.OrderStatus;
 import org.example.pojo.OrderItemPojo;
 import org.example.pojo.OrderPojo;
+import org.example.pojo.RebuildProgressPojo;
 import org.example.model.data.PaginationResponse;
 import org.example.model.form.PaginationRequest;
 import org.example.model.form.PaginationQuery;
+import org.example.util.DbNamedLock;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
 import java.time.LocalDate;
 import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 public class OrderApi extends AbstractApi<OrderPojo> {
 
+    private static final String ID_SEARCH_INDEX_LOCK = "pos_order_id_gram_rebuild";
+    // Position is the order ID below which orders are still to be seeded
+    private static final String ID_SEARCH_INDEX_PROGRESS = "order_id_gram";
+
     @Autowired
     private OrderItemDao orderItemDao;
 
+    @Autowired
+    private OrderIdGramDao orderIdGramDao;
+
+    @Autowired
+    private RebuildProgressDao rebuildProgressDao;
+
     @Autowired
     private InventoryApi inventoryApi;
 
     @Autowired
     private InvoiceApi invoiceApi;
 
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SalesFactApi salesFactApi;
+
+    private final ScheduledExecutorService indexSyncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-id-index-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean indexSyncScheduled = new AtomicBoolean();
+
     public OrderApi() {
         super(OrderPojo.class);
     }
@@ -43,6 +89,85 @@ public class OrderApi extends AbstractApi<OrderPojo> {
         orderPojo.setDate(Objects.nonNull(orderPojo.getDate()) ? orderPojo.getDate() : ZonedDateTime.now());
         orderPojo.setStatus(OrderStatus.CREATED);
         dao.insert(orderPojo);
+        orderIdGramDao.insertForOrder(orderPojo.getId());
+    }
+
+    // Seed the index once the context is up, then keep sweeping recent orders; startup is not blocked on it
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduleIdSearchIndexSync() {
+        // The root and web contexts both publish a refresh event; schedule only once
+        if (!indexSyncScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        indexSyncExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                syncIdSearchIndex();
+            } catch (Exception e) {
+                System.err.println("Order ID search index sync failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, 0, DbConstants.OrderSearch.SYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdownIdSearchIndexSync() {
+        indexSyncExecutor.shutdownNow();
+    }
+
+    /**
+     * Bring the order ID search index up to date. Until the seed has completed, this writes grams
+     * for existing orders, highest ID first, one batch per transaction together with the seed's
+     * progress, so a seed that was cut short resumes below the last batch it finished. Once it
+     * has, this sweeps the orders created since shortly before the previous sweep (or the seed)
+     * started, which picks up orders whose grams were not written by the node that created them.
+     * Gram inserts skip grams already present, so the seed, the sweeps and OrderApi.add never
+     * collide. Only the node holding the lock runs it; the others skip it.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void syncIdSearchIndex() throws SQLException {
+        try (DbNamedLock lock = DbNamedLock.tryAcquire(dataSource, ID_SEARCH_INDEX_LOCK, 0)) {
+            if (lock == null) {
+                return;
+            }
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            ZonedDateTime sweepStart = ZonedDateTime.now();
+            RebuildProgressPojo progress = transactionTemplate.execute(status ->
+                rebuildProgressDao.getOrCreate(ID_SEARCH_INDEX_PROGRESS, Integer.MAX_VALUE));
+            if (!progress.isCompleted()) {
+                seedIdSearchIndex(transactionTemplate, (int) progress.getPosition());
+                return;
+            }
+            ZonedDateTime since = progress.getSyncedAt()
+                .minus(DbConstants.OrderSearch.SYNC_OVERLAP_MILLIS, ChronoUnit.MILLIS);
+            Integer afterId = null;
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                Integer after = afterId;
+                afterId = transactionTemplate.execute(status -> orderIdGramDao.indexOrdersCreatedSince(since, after));
+            } while (afterId != null);
+            transactionTemplate.executeWithoutResult(status -> rebuildProgressDao.sync(ID_SEARCH_INDEX_PROGRESS, sweepStart));
+        }
+    }
+
+    private void seedIdSearchIndex(TransactionTemplate transactionTemplate, Integer belowId) {
+        while (belowId != null) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            Integer below = belowId;
+            belowId = transactionTemplate.execute(status -> {
+                Integer lowestId = orderIdGramDao.indexOrdersBelow(below);
+                if (lowestId == null) {
+                    rebuildProgressDao.complete(ID_SEARCH_INDEX_PROGRESS);
+                } else {
+                    rebuildProgressDao.advance(ID_SEARCH_INDEX_PROGRESS, lowestId);
+                }
+                return lowestId;
+            });
+        }
     }
 
     /**
@@ -61,9 +186,44 @@ public class OrderApi extends AbstractApi<OrderPojo> {
         orderItemDao.insert(orderItemPojo);
     }
 
+    /**
+     * Add all items of an order; the inserts go out as JDBC batches on flush
+     */
+    public void addOrderItems(List<OrderItemPojo> orderItemPojos) {
+        for (OrderItemPojo orderItemPojo : orderItemPojos) {
+            if (Objects.isNull(orderItemPojo)) {
+                throw new ApiException("Order item cannot be null");
+            }
+            if (Objects.isNull(orderItemPojo.getOrderId())) {
+                throw new ApiException("Order ID cannot be null");
+            }
+            if (Objects.isNull(orderItemPojo.getProductId())) {
+                throw new ApiException("Product ID cannot be null");
+            }
+        }
+        orderItemDao.insertAll(orderItemPojos);
+    }
+
+    /**
+     * Get the items of several orders in one query
+     */
+    @Transactional(readOnly = true)
+    public List<OrderItemPojo> getOrderItemsByOrderIds(Collection<Integer> orderIds) {
+        return orderItemDao.selectByOrderIds(orderIds);
+    }
+
+    /**
+     * Get all orders with the given IDs in one query
+     */
+    @Transactional(readOnly = true)
+    public List<OrderPojo> getByIds(Collection<Integer> ids) {
+        return dao.selectByIds(ids);
+    }
+
     /**
      * Get order item by ID directly through OrderApi
      */
+    @Transactional(readOnly = true)
     public OrderItemPojo getOrderItem(Integer id) {
         if (Objects.isNull(id)) {
             throw new ApiException("Order item ID cannot be null");
@@ -74,6 +234,7 @@ public class OrderApi extends AbstractApi<OrderPojo> {
     /**
      * Get order items by order ID directly through OrderApi
      */
+    @Transactional(readOnly = true)
     public List<OrderItemPojo> getOrderItemsByOrderId(Integer orderId) {
         if (Objects.isNull(orderId)) {
             throw new ApiException("Order ID cannot be null");
@@ -90,8 +251,29 @@ public class OrderApi extends AbstractApi<OrderPojo> {
         }
         OrderPojo order = dao.select(id);
         if (order == null) throw new ApiException("Order not found");
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(status);
         dao.update(id, order);
+        if (status == OrderStatus.INVOICED && previousStatus != OrderStatus.INVOICED) {
+            salesFactApi.recordInvoiced(order);
+        }
+    }
+
+    /**
+     * Set the status of every order with these IDs, loading them in one query; the updates are
+     * flushed as one JDBC batch. Missing IDs are ignored.
+     */
+    public void updateStatuses(Collection<Integer> ids, OrderStatus status) {
+        if (Objects.isNull(status)) {
+            throw new ApiException("Order status cannot be null");
+        }
+        for (OrderPojo order : dao.selectByIds(ids)) {
+            OrderStatus previousStatus = order.getStatus();
+            order.setStatus(status);
+            if (status == OrderStatus.INVOICED && previousStatus != OrderStatus.INVOICED) {
+                salesFactApi.recordInvoiced(order);
+            }
+        }
     }
 
     /**
@@ -100,11 +282,13 @@ public class OrderApi extends AbstractApi<OrderPojo> {
      * @param endDate End date (inclusive)
      * @return List of orders within the date range
      */
+    @Transactional(readOnly = true)
     public List<OrderPojo> getOrdersByDateRange(LocalDate startDate, LocalDate endDate) {
         validateDateRange(startDate, endDate);
         return ((OrderDao) dao).findOrdersByDateRange(startDate, endDate);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderPojo> findByUserId(String userId) {
         return ((OrderDao) dao).findByUserId(userId);
     }
@@ -112,13 +296,14 @@ public class OrderApi extends AbstractApi<OrderPojo> {
     // ========== SUBSTRING SEARCH METHODS ==========
 
     /**
-     * Find orders by ID substring matching.
+     * Find orders by ID substring matching, most recent first, through the order ID n-gram index.
      * This allows finding orders where the search term appears exactly as a substring in the order ID.
      * 
      * @param searchId The ID substring to search for
      * @param maxResults Maximum number of results to return
      * @return List of orders where the search term appears as a substring in the ID
      */
+    @Transactional(readOnly = true)
     public List<OrderPojo> findOrdersBySubstringId(String searchId, int maxResults) {
         validateString(searchId, "Search ID");
         validatePositive(maxResults, "Max results");
@@ -132,6 +317,7 @@ public class OrderApi extends AbstractApi<OrderPojo> {
      * @param request Pagination request
      * @return Paginated response with orders containing the substring
      */
+    @Transactional(readOnly = true)
     public PaginationResponse<OrderPojo> findOrdersBySubstringIdPaginated(
             String searchId, 
             PaginationRequest request) {
@@ -148,16 +334,41 @@ public class OrderApi extends AbstractApi<OrderPojo> {
      * @param searchId The ID substring to search for
      * @return Number of orders containing the substring
      */
+    @Transactional(readOnly = true)
     public long countOrdersBySubstringId(String searchId) {
         validateString(searchId, "Search ID");
         return ((OrderDao) dao).countOrdersBySubstringId(searchId);
     }
 
+    // ========== EXPORT METHODS ==========
+
+    /**
+     * Stream orders to the visitor in ID order, limited to the given IST dates when both are set.
+     * The transaction stays open for the whole stream; returns the number of orders visited.
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(LocalDate startDate, LocalDate endDate, Consumer<OrderPojo> visitor) {
+        if (startDate == null && endDate == null) {
+            return dao.scrollAll(visitor);
+        }
+        validateDateRange(startDate, endDate);
+        return ((OrderDao) dao).scrollByDateRange(startDate, endDate, visitor);
+    }
+
+    /**
+     * Stream every order item to the visitor in ID order
+     */
+    @Transactional(readOnly = true)
+    public long exportOrderItems(Consumer<OrderItemPojo> visitor) {
+        return orderItemDao.scrollAll(visitor);
+    }
+
     // ========== PAGINATION METHODS ==========
 
     /**
      * Get all orders with pagination support, ordered by date descending (most recent first).
      */
+    @Transactional(readOnly = true)
     public PaginationResponse<OrderPojo> getAllPaginated(PaginationRequest request) {
         return ((OrderDao) dao).getPaginated(PaginationQuery.all(request));
     }
@@ -165,6 +376,7 @@ public class OrderApi extends AbstractApi<OrderPojo> {
     /**
      * Get orders by user ID with pagination support, ordered by date descending (most recent first).
      */
+    @Transactional(readOnly = true)
     public PaginationResponse<OrderPojo> getByUserIdPaginated(String userId, PaginationRequest request) {
         validateString(userId, "User ID");
         return ((OrderDao) dao).getByUserIdPaginated(userId, request);
@@ -173,6 +385,7 @@ public class OrderApi extends AbstractApi<OrderPojo> {
     /**
      * Get orders by date range with pagination support, ordered by date descending (most recent first).
      */
+    @Transactional(readOnly = true)
     public PaginationResponse<OrderPojo> getByDateRangePaginated(LocalDate startDate, LocalDate endDate, PaginationRequest request) {
         validateDateRange(startDate, endDate);
         return ((OrderDao) dao).getByDateRangePaginated(startDate, endDate, request);
@@ -7,8 +7,10 @@ import org.example.dao.ProductDao;
 import org.example.dao.InventoryDao;
 import org.example.model.data.PaginationResponse;
 import org.example.model.form.PaginationRequest;
+import org.example.util.SearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
@@ -22,28 +24,81 @@ public class ProductApi extends AbstractApi<ProductPojo> {
     @Autowired
     private ClientApi clientApi;
 
+    @Autowired
+    private ProductBarcodeIndex barcodeIndex;
+
+    @Autowired
+    private CatalogSearchIndex searchIndex;
+
     public ProductApi() {
         super(ProductPojo.class);
     }
 
+    @Override
+    public void add(ProductPojo product) {
+        super.add(product);
+        barcodeIndex.putAfterCommit(product);
+        searchIndex.putAfterCommit(product);
+    }
+
+    @Override
+    public void update(Integer id, ProductPojo product) {
+        super.update(id, product);
+        ProductPojo updated = dao.select(id);
+        barcodeIndex.putAfterCommit(updated);
+        searchIndex.putAfterCommit(updated);
+    }
+
+    /**
+     * Name and barcode searches are answered from the catalog search index
+     */
+    @Override
+    protected SearchIndex getSearchIndex() {
+        return searchIndex.getProducts();
+    }
+
+    /**
+     * Get all products with the given IDs in one query
+     */
+    @Transactional(readOnly = true)
+    public List<ProductPojo> getByIds(Collection<Integer> ids) {
+        return dao.selectByIds(ids);
+    }
+
+    @Transactional(readOnly = true)
     public ProductPojo getByName(String name) {
         return super.getByName(name); // Uses abstract method
     }
 
+    @Transactional(readOnly = true)
     public List<ProductPojo> getByNameLike(String name) {
         return super.getByNameLike(name); // Uses abstract method
     }
 
+    /**
+     * Answered from the in-memory barcode index when possible; misses go to the database
+     * and are indexed once the transaction commits
+     */
+    @Transactional(readOnly = true)
     public ProductPojo getByBarcode(String barcode) {
         validateString(barcode, "Barcode");
-        return getByField("barcode", barcode);
+        ProductPojo indexed = barcodeIndex.get(barcode);
+        if (indexed != null) {
+            return indexed;
+        }
+        ProductPojo product = getByField("barcode", barcode);
+        barcodeIndex.putAfterCommit(product);
+        return product;
     }
 
+    @Transactional(readOnly = true)
     public List<ProductPojo> getByBarcodeLike(String barcode) {
         validateString(barcode, "Barcode");
-        return dao.selectByFieldLike("barcode", barcode);
+        List<ProductPojo> indexed = searchIndexed("barcode", barcode.trim());
+        return indexed != null ? indexed : dao.selectByFieldLike("barcode", barcode);
     }
 
+    @Transactional(readOnly = true)
     public List<ProductPojo> getByClientId(Integer clientId) {
         if (Objects.isNull(clientId)) {
             throw new ApiException("Client ID cannot be null");
@@ -51,6 +106,7 @@ public class ProductApi extends AbstractApi<ProductPojo> {
         return ((ProductDao) dao).selectByClientId(clientId);
     }
 
+    @Transactional(readOnly = true)
     public List<ProductPojo> getByClientName(String clientName) {
         validateString(clientName, "Client name");
         // Get client ID from client name first
@@ -67,6 +123,7 @@ public class ProductApi extends AbstractApi<ProductPojo> {
         }
     }
 
+    @Transactional(readOnly = true)
     public boolean hasProductsByClientId(Integer clientId) {
         if (Objects.isNull(clientId)) {
             return false;
@@ -74,6 +131,7 @@ public class ProductApi extends AbstractApi<ProductPojo> {
         return ((ProductDao) dao).hasProductsByClientId(clientId);
     }
 
+    @Transactional(readOnly = true)
     public boolean hasProductsByClientName(String clientName) {
         if (Objects.isNull(clientName) || clientName.trim().isEmpty()) {
             return false;
@@ -89,10 +147,12 @@ public class ProductApi extends AbstractApi<ProductPojo> {
         }
     }
 
+    @Transactional(readOnly = true)
     public PaginationResponse<ProductPojo> getByNameLikePaginated(String name, PaginationRequest request) {
         return getByFieldLikePaginatedWithValidation("name", name, request, "Product name");
     }
 
+    @Transactional(readOnly = true)
     public PaginationResponse<ProductPojo> getByClientIdPaginated(Integer clientId, PaginationRequest request) {
         if (Objects.isNull(clientId)) {
             throw new ApiException("Client ID cannot be null");
@@ -100,6 +160,7 @@ public class ProductApi extends AbstractApi<ProductPojo> {
         return ((ProductDao) dao).selectByClientIdPaginated(clientId, request);
     }
 
+    @Transactional(readOnly = true)
     public PaginationResponse<ProductPojo> getByClientNamePaginated(String clientName, PaginationRequest request) {
         validateString(clientName, "Client name");
         try {
@@ -0,0 +1,167 @@
+package org.example.api;
+
+import org.example.dao.ProductDao;
+import org.example.model.constants.DbConstants;
+import org.example.pojo.ProductPojo;
+import org.example.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Memory-resident barcode to product index in front of ProductApi.getByBarcode.
+ *
+ * The index is warmed at startup and kept current by ProductApi: every insert, update and
+ * database read schedules a write of the committed product, applied after the transaction
+ * commits so a rollback never leaves a product in the index. Entries carry the entity version,
+ * so a read that raced with an update cannot put the older copy back. Past maxEntries the least
+ * recently used product is evicted. Callers get their own copy of the indexed product.
+ *
+ * Only writes made on this node reach its index, so entries expire ttlMillis after they were
+ * indexed, like the product cache region; a product changed on another node is read again from
+ * the database at most that long afterwards.
+ */
+@Service
+public class ProductBarcodeIndex {
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static class Entry {
+        private final ProductPojo product;
+        private final long expiresAtMillis;
+
+        private Entry(ProductPojo product, long expiresAtMillis) {
+            this.product = product;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final AtomicBoolean warmed = new AtomicBoolean();
+
+    // Both maps are guarded by this; byBarcode is in access order for LRU eviction
+    private final LinkedHashMap<String, Entry> byBarcode;
+    private final Map<Integer, String> barcodeById = new HashMap<>();
+
+    public ProductBarcodeIndex(
+            @Value("${product.barcode-index.max-entries:" + DbConstants.BarcodeIndex.MAX_ENTRIES + "}") int maxEntries,
+            @Value("${product.barcode-index.ttl-ms:" + DbConstants.BarcodeIndex.TTL_MILLIS + "}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.byBarcode = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ProductBarcodeIndex.this.maxEntries) {
+                    barcodeById.remove(eldest.getValue().product.getId());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // The root and web contexts both publish a refresh event; load only once
+    @EventListener(ContextRefreshedEvent.class)
+    public void warmUp() {
+        if (!warmed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            List<ProductPojo> products = transactionTemplate.execute(status -> productDao.selectFirst(maxEntries));
+            if (products != null) {
+                for (ProductPojo product : products) {
+                    apply(product);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Barcode index warm-up failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copy of the indexed product with this barcode, or null when it is not indexed or has expired
+     */
+    public synchronized ProductPojo get(String barcode) {
+        Entry entry = byBarcode.get(barcode);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+            byBarcode.remove(barcode);
+            barcodeById.remove(entry.product.getId());
+            return null;
+        }
+        return copy(entry.product);
+    }
+
+    /**
+     * Index the product once the current transaction commits, or straight away outside one
+     */
+    public void putAfterCommit(ProductPojo product) {
+        if (product == null || product.getId() == null || product.getBarcode() == null) {
+            return;
+        }
+        // The entity is read at commit, so later changes in the same transaction are included
+        AfterCommit.run(() -> apply(product));
+    }
+
+    public synchronized int size() {
+        return byBarcode.size();
+    }
+
+    public synchronized void clear() {
+        byBarcode.clear();
+        barcodeById.clear();
+    }
+
+    private synchronized void apply(ProductPojo product) {
+        String currentBarcode = barcodeById.get(product.getId());
+        if (currentBarcode != null) {
+            Entry current = byBarcode.get(currentBarcode);
+            if (current != null && current.product.getVersion() > product.getVersion()) {
+                return;
+            }
+            // Drops the old key when the barcode changed
+            byBarcode.remove(currentBarcode);
+        }
+        ProductPojo snapshot = copy(product);
+        Entry displaced = byBarcode.put(snapshot.getBarcode(), new Entry(snapshot, System.currentTimeMillis() + ttlMillis));
+        if (displaced != null && !Objects.equals(displaced.product.getId(), snapshot.getId())) {
+            // Another product used to have this barcode
+            barcodeById.remove(displaced.product.getId());
+        }
+        barcodeById.put(snapshot.getId(), snapshot.getBarcode());
+    }
+
+    private static ProductPojo copy(ProductPojo product) {
+        ProductPojo copy = new ProductPojo();
+        copy.setId(product.getId());
+        copy.setBarcode(product.getBarcode());
+        copy.setClientId(product.getClientId());
+        copy.setName(product.getName());
+        copy.setMrp(product.getMrp());
+        copy.setImageUrl(product.getImageUrl());
+        copy.setVersion(product.getVersion());
+        copy.setCreatedAt(product.getCreatedAt());
+        copy.setUpdatedAt(product.getUpdatedAt());
+        return copy;
+    }
+}
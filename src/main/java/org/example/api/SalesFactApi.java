@@ -0,0 +1,193 @@
+package org.example.api;
+
+import jakarta.annotation.PreDestroy;
+import org.example.dao.OrderDao;
+import org.example.dao.RebuildProgressDao;
+import org.example.dao.SalesFactDao;
+import org.example.exception.ApiException;
+import org.example.pojo.OrderPojo;
+import org.example.pojo.RebuildProgressPojo;
+import org.example.pojo.SalesFactOrderPojo;
+import org.example.pojo.SalesFactPojo;
+import org.example.util.DbNamedLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Maintains the pre-aggregated pos_sales_fact table, keyed by (IST date, clientId, productId).
+ * Writes happen inside the caller's transaction so facts never drift from the orders they describe.
+ */
+@Service
+@Transactional
+public class SalesFactApi {
+
+    private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
+    private static final int REBUILD_CHUNK_DAYS = 31;
+    private static final String REBUILD_LOCK = "pos_sales_fact_rebuild";
+    // Position is the epoch day below which chunks are still to be rebuilt
+    private static final String REBUILD_PROGRESS = "pos_sales_fact";
+
+    @Autowired
+    private SalesFactDao salesFactDao;
+
+    @Autowired
+    private OrderDao orderDao;
+
+    @Autowired
+    private RebuildProgressDao rebuildProgressDao;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sales-fact-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Fold a newly created order into the fact table. Order items must already be persisted.
+     */
+    public void recordOrder(OrderPojo order) {
+        validateOrder(order);
+        List<SalesFactDao.FactLine> lines = salesFactDao.selectLinesByOrderId(order.getId());
+        salesFactDao.addOrderLines(toSaleDate(order), lines);
+    }
+
+    /**
+     * Fold an order that has just moved to INVOICED into the invoiced measures of the fact table.
+     */
+    public void recordInvoiced(OrderPojo order) {
+        validateOrder(order);
+        List<SalesFactDao.FactLine> lines = salesFactDao.selectLinesByOrderId(order.getId());
+        salesFactDao.addInvoicedLines(toSaleDate(order), lines);
+    }
+
+    // Kick off the seed once the context is up so startup is not blocked on it
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduleRebuild() {
+        rebuildExecutor.submit(() -> {
+            try {
+                rebuildMissing();
+            } catch (Exception e) {
+                System.err.println("Sales fact rebuild failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdownRebuild() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * Fold existing orders into the fact table, newest chunk of days first, each chunk in its own
+     * transaction together with the rebuild's progress, so a rebuild that was cut short resumes
+     * below the last chunk it finished. Orders the live path has already folded in are skipped
+     * through pos_sales_fact_order, and everything is added with the same upserts the live path
+     * uses, so orders created or invoiced while the rebuild runs are neither lost nor counted
+     * twice. Only the node holding the rebuild lock runs it; the others skip it.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildMissing() throws SQLException {
+        try (DbNamedLock lock = DbNamedLock.tryAcquire(dataSource, REBUILD_LOCK, 0)) {
+            if (lock == null) {
+                return;
+            }
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            // Starts from tomorrow so orders placed earlier today, before this node came up, are included
+            long startDay = LocalDate.now(IST_ZONE).plusDays(1).toEpochDay();
+            RebuildProgressPojo progress = transactionTemplate.execute(status ->
+                rebuildProgressDao.getOrCreate(REBUILD_PROGRESS, startDay));
+            if (progress.isCompleted()) {
+                return;
+            }
+            LocalDate firstOrderDate = transactionTemplate.execute(status ->
+                orderDao.countAll() > 0 ? orderDao.findEarliestOrderDate() : null);
+            LocalDate chunkEnd = LocalDate.ofEpochDay(progress.getPosition());
+            while (firstOrderDate != null && chunkEnd.isAfter(firstOrderDate)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                LocalDate chunkStart = chunkEnd.minusDays(REBUILD_CHUNK_DAYS);
+                LocalDate end = chunkEnd;
+                transactionTemplate.executeWithoutResult(status -> {
+                    rebuildChunk(chunkStart, end);
+                    rebuildProgressDao.advance(REBUILD_PROGRESS, chunkStart.toEpochDay());
+                });
+                chunkEnd = chunkStart;
+            }
+            transactionTemplate.executeWithoutResult(status -> rebuildProgressDao.complete(REBUILD_PROGRESS));
+        }
+    }
+
+    // Fold in whatever orders placed in [chunkStart, chunkEnd) are still missing from the facts
+    private void rebuildChunk(LocalDate chunkStart, LocalDate chunkEnd) {
+        List<SalesFactDao.FactLine> lines = salesFactDao.selectLinesByDateRange(
+            chunkStart.atStartOfDay(IST_ZONE), chunkEnd.atStartOfDay(IST_ZONE));
+
+        Map<SalesFactPojo.Key, SalesFactPojo> deltas = new HashMap<>();
+        List<SalesFactOrderPojo> orderRows = new ArrayList<>();
+        for (SalesFactDao.FactLine line : lines) {
+            boolean count = !line.isCounted();
+            boolean countInvoice = line.isInvoiced() && !line.isInvoiceCounted();
+            if (!count && !countInvoice) {
+                continue;
+            }
+            SalesFactPojo.Key key = new SalesFactPojo.Key();
+            key.setSaleDate(line.getSaleDate());
+            key.setClientId(line.getClientId());
+            key.setProductId(line.getProductId());
+            SalesFactPojo delta = deltas.computeIfAbsent(key, k -> SalesFactDao.newFact(line.getSaleDate(), line));
+            if (count) {
+                delta.setQuantity(delta.getQuantity() + line.getQuantity());
+                delta.setRevenuePaise(delta.getRevenuePaise() + line.getRevenuePaise());
+                delta.setOrderCount(delta.getOrderCount() + 1);
+            }
+            if (countInvoice) {
+                delta.setInvoicedQuantity(delta.getInvoicedQuantity() + line.getQuantity());
+                delta.setInvoicedRevenuePaise(delta.getInvoicedRevenuePaise() + line.getRevenuePaise());
+                delta.setInvoicedOrderCount(delta.getInvoicedOrderCount() + 1);
+            }
+            orderRows.add(SalesFactDao.newOrderRow(line.getSaleDate(), line, count, countInvoice));
+        }
+        salesFactDao.addFacts(new ArrayList<>(deltas.values()));
+        salesFactDao.recordOrderRows(orderRows);
+    }
+
+    private LocalDate toSaleDate(OrderPojo order) {
+        return order.getDate().withZoneSameInstant(IST_ZONE).toLocalDate();
+    }
+
+    private void validateOrder(OrderPojo order) {
+        if (Objects.isNull(order) || Objects.isNull(order.getId())) {
+            throw new ApiException("Order and order ID cannot be null");
+        }
+        if (Objects.isNull(order.getDate())) {
+            throw new ApiException("Order date cannot be null");
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package org.example.api;
 
+import org.example.util.AfterCommit;
+import org.example.util.AuthTokenService;
+import org.example.util.AuthenticationCache;
 import org.example.util.SecurityConfig;
 import org.example.dao.UserDao;
 import org.example.pojo.UserPojo;
@@ -25,6 +28,12 @@ public class UserApi implements UserDetailsService {
     @Autowired
     private UserDao userDao;
 
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
+    @Autowired
+    private AuthTokenService authTokenService;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     // Basic CRUD operations
@@ -61,7 +70,13 @@ public class UserApi implements UserDetailsService {
         if (existingUser == null) {
             throw new ApiException("User with ID " + id + " not found");
         }
+        String previousEmail = existingUser.getEmail();
         userDao.update(id, userPojo);
+        // The old password or role must stop working once the change is committed
+        AfterCommit.run(() -> {
+            authenticationCache.invalidate(previousEmail);
+            authTokenService.revoke(previousEmail);
+        });
     }
 
 
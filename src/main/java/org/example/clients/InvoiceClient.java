@@ -1,27 +1,131 @@
 package org.example.clients;
 
+import org.example.exception.ApiException;
+import org.example.model.constants.DbConstants;
+import org.example.model.data.HttpClientStatsData;
 import org.example.model.data.InvoiceAppForm;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.example.util.CircuitBreaker;
+import org.example.util.HttpClientMetrics;
+import org.example.util.InvoiceStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpMethod;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Calls the invoice service behind a bulkhead and a circuit breaker. At most maxConcurrentCalls
+ * run at once, so a slow service cannot tie up every request thread; and after repeated failures
+ * calls are refused straight away until the breaker lets a trial call through. A 4xx response
+ * means the service is up, so it does not count against the breaker.
+ */
 @Component
 public class InvoiceClient {
 
-    @Autowired
-    private RestTemplate restTemplate;
+    private final RestTemplate restTemplate;
+    private final String invoiceAppUrl;
+    private final int maxConcurrentCalls;
+    private final long bulkheadWaitMillis;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker breaker;
+    private final HttpClientMetrics metrics = new HttpClientMetrics("invoice-service");
 
-    private static final String INVOICE_APP_URL = "http://localhost:8081/api/invoice";
+    public InvoiceClient(
+            RestTemplate restTemplate,
+            @Value("${invoice.client.url:" + DbConstants.InvoiceService.URL + "}") String invoiceAppUrl,
+            @Value("${invoice.client.max-concurrent-calls:" + DbConstants.InvoiceService.MAX_CONCURRENT_CALLS + "}") int maxConcurrentCalls,
+            @Value("${invoice.client.bulkhead-wait-ms:" + DbConstants.InvoiceService.BULKHEAD_WAIT_MILLIS + "}") long bulkheadWaitMillis,
+            @Value("${invoice.client.breaker.failure-threshold:" + DbConstants.InvoiceService.BREAKER_FAILURE_THRESHOLD + "}") int failureThreshold,
+            @Value("${invoice.client.breaker.open-ms:" + DbConstants.InvoiceService.BREAKER_OPEN_MILLIS + "}") long breakerOpenMillis) {
+        this.restTemplate = restTemplate;
+        this.invoiceAppUrl = invoiceAppUrl;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.bulkheadWaitMillis = bulkheadWaitMillis;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.breaker = new CircuitBreaker(failureThreshold, breakerOpenMillis);
+    }
 
     public String callInvoiceService(InvoiceAppForm invoiceAppForm) {
+        return guarded(() -> restTemplate.postForEntity(invoiceAppUrl, request(invoiceAppForm), String.class).getBody());
+    }
+
+    /**
+     * Call the service and decode the base64 PDF it returns straight into the invoice store, so
+     * the response is never held in memory
+     */
+    public InvoiceStore.StoredInvoice writeInvoice(InvoiceAppForm invoiceAppForm, InvoiceStore invoiceStore) {
+        return guarded(() -> restTemplate.execute(invoiceAppUrl, HttpMethod.POST,
+            restTemplate.httpEntityCallback(request(invoiceAppForm)),
+            response -> invoiceStore.writeBase64(response.getBody())));
+    }
+
+    private HttpEntity<InvoiceAppForm> request(InvoiceAppForm invoiceAppForm) {
         HttpHeaders headers = new HttpHeaders();
         headers.set("Content-Type", "application/json");
-        HttpEntity<InvoiceAppForm> entity = new HttpEntity<>(invoiceAppForm, headers);
+        return new HttpEntity<>(invoiceAppForm, headers);
+    }
+
+    private <T> T guarded(Supplier<T> call) {
+        acquireBulkhead();
+        try {
+            if (!breaker.tryAcquire()) {
+                metrics.recordBreakerRejection();
+                throw new ApiException("Invoice service is not available. Please try again later.");
+            }
+            long start = System.nanoTime();
+            try {
+                T result = call.get();
+                metrics.recordCall(System.nanoTime() - start, true);
+                breaker.onSuccess();
+                return result;
+            } catch (HttpClientErrorException e) {
+                metrics.recordCall(System.nanoTime() - start, false);
+                breaker.onSuccess();
+                throw e;
+            } catch (CancellationException e) {
+                // The JDK request factory cancels the exchange when the read timeout passes and
+                // does not always translate that into a ResourceAccessException itself
+                metrics.recordCall(System.nanoTime() - start, false);
+                breaker.onFailure();
+                throw new ResourceAccessException("Invoice service did not respond in time");
+            } catch (RuntimeException e) {
+                metrics.recordCall(System.nanoTime() - start, false);
+                breaker.onFailure();
+                throw e;
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public HttpClientStatsData getStats() {
+        HttpClientStatsData data = metrics.getStats();
+        data.setBreakerState(breaker.getState().name());
+        data.setBreakerOpenings(breaker.getOpenings());
+        data.setMaxConcurrentCalls(maxConcurrentCalls);
+        data.setInFlightCalls(maxConcurrentCalls - bulkhead.availablePermits());
+        return data;
+    }
 
-        ResponseEntity<String> response = restTemplate.postForEntity(INVOICE_APP_URL, entity, String.class);
-        return response.getBody();
+    private void acquireBulkhead() {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting to call the invoice service");
+        }
+        if (!acquired) {
+            metrics.recordBulkheadRejection();
+            throw new ApiException("Invoice service is busy. Please try again later.");
+        }
     }
 }
@@ -2,36 +2,108 @@ package org.example.config;
 
 import java.util.Properties;
 import javax.sql.DataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.orm.hibernate5.HibernateTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.example.model.constants.DbConstants;
+import org.example.util.ConnectionPoolMetrics;
+import org.example.util.ReplicaRoutingDataSource;
 
 @Configuration
 @EnableTransactionManagement
 public class DbConfig {
 
+    @Value("${db.pool.maximum-size:" + DbConstants.ConnectionPool.MAXIMUM_POOL_SIZE + "}")
+    private int maximumPoolSize;
+
+    @Value("${db.pool.minimum-idle:" + DbConstants.ConnectionPool.MINIMUM_IDLE + "}")
+    private int minimumIdle;
+
+    @Value("${db.pool.connection-timeout-ms:" + DbConstants.ConnectionPool.CONNECTION_TIMEOUT_MILLIS + "}")
+    private long connectionTimeoutMillis;
+
+    @Value("${db.pool.leak-detection-threshold-ms:" + DbConstants.ConnectionPool.LEAK_DETECTION_THRESHOLD_MILLIS + "}")
+    private long leakDetectionThresholdMillis;
+
+    // Read-only transactions go to this replica when set; blank keeps all traffic on the primary
+    @Value("${db.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${db.replica.username:" + DbConstants.DbSourceData.USERNAME + "}")
+    private String replicaUsername;
+
+    @Value("${db.replica.password:" + DbConstants.DbSourceData.PASSWORD + "}")
+    private String replicaPassword;
+
+    @Value("${db.replica.primary-pin-ms:" + DbConstants.ConnectionPool.REPLICA_PRIMARY_PIN_MILLIS + "}")
+    private long replicaPrimaryPinMillis;
+
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource ds = new DriverManagerDataSource();
-        ds.setDriverClassName(DbConstants.DbSourceData.DRIVER_CLASS_NAME);
-        ds.setUrl(DbConstants.DbSourceData.URL);
-        ds.setUsername(DbConstants.DbSourceData.USERNAME);
-        ds.setPassword(DbConstants.DbSourceData.PASSWORD);
-        return ds;
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource() {
+        HikariConfig primary = poolConfig(DbConstants.ConnectionPool.POOL_NAME, DbConstants.DbSourceData.URL,
+            DbConstants.DbSourceData.USERNAME, DbConstants.DbSourceData.PASSWORD);
+        primary.setMetricsTrackerFactory(connectionPoolMetrics());
+        HikariDataSource replica = null;
+        if (replicaUrl != null && !replicaUrl.isBlank()) {
+            HikariConfig replicaConfig = poolConfig(DbConstants.ConnectionPool.REPLICA_POOL_NAME, replicaUrl,
+                replicaUsername, replicaPassword);
+            replicaConfig.setReadOnly(true);
+            replica = new HikariDataSource(replicaConfig);
+        }
+        return new ReplicaRoutingDataSource(new HikariDataSource(primary), replica, replicaPrimaryPinMillis);
+    }
+
+    private HikariConfig poolConfig(String poolName, String url, String username, String password) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(DbConstants.DbSourceData.DRIVER_CLASS_NAME);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(minimumIdle);
+        config.setConnectionTimeout(connectionTimeoutMillis);
+        config.setIdleTimeout(DbConstants.ConnectionPool.IDLE_TIMEOUT_MILLIS);
+        config.setMaxLifetime(DbConstants.ConnectionPool.MAX_LIFETIME_MILLIS);
+        config.setLeakDetectionThreshold(leakDetectionThresholdMillis);
+
+        config.addDataSourceProperty(DbConstants.ConnectionPool.USE_SERVER_PREP_STMTS, "true");
+        config.addDataSourceProperty(DbConstants.ConnectionPool.CACHE_PREP_STMTS, "true");
+        config.addDataSourceProperty(DbConstants.ConnectionPool.PREP_STMT_CACHE_SIZE, DbConstants.ConnectionPool.PREP_STMT_CACHE_SIZE_VALUE);
+        config.addDataSourceProperty(DbConstants.ConnectionPool.PREP_STMT_CACHE_SQL_LIMIT, DbConstants.ConnectionPool.PREP_STMT_CACHE_SQL_LIMIT_VALUE);
+        config.addDataSourceProperty(DbConstants.ConnectionPool.CACHE_RESULT_SET_METADATA, "true");
+        config.addDataSourceProperty(DbConstants.ConnectionPool.CACHE_SERVER_CONFIGURATION, "true");
+        config.addDataSourceProperty(DbConstants.ConnectionPool.USE_LOCAL_SESSION_STATE, "true");
+        config.addDataSourceProperty(DbConstants.ConnectionPool.ELIDE_SET_AUTO_COMMITS, "true");
+        config.addDataSourceProperty(DbConstants.ConnectionPool.USE_CURSOR_FETCH, "true");
+        return config;
     }
 
     @Bean
     public LocalSessionFactoryBean sessionFactory() {
+        // Before hbm2ddl looks at the schema; it only adds to it, never changing a column's type or an index.
+        // The money columns are migrated as a deploy step, so startup only checks they were.
+        new MoneyColumnMigration(dataSource()).verify();
+        new InvoiceOrderIdMigration(dataSource()).run();
         LocalSessionFactoryBean factory = new LocalSessionFactoryBean();
-        factory.setDataSource(dataSource());
+        // Lazy so the replica routing sees the read-only flag of the transaction that asks for the connection
+        factory.setDataSource(new LazyConnectionDataSourceProxy(dataSource()));
         factory.setPackagesToScan(DbConstants.EntityPackage.PACKAGE_TO_SCAN);
         factory.setHibernateProperties(hibernateProperties());
         return factory;
@@ -42,6 +114,16 @@ public class DbConfig {
         props.put(DbConstants.HibernateProperties.DIALECT_PROPERTY_1, DbConstants.HibernateProperties.DIALECT_PROPERTY_2);
         props.put(DbConstants.HibernateProperties.HIBERNATE_PROPERTY_1, DbConstants.HibernateProperties.HIBERNATE_PROPERTY_2);
         props.put(DbConstants.HibernateProperties.SQL_PROPERTY_1, DbConstants.HibernateProperties.SQL_PROPERTY_2);
+        props.put(DbConstants.HibernateProperties.ID_OPTIMIZER_PROPERTY_1, DbConstants.HibernateProperties.ID_OPTIMIZER_PROPERTY_2);
+        props.put(DbConstants.HibernateProperties.BATCH_SIZE_PROPERTY_1, DbConstants.HibernateProperties.BATCH_SIZE_PROPERTY_2);
+        props.put(DbConstants.HibernateProperties.ORDER_INSERTS_PROPERTY_1, DbConstants.HibernateProperties.ORDER_INSERTS_PROPERTY_2);
+        props.put(DbConstants.HibernateProperties.ORDER_UPDATES_PROPERTY_1, DbConstants.HibernateProperties.ORDER_UPDATES_PROPERTY_2);
+        props.put(DbConstants.HibernateProperties.SECOND_LEVEL_CACHE_PROPERTY_1, DbConstants.HibernateProperties.SECOND_LEVEL_CACHE_PROPERTY_2);
+        props.put(DbConstants.HibernateProperties.QUERY_CACHE_PROPERTY_1, DbConstants.HibernateProperties.QUERY_CACHE_PROPERTY_2);
+        props.put(DbConstants.HibernateProperties.CACHE_REGION_FACTORY_PROPERTY_1, DbConstants.HibernateProperties.CACHE_REGION_FACTORY_PROPERTY_2);
+        props.put(DbConstants.HibernateProperties.CACHE_PROVIDER_PROPERTY_1, DbConstants.HibernateProperties.CACHE_PROVIDER_PROPERTY_2);
+        props.put(DbConstants.HibernateProperties.CACHE_CONFIG_PROPERTY_1, DbConstants.HibernateProperties.CACHE_CONFIG_PROPERTY_2);
+        props.put(DbConstants.HibernateProperties.MISSING_CACHE_PROPERTY_1, DbConstants.HibernateProperties.MISSING_CACHE_PROPERTY_2);
         return props;
     }
 
@@ -0,0 +1,86 @@
+package org.example.config;
+
+import org.example.util.DbNamedLock;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Replaces the plain index on invoices.orderId with the unique key InvoicePojo now declares.
+ * hbm2ddl "update" would add the key but cannot while duplicate rows exist, and leaves the old
+ * index in place, so this runs before the session factory starts.
+ *
+ * Where an order has more than one invoice row the one saved first is kept; the others were
+ * written by a concurrent generation of the same invoice. The rows are deleted and the key added
+ * under a MySQL named lock, so a node starting at the same time does not repeat the work. Once the
+ * key exists, or when the table does not exist yet, nothing is done.
+ */
+public class InvoiceOrderIdMigration {
+
+    private static final String LOCK_NAME = "pos_invoice_order_id_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 300;
+    private static final String OLD_INDEX = "idx_invoices_order_id";
+    private static final String UNIQUE_KEY = "uk_invoices_order_id";
+
+    private final DataSource dataSource;
+
+    public InvoiceOrderIdMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public void run() {
+        try (DbNamedLock lock = DbNamedLock.tryAcquire(dataSource, LOCK_NAME, LOCK_TIMEOUT_SECONDS)) {
+            if (lock == null) {
+                throw new IllegalStateException("Timed out waiting for lock " + LOCK_NAME);
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                migrate(connection);
+            }
+        } catch (SQLException e) {
+            // Without the key concurrent invoice generation can save two invoices for one order
+            throw new IllegalStateException("Invoice order ID migration failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void migrate(Connection connection) throws SQLException {
+        if (!tableExists(connection) || indexExists(connection, UNIQUE_KEY)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            int removed = statement.executeUpdate("DELETE duplicate FROM invoices duplicate " +
+                                                  "JOIN invoices kept ON kept.orderId = duplicate.orderId " +
+                                                  "AND kept.id < duplicate.id");
+            String alter = "ALTER TABLE invoices ADD UNIQUE INDEX " + UNIQUE_KEY + " (orderId)";
+            if (indexExists(connection, OLD_INDEX)) {
+                alter += ", DROP INDEX " + OLD_INDEX;
+            }
+            statement.executeUpdate(alter);
+            System.err.println("Added unique key on invoices.orderId, removing " + removed + " duplicate invoices");
+        }
+    }
+
+    private boolean tableExists(Connection connection) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.TABLES " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'invoices'";
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    private boolean indexExists(Connection connection, String index) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.STATISTICS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'invoices' AND INDEX_NAME = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, index);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
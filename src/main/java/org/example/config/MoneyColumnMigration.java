@@ -0,0 +1,144 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.model.constants.DbConstants;
+import org.example.util.DbNamedLock;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts the money columns that hold rupees as DOUBLE (orders.total, order_item.sellingPrice
+ * and order_item.amount) into BIGINT paise, in place and under their existing names. hbm2ddl
+ * "update" never changes a column's type, so this is a deploy step, run once against the primary
+ * before any node on the paise build starts:
+ *
+ *   mvn -q compile exec:java -Dexec.mainClass=org.example.config.MoneyColumnMigration
+ *
+ * Each column is a full-table copy and rebuild, so it is not run from application startup, where
+ * every node would wait on it. Startup only calls verify(), which refuses to start on a column
+ * that is still DOUBLE rather than read rupees as paise.
+ *
+ * Each column is copied into a staging column as rupees * 100 rounded, and then the old column is
+ * dropped and the staging column renamed over it in one ALTER TABLE. A staging column left by a
+ * run that died part way through is dropped and the copy redone, since the old column is still
+ * there. A MySQL named lock keeps two runs from migrating at the same time. Columns that are
+ * already BIGINT, or do not exist yet, are left alone.
+ */
+public class MoneyColumnMigration {
+
+    private static final String LOCK_NAME = "pos_money_column_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 300;
+    private static final String STAGING_SUFFIX = "_paise_migration";
+
+    // table, column, nullability once migrated
+    private static final String[][] COLUMNS = {
+        {"orders", "total", "NOT NULL"},
+        {"order_item", "sellingPrice", "NULL"},
+        {"order_item", "amount", "NULL"},
+    };
+
+    private final DataSource dataSource;
+
+    public MoneyColumnMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public static void main(String[] args) {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName(DbConstants.DbSourceData.DRIVER_CLASS_NAME);
+        config.setJdbcUrl(DbConstants.DbSourceData.URL);
+        config.setUsername(DbConstants.DbSourceData.USERNAME);
+        config.setPassword(DbConstants.DbSourceData.PASSWORD);
+        // One connection holds the lock, the other does the work
+        config.setMaximumPoolSize(2);
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            new MoneyColumnMigration(dataSource).run();
+        }
+    }
+
+    public void run() {
+        try (DbNamedLock lock = DbNamedLock.tryAcquire(dataSource, LOCK_NAME, LOCK_TIMEOUT_SECONDS)) {
+            if (lock == null) {
+                throw new IllegalStateException("Timed out waiting for lock " + LOCK_NAME);
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                for (String[] column : COLUMNS) {
+                    migrate(connection, column[0], column[1], column[2]);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Money column migration failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fail unless every money column is already migrated or not created yet. A quick
+     * information_schema read, for startup.
+     */
+    public void verify() {
+        List<String> pending = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (String[] column : COLUMNS) {
+                if ("double".equals(columnType(connection, column[0], column[1]))) {
+                    pending.add(column[0] + "." + column[1]);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Money column check failed: " + e.getMessage(), e);
+        }
+        if (!pending.isEmpty()) {
+            // Starting on rupee columns would read every amount a hundred times too small
+            throw new IllegalStateException("Money columns " + pending + " still hold DOUBLE rupees; run " +
+                                            MoneyColumnMigration.class.getName() + " before starting");
+        }
+    }
+
+    private void migrate(Connection connection, String table, String column, String nullability) throws SQLException {
+        String type = columnType(connection, table, column);
+        if (!"double".equals(type)) {
+            System.err.println("Skipping " + table + "." + column + ": " + (type == null ? "no such column" : type));
+            return;
+        }
+        String name = table + "." + column;
+        String staging = column + STAGING_SUFFIX;
+        long startMillis = System.currentTimeMillis();
+        try (Statement statement = connection.createStatement()) {
+            if (columnType(connection, table, staging) != null) {
+                System.err.println("Migrating " + name + ": dropping staging column left by an interrupted run");
+                statement.executeUpdate("ALTER TABLE " + table + " DROP COLUMN " + staging);
+            }
+            statement.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + staging + " BIGINT NULL");
+            System.err.println("Migrating " + name + ": copying rows into " + staging);
+            // Rounded as an exact decimal, half away from zero like Money.toPaise; ROUND on a DOUBLE
+            // rounds half to even
+            int copied = statement.executeUpdate("UPDATE " + table + " SET " + staging + " = " +
+                                                 "ROUND(CAST(" + column + " AS DECIMAL(20, 4)) * 100)");
+            System.err.println("Migrating " + name + ": copied " + copied + " rows, replacing the column");
+            statement.executeUpdate("ALTER TABLE " + table + " DROP COLUMN " + column + ", " +
+                                    "CHANGE COLUMN " + staging + " " + column + " BIGINT " + nullability);
+        }
+        System.err.println("Migrated " + name + " to BIGINT paise in " +
+                           (System.currentTimeMillis() - startMillis) + " ms");
+    }
+
+    private String columnType(Connection connection, String table, String column) throws SQLException {
+        String sql = "SELECT DATA_TYPE FROM information_schema.COLUMNS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, table);
+            statement.setString(2, column);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getString(1).toLowerCase() : null;
+            }
+        }
+    }
+}
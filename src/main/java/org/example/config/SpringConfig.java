@@ -1,6 +1,8 @@
 package org.example.config;
 
+import org.example.model.constants.DbConstants;
 import org.example.util.SecurityConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -8,10 +10,14 @@ import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 @ComponentScan(basePackages = "org.example")
 @Import({ DbConfig.class, ControllerConfig.class, SecurityConfig.class })
@@ -22,9 +28,21 @@ public class SpringConfig {
         return new StandardServletMultipartResolver();
     }
 
+    /**
+     * RestTemplate over the JDK HttpClient, which keeps connections alive and reuses them across
+     * calls. Connecting and waiting for a response are both bounded.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            @Value("${http.client.connect-timeout-ms:" + DbConstants.InvoiceService.CONNECT_TIMEOUT_MILLIS + "}") long connectTimeoutMillis,
+            @Value("${http.client.read-timeout-ms:" + DbConstants.InvoiceService.READ_TIMEOUT_MILLIS + "}") long readTimeoutMillis) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+        return new RestTemplate(requestFactory);
     }
 
     @Bean
@@ -3,11 +3,16 @@ package org.example.config;
 import org.example.api.UserApi;
 import org.example.model.constants.ApiEndpoints;
 import org.example.model.constants.Supervisors;
+import org.example.util.AuthTokenService;
+import org.example.util.AuthenticationCache;
+import org.example.util.BearerTokenFilter;
+import org.example.util.CachingAuthenticationProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -15,6 +20,7 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -31,6 +37,12 @@ public class SpringSecurityConfig {
     @Autowired
     private UserApi userApi;
 
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
+    @Autowired
+    private AuthTokenService authTokenService;
+
     @Bean
     public BCryptPasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -56,6 +68,8 @@ public class SpringSecurityConfig {
                 // Everything else must be authenticated
                 .anyRequest().authenticated()
             )
+            // A valid bearer token authenticates the request before HTTP Basic is tried
+            .addFilterBefore(new BearerTokenFilter(authTokenService), BasicAuthenticationFilter.class)
             .httpBasic(Customizer.withDefaults())
             .formLogin(AbstractHttpConfigurer::disable);
         
@@ -80,10 +94,12 @@ public class SpringSecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    // BCrypt runs only for credentials the cache has not verified recently
     @Autowired
     public void configureGlobal(AuthenticationManagerBuilder auth) throws Exception {
-        auth.userDetailsService(userApi)
-            .passwordEncoder(passwordEncoder());
+        DaoAuthenticationProvider userProvider = new DaoAuthenticationProvider(passwordEncoder());
+        userProvider.setUserDetailsService(userApi);
+        auth.authenticationProvider(new CachingAuthenticationProvider(userProvider, authenticationCache));
     }
 
     public boolean isSupervisor(String email) {
@@ -1,5 +1,7 @@
 package org.example.config;
 
+import org.example.util.InvoiceStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -7,10 +9,14 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class StaticResourceConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private InvoiceStore invoiceStore;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Map /files/invoice/** to the invoice folder in src/main/resources/invoice/
+        // Map /files/invoice/** to the invoice store root, so an InvoicePojo.filePath key resolves under it
+        String root = invoiceStore.getRoot().toUri().toString();
         registry.addResourceHandler("/files/invoice/**")
-                .addResourceLocations("file:src/main/resources/invoice/");
+                .addResourceLocations(root.endsWith("/") ? root : root + "/");
     }
 }
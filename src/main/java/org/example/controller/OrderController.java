@@ -4,15 +4,27 @@ import org.example.dto.OrderDto;
 import org.example.exception.ApiException;
 import org.example.model.constants.ApiEndpoints;
 import org.example.util.AuthHelper;
+import org.example.util.FileDownload;
+import org.example.util.InvoiceStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
+import org.example.model.data.BulkInvoiceData;
+import org.example.model.data.InvoiceJobData;
 import org.example.model.data.OrderData;
+import org.example.model.enums.CountStrategy;
+import org.example.model.enums.ExportFormat;
 import org.example.model.data.OrderItemData;
+import org.example.model.form.BulkInvoiceForm;
 import org.example.model.form.OrderForm;
 import org.example.model.form.OrderItemForm;
 import org.example.model.data.PaginationResponse;
@@ -46,14 +58,58 @@ public class OrderController {
         return orderDto.getAll();
     }
 
+    /**
+     * Stream orders as NDJSON or TSV; startDate and endDate (yyyy-MM-dd) are optional but go together
+     */
+    @GetMapping("/export")
+    public void exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            HttpServletResponse response) throws IOException {
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = startDate == null ? null : LocalDate.parse(startDate);
+            end = endDate == null ? null : LocalDate.parse(endDate);
+        } catch (DateTimeParseException e) {
+            throw new ApiException("Invalid date format. Use YYYY-MM-DD format.");
+        }
+        prepareExport(response, exportFormat, "orders");
+        orderDto.exportOrders(exportFormat, start, end, response.getOutputStream());
+    }
+
+    /**
+     * Stream every order item as NDJSON or TSV
+     */
+    @GetMapping("/items/export")
+    public void exportOrderItems(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        prepareExport(response, exportFormat, "order-items");
+        orderDto.exportOrderItems(exportFormat, response.getOutputStream());
+    }
+
+    private void prepareExport(HttpServletResponse response, ExportFormat format, String name) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + name + "." + format.getExtension());
+    }
+
     @GetMapping("/paginated")
     public ResponseEntity<PaginationResponse<OrderData>> getAllOrdersPaginated(
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "20") Integer size,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortDirection) {
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "EXACT") CountStrategy countStrategy) {
 
-        PaginationRequest request = new PaginationRequest(page, size, sortBy, sortDirection);
+        PaginationRequest request = buildPaginationRequest(page, size, sortBy, sortDirection, cursor, countStrategy);
         PaginationResponse<OrderData> response = orderDto.getPaginated(PaginationQuery.all(request));
         return ResponseEntity.ok(response);
     }
@@ -64,9 +120,11 @@ public class OrderController {
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "20") Integer size,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortDirection) {
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "EXACT") CountStrategy countStrategy) {
 
-        PaginationRequest request = new PaginationRequest(page, size, sortBy, sortDirection);
+        PaginationRequest request = buildPaginationRequest(page, size, sortBy, sortDirection, cursor, countStrategy);
         PaginationResponse<OrderData> response = orderDto.getOrdersByUserIdPaginated(userId, request);
         return ResponseEntity.ok(response);
     }
@@ -87,17 +145,49 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/{id}/download-invoice")
-    public ResponseEntity<org.springframework.core.io.Resource> downloadInvoice(@PathVariable Integer id) {
+    /**
+     * Queue invoice generation and return straight away; poll the job, then download the invoice
+     * from the job's downloadUrl once it is DONE
+     */
+    @PostMapping("/{id}/invoice-job")
+    public ResponseEntity<InvoiceJobData> submitInvoiceJob(@PathVariable Integer id) {
+        InvoiceJobData job = orderDto.submitInvoiceJob(id);
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, ApiEndpoints.Supervisor.ORDERS + "/" + id + "/invoice-job")
+                .body(job);
+    }
+
+    /**
+     * Invoice a list of orders or a date range in the background; poll the run for progress and
+     * the outcome of each order
+     */
+    @PostMapping("/invoices/bulk")
+    public ResponseEntity<BulkInvoiceData> startBulkInvoice(@RequestBody BulkInvoiceForm form) {
+        BulkInvoiceData run = orderDto.startBulkInvoice(form);
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, ApiEndpoints.Supervisor.ORDERS + "/invoices/bulk/" + run.getRunId())
+                .body(run);
+    }
+
+    @GetMapping("/invoices/bulk/{runId}")
+    public BulkInvoiceData getBulkInvoice(@PathVariable String runId) {
+        return orderDto.getBulkInvoice(runId);
+    }
 
-        
+    @GetMapping("/{id}/invoice-job")
+    public InvoiceJobData getInvoiceJob(@PathVariable Integer id) {
+        return orderDto.getInvoiceJob(id);
+    }
 
-        org.springframework.core.io.Resource pdfResource = orderDto.downloadInvoice(id);
-        String fileName = "order-" + id + ".pdf";
-        return ResponseEntity.ok()
-                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
-                .contentType(org.springframework.http.MediaType.APPLICATION_PDF)
-                .body(pdfResource);
+    /**
+     * Invoice PDF of the order, generated first if needed; supports Range and If-None-Match
+     */
+    @GetMapping("/{id}/download-invoice")
+    public void downloadInvoice(@PathVariable Integer id, HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        InvoiceStore.StoredInvoice invoice = orderDto.downloadInvoice(id);
+        FileDownload.send(invoice.getPath(), invoice.getEtag(), invoice.isCompressed(),
+                MediaType.APPLICATION_PDF_VALUE, "order-" + id + ".pdf", request, response);
     }
 
     @GetMapping("/by-date-range")
@@ -137,4 +227,18 @@ public class OrderController {
         PaginationResponse<OrderData> response = orderDto.findOrdersBySubstringIdPaginated(searchId, request);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Any cursor parameter, even an empty one for the first page, switches to keyset paging;
+     * later pages pass back the nextCursor of the previous response.
+     */
+    private PaginationRequest buildPaginationRequest(Integer page, Integer size, String sortBy, String sortDirection,
+                                                     String cursor, CountStrategy countStrategy) {
+        if (cursor != null) {
+            return PaginationRequest.keyset(size, sortBy, sortDirection, cursor);
+        }
+        PaginationRequest request = new PaginationRequest(page, size, sortBy, sortDirection);
+        request.setCountStrategy(countStrategy);
+        return request;
+    }
 }
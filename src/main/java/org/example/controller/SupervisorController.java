@@ -1,11 +1,17 @@
 package org.example.controller;
 
+import org.example.clients.InvoiceClient;
 import org.example.dto.UserDto;
 import org.example.exception.ApiException;
 import org.example.model.data.UserData;
+import org.example.model.data.ConnectionPoolStatsData;
+import org.example.model.data.HttpClientStatsData;
+import org.example.model.data.IdSequenceMetricsData;
 import org.example.model.data.PaginationResponse;
 import org.example.model.form.PaginationRequest;
 import org.example.model.form.PaginationQuery;
+import org.example.util.ConnectionPoolMetrics;
+import org.example.util.SegmentSequenceService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -20,6 +26,12 @@ public class SupervisorController {
     @Autowired
     private UserDto userDto;
 
+    @Autowired
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
+    @Autowired
+    private InvoiceClient invoiceClient;
+
     @GetMapping("/users")
     public List<UserData> getAllUsers() {
         try {
@@ -44,4 +56,19 @@ public class SupervisorController {
         }
     }
 
-} 
\ No newline at end of file
+    @GetMapping("/system/id-sequences")
+    public List<IdSequenceMetricsData> getIdSequenceMetrics() {
+        return SegmentSequenceService.getInstance().getMetrics();
+    }
+
+    @GetMapping("/system/connection-pool")
+    public ConnectionPoolStatsData getConnectionPoolStats() {
+        return connectionPoolMetrics.getStats();
+    }
+
+    @GetMapping("/system/invoice-client")
+    public HttpClientStatsData getInvoiceClientStats() {
+        return invoiceClient.getStats();
+    }
+
+}
@@ -10,6 +10,7 @@ import org.example.model.data.OrderData;
 import org.example.model.data.OrderItemData;
 import org.example.model.form.OrderForm;
 import org.example.model.form.OrderItemForm;
+import org.example.model.data.AuthTokenData;
 import org.example.model.data.UserData;
 import org.example.model.form.UserForm;
 import org.example.model.data.ProductData;
@@ -20,11 +21,17 @@ import org.example.pojo.UserPojo;
 import org.example.model.data.PaginationResponse;
 import org.example.model.form.PaginationRequest;
 import org.example.util.AuthHelper;
+import org.example.util.FileDownload;
+import org.example.util.InvoiceStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
@@ -103,7 +110,8 @@ public class UserController {
     }
 
     @GetMapping("/orders/{id}/download-invoice")
-    public ResponseEntity<org.springframework.core.io.Resource> downloadMyOrderInvoice(@PathVariable Integer id, Authentication authentication) {
+    public void downloadMyOrderInvoice(@PathVariable Integer id, Authentication authentication,
+                                       HttpServletRequest request, HttpServletResponse response) throws IOException {
 
         if (authentication != null && authentication.isAuthenticated()) {
             String userEmail = authentication.getName();
@@ -114,13 +122,9 @@ public class UserController {
                 throw new ApiException("Access denied. You can only download invoices for your own orders.");
             }
 
-            org.springframework.core.io.Resource pdfResource = orderDto.downloadInvoice(id);
-            String fileName = "order-" + id + ".pdf";
-
-            return ResponseEntity.ok()
-                    .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
-                    .contentType(org.springframework.http.MediaType.APPLICATION_PDF)
-                    .body(pdfResource);
+            InvoiceStore.StoredInvoice invoice = orderDto.downloadInvoice(id);
+            FileDownload.send(invoice.getPath(), invoice.getEtag(), invoice.isCompressed(),
+                MediaType.APPLICATION_PDF_VALUE, "order-" + id + ".pdf", request, response);
         } else {
             throw new ApiException("User not authenticated");
         }
@@ -141,6 +145,15 @@ public class UserController {
         }
     }
 
+    /**
+     * Exchange the caller's HTTP Basic login for a bearer token to send on later requests; a request
+     * authenticated by a bearer token is refused with 403
+     */
+    @PostMapping("/token")
+    public AuthTokenData issueToken(Authentication authentication) {
+        return userDto.issueToken(authentication);
+    }
+
     @PostMapping("/signup")
     public ResponseEntity<String> signup(@RequestBody UserForm form) {
         try {
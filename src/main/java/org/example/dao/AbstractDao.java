@@ -3,12 +3,32 @@ package org.example.dao;
 import jakarta.persistence.*;
 import jakarta.persistence.criteria.*;
 import org.springframework.stereotype.Repository;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.example.model.constants.DbConstants;
+import org.example.model.enums.CountStrategy;
 import org.example.model.form.PaginationRequest;
 import org.example.model.form.PaginationQuery;
 import org.example.model.data.PaginationResponse;
+import org.example.util.PaginationCursor;
 import org.example.util.PaginationUtil;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.Query;
+import org.hibernate.query.criteria.JpaOrder;
 import org.example.exception.ApiException;
 
 @Repository
@@ -29,16 +49,95 @@ public abstract class AbstractDao<T> {
         em.persist(entity);
     }
 
+    /**
+     * Persist several entities; the inserts are sent as JDBC batches when the session flushes
+     */
+    public void insertAll(Collection<T> entities) {
+        for (T entity : entities) {
+            em.persist(entity);
+        }
+    }
+
     public T select(Integer id) {
         return em.find(entityClass, id);
     }
 
+    /**
+     * Select all entities with the given IDs in one IN query, in the order of the IDs; missing
+     * IDs are simply absent
+     */
+    public List<T> selectByIds(Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Multi-load serves cached entities from the second-level cache and batches the rest
+        List<T> loaded = em.unwrap(Session.class).byMultipleIds(entityClass)
+                .with(CacheMode.NORMAL)
+                .enableOrderedReturn(true)
+                .multiLoad(new ArrayList<>(ids));
+        List<T> found = new ArrayList<>();
+        for (T entity : loaded) {
+            if (entity != null) {
+                found.add(entity);
+            }
+        }
+        return found;
+    }
+
     public List<T> selectAll() {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<T> query = cb.createQuery(entityClass);
         Root<T> root = query.from(entityClass);
         query.select(root);
-        return em.createQuery(query).getResultList();
+        TypedQuery<T> typedQuery = em.createQuery(query);
+        if (entityClass.isAnnotationPresent(Cacheable.class)) {
+            // Full lists of cached reference data are kept in the query cache until the table changes
+            typedQuery.setHint(HibernateHints.HINT_CACHEABLE, true);
+        }
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Stream every entity in ID order to the visitor; see scroll
+     */
+    public long scrollAll(Consumer<T> visitor) {
+        return scroll(em.unwrap(Session.class)
+            .createQuery("select e from " + entityClass.getSimpleName() + " e order by e.id", entityClass), visitor);
+    }
+
+    /**
+     * Stream every entity updated at or after since to the visitor in ID order, like scrollAll.
+     * Only for entities extending AbstractPojo.
+     */
+    public long scrollUpdatedSince(ZonedDateTime since, Consumer<T> visitor) {
+        return scroll(em.unwrap(Session.class)
+            .createQuery("select e from " + entityClass.getSimpleName() + " e where e.updatedAt >= :since order by e.id", entityClass)
+            .setParameter("since", since), visitor);
+    }
+
+    /**
+     * Stream the results of a query through a forward-only cursor, DbConstants.Export.FETCH_SIZE
+     * rows per round trip, clearing the persistence context every CLEAR_INTERVAL rows so memory
+     * stays flat however many rows there are. Entities are read-only, bypass the second-level
+     * cache and are detached soon after the visitor sees them, so it must not keep them.
+     * Returns the number of rows visited.
+     */
+    protected long scroll(Query<T> query, Consumer<T> visitor) {
+        Session session = em.unwrap(Session.class);
+        long rows = 0;
+        try (ScrollableResults<T> results = query
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .setFetchSize(DbConstants.Export.FETCH_SIZE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                visitor.accept(results.get());
+                if (++rows % DbConstants.Export.CLEAR_INTERVAL == 0) {
+                    session.clear();
+                }
+            }
+        }
+        return rows;
     }
 
     // ========== STANDARDIZED GET METHODS ==========
@@ -109,6 +208,10 @@ public abstract class AbstractDao<T> {
      * Generic method to find by a single field value with Optional return.
      */
     public Optional<T> selectByFieldOptional(String fieldName, Object value) {
+        if (value != null && fieldName.equals(getNaturalIdField())) {
+            // Resolved through the natural-id cache, falling back to a lookup by the unique column
+            return em.unwrap(Session.class).bySimpleNaturalId(entityClass).loadOptional(value);
+        }
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<T> query = cb.createQuery(entityClass);
         Root<T> root = query.from(entityClass);
@@ -131,6 +234,20 @@ public abstract class AbstractDao<T> {
         return em.createQuery(query).getResultList();
     }
 
+    /**
+     * Select all entities whose field matches any of the given values, in one IN query
+     */
+    public List<T> selectByFieldIn(String fieldName, Collection<?> values) {
+        if (values == null || values.isEmpty()) {
+            return new ArrayList<>();
+        }
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        query.select(root).where(root.get(fieldName).in(values));
+        return em.createQuery(query).getResultList();
+    }
+
     /**
      * Generic method to find by multiple field values.
      */
@@ -262,48 +379,220 @@ public abstract class AbstractDao<T> {
         }
         
         PaginationRequest request = PaginationUtil.validateAndSetDefaults(query.getPaginationRequest());
+        if (request.isKeyset()) {
+            return getKeysetPage(query, request);
+        }
         
+        return getCountedPage(
+            request,
+            countCacheKey(query),
+            () -> count(query),
+            (firstResult, maxResults) -> selectPage(query, request, firstResult, maxResults)
+        );
+    }
+
+    /**
+     * Build an offset page using the request's count strategy. EXACT counts and then loads the
+     * page; SKIP and APPROXIMATE load pageSize + 1 rows so hasNext is known without a count, and
+     * APPROXIMATE fills the totals from a recent count of the same query.
+     */
+    protected <R> PaginationResponse<R> getCountedPage(PaginationRequest request, String countCacheKey,
+                                                       Supplier<Long> counter,
+                                                       BiFunction<Integer, Integer, List<R>> pageLoader) {
+        CountStrategy strategy = request.getCountStrategy();
+        if (strategy == CountStrategy.EXACT) {
+            long totalElements = counter.get();
+            if (totalElements == 0) {
+                return PaginationUtil.createEmptyResponse(request);
+            }
+            List<R> content = pageLoader.apply(request.getOffset(), request.getPageSize());
+            return PaginationUtil.createResponse(content, totalElements, request);
+        }
+
+        List<R> content = pageLoader.apply(request.getOffset(), request.getPageSize() + 1);
+        boolean hasNext = content.size() > request.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, request.getPageSize());
+        }
+        if (strategy == CountStrategy.SKIP) {
+            return PaginationResponse.uncounted(content, request.getPageNumber(), request.getPageSize(), hasNext);
+        }
+
         long totalElements;
-        List<T> content;
-        
+        if (hasNext) {
+            // At least one row lies beyond this page, whatever the cached count says
+            long seen = (long) request.getOffset() + content.size() + 1;
+            totalElements = Math.max(getCachedCount(countCacheKey, counter), seen);
+        } else if (!content.isEmpty() || request.getPageNumber() == 0) {
+            // This page reaches the end, so the exact total is known for free
+            totalElements = (long) request.getOffset() + content.size();
+            cacheCount(countCacheKey, totalElements);
+        } else {
+            // Past the end: there are at most offset rows
+            totalElements = Math.min(getCachedCount(countCacheKey, counter), request.getOffset());
+        }
+        PaginationResponse<R> response = PaginationUtil.createResponse(content, totalElements, request);
+        response.setHasNext(hasNext);
+        response.setIsLast(!hasNext);
+        response.setCountStrategy(CountStrategy.APPROXIMATE);
+        return response;
+    }
+
+    private long count(PaginationQuery query) {
+        switch (query.getQueryType()) {
+            case ALL:
+                return countAll();
+            case BY_FIELD:
+                return countByField(query.getFieldName(), query.getFieldValue());
+            case BY_FIELD_LIKE:
+                return countByFieldLike(query.getFieldName(), query.getSearchPattern());
+            case BY_FIELDS:
+                return countByFields(query.getFieldNames(), query.getFieldValues());
+            default:
+                throw new IllegalArgumentException("Unsupported query type: " + query.getQueryType());
+        }
+    }
+
+    private String countCacheKey(PaginationQuery query) {
+        return query.getQueryType() + "|" + query.getFieldName() + "|" + query.getFieldValue() + "|"
+            + query.getSearchPattern() + "|" + Arrays.toString(query.getFieldNames()) + "|"
+            + Arrays.toString(query.getFieldValues());
+    }
+
+    // ========== APPROXIMATE COUNT CACHE ==========
+
+    private static class CachedCount {
+        private final long count;
+        private final long expiresAt;
+        private CachedCount(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, CachedCount> countCache = new ConcurrentHashMap<>();
+
+    private long getCachedCount(String key, Supplier<Long> counter) {
+        CachedCount cached = countCache.get(key);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            return cached.count;
+        }
+        long count = counter.get();
+        cacheCount(key, count);
+        return count;
+    }
+
+    private void cacheCount(String key, long count) {
+        if (countCache.size() >= DbConstants.Pagination.COUNT_CACHE_MAX_ENTRIES) {
+            countCache.clear();
+        }
+        countCache.put(key, new CachedCount(count, System.currentTimeMillis() + DbConstants.Pagination.COUNT_CACHE_TTL_MILLIS));
+    }
+
+    // ========== KEYSET PAGINATION ==========
+
+    /**
+     * Keyset (seek) page: rows are ordered by the sort field and then by ID, and the page starts
+     * right after the row recorded in the request cursor, so deep pages cost the same as the first.
+     * No count query is run. One extra row is read to tell whether another page exists.
+     * Nulls in the sort field sort first ascending and last descending, as MySQL orders them.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private PaginationResponse<T> getKeysetPage(PaginationQuery query, PaginationRequest request) {
+        String sortBy = request.getSortBy() == null || request.getSortBy().trim().isEmpty()
+            ? "id" : request.getSortBy().trim();
+        boolean descending = request.isDescending();
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<T> root = cq.from(entityClass);
+        Path<Comparable> sortPath = root.get(sortBy);
+        Path<Integer> idPath = root.get("id");
+
+        List<Predicate> predicates = buildQueryPredicates(cb, root, query);
+        if (request.getCursor() != null) {
+            PaginationCursor cursor = PaginationCursor.decode(request.getCursor());
+            if (!cursor.getSortBy().equals(sortBy) || cursor.isDescending() != descending) {
+                throw new ApiException("Pagination cursor does not match the requested sort order");
+            }
+            predicates.add(buildSeekPredicate(cb, sortPath, idPath, sortBy, descending, cursor));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        if (!"id".equals(sortBy)) {
+            Order sortOrder = descending ? cb.desc(sortPath) : cb.asc(sortPath);
+            if (sortOrder instanceof JpaOrder) {
+                sortOrder = ((JpaOrder) sortOrder).nullPrecedence(descending ? NullPrecedence.LAST : NullPrecedence.FIRST);
+            }
+            orders.add(sortOrder);
+        }
+        orders.add(descending ? cb.desc(idPath) : cb.asc(idPath));
+
+        cq.multiselect(root, sortPath, idPath)
+          .where(predicates.toArray(new Predicate[0]))
+          .orderBy(orders);
+
+        List<Tuple> rows = em.createQuery(cq)
+                .setMaxResults(request.getPageSize() + 1)
+                .getResultList();
+
+        String nextCursor = null;
+        if (rows.size() > request.getPageSize()) {
+            rows = rows.subList(0, request.getPageSize());
+            Tuple last = rows.get(rows.size() - 1);
+            nextCursor = new PaginationCursor(sortBy, descending, (Integer) last.get(2), last.get(1)).encode();
+        }
+
+        List<T> content = new ArrayList<>();
+        for (Tuple row : rows) {
+            content.add((T) row.get(0));
+        }
+        return PaginationResponse.keyset(content, request.getPageSize(), request.getCursor() == null, nextCursor);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate buildSeekPredicate(CriteriaBuilder cb, Path<Comparable> sortPath, Path<Integer> idPath,
+                                         String sortBy, boolean descending, PaginationCursor cursor) {
+        Integer lastId = cursor.getLastId();
+        Predicate afterId = descending ? cb.lessThan(idPath, lastId) : cb.greaterThan(idPath, lastId);
+        if ("id".equals(sortBy)) {
+            return afterId;
+        }
+
+        Comparable lastValue = (Comparable) cursor.getLastSortValue(sortPath.getJavaType());
+        if (lastValue == null) {
+            // Ascending, the remaining nulls come before every non-null; descending, nulls are the tail
+            Predicate nullTie = cb.and(cb.isNull(sortPath), afterId);
+            return descending ? nullTie : cb.or(nullTie, cb.isNotNull(sortPath));
+        }
+        Predicate pastValue = descending ? cb.lessThan(sortPath, lastValue) : cb.greaterThan(sortPath, lastValue);
+        Predicate valueTie = cb.and(cb.equal(sortPath, lastValue), afterId);
+        return descending
+            ? cb.or(pastValue, valueTie, cb.isNull(sortPath))
+            : cb.or(pastValue, valueTie);
+    }
+
+    private List<Predicate> buildQueryPredicates(CriteriaBuilder cb, Root<T> root, PaginationQuery query) {
+        List<Predicate> predicates = new ArrayList<>();
         switch (query.getQueryType()) {
             case ALL:
-                totalElements = countAll();
-                if (totalElements == 0) {
-                    return PaginationUtil.createEmptyResponse(request);
-                }
-                content = selectAllWithPagination(request);
                 break;
-                
             case BY_FIELD:
-                totalElements = countByField(query.getFieldName(), query.getFieldValue());
-                if (totalElements == 0) {
-                    return PaginationUtil.createEmptyResponse(request);
-                }
-                content = selectByFieldWithPagination(query.getFieldName(), query.getFieldValue(), request);
+                predicates.add(cb.equal(root.get(query.getFieldName()), query.getFieldValue()));
                 break;
-                
             case BY_FIELD_LIKE:
-                totalElements = countByFieldLike(query.getFieldName(), query.getSearchPattern());
-                if (totalElements == 0) {
-                    return PaginationUtil.createEmptyResponse(request);
-                }
-                content = selectByFieldLikeWithPagination(query.getFieldName(), query.getSearchPattern(), request);
+                predicates.add(cb.like(cb.lower(root.get(query.getFieldName())),
+                    "%" + query.getSearchPattern().toLowerCase() + "%"));
                 break;
-                
             case BY_FIELDS:
-                totalElements = countByFields(query.getFieldNames(), query.getFieldValues());
-                if (totalElements == 0) {
-                    return PaginationUtil.createEmptyResponse(request);
+                for (int i = 0; i < query.getFieldNames().length; i++) {
+                    predicates.add(cb.equal(root.get(query.getFieldNames()[i]), query.getFieldValues()[i]));
                 }
-                content = selectByFieldsWithPagination(query.getFieldNames(), query.getFieldValues(), request);
                 break;
-                
             default:
                 throw new IllegalArgumentException("Unsupported query type: " + query.getQueryType());
         }
-        
-        return PaginationUtil.createResponse(content, totalElements, request);
+        return predicates;
     }
 
     // ========== COUNT METHODS ==========
@@ -354,99 +643,36 @@ public abstract class AbstractDao<T> {
 
     // ========== PRIVATE PAGINATION HELPER METHODS ==========
 
-    private List<T> selectAllWithPagination(PaginationRequest request) {
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<T> query = cb.createQuery(entityClass);
-        Root<T> root = query.from(entityClass);
-        query.select(root);
-        
-        if (request.getSortBy() != null && !request.getSortBy().trim().isEmpty()) {
-            if ("ASC".equalsIgnoreCase(request.getSortDirection())) {
-                query.orderBy(cb.asc(root.get(request.getSortBy())));
-            } else {
-                query.orderBy(cb.desc(root.get(request.getSortBy())));
-            }
-        }
-        
-        return em.createQuery(query)
-                .setFirstResult(request.getOffset())
-                .setMaxResults(request.getPageSize())
-                .getResultList();
-    }
-
-    private List<T> selectByFieldWithPagination(String fieldName, Object value, PaginationRequest request) {
+    private List<T> selectPage(PaginationQuery query, PaginationRequest request, int firstResult, int maxResults) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<T> query = cb.createQuery(entityClass);
-        Root<T> root = query.from(entityClass);
-        query.select(root).where(cb.equal(root.get(fieldName), value));
+        CriteriaQuery<T> cq = cb.createQuery(entityClass);
+        Root<T> root = cq.from(entityClass);
+        cq.select(root).where(buildQueryPredicates(cb, root, query).toArray(new Predicate[0]));
         
         if (request.getSortBy() != null && !request.getSortBy().trim().isEmpty()) {
             if ("ASC".equalsIgnoreCase(request.getSortDirection())) {
-                query.orderBy(cb.asc(root.get(request.getSortBy())));
+                cq.orderBy(cb.asc(root.get(request.getSortBy())));
             } else {
-                query.orderBy(cb.desc(root.get(request.getSortBy())));
+                cq.orderBy(cb.desc(root.get(request.getSortBy())));
             }
         }
         
-        return em.createQuery(query)
-                .setFirstResult(request.getOffset())
-                .setMaxResults(request.getPageSize())
+        return em.createQuery(cq)
+                .setFirstResult(firstResult)
+                .setMaxResults(maxResults)
                 .getResultList();
     }
 
-    private List<T> selectByFieldLikeWithPagination(String fieldName, String searchPattern, PaginationRequest request) {
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<T> query = cb.createQuery(entityClass);
-        Root<T> root = query.from(entityClass);
-        query.select(root)
-             .where(cb.like(cb.lower(root.get(fieldName)), "%" + searchPattern.toLowerCase() + "%"));
-        
-        if (request.getSortBy() != null && !request.getSortBy().trim().isEmpty()) {
-            if ("ASC".equalsIgnoreCase(request.getSortDirection())) {
-                query.orderBy(cb.asc(root.get(request.getSortBy())));
-            } else {
-                query.orderBy(cb.desc(root.get(request.getSortBy())));
-            }
-        }
-        
-        return em.createQuery(query)
-                .setFirstResult(request.getOffset())
-                .setMaxResults(request.getPageSize())
-                .getResultList();
-    }
+    // ========== TEMPLATE METHODS ==========
 
-    private List<T> selectByFieldsWithPagination(String[] fieldNames, Object[] fieldValues, PaginationRequest request) {
-        if (fieldNames.length != fieldValues.length) {
-            throw new IllegalArgumentException("Field names and values arrays must have the same length");
-        }
-        
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<T> query = cb.createQuery(entityClass);
-        Root<T> root = query.from(entityClass);
-        
-        Predicate[] predicates = new Predicate[fieldNames.length];
-        for (int i = 0; i < fieldNames.length; i++) {
-            predicates[i] = cb.equal(root.get(fieldNames[i]), fieldValues[i]);
-        }
-        
-        query.select(root).where(predicates);
-        
-        if (request.getSortBy() != null && !request.getSortBy().trim().isEmpty()) {
-            if ("ASC".equalsIgnoreCase(request.getSortDirection())) {
-                query.orderBy(cb.asc(root.get(request.getSortBy())));
-            } else {
-                query.orderBy(cb.desc(root.get(request.getSortBy())));
-            }
-        }
-        
-        return em.createQuery(query)
-                .setFirstResult(request.getOffset())
-                .setMaxResults(request.getPageSize())
-                .getResultList();
+    /**
+     * Field mapped as the entity's @NaturalId, or null if it has none. Lookups by this field
+     * go through Hibernate's natural-id resolution so they can be served from the cache.
+     */
+    protected String getNaturalIdField() {
+        return null;
     }
 
-    // ========== TEMPLATE METHODS ==========
-
     /**
      * Template method for updating entity fields.
      * Subclasses should override this to implement specific update logic.
@@ -34,6 +34,11 @@ public class ClientDao extends AbstractDao<ClientPojo> {
         }
     }
 
+    @Override
+    protected String getNaturalIdField() {
+        return "clientName";
+    }
+
     @Override
     protected void updateEntity(ClientPojo existing, ClientPojo updated) {
         existing.setClientName(updated.getClientName());
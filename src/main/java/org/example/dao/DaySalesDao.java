@@ -3,6 +3,7 @@ package org.example.dao;
 import jakarta.persistence.*;
 import jakarta.persistence.criteria.*;
 import org.example.pojo.DaySalesPojo;
+import org.hibernate.query.NativeQuery;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
@@ -16,25 +17,43 @@ public class DaySalesDao extends AbstractDao<DaySalesPojo> {
     }
 
     public void saveOrUpdate(DaySalesPojo daySales) {
+        saveOrUpdateAll(List.of(daySales));
+    }
+
+    /**
+     * Upsert several days in one multi-row INSERT ... ON DUPLICATE KEY UPDATE statement.
+     */
+    public void saveOrUpdateAll(List<DaySalesPojo> daySalesList) {
+        if (daySalesList == null || daySalesList.isEmpty()) {
+            return;
+        }
         try {
-            // Use native SQL with ON DUPLICATE KEY UPDATE to handle race conditions
-            String sql = "INSERT INTO pos_day_sales (date, totalRevenue, invoicedOrdersCount, invoicedItemsCount) " +
-                        "VALUES (?, ?, ?, ?) " +
-                        "ON DUPLICATE KEY UPDATE " +
-                        "totalRevenue = VALUES(totalRevenue), " +
-                        "invoicedOrdersCount = VALUES(invoicedOrdersCount), " +
-                        "invoicedItemsCount = VALUES(invoicedItemsCount)";
-            
-            Query query = em.createNativeQuery(sql);
-            query.setParameter(1, daySales.getDate());
-            query.setParameter(2, daySales.getTotalRevenue());
-            query.setParameter(3, daySales.getInvoicedOrdersCount());
-            query.setParameter(4, daySales.getInvoicedItemsCount());
-            
-            int rowsAffected = query.executeUpdate();
+            StringBuilder sql = new StringBuilder(
+                "INSERT INTO pos_day_sales (date, totalRevenue, invoicedOrdersCount, invoicedItemsCount) VALUES ");
+            for (int i = 0; i < daySalesList.size(); i++) {
+                sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+            }
+            sql.append(" ON DUPLICATE KEY UPDATE " +
+                       "totalRevenue = VALUES(totalRevenue), " +
+                       "invoicedOrdersCount = VALUES(invoicedOrdersCount), " +
+                       "invoicedItemsCount = VALUES(invoicedItemsCount)");
+
+            // Declaring the touched entity keeps the native upsert from evicting every cache region
+            Query query = em.createNativeQuery(sql.toString())
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(DaySalesPojo.class);
+            int position = 1;
+            for (DaySalesPojo daySales : daySalesList) {
+                query.setParameter(position++, daySales.getDate());
+                query.setParameter(position++, daySales.getTotalRevenue());
+                query.setParameter(position++, daySales.getInvoicedOrdersCount());
+                query.setParameter(position++, daySales.getInvoicedItemsCount());
+            }
+            query.executeUpdate();
             em.flush();
         } catch (Exception e) {
-            System.err.println("Error in day sales upsert for date " + daySales.getDate() + ": " + e.getMessage());
+            System.err.println("Error in day sales upsert for " + daySalesList.size() + " days starting "
+                + daySalesList.get(0).getDate() + ": " + e.getMessage());
             e.printStackTrace();
             throw e;
         }
@@ -52,7 +71,7 @@ public class DaySalesDao extends AbstractDao<DaySalesPojo> {
         Root<DaySalesPojo> root = query.from(DaySalesPojo.class);
         query.select(root.get("date")).orderBy(cb.desc(root.get("date")));
         List<ZonedDateTime> results = em.createQuery(query).setMaxResults(1).getResultList();
-        if (results.isEmpty() || results.get(0) == null) return LocalDate.now();
+        if (results.isEmpty() || results.get(0) == null) return null;
         return results.get(0).toLocalDate();
     }
 
@@ -1,12 +1,46 @@
 package org.example.dao;
 
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
+import org.example.model.data.PaginationResponse;
+import org.example.model.form.PaginationQuery;
+import org.example.model.form.PaginationRequest;
 import org.example.pojo.InventoryPojo;
+import org.example.util.PaginationUtil;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class InventoryDao extends AbstractDao<InventoryPojo> {
-    
+
+    private static final String DECREMENT_IF_AVAILABLE_SQL =
+        "UPDATE inventory SET quantity = quantity - ?, version = version + 1, updatedAt = ? " +
+        "WHERE productId = ? AND quantity >= ?";
+
+    private static final String WITH_PRODUCT_FROM =
+        "from InventoryPojo i left join ProductPojo p on p.id = i.productId";
+
+    // Fields that can be filtered or sorted on in the inventory-with-product projection
+    private static final Map<String, String> WITH_PRODUCT_PATHS = new LinkedHashMap<>();
+    static {
+        WITH_PRODUCT_PATHS.put("id", "i.id");
+        WITH_PRODUCT_PATHS.put("productId", "i.productId");
+        WITH_PRODUCT_PATHS.put("quantity", "i.quantity");
+        WITH_PRODUCT_PATHS.put("createdAt", "i.createdAt");
+        WITH_PRODUCT_PATHS.put("updatedAt", "i.updatedAt");
+        WITH_PRODUCT_PATHS.put("productName", "p.name");
+        WITH_PRODUCT_PATHS.put("name", "p.name");
+        WITH_PRODUCT_PATHS.put("barcode", "p.barcode");
+        WITH_PRODUCT_PATHS.put("mrp", "p.mrp");
+    }
+
     public InventoryDao() {
         super(InventoryPojo.class);
     }
@@ -16,6 +50,157 @@ public class InventoryDao extends AbstractDao<InventoryPojo> {
         return results.isEmpty() ? null : results.get(0);
     }
 
+    public List<InventoryPojo> selectByProductIds(Collection<Integer> productIds) {
+        return selectByFieldIn("productId", productIds);
+    }
+
+    /**
+     * Decrement stock for each product only where enough is left, as one JDBC batch of
+     * conditional updates. Returns the product IDs whose row was missing or short; those rows
+     * are untouched. The updates bypass the persistence context, so inventory entities already
+     * loaded in this session keep their old quantity.
+     */
+    public List<Integer> decrementIfAvailable(Map<Integer, Integer> quantitiesByProductId) {
+        List<Map.Entry<Integer, Integer>> lines = new ArrayList<>(quantitiesByProductId.entrySet());
+        if (lines.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Pending entity changes must reach the database before the conditional updates run
+        em.flush();
+        int[] updateCounts = em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DECREMENT_IF_AVAILABLE_SQL)) {
+                Timestamp now = Timestamp.from(Instant.now());
+                for (Map.Entry<Integer, Integer> line : lines) {
+                    statement.setInt(1, line.getValue());
+                    statement.setTimestamp(2, now);
+                    statement.setInt(3, line.getKey());
+                    statement.setInt(4, line.getValue());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+
+        List<Integer> failedProductIds = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (updateCounts[i] == 0) {
+                failedProductIds.add(lines.get(i).getKey());
+            }
+        }
+        return failedProductIds;
+    }
+
+    public static class InventoryProductRow {
+        private Integer id;
+        private Integer productId;
+        private Integer quantity;
+        private String productName;
+        private String barcode;
+        private Double mrp;
+        public InventoryProductRow(Integer id, Integer productId, Integer quantity,
+                                   String productName, String barcode, Double mrp) {
+            this.id = id;
+            this.productId = productId;
+            this.quantity = quantity;
+            this.productName = productName;
+            this.barcode = barcode;
+            this.mrp = mrp;
+        }
+        public Integer getId() { return id; }
+        public Integer getProductId() { return productId; }
+        public Integer getQuantity() { return quantity; }
+        public String getProductName() { return productName; }
+        public String getBarcode() { return barcode; }
+        public Double getMrp() { return mrp; }
+    }
+
+    /**
+     * Page through inventory joined with its product, so each row already carries the product
+     * name, barcode and mrp. Filters and sorting follow the query the same way as getPaginated,
+     * and may also name productName/name, barcode or mrp. Product columns are null when the
+     * product row is missing. Costs one page query plus a count, subject to the count strategy.
+     */
+    public PaginationResponse<InventoryProductRow> selectWithProductPaginated(PaginationQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Pagination query cannot be null");
+        }
+        PaginationRequest request = PaginationUtil.validateAndSetDefaults(query.getPaginationRequest());
+
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String where = buildWithProductWhere(query, parameters);
+
+        String jpql = "select i.id, i.productId, i.quantity, p.name, p.barcode, p.mrp " +
+                      WITH_PRODUCT_FROM + where + buildWithProductOrderBy(request);
+
+        return getCountedPage(
+            request,
+            "withProduct|" + where + "|" + parameters,
+            () -> {
+                TypedQuery<Long> countQuery = em.createQuery("select count(i) " + WITH_PRODUCT_FROM + where, Long.class);
+                parameters.forEach(countQuery::setParameter);
+                return countQuery.getSingleResult();
+            },
+            (firstResult, maxResults) -> {
+                TypedQuery<Object[]> pageQuery = em.createQuery(jpql, Object[].class);
+                parameters.forEach(pageQuery::setParameter);
+                List<Object[]> results = pageQuery
+                    .setFirstResult(firstResult)
+                    .setMaxResults(maxResults)
+                    .getResultList();
+                List<InventoryProductRow> rows = new ArrayList<>();
+                for (Object[] row : results) {
+                    rows.add(new InventoryProductRow(
+                        (Integer) row[0],
+                        (Integer) row[1],
+                        (Integer) row[2],
+                        (String) row[3],
+                        (String) row[4],
+                        (Double) row[5]
+                    ));
+                }
+                return rows;
+            }
+        );
+    }
+
+    private String buildWithProductWhere(PaginationQuery query, Map<String, Object> parameters) {
+        switch (query.getQueryType()) {
+            case ALL:
+                return "";
+            case BY_FIELD:
+                parameters.put("v0", query.getFieldValue());
+                return " where " + withProductPath(query.getFieldName()) + " = :v0";
+            case BY_FIELD_LIKE:
+                parameters.put("v0", "%" + query.getSearchPattern().toLowerCase() + "%");
+                return " where lower(" + withProductPath(query.getFieldName()) + ") like :v0";
+            case BY_FIELDS:
+                List<String> predicates = new ArrayList<>();
+                for (int i = 0; i < query.getFieldNames().length; i++) {
+                    parameters.put("v" + i, query.getFieldValues()[i]);
+                    predicates.add(withProductPath(query.getFieldNames()[i]) + " = :v" + i);
+                }
+                return " where " + String.join(" and ", predicates);
+            default:
+                throw new IllegalArgumentException("Unsupported query type: " + query.getQueryType());
+        }
+    }
+
+    private String buildWithProductOrderBy(PaginationRequest request) {
+        if (request.getSortBy() == null || request.getSortBy().trim().isEmpty()) {
+            return "";
+        }
+        String direction = "ASC".equalsIgnoreCase(request.getSortDirection()) ? " asc" : " desc";
+        return " order by " + withProductPath(request.getSortBy().trim()) + direction;
+    }
+
+    private String withProductPath(String fieldName) {
+        String path = WITH_PRODUCT_PATHS.get(fieldName);
+        if (path == null) {
+            throw new IllegalArgumentException("Unsupported inventory field: " + fieldName);
+        }
+        return path;
+    }
+
     @Override
     protected void updateEntity(InventoryPojo existing, InventoryPojo updated) {
         existing.setQuantity(updated.getQuantity());
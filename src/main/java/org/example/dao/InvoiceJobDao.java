@@ -0,0 +1,44 @@
+package org.example.dao;
+
+import org.example.model.enums.InvoiceJobStatus;
+import org.example.pojo.InvoiceJobPojo;
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+@Repository
+public class InvoiceJobDao extends AbstractDao<InvoiceJobPojo> {
+
+    public InvoiceJobDao() {
+        super(InvoiceJobPojo.class);
+    }
+
+    /**
+     * Lock up to limit jobs that are due, oldest first: pending jobs whose retry time has come and
+     * running jobs whose lease has expired. Rows locked by another transaction are skipped, so
+     * concurrent pollers never claim the same job.
+     */
+    public List<InvoiceJobPojo> selectDueForUpdate(ZonedDateTime now, int limit) {
+        return em.unwrap(Session.class).createSelectionQuery(
+                "select j from InvoiceJobPojo j where j.status in :statuses and j.nextAttemptAt <= :now "
+                    + "order by j.nextAttemptAt", InvoiceJobPojo.class)
+            .setParameter("statuses", Arrays.asList(InvoiceJobStatus.PENDING, InvoiceJobStatus.RUNNING))
+            .setParameter("now", now)
+            .setMaxResults(limit)
+            // SELECT ... FOR UPDATE SKIP LOCKED
+            .setHibernateLockMode(LockMode.UPGRADE_SKIPLOCKED)
+            .getResultList();
+    }
+
+    @Override
+    protected void updateEntity(InvoiceJobPojo existing, InvoiceJobPojo updated) {
+        existing.setStatus(updated.getStatus());
+        existing.setAttempts(updated.getAttempts());
+        existing.setNextAttemptAt(updated.getNextAttemptAt());
+        existing.setLastError(updated.getLastError());
+    }
+}
@@ -2,12 +2,16 @@ package org.example.dao;
 
 import jakarta.persistence.*;
 import jakarta.persistence.criteria.*;
+import org.example.model.constants.DbConstants;
 import org.example.model.data.PaginationResponse;
 import org.example.model.form.PaginationRequest;
 import org.example.model.form.PaginationQuery;
 import org.example.util.PaginationUtil;
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import org.example.pojo.OrderPojo;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -47,7 +51,7 @@ public class OrderDao extends AbstractDao<OrderPojo> {
     @Override
     protected void updateEntity(OrderPojo existing, OrderPojo updated) {
         existing.setDate(updated.getDate());
-        existing.setTotal(updated.getTotal());
+        existing.setTotalPaise(updated.getTotalPaise());
         existing.setStatus(updated.getStatus());
         // Order items are now managed separately
     }
@@ -85,6 +89,59 @@ public class OrderDao extends AbstractDao<OrderPojo> {
         return em.createQuery(cq).getResultList();
     }
 
+    /**
+     * Stream the orders placed on the given IST dates, inclusive, in ID order
+     */
+    public long scrollByDateRange(LocalDate startDate, LocalDate endDate, Consumer<OrderPojo> visitor) {
+        ZoneId istZone = ZoneId.of("Asia/Kolkata");
+        return scroll(em.unwrap(Session.class)
+            .createQuery("select o from OrderPojo o where o.date >= :start and o.date < :end order by o.id", OrderPojo.class)
+            .setParameter("start", startDate.atStartOfDay(istZone))
+            .setParameter("end", endDate.plusDays(1).atStartOfDay(istZone)), visitor);
+    }
+
+    public static class OrderSummaryRow {
+        private ZonedDateTime date;
+        private long totalPaise;
+        private long itemCount;
+        public OrderSummaryRow(ZonedDateTime date, long totalPaise, long itemCount) {
+            this.date = date;
+            this.totalPaise = totalPaise;
+            this.itemCount = itemCount;
+        }
+        public ZonedDateTime getDate() { return date; }
+        public long getTotalPaise() { return totalPaise; }
+        public long getItemCount() { return itemCount; }
+    }
+
+    /**
+     * Summarise every order in an inclusive IST date range with its total and item quantity,
+     * using a single grouped query over orders and order items.
+     */
+    public List<OrderSummaryRow> findOrderSummariesByDateRange(LocalDate startDate, LocalDate endDate) {
+        ZoneId istZone = ZoneId.of("Asia/Kolkata");
+        ZonedDateTime start = startDate.atStartOfDay(istZone);
+        ZonedDateTime end = endDate.plusDays(1).atStartOfDay(istZone);
+        String jpql = "select o.date, o.total, sum(i.quantity) " +
+                      "from OrderPojo o " +
+                      "left join OrderItemPojo i on i.orderId = o.id " +
+                      "where o.date >= :start and o.date < :end " +
+                      "group by o.id, o.date, o.total";
+        List<Object[]> results = em.createQuery(jpql, Object[].class)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .getResultList();
+        List<OrderSummaryRow> rows = new ArrayList<>();
+        for (Object[] row : results) {
+            rows.add(new OrderSummaryRow(
+                (ZonedDateTime) row[0],
+                row[1] != null ? ((Number) row[1]).longValue() : 0L,
+                row[2] != null ? ((Number) row[2]).longValue() : 0L
+            ));
+        }
+        return rows;
+    }
+
     public LocalDate findEarliestOrderDate() {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<ZonedDateTime> cq = cb.createQuery(ZonedDateTime.class);
@@ -190,30 +247,13 @@ public class OrderDao extends AbstractDao<OrderPojo> {
      * @return List of orders where the search term appears as a substring in the ID, ordered by date descending
      */
     public List<OrderPojo> findOrdersBySubstringId(String searchId, int maxResults) {
-        if (searchId == null || searchId.trim().isEmpty()) {
+        String searchTerm = toSubstringSearchTerm(searchId);
+        if (searchTerm == null) {
             return List.of();
         }
-        
-        String searchTerm = searchId.trim();
-        
-        // Get all orders for substring comparison
-        List<OrderPojo> allOrders = selectAll();
-        List<OrderPojo> matchingOrders = new java.util.ArrayList<>();
-        
-        for (OrderPojo order : allOrders) {
-            String orderIdStr = String.valueOf(order.getId());
-            if (orderIdStr.contains(searchTerm)) {
-                matchingOrders.add(order);
-                if (matchingOrders.size() >= maxResults) {
-                    break;
-                }
-            }
-        }
-        
-        // Sort by date descending (most recent first)
-        matchingOrders.sort((a, b) -> b.getDate().compareTo(a.getDate()));
-        
-        return matchingOrders;
+        return createSubstringQuery("select o from OrderPojo o", searchTerm, OrderPojo.class, true)
+            .setMaxResults(maxResults)
+            .getResultList();
     }
 
     /**
@@ -227,38 +267,18 @@ public class OrderDao extends AbstractDao<OrderPojo> {
             String searchId, 
             PaginationRequest request) {
         
-        if (searchId == null || searchId.trim().isEmpty()) {
+        String searchTerm = toSubstringSearchTerm(searchId);
+        if (searchTerm == null) {
             return PaginationUtil.createEmptyResponse(request);
         }
-        
-        String searchTerm = searchId.trim();
-        
-        // Get all matching orders
-        List<OrderPojo> allMatchingOrders = getAllSubstringMatches(searchTerm);
-        
-        if (allMatchingOrders.isEmpty()) {
-            return PaginationUtil.createEmptyResponse(request);
-        }
-        
-        // Apply pagination
-        int totalElements = allMatchingOrders.size();
-        int pageSize = request.getPageSize();
-        int pageNumber = request.getPageNumber();
-        int startIndex = pageNumber * pageSize;
-        int endIndex = Math.min(startIndex + pageSize, totalElements);
-        
-        List<OrderPojo> paginatedContent;
-        if (startIndex >= totalElements) {
-            paginatedContent = List.of();
-        } else {
-            paginatedContent = allMatchingOrders.subList(startIndex, endIndex);
-        }
-        
-        return new PaginationResponse<>(
-            paginatedContent,
-            totalElements,
-            request.getPageNumber(),
-            request.getPageSize()
+        return getCountedPage(
+            request,
+            "substringId|" + searchTerm,
+            () -> countOrdersBySubstringId(searchTerm),
+            (firstResult, maxResults) -> createSubstringQuery("select o from OrderPojo o", searchTerm, OrderPojo.class, true)
+                .setFirstResult(firstResult)
+                .setMaxResults(maxResults)
+                .getResultList()
         );
     }
 
@@ -269,11 +289,59 @@ public class OrderDao extends AbstractDao<OrderPojo> {
      * @return Number of orders containing the substring
      */
     public long countOrdersBySubstringId(String searchId) {
-        if (searchId == null || searchId.trim().isEmpty()) {
+        String searchTerm = toSubstringSearchTerm(searchId);
+        if (searchTerm == null) {
             return 0;
         }
-        
-        return getAllSubstringMatches(searchId.trim()).size();
+        if (searchTerm.length() <= DbConstants.OrderSearch.MAX_GRAM_LENGTH) {
+            // A short term is a gram, so its count is a range count on the index alone
+            return em.createQuery("select count(g) from OrderIdGramPojo g where g.gram = :gram", Long.class)
+                .setParameter("gram", searchTerm)
+                .getSingleResult();
+        }
+        return createSubstringQuery("select count(o) from OrderPojo o", searchTerm, Long.class, false)
+            .getSingleResult();
+    }
+
+    /**
+     * Trimmed search term, or null when it is blank or could not occur in an order ID
+     */
+    private String toSubstringSearchTerm(String searchId) {
+        if (searchId == null || searchId.trim().isEmpty()) {
+            return null;
+        }
+        String searchTerm = searchId.trim();
+        return searchTerm.chars().allMatch(Character::isDigit) ? searchTerm : null;
+    }
+
+    /**
+     * Orders whose ID has every search gram of the term, most recent first. Only terms longer than
+     * a gram need the final LIKE, and it only runs on the orders the grams already matched.
+     */
+    private <R> TypedQuery<R> createSubstringQuery(String select, String searchTerm, Class<R> resultClass, boolean ordered) {
+        List<String> grams = new ArrayList<>(OrderIdGramDao.searchGramsOf(searchTerm));
+        StringBuilder jpql = new StringBuilder(select).append(" where ");
+        for (int i = 0; i < grams.size(); i++) {
+            if (i > 0) {
+                jpql.append(" and ");
+            }
+            jpql.append("o.id in (select g.orderId from OrderIdGramPojo g where g.gram = :gram").append(i).append(")");
+        }
+        boolean needsLike = searchTerm.length() > DbConstants.OrderSearch.MAX_GRAM_LENGTH;
+        if (needsLike) {
+            jpql.append(" and cast(o.id as String) like :pattern");
+        }
+        if (ordered) {
+            jpql.append(" order by o.date desc, o.id desc");
+        }
+        TypedQuery<R> query = em.createQuery(jpql.toString(), resultClass);
+        for (int i = 0; i < grams.size(); i++) {
+            query.setParameter("gram" + i, grams.get(i));
+        }
+        if (needsLike) {
+            query.setParameter("pattern", "%" + searchTerm + "%");
+        }
+        return query;
     }
 
     // ========== PRIVATE HELPER METHODS ==========
@@ -365,24 +433,4 @@ public class OrderDao extends AbstractDao<OrderPojo> {
                 .setMaxResults(request.getPageSize())
                 .getResultList();
     }
-
-    /**
-     * Get all orders that contain the search term as a substring in their ID.
-     */
-    private List<OrderPojo> getAllSubstringMatches(String searchTerm) {
-        List<OrderPojo> allOrders = selectAll();
-        List<OrderPojo> matchingOrders = new java.util.ArrayList<>();
-        
-        for (OrderPojo order : allOrders) {
-            String orderIdStr = String.valueOf(order.getId());
-            if (orderIdStr.contains(searchTerm)) {
-                matchingOrders.add(order);
-            }
-        }
-        
-        // Sort by date descending (most recent first)
-        matchingOrders.sort((a, b) -> b.getDate().compareTo(a.getDate()));
-        
-        return matchingOrders;
-    }
 }
@@ -0,0 +1,137 @@
+package org.example.dao;
+
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.example.model.constants.DbConstants;
+import org.example.pojo.OrderIdGramPojo;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains the order_id_gram index behind order ID substring search.
+ */
+@Repository
+public class OrderIdGramDao extends AbstractDao<OrderIdGramPojo> {
+
+    public OrderIdGramDao() {
+        super(OrderIdGramPojo.class);
+    }
+
+    /**
+     * Every distinct substring of the order ID up to MAX_GRAM_LENGTH digits long
+     */
+    public static Set<String> gramsOf(Integer orderId) {
+        String digits = String.valueOf(orderId);
+        Set<String> grams = new LinkedHashSet<>();
+        for (int length = 1; length <= DbConstants.OrderSearch.MAX_GRAM_LENGTH; length++) {
+            for (int start = 0; start + length <= digits.length(); start++) {
+                grams.add(digits.substring(start, start + length));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * The grams an order ID must have to contain the term. A short term is a gram itself; a longer
+     * one needs all of its MAX_GRAM_LENGTH grams, which narrows the candidates without proving a match.
+     */
+    public static Set<String> searchGramsOf(String term) {
+        int length = DbConstants.OrderSearch.MAX_GRAM_LENGTH;
+        if (term.length() <= length) {
+            return Collections.singleton(term);
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int start = 0; start + length <= term.length(); start++) {
+            grams.add(term.substring(start, start + length));
+        }
+        return grams;
+    }
+
+    public void insertForOrder(Integer orderId) {
+        insertForOrders(List.of(orderId));
+    }
+
+    /**
+     * Write the grams of these orders, skipping any already indexed, in one multi-row INSERT IGNORE
+     * statement per GRAM_INSERT_BATCH_SIZE rows. The live path, the seed and the catch-up sweeps
+     * may all write the same order.
+     */
+    public void insertForOrders(List<Integer> orderIds) {
+        List<String[]> rows = new ArrayList<>();
+        for (Integer orderId : orderIds) {
+            for (String gram : gramsOf(orderId)) {
+                rows.add(new String[] {gram, String.valueOf(orderId)});
+            }
+        }
+        int batchSize = DbConstants.OrderSearch.GRAM_INSERT_BATCH_SIZE;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<String[]> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            StringBuilder sql = new StringBuilder("INSERT IGNORE INTO order_id_gram (gram, orderId) VALUES ");
+            for (int i = 0; i < batch.size(); i++) {
+                sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+            }
+
+            // Declaring the touched entity keeps the native insert from evicting every cache region
+            Query query = em.createNativeQuery(sql.toString())
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(OrderIdGramPojo.class);
+            int position = 1;
+            for (String[] row : batch) {
+                query.setParameter(position++, row[0]);
+                query.setParameter(position++, Integer.valueOf(row[1]));
+            }
+            query.executeUpdate();
+        }
+    }
+
+    /**
+     * Write grams for the next batch of orders below belowId, highest ID first, and return the
+     * lowest ID written, or null when no orders are left
+     */
+    public Integer indexOrdersBelow(Integer belowId) {
+        List<Integer> orderIds = em.createQuery(
+                "select o.id from OrderPojo o where o.id < :belowId order by o.id desc", Integer.class)
+            .setParameter("belowId", belowId)
+            .setMaxResults(DbConstants.OrderSearch.REBUILD_BATCH_SIZE)
+            .getResultList();
+        if (orderIds.isEmpty()) {
+            return null;
+        }
+        insertForOrders(orderIds);
+        return orderIds.get(orderIds.size() - 1);
+    }
+
+    /**
+     * Write grams for the next batch of orders created at or after since with an ID above afterId
+     * (any ID when null), lowest ID first, and return the highest ID written, or null when no
+     * orders are left
+     */
+    public Integer indexOrdersCreatedSince(ZonedDateTime since, Integer afterId) {
+        String jpql = "select o.id from OrderPojo o where o.createdAt >= :since " +
+                      (afterId != null ? "and o.id > :afterId " : "") +
+                      "order by o.id";
+        TypedQuery<Integer> query = em.createQuery(jpql, Integer.class)
+            .setParameter("since", since)
+            .setMaxResults(DbConstants.OrderSearch.REBUILD_BATCH_SIZE);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        List<Integer> orderIds = query.getResultList();
+        if (orderIds.isEmpty()) {
+            return null;
+        }
+        insertForOrders(orderIds);
+        return orderIds.get(orderIds.size() - 1);
+    }
+
+    @Override
+    protected void updateEntity(OrderIdGramPojo existing, OrderIdGramPojo updated) {
+        // Grams are derived from the order ID and never change
+    }
+}
@@ -28,6 +28,15 @@ public class ProductDao extends AbstractDao<ProductPojo> {
         return getByParams(new String[]{"clientId"}, new Object[]{clientId});
     }
 
+    /**
+     * Read up to limit products in ID order, used to warm the barcode index
+     */
+    public List<ProductPojo> selectFirst(int limit) {
+        return em.createQuery("select p from ProductPojo p order by p.id", ProductPojo.class)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
     public boolean hasProductsByClientId(Integer clientId) {
         return existsByField("clientId", clientId);
     }
@@ -36,6 +45,11 @@ public class ProductDao extends AbstractDao<ProductPojo> {
         return getByParamsPaginated("clientId", clientId, request);
     }
 
+    @Override
+    protected String getNaturalIdField() {
+        return "barcode";
+    }
+
     @Override
     protected void updateEntity(ProductPojo existing, ProductPojo updated) {
         existing.setName(updated.getName());
@@ -0,0 +1,51 @@
+package org.example.dao;
+
+import org.example.pojo.RebuildProgressPojo;
+import org.springframework.stereotype.Repository;
+import java.time.ZonedDateTime;
+
+@Repository
+public class RebuildProgressDao extends AbstractDao<RebuildProgressPojo> {
+
+    public RebuildProgressDao() {
+        super(RebuildProgressPojo.class);
+    }
+
+    public RebuildProgressPojo selectByName(String name) {
+        return em.find(RebuildProgressPojo.class, name);
+    }
+
+    /**
+     * The progress of the named rebuild, starting it at initialPosition when it has none yet
+     */
+    public RebuildProgressPojo getOrCreate(String name, long initialPosition) {
+        RebuildProgressPojo progress = selectByName(name);
+        if (progress == null) {
+            progress = new RebuildProgressPojo();
+            progress.setName(name);
+            progress.setPosition(initialPosition);
+            progress.setSyncedAt(ZonedDateTime.now());
+            insert(progress);
+        }
+        return progress;
+    }
+
+    public void advance(String name, long position) {
+        selectByName(name).setPosition(position);
+    }
+
+    public void complete(String name) {
+        selectByName(name).setCompleted(true);
+    }
+
+    public void sync(String name, ZonedDateTime syncedAt) {
+        selectByName(name).setSyncedAt(syncedAt);
+    }
+
+    @Override
+    protected void updateEntity(RebuildProgressPojo existing, RebuildProgressPojo updated) {
+        existing.setPosition(updated.getPosition());
+        existing.setCompleted(updated.isCompleted());
+        existing.setSyncedAt(updated.getSyncedAt());
+    }
+}
@@ -0,0 +1,391 @@
+package org.example.dao;
+
+import jakarta.persistence.*;
+import org.example.model.enums.OrderStatus;
+import org.example.pojo.SalesFactOrderPojo;
+import org.example.pojo.SalesFactPojo;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class SalesFactDao extends AbstractDao<SalesFactPojo> {
+
+    private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
+    // Rows per multi-row upsert; keeps each statement well under the server's packet and placeholder limits
+    private static final int FACT_UPSERT_BATCH_SIZE = 500;
+
+    public SalesFactDao() {
+        super(SalesFactPojo.class);
+    }
+
+    /**
+     * One (order, product) slice of sales, as read from order items before it is folded into the fact table.
+     * saleDate, invoiced and the recorded flags are only populated by range reads; the flags say which
+     * measures pos_sales_fact_order already has the slice folded into.
+     */
+    public static class FactLine {
+        private final LocalDate saleDate;
+        private final boolean invoiced;
+        private final Integer orderId;
+        private final Integer productId;
+        private final Integer clientId;
+        private final long quantity;
+        private final long revenuePaise;
+        private final boolean counted;
+        private final boolean invoiceCounted;
+        public FactLine(LocalDate saleDate, boolean invoiced, Integer orderId, Integer productId, Integer clientId,
+                        long quantity, long revenuePaise, boolean counted, boolean invoiceCounted) {
+            this.saleDate = saleDate;
+            this.invoiced = invoiced;
+            this.orderId = orderId;
+            this.productId = productId;
+            this.clientId = clientId;
+            this.quantity = quantity;
+            this.revenuePaise = revenuePaise;
+            this.counted = counted;
+            this.invoiceCounted = invoiceCounted;
+        }
+        public LocalDate getSaleDate() { return saleDate; }
+        public boolean isInvoiced() { return invoiced; }
+        public Integer getOrderId() { return orderId; }
+        public Integer getProductId() { return productId; }
+        public Integer getClientId() { return clientId; }
+        public long getQuantity() { return quantity; }
+        public long getRevenuePaise() { return revenuePaise; }
+        public boolean isCounted() { return counted; }
+        public boolean isInvoiceCounted() { return invoiceCounted; }
+    }
+
+    public static class SalesReportRow {
+        private String brand;
+        private String category;
+        private String sku;
+        private Long quantity;
+        private long revenuePaise;
+        private Long orderCount;
+        public SalesReportRow(String brand, String category, String sku, Long quantity, long revenuePaise, Long orderCount) {
+            this.brand = brand;
+            this.category = category;
+            this.sku = sku;
+            this.quantity = quantity;
+            this.revenuePaise = revenuePaise;
+            this.orderCount = orderCount;
+        }
+        // getters and setters
+        public String getBrand() { return brand; }
+        public String getCategory() { return category; }
+        public String getSku() { return sku; }
+        public Long getQuantity() { return quantity; }
+        public long getRevenuePaise() { return revenuePaise; }
+        public Long getOrderCount() { return orderCount; }
+    }
+
+    public static class BrandCategoryOrderCount {
+        private final String brand;
+        private final String category;
+        private final long orderCount;
+        public BrandCategoryOrderCount(String brand, String category, long orderCount) {
+            this.brand = brand;
+            this.category = category;
+            this.orderCount = orderCount;
+        }
+        public String getBrand() { return brand; }
+        public String getCategory() { return category; }
+        public long getOrderCount() { return orderCount; }
+    }
+
+    // ========== ORDER ITEM READS ==========
+
+    /**
+     * Sum the items of one order per product. Client ID falls back to 0 when the product is missing.
+     */
+    public List<FactLine> selectLinesByOrderId(Integer orderId) {
+        String jpql = "select i.productId, coalesce(p.clientId, 0), sum(i.quantity), sum(i.amount) " +
+                      "from OrderItemPojo i " +
+                      "left join ProductPojo p on p.id = i.productId " +
+                      "where i.orderId = :orderId " +
+                      "group by i.productId, p.clientId";
+        List<Object[]> results = em.createQuery(jpql, Object[].class)
+            .setParameter("orderId", orderId)
+            .getResultList();
+        List<FactLine> lines = new ArrayList<>();
+        for (Object[] row : results) {
+            lines.add(new FactLine(null, false, orderId, (Integer) row[0], (Integer) row[1],
+                toLong(row[2]), toLong(row[3]), false, false));
+        }
+        return lines;
+    }
+
+    /**
+     * Sum order items per (order, product) for orders placed in [start, end), tagging each line with
+     * the IST date of its order, whether the order is invoiced and which measures it is already
+     * folded into. Used to rebuild the fact table.
+     */
+    public List<FactLine> selectLinesByDateRange(ZonedDateTime start, ZonedDateTime end) {
+        String jpql = "select o.id, o.date, o.status, i.productId, coalesce(p.clientId, 0), sum(i.quantity), sum(i.amount), " +
+                      "f.counted, f.invoiced " +
+                      "from OrderItemPojo i " +
+                      "join OrderPojo o on o.id = i.orderId " +
+                      "left join ProductPojo p on p.id = i.productId " +
+                      "left join SalesFactOrderPojo f on f.orderId = o.id and f.productId = i.productId " +
+                      "where o.date >= :start and o.date < :end " +
+                      "group by o.id, o.date, o.status, i.productId, p.clientId, f.counted, f.invoiced";
+        List<Object[]> results = em.createQuery(jpql, Object[].class)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .getResultList();
+        List<FactLine> lines = new ArrayList<>();
+        for (Object[] row : results) {
+            LocalDate saleDate = ((ZonedDateTime) row[1]).withZoneSameInstant(IST_ZONE).toLocalDate();
+            boolean invoiced = row[2] == OrderStatus.INVOICED;
+            lines.add(new FactLine(saleDate, invoiced, (Integer) row[0], (Integer) row[3], (Integer) row[4],
+                toLong(row[5]), toLong(row[6]), Boolean.TRUE.equals(row[7]), Boolean.TRUE.equals(row[8])));
+        }
+        return lines;
+    }
+
+    // ========== FACT WRITES ==========
+
+    /**
+     * Add one order's lines to the fact table. Each line counts as one order for its product.
+     */
+    public void addOrderLines(LocalDate saleDate, List<FactLine> lines) {
+        List<SalesFactPojo> deltas = new ArrayList<>();
+        List<SalesFactOrderPojo> orderRows = new ArrayList<>();
+        for (FactLine line : lines) {
+            SalesFactPojo delta = newFact(saleDate, line);
+            delta.setQuantity(line.getQuantity());
+            delta.setRevenuePaise(line.getRevenuePaise());
+            delta.setOrderCount(1);
+            deltas.add(delta);
+            orderRows.add(newOrderRow(saleDate, line, true, false));
+        }
+        addFacts(deltas);
+        recordOrderRows(orderRows);
+    }
+
+    /**
+     * Add one invoiced order's lines to the invoiced measures of the fact table.
+     */
+    public void addInvoicedLines(LocalDate saleDate, List<FactLine> lines) {
+        List<SalesFactPojo> deltas = new ArrayList<>();
+        List<SalesFactOrderPojo> orderRows = new ArrayList<>();
+        for (FactLine line : lines) {
+            SalesFactPojo delta = newFact(saleDate, line);
+            delta.setInvoicedQuantity(line.getQuantity());
+            delta.setInvoicedRevenuePaise(line.getRevenuePaise());
+            delta.setInvoicedOrderCount(1);
+            deltas.add(delta);
+            orderRows.add(newOrderRow(saleDate, line, false, true));
+        }
+        addFacts(deltas);
+        recordOrderRows(orderRows);
+    }
+
+    /**
+     * Add each delta's measures to the fact row with its key, creating missing rows, in one multi-row
+     * INSERT ... ON DUPLICATE KEY UPDATE statement per FACT_UPSERT_BATCH_SIZE deltas.
+     */
+    public void addFacts(List<SalesFactPojo> deltas) {
+        for (int from = 0; from < deltas.size(); from += FACT_UPSERT_BATCH_SIZE) {
+            List<SalesFactPojo> batch = deltas.subList(from, Math.min(from + FACT_UPSERT_BATCH_SIZE, deltas.size()));
+            StringBuilder sql = new StringBuilder(
+                "INSERT INTO pos_sales_fact (saleDate, clientId, productId, quantity, revenue, orderCount, " +
+                "invoicedQuantity, invoicedRevenue, invoicedOrderCount) VALUES ");
+            for (int i = 0; i < batch.size(); i++) {
+                sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            }
+            sql.append(" ON DUPLICATE KEY UPDATE " +
+                       "quantity = quantity + VALUES(quantity), " +
+                       "revenue = revenue + VALUES(revenue), " +
+                       "orderCount = orderCount + VALUES(orderCount), " +
+                       "invoicedQuantity = invoicedQuantity + VALUES(invoicedQuantity), " +
+                       "invoicedRevenue = invoicedRevenue + VALUES(invoicedRevenue), " +
+                       "invoicedOrderCount = invoicedOrderCount + VALUES(invoicedOrderCount)");
+
+            // Declaring the touched entity keeps the native upsert from evicting every cache region
+            Query query = em.createNativeQuery(sql.toString())
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(SalesFactPojo.class);
+            int position = 1;
+            for (SalesFactPojo delta : batch) {
+                query.setParameter(position++, delta.getSaleDate());
+                query.setParameter(position++, delta.getClientId());
+                query.setParameter(position++, delta.getProductId());
+                query.setParameter(position++, delta.getQuantity());
+                query.setParameter(position++, delta.getRevenuePaise());
+                query.setParameter(position++, delta.getOrderCount());
+                query.setParameter(position++, delta.getInvoicedQuantity());
+                query.setParameter(position++, delta.getInvoicedRevenuePaise());
+                query.setParameter(position++, delta.getInvoicedOrderCount());
+            }
+            query.executeUpdate();
+        }
+    }
+
+    /**
+     * Record which measures the given (order, product) rows have been folded into. A flag already set
+     * stays set, and a new row keeps the date and client it was first written with. One multi-row
+     * INSERT ... ON DUPLICATE KEY UPDATE statement per FACT_UPSERT_BATCH_SIZE rows.
+     */
+    public void recordOrderRows(List<SalesFactOrderPojo> orderRows) {
+        for (int from = 0; from < orderRows.size(); from += FACT_UPSERT_BATCH_SIZE) {
+            List<SalesFactOrderPojo> batch = orderRows.subList(from, Math.min(from + FACT_UPSERT_BATCH_SIZE, orderRows.size()));
+            StringBuilder sql = new StringBuilder(
+                "INSERT INTO pos_sales_fact_order (orderId, productId, saleDate, clientId, counted, invoiced) VALUES ");
+            for (int i = 0; i < batch.size(); i++) {
+                sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+            }
+            sql.append(" ON DUPLICATE KEY UPDATE " +
+                       "counted = counted OR VALUES(counted), " +
+                       "invoiced = invoiced OR VALUES(invoiced)");
+
+            Query query = em.createNativeQuery(sql.toString())
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(SalesFactOrderPojo.class);
+            int position = 1;
+            for (SalesFactOrderPojo orderRow : batch) {
+                query.setParameter(position++, orderRow.getOrderId());
+                query.setParameter(position++, orderRow.getProductId());
+                query.setParameter(position++, orderRow.getSaleDate());
+                query.setParameter(position++, orderRow.getClientId());
+                query.setParameter(position++, orderRow.isCounted());
+                query.setParameter(position++, orderRow.isInvoiced());
+            }
+            query.executeUpdate();
+        }
+    }
+
+    // ========== REPORT READS ==========
+
+    /**
+     * Aggregate facts into brand|sku rows for an inclusive IST date range. Brand and category filters are
+     * optional and matched case-insensitively against client name and product name.
+     */
+    public List<SalesReportRow> getSalesReport(LocalDate start, LocalDate end, String brand, String category) {
+        boolean filterBrand = brand != null && !brand.isEmpty();
+        boolean filterCategory = category != null && !category.isEmpty();
+
+        StringBuilder jpql = new StringBuilder()
+            .append("select c.clientName, p.name, p.barcode, sum(f.quantity), sum(f.revenue), sum(f.orderCount) ")
+            .append("from SalesFactPojo f ")
+            .append("left join ProductPojo p on p.id = f.productId ")
+            .append("left join ClientPojo c on c.id = f.clientId ")
+            .append("where f.saleDate between :start and :end and f.orderCount > 0 ");
+        if (filterBrand) {
+            jpql.append("and lower(c.clientName) = :brand ");
+        }
+        if (filterCategory) {
+            jpql.append("and lower(p.name) = :category ");
+        }
+        jpql.append("group by c.clientName, p.barcode, p.name");
+
+        TypedQuery<Object[]> query = em.createQuery(jpql.toString(), Object[].class)
+            .setParameter("start", start)
+            .setParameter("end", end);
+        if (filterBrand) {
+            query.setParameter("brand", brand.toLowerCase());
+        }
+        if (filterCategory) {
+            query.setParameter("category", category.toLowerCase());
+        }
+
+        List<SalesReportRow> rows = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            rows.add(new SalesReportRow(
+                (String) row[0],
+                (String) row[1],
+                (String) row[2],
+                toLong(row[3]),
+                toLong(row[4]),
+                toLong(row[5])
+            ));
+        }
+        return rows;
+    }
+
+    /**
+     * Count distinct orders per brand|category (client name | product name) for an inclusive IST date
+     * range, with the same optional filters as getSalesReport. Fact rows count orders per (day, product),
+     * so an order with several products in one group would be counted once for each; this counts the
+     * orders recorded in pos_sales_fact_order instead, under the client the fact rows were written with.
+     */
+    public List<BrandCategoryOrderCount> countOrdersByBrandCategory(LocalDate start, LocalDate end, String brand, String category) {
+        boolean filterBrand = brand != null && !brand.isEmpty();
+        boolean filterCategory = category != null && !category.isEmpty();
+
+        StringBuilder jpql = new StringBuilder()
+            .append("select c.clientName, p.name, count(distinct f.orderId) ")
+            .append("from SalesFactOrderPojo f ")
+            .append("left join ProductPojo p on p.id = f.productId ")
+            .append("left join ClientPojo c on c.id = f.clientId ")
+            .append("where f.saleDate between :start and :end and f.counted = true ");
+        if (filterBrand) {
+            jpql.append("and lower(c.clientName) = :brand ");
+        }
+        if (filterCategory) {
+            jpql.append("and lower(p.name) = :category ");
+        }
+        jpql.append("group by c.clientName, p.name");
+
+        TypedQuery<Object[]> query = em.createQuery(jpql.toString(), Object[].class)
+            .setParameter("start", start)
+            .setParameter("end", end);
+        if (filterBrand) {
+            query.setParameter("brand", brand.toLowerCase());
+        }
+        if (filterCategory) {
+            query.setParameter("category", category.toLowerCase());
+        }
+
+        List<BrandCategoryOrderCount> counts = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            counts.add(new BrandCategoryOrderCount((String) row[0], (String) row[1], toLong(row[2])));
+        }
+        return counts;
+    }
+
+    /**
+     * An empty fact row under a line's product and client, to add measures to
+     */
+    public static SalesFactPojo newFact(LocalDate saleDate, FactLine line) {
+        SalesFactPojo fact = new SalesFactPojo();
+        fact.setSaleDate(saleDate);
+        fact.setClientId(line.getClientId());
+        fact.setProductId(line.getProductId());
+        return fact;
+    }
+
+    /**
+     * The pos_sales_fact_order row for a line, with the measures it is being folded into
+     */
+    public static SalesFactOrderPojo newOrderRow(LocalDate saleDate, FactLine line, boolean counted, boolean invoiced) {
+        SalesFactOrderPojo orderRow = new SalesFactOrderPojo();
+        orderRow.setOrderId(line.getOrderId());
+        orderRow.setProductId(line.getProductId());
+        orderRow.setSaleDate(saleDate);
+        orderRow.setClientId(line.getClientId());
+        orderRow.setCounted(counted);
+        orderRow.setInvoiced(invoiced);
+        return orderRow;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    @Override
+    protected void updateEntity(SalesFactPojo existing, SalesFactPojo updated) {
+        existing.setQuantity(updated.getQuantity());
+        existing.setRevenuePaise(updated.getRevenuePaise());
+        existing.setOrderCount(updated.getOrderCount());
+        existing.setInvoicedQuantity(updated.getInvoicedQuantity());
+        existing.setInvoicedRevenuePaise(updated.getInvoicedRevenuePaise());
+        existing.setInvoicedOrderCount(updated.getInvoicedOrderCount());
+    }
+}
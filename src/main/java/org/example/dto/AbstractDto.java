@@ -37,9 +37,7 @@ public abstract class AbstractDto<T, F, D> {
 
     public List<D> getAll() {
         List<T> entities = api.getAll();
-        return entities.stream()
-                .map(this::convertEntityToData)
-                .collect(Collectors.toList());
+        return convertEntitiesToData(entities);
     }
 
     public D update(Integer id, @Valid F form) {
@@ -88,9 +86,7 @@ public abstract class AbstractDto<T, F, D> {
     public List<D> getByFields(String[] fieldNames, Object[] values) {
         validateFieldArrays(fieldNames, values);
         List<T> entities = api.getByFields(fieldNames, values);
-        return entities.stream()
-                .map(this::convertEntityToData)
-                .collect(Collectors.toList());
+        return convertEntitiesToData(entities);
     }
 
     /**
@@ -99,9 +95,7 @@ public abstract class AbstractDto<T, F, D> {
     public List<D> getByFieldLike(String fieldName, String searchPattern) {
         validateSearchPattern(searchPattern);
         List<T> entities = api.getByFieldLikeWithValidation(fieldName, searchPattern, fieldName);
-        return entities.stream()
-                .map(this::convertEntityToData)
-                .collect(Collectors.toList());
+        return convertEntitiesToData(entities);
     }
 
 
@@ -134,16 +128,9 @@ public abstract class AbstractDto<T, F, D> {
         
         PaginationResponse<T> paginatedEntities = api.getPaginated(query);
         
-        List<D> dataList = paginatedEntities.getContent().stream()
-                .map(this::convertEntityToData)
-                .collect(Collectors.toList());
+        List<D> dataList = convertEntitiesToData(paginatedEntities.getContent());
         
-        return new PaginationResponse<>(
-            dataList,
-            paginatedEntities.getTotalElements(),
-            paginatedEntities.getCurrentPage(),
-            paginatedEntities.getPageSize()
-        );
+        return paginatedEntities.withContent(dataList);
     }
 
     /**
@@ -170,7 +157,7 @@ public abstract class AbstractDto<T, F, D> {
     // ========== BATCH OPERATIONS ==========
 
     /**
-     * Convert a list of entities to data objects
+     * Convert a list of entities to data objects; override to prefetch related rows in bulk
      */
     protected List<D> convertEntitiesToData(List<T> entities) {
         if (entities == null) {
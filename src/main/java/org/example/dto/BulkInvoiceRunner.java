@@ -0,0 +1,105 @@
+package org.example.dto;
+
+import jakarta.annotation.PreDestroy;
+import org.example.model.constants.DbConstants;
+import org.example.util.BulkInvoiceRun;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Threads and bookkeeping for bulk invoice runs. Runs execute one at a time on a coordinator
+ * thread, which hands the invoice service calls to a fixed pool of workers, so no more than
+ * parallelism calls are in flight however many orders are queued. The latest runs are kept in
+ * memory for progress polling; a run is only visible on the node that started it.
+ */
+@Component
+public class BulkInvoiceRunner {
+
+    private final int recordBatchSize;
+    private final int maxOrders;
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    // Guarded by this; oldest first
+    private final Map<String, BulkInvoiceRun> runs = new LinkedHashMap<>();
+
+    public BulkInvoiceRunner(
+            @Value("${invoice.bulk.parallelism:" + DbConstants.InvoiceBulk.PARALLELISM + "}") int parallelism,
+            @Value("${invoice.bulk.record-batch-size:" + DbConstants.InvoiceBulk.RECORD_BATCH_SIZE + "}") int recordBatchSize,
+            @Value("${invoice.bulk.max-orders:" + DbConstants.InvoiceBulk.MAX_ORDERS + "}") int maxOrders) {
+        this.recordBatchSize = recordBatchSize;
+        this.maxOrders = maxOrders;
+        this.coordinator = Executors.newSingleThreadExecutor(daemonThreads("bulk-invoice-run-"));
+        this.workers = Executors.newFixedThreadPool(parallelism, daemonThreads("bulk-invoice-worker-"));
+    }
+
+    public int getRecordBatchSize() {
+        return recordBatchSize;
+    }
+
+    public int getMaxOrders() {
+        return maxOrders;
+    }
+
+    public ExecutorService getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Queue a run over the orders; body does the work and records each order's outcome
+     */
+    public BulkInvoiceRun submit(List<Integer> orderIds, Consumer<BulkInvoiceRun> body) {
+        BulkInvoiceRun run = new BulkInvoiceRun(orderIds);
+        register(run);
+        coordinator.execute(() -> {
+            run.start();
+            try {
+                body.accept(run);
+            } catch (Exception e) {
+                System.err.println("Bulk invoice run " + run.getId() + " failed: " + e.getMessage());
+            } finally {
+                run.finish();
+            }
+        });
+        return run;
+    }
+
+    public synchronized BulkInvoiceRun get(String runId) {
+        return runs.get(runId);
+    }
+
+    private synchronized void register(BulkInvoiceRun run) {
+        runs.put(run.getId(), run);
+        // Forget the oldest finished runs; unfinished ones are always kept
+        Iterator<BulkInvoiceRun> oldest = runs.values().iterator();
+        while (runs.size() > DbConstants.InvoiceBulk.RETAINED_RUNS && oldest.hasNext()) {
+            if (oldest.next().isFinished()) {
+                oldest.remove();
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+}
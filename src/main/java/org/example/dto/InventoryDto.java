@@ -1,9 +1,12 @@
 package org.example.dto;
 
+import org.example.api.InventoryApi;
+import org.example.dao.InventoryDao;
 import org.example.exception.ApiException;
 import org.example.model.data.InventoryData;
 import org.example.model.form.InventoryForm;
 import org.example.model.data.PaginationResponse;
+import org.example.model.form.PaginationQuery;
 import org.example.model.form.PaginationRequest;
 import org.example.model.data.TsvUploadResult;
 import org.example.pojo.InventoryPojo;
@@ -82,6 +85,41 @@ public class InventoryDto extends AbstractDto<InventoryPojo, InventoryForm, Inve
         return inventoryData;
     }
 
+    /**
+     * Pages come from a single inventory/product join instead of a product lookup per row.
+     * Rows whose product is missing keep null product fields.
+     */
+    @Override
+    public PaginationResponse<InventoryData> getPaginated(PaginationQuery query) {
+        if (query == null) {
+            throw new ApiException("Pagination query cannot be null");
+        }
+
+        if (query.getPaginationRequest().isKeyset()) {
+            // The join projection pages by offset; cursor pages go through the entity query
+            return super.getPaginated(query);
+        }
+
+        PaginationResponse<InventoryDao.InventoryProductRow> rows = ((InventoryApi) api).getWithProductPaginated(query);
+
+        List<InventoryData> dataList = rows.getContent().stream()
+                .map(this::convertRowToData)
+                .collect(Collectors.toList());
+
+        return rows.withContent(dataList);
+    }
+
+    private InventoryData convertRowToData(InventoryDao.InventoryProductRow row) {
+        InventoryData inventoryData = new InventoryData();
+        inventoryData.setId(row.getId());
+        inventoryData.setProductId(row.getProductId());
+        inventoryData.setQuantity(row.getQuantity());
+        inventoryData.setProductName(row.getProductName());
+        inventoryData.setBarcode(row.getBarcode());
+        inventoryData.setMrp(row.getMrp());
+        return inventoryData;
+    }
+
     @Override
     protected void preprocess(InventoryForm inventoryForm) {
         if (inventoryForm == null) {
@@ -0,0 +1,91 @@
+package org.example.dto;
+
+import jakarta.annotation.PreDestroy;
+import org.example.api.InvoiceJobApi;
+import org.example.model.constants.DbConstants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs queued invoice jobs on a fixed pool of worker threads, away from request threads.
+ *
+ * Every poll claims at most as many due jobs as there are idle workers, so jobs wait in the
+ * invoice_jobs table rather than in memory. A failed attempt is handed back to InvoiceJobApi,
+ * which schedules the retry. Jobs still running at shutdown are taken over by a later poll once
+ * their lease expires.
+ */
+@Component
+public class InvoiceJobWorker {
+
+    @Autowired
+    private InvoiceJobApi invoiceJobApi;
+
+    @Autowired
+    private OrderDto orderDto;
+
+    private final int maxAttempts;
+    private final Semaphore idleWorkers;
+    private final ExecutorService workers;
+
+    public InvoiceJobWorker(
+            @Value("${invoice.jobs.workers:" + DbConstants.InvoiceJobs.WORKER_COUNT + "}") int workerCount,
+            @Value("${invoice.jobs.max-attempts:" + DbConstants.InvoiceJobs.MAX_ATTEMPTS + "}") int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+        this.idleWorkers = new Semaphore(workerCount);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "invoice-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Only the scheduler thread acquires permits, so the jobs claimed always fit the idle workers
+    @Scheduled(fixedDelayString = "${invoice.jobs.poll-interval-ms:" + DbConstants.InvoiceJobs.POLL_INTERVAL_MILLIS + "}")
+    public void dispatch() {
+        int idle = idleWorkers.availablePermits();
+        if (idle == 0) {
+            return;
+        }
+        List<Integer> orderIds;
+        try {
+            orderIds = invoiceJobApi.claimDue(idle);
+        } catch (Exception e) {
+            System.err.println("Claiming invoice jobs failed: " + e.getMessage());
+            return;
+        }
+        for (Integer orderId : orderIds) {
+            idleWorkers.acquireUninterruptibly();
+            workers.execute(() -> run(orderId));
+        }
+    }
+
+    public void run(Integer orderId) {
+        try {
+            orderDto.generateInvoice(orderId);
+            invoiceJobApi.markDone(orderId);
+        } catch (Exception e) {
+            try {
+                invoiceJobApi.markFailed(orderId, e.getMessage(), maxAttempts);
+            } catch (Exception markFailure) {
+                // The lease runs out and the job is tried again
+                System.err.println("Recording invoice job failure for order " + orderId + " failed: " + markFailure.getMessage());
+            }
+        } finally {
+            idleWorkers.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -7,8 +7,14 @@ import org.example.api.ProductApi;
 import org.example.api.OrderApi;
 import org.example.api.InventoryApi;
 import org.example.api.InvoiceClientApi;
+import org.example.api.InvoiceJobApi;
 import org.example.model.data.*;
+import org.example.model.constants.ApiEndpoints;
+import org.example.model.enums.BulkInvoiceOutcome;
+import org.example.model.enums.ExportFormat;
+import org.example.model.enums.InvoiceJobStatus;
 import org.example.model.enums.OrderStatus;
+import org.example.model.form.BulkInvoiceForm;
 import org.example.model.form.OrderForm;
 import org.example.model.form.OrderItemForm;
 
@@ -17,18 +23,36 @@ import org.example.pojo.OrderPojo;
 import org.example.pojo.ProductPojo;
 import org.example.pojo.ClientPojo;
 import org.example.pojo.InvoicePojo;
+import org.example.pojo.InvoiceJobPojo;
 import org.example.exception.ApiException;
-import org.example.util.Base64ToPdfUtil;
+import org.example.util.BulkInvoiceRun;
+import org.example.util.ExportWriter;
+import org.example.util.InvoiceStore;
+import org.example.util.Money;
+import org.example.util.TimeUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 
-import org.springframework.core.io.Resource;
 import jakarta.validation.Valid;
+import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.time.format.DateTimeFormatter;
-import java.util.stream.Collectors;
 
 import org.example.model.form.PaginationRequest;
 import java.time.LocalDate;
@@ -55,6 +79,36 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
     @Autowired
     private InvoiceClientApi invoiceClientApi;
 
+    @Autowired
+    private InvoiceJobApi invoiceJobApi;
+
+    @Autowired
+    private InvoiceStore invoiceStore;
+
+    @Autowired
+    private BulkInvoiceRunner bulkInvoiceRunner;
+
+    // Same shape as the dates in OrderData
+    private static final DateTimeFormatter EXPORT_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssXXX");
+
+    private static final List<ExportWriter.Column<OrderPojo>> ORDER_EXPORT_COLUMNS = Arrays.asList(
+        new ExportWriter.Column<>("id", OrderPojo::getId),
+        new ExportWriter.Column<>("date", order -> formatExportDate(order.getDate())),
+        new ExportWriter.Column<>("userId", OrderPojo::getUserId),
+        new ExportWriter.Column<>("status", OrderPojo::getStatus),
+        new ExportWriter.Column<>("total", OrderPojo::getTotal)
+    );
+
+    private static final List<ExportWriter.Column<OrderItemPojo>> ORDER_ITEM_EXPORT_COLUMNS = Arrays.asList(
+        new ExportWriter.Column<>("id", OrderItemPojo::getId),
+        new ExportWriter.Column<>("orderId", OrderItemPojo::getOrderId),
+        new ExportWriter.Column<>("productId", OrderItemPojo::getProductId),
+        new ExportWriter.Column<>("quantity", OrderItemPojo::getQuantity),
+        new ExportWriter.Column<>("sellingPrice", OrderItemPojo::getSellingPrice),
+        new ExportWriter.Column<>("amount", OrderItemPojo::getAmount),
+        new ExportWriter.Column<>("createdAt", item -> formatExportDate(item.getCreatedAt()))
+    );
+
     @Override
     protected String getEntityName() {
         return "Order";
@@ -68,7 +122,7 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
 
         OrderPojo orderPojo = new OrderPojo();
         orderPojo.setDate(orderForm.getDate());
-        orderPojo.setTotal(0.0);
+        orderPojo.setTotalPaise(0);
         orderPojo.setUserId(orderForm.getUserId());
 
         return orderPojo;
@@ -80,48 +134,280 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
         if (orderPojo == null) {
             throw new ApiException("Order cannot be null");
         }
-        
-        OrderData orderData = new OrderData();
-        orderData.setId(orderPojo.getId());
-        orderData.setDate(orderPojo.getDate());
-        orderData.setTotal(orderPojo.getTotal());
-        orderData.setStatus(orderPojo.getStatus());
-        orderData.setUserId(orderPojo.getUserId());
-        List<OrderItemData> orderItems = getOrderItemsByOrderId(orderPojo.getId());
-        orderData.setOrderItemDataList(orderItems);
-        
-        return orderData;
+        return convertEntitiesToData(Collections.singletonList(orderPojo)).get(0);
     }
 
-    public Resource downloadInvoice(Integer orderId) {
+    /**
+     * Convert orders with their items, loading the items, products and clients of all the
+     * orders with one query each
+     */
+    @Override
+    protected List<OrderData> convertEntitiesToData(List<OrderPojo> orderPojos) {
+        if (orderPojos == null) {
+            return new ArrayList<>();
+        }
+        Map<Integer, OrderPojo> orderById = new LinkedHashMap<>();
+        for (OrderPojo orderPojo : orderPojos) {
+            if (orderPojo == null) {
+                throw new ApiException("Order cannot be null");
+            }
+            orderById.put(orderPojo.getId(), orderPojo);
+        }
+
+        List<OrderItemPojo> orderItemPojos = orderById.isEmpty()
+            ? new ArrayList<>()
+            : ((OrderApi) api).getOrderItemsByOrderIds(orderById.keySet());
+        Map<Integer, List<OrderItemData>> itemsByOrderId = new HashMap<>();
+        for (OrderItemData orderItemData : convertOrderItemPojosToData(orderItemPojos, orderById)) {
+            itemsByOrderId.computeIfAbsent(orderItemData.getOrderId(), id -> new ArrayList<>()).add(orderItemData);
+        }
+
+        List<OrderData> orderDataList = new ArrayList<>();
+        for (OrderPojo orderPojo : orderPojos) {
+            OrderData orderData = new OrderData();
+            orderData.setId(orderPojo.getId());
+            orderData.setDate(orderPojo.getDate());
+            orderData.setTotal(orderPojo.getTotal());
+            orderData.setStatus(orderPojo.getStatus());
+            orderData.setUserId(orderPojo.getUserId());
+            orderData.setOrderItemDataList(itemsByOrderId.getOrDefault(orderPojo.getId(), new ArrayList<>()));
+            orderDataList.add(orderData);
+        }
+        return orderDataList;
+    }
+
+    /**
+     * Stored invoice PDF of the order, generated first if the order has none yet
+     */
+    public InvoiceStore.StoredInvoice downloadInvoice(Integer orderId) {
 
         validate(orderId);
         OrderPojo orderPojo = api.get(orderId);
 
         InvoicePojo existingInvoice = invoiceApi.getByOrderId(orderId);
         if (existingInvoice != null) {
-            return orderFlow.getInvoiceFile(orderId);
+            InvoiceStore.StoredInvoice stored = invoiceStore.get(existingInvoice.getFilePath());
+            if (stored == null) {
+                throw new ApiException("Invoice PDF not found for order ID: " + orderId);
+            }
+            return stored;
         }
-        
+        if (invoiceJobApi.isInProgress(orderId)) {
+            throw new ApiException("Invoice for order ID " + orderId + " is still being generated");
+        }
+        return createInvoice(orderPojo);
+    }
+
+    /**
+     * Generate and save the invoice for the order unless it already has one. Run by
+     * InvoiceJobWorker, so a retry after a partly finished attempt does not call the service again.
+     */
+    public void generateInvoice(Integer orderId) {
+        validate(orderId);
+        OrderPojo orderPojo = api.get(orderId);
+        if (invoiceApi.getByOrderId(orderId) == null) {
+            createInvoice(orderPojo);
+        }
+    }
+
+    /**
+     * Queue invoice generation for the order; see InvoiceJobApi.submit
+     */
+    public InvoiceJobData submitInvoiceJob(Integer orderId) {
+        validate(orderId);
+        api.get(orderId);
+        boolean invoiced = invoiceApi.getByOrderId(orderId) != null;
+        return convertInvoiceJob(invoiceJobApi.submit(orderId, invoiced));
+    }
+
+    public InvoiceJobData getInvoiceJob(Integer orderId) {
+        validate(orderId);
+        return convertInvoiceJob(invoiceJobApi.getByOrderId(orderId));
+    }
+
+    /**
+     * Invoice the given orders, or every order in the date range, in the background. Orders already
+     * invoiced or with an invoice job in progress are skipped. Poll getBulkInvoice for progress.
+     */
+    public BulkInvoiceData startBulkInvoice(BulkInvoiceForm form) {
+        if (form == null) {
+            throw new ApiException("Bulk invoice form cannot be null");
+        }
+        Set<Integer> orderIds = new LinkedHashSet<>();
+        if (form.getOrderIds() != null && !form.getOrderIds().isEmpty()) {
+            for (Integer orderId : form.getOrderIds()) {
+                // Existence is checked by the run in one query; missing orders are reported there
+                if (orderId == null || orderId <= 0) {
+                    throw new ApiException("Order IDs must be positive");
+                }
+                orderIds.add(orderId);
+            }
+        } else if (form.getStartDate() != null && form.getEndDate() != null) {
+            if (form.getEndDate().isBefore(form.getStartDate())) {
+                throw new ApiException("End date cannot be before start date");
+            }
+            for (OrderPojo order : orderFlow.getOrdersByDateRange(form.getStartDate(), form.getEndDate())) {
+                orderIds.add(order.getId());
+            }
+        } else {
+            throw new ApiException("Either order IDs or a start and end date are required");
+        }
+        if (orderIds.size() > bulkInvoiceRunner.getMaxOrders()) {
+            throw new ApiException("At most " + bulkInvoiceRunner.getMaxOrders() + " orders can be invoiced at once");
+        }
+        return bulkInvoiceRunner.submit(new ArrayList<>(orderIds), this::runBulkInvoice).toData();
+    }
+
+    public BulkInvoiceData getBulkInvoice(String runId) {
+        BulkInvoiceRun run = bulkInvoiceRunner.get(runId);
+        if (run == null) {
+            throw new ApiException("No bulk invoice run with ID: " + runId);
+        }
+        return run.toData();
+    }
+
+    // Runs on the bulk invoice coordinator thread
+    private void runBulkInvoice(BulkInvoiceRun run) {
+        Map<Integer, InvoiceAppForm> forms = prepareBulkInvoices(run);
+        Map<Integer, InvoiceStore.StoredInvoice> generated = new ConcurrentHashMap<>();
+        CompletionService<Integer> completions = new ExecutorCompletionService<>(bulkInvoiceRunner.getWorkers());
+        for (Map.Entry<Integer, InvoiceAppForm> entry : forms.entrySet()) {
+            Integer orderId = entry.getKey();
+            completions.submit(() -> {
+                try {
+                    generated.put(orderId, invoiceClientApi.writeInvoice(entry.getValue(), invoiceStore));
+                } catch (Exception e) {
+                    run.record(orderId, BulkInvoiceOutcome.FAILED, e.getMessage());
+                }
+                return orderId;
+            });
+        }
+
+        Map<Integer, InvoiceStore.StoredInvoice> batch = new LinkedHashMap<>();
+        try {
+            for (int remaining = forms.size(); remaining > 0; remaining--) {
+                Integer orderId;
+                try {
+                    orderId = completions.take().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    continue;
+                }
+                InvoiceStore.StoredInvoice stored = generated.remove(orderId);
+                if (stored != null) {
+                    batch.put(orderId, stored);
+                }
+                if (batch.size() >= bulkInvoiceRunner.getRecordBatchSize()) {
+                    recordBulkInvoices(run, batch);
+                    batch.clear();
+                }
+            }
+        } finally {
+            // Also on interrupt: invoices already in the store but not yet taken are saved with the rest
+            for (Integer orderId : new ArrayList<>(generated.keySet())) {
+                InvoiceStore.StoredInvoice stored = generated.remove(orderId);
+                if (stored != null) {
+                    batch.put(orderId, stored);
+                }
+            }
+            if (!batch.isEmpty()) {
+                recordBulkInvoices(run, batch);
+            }
+        }
+    }
+
+    /**
+     * Invoice service requests for the run's orders that still need an invoice, built from one
+     * query each for orders, invoices, jobs, items, products and clients. Every other order is given
+     * its outcome here.
+     */
+    private Map<Integer, InvoiceAppForm> prepareBulkInvoices(BulkInvoiceRun run) {
+        List<Integer> orderIds = run.getOrderIds();
+        Map<Integer, OrderPojo> orderById = new HashMap<>();
+        for (OrderPojo order : ((OrderApi) api).getByIds(orderIds)) {
+            orderById.put(order.getId(), order);
+        }
+        Set<Integer> invoiced = new HashSet<>();
+        for (InvoicePojo invoice : invoiceApi.getByOrderIds(orderIds)) {
+            invoiced.add(invoice.getOrderId());
+        }
+        Set<Integer> inProgress = invoiceJobApi.getInProgressOrderIds(orderIds);
+
+        List<Integer> pending = new ArrayList<>();
+        for (Integer orderId : orderIds) {
+            if (!orderById.containsKey(orderId)) {
+                run.record(orderId, BulkInvoiceOutcome.FAILED, "Order not found");
+            } else if (invoiced.contains(orderId)) {
+                run.record(orderId, BulkInvoiceOutcome.SKIPPED, "Already invoiced");
+            } else if (inProgress.contains(orderId)) {
+                run.record(orderId, BulkInvoiceOutcome.SKIPPED, "Invoice job in progress");
+            } else {
+                pending.add(orderId);
+            }
+        }
+
+        List<OrderItemPojo> orderItems = pending.isEmpty()
+            ? new ArrayList<>() : ((OrderApi) api).getOrderItemsByOrderIds(pending);
+        Map<Integer, List<OrderItemPojo>> itemsByOrderId = new HashMap<>();
+        for (OrderItemPojo item : orderItems) {
+            itemsByOrderId.computeIfAbsent(item.getOrderId(), id -> new ArrayList<>()).add(item);
+        }
+        Map<Integer, ProductPojo> productById = getProductsById(orderItems);
+        Map<Integer, ClientPojo> clientById = getClientsById(productById.values());
+
+        Map<Integer, InvoiceAppForm> forms = new LinkedHashMap<>();
+        for (Integer orderId : pending) {
+            try {
+                forms.put(orderId, toInvoiceForm(orderById.get(orderId),
+                    itemsByOrderId.getOrDefault(orderId, new ArrayList<>()), productById, clientById));
+            } catch (ApiException e) {
+                run.record(orderId, BulkInvoiceOutcome.FAILED, e.getMessage());
+            }
+        }
+        return forms;
+    }
+
+    private void recordBulkInvoices(BulkInvoiceRun run, Map<Integer, InvoiceStore.StoredInvoice> batch) {
+        try {
+            Set<Integer> recorded = recordInvoices(batch);
+            for (Integer orderId : batch.keySet()) {
+                if (recorded.contains(orderId)) {
+                    run.record(orderId, BulkInvoiceOutcome.INVOICED, null);
+                } else {
+                    run.record(orderId, BulkInvoiceOutcome.SKIPPED, "Already invoiced");
+                }
+            }
+        } catch (Exception e) {
+            for (Integer orderId : batch.keySet()) {
+                run.record(orderId, BulkInvoiceOutcome.FAILED, "Saving invoice failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private InvoiceStore.StoredInvoice createInvoice(OrderPojo orderPojo) {
+        Integer orderId = orderPojo.getId();
         List<OrderItemPojo> orderItems = ((OrderApi) api).getOrderItemsByOrderId(orderId);
+        Map<Integer, ProductPojo> productById = getProductsById(orderItems);
+        Map<Integer, ClientPojo> clientById = getClientsById(productById.values());
+
+        InvoiceAppForm invoiceAppForm = toInvoiceForm(orderPojo, orderItems, productById, clientById);
+        InvoiceStore.StoredInvoice stored = invoiceClientApi.writeInvoice(invoiceAppForm, invoiceStore);
+        recordInvoices(Map.of(orderId, stored));
+        return stored;
+    }
+
+    private InvoiceAppForm toInvoiceForm(OrderPojo orderPojo, List<OrderItemPojo> orderItems,
+                                         Map<Integer, ProductPojo> productById, Map<Integer, ClientPojo> clientById) {
         List<ProductPojo> products = new ArrayList<>();
         List<ClientPojo> clients = new ArrayList<>();
-        
         for (OrderItemPojo itemPojo : orderItems) {
-            ProductPojo product = productApi.get(itemPojo.getProductId());
+            ProductPojo product = getPrefetchedProduct(productById, itemPojo.getProductId());
             products.add(product);
-            
-            if (product != null && product.getClientId() != null) {
-                ClientPojo client = clientApi.get(product.getClientId());
-                clients.add(client);
-            } else {
-                clients.add(null);
-            }
+            clients.add(product.getClientId() != null ? clientById.get(product.getClientId()) : null);
         }
-        
-        InvoiceAppForm invoiceAppForm = invoiceFormSetter(orderPojo, orderItems, products, clients);
-        String base64Pdf = invoiceClientApi.generateInvoice(invoiceAppForm);
-        return saveInvoice(orderId, base64Pdf);
+        return invoiceFormSetter(orderPojo, orderItems, products, clients);
     }
 
     @Override
@@ -158,13 +444,7 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
         }
         
         List<OrderPojo> orderPojos = orderFlow.getOrdersByDateRange(startDate, endDate);
-        List<OrderData> orderDataList = new ArrayList<>();
-        
-        for (OrderPojo orderPojo : orderPojos) {
-            orderDataList.add(convertEntityToData(orderPojo));
-        }
-        
-        return orderDataList;
+        return convertEntitiesToData(orderPojos);
     }
 
     public List<OrderData> getOrdersByUserId(String userId) {
@@ -172,11 +452,7 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
             throw new ApiException("User ID cannot be null or empty");
         }
         List<OrderPojo> orderPojos = orderFlow.getOrdersByUserId(userId);
-        List<OrderData> orderDataList = new ArrayList<>();
-        for (OrderPojo orderPojo : orderPojos) {
-            orderDataList.add(convertEntityToData(orderPojo));
-        }
-        return orderDataList;
+        return convertEntitiesToData(orderPojos);
     }
 
     private String formatDateForInvoice(ZonedDateTime dateTime) {
@@ -189,31 +465,17 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
     public PaginationResponse<OrderData> getOrdersByUserIdPaginated(String userId, PaginationRequest request) {
         PaginationResponse<OrderPojo> paginatedEntities = orderFlow.getByUserIdPaginated(userId, request);
 
-        List<OrderData> dataList = paginatedEntities.getContent().stream()
-                .map(this::convertEntityToData)
-                .collect(Collectors.toList());
+        List<OrderData> dataList = convertEntitiesToData(paginatedEntities.getContent());
 
-        return new PaginationResponse<>(
-            dataList,
-            paginatedEntities.getTotalElements(),
-            paginatedEntities.getCurrentPage(),
-            paginatedEntities.getPageSize()
-        );
+        return paginatedEntities.withContent(dataList);
     }
 
     public PaginationResponse<OrderData> getOrdersByDateRangePaginated(LocalDate startDate, LocalDate endDate, PaginationRequest request) {
         PaginationResponse<OrderPojo> paginatedEntities = orderFlow.getByDateRangePaginated(startDate, endDate, request);
         
-        List<OrderData> dataList = paginatedEntities.getContent().stream()
-                .map(this::convertEntityToData)
-                .collect(Collectors.toList());
+        List<OrderData> dataList = convertEntitiesToData(paginatedEntities.getContent());
         
-        return new PaginationResponse<>(
-            dataList,
-            paginatedEntities.getTotalElements(),
-            paginatedEntities.getCurrentPage(),
-            paginatedEntities.getPageSize()
-        );
+        return paginatedEntities.withContent(dataList);
     }
 
     public List<OrderData> findOrdersBySubstringId(String searchId, int maxResults) {
@@ -225,9 +487,7 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
         }
         
         List<OrderPojo> matchingOrders = orderFlow.findOrdersBySubstringId(searchId, maxResults);
-        return matchingOrders.stream()
-                .map(this::convertEntityToData)
-                .collect(Collectors.toList());
+        return convertEntitiesToData(matchingOrders);
     }
 
     public PaginationResponse<OrderData> findOrdersBySubstringIdPaginated(
@@ -242,16 +502,9 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
         
         PaginationResponse<OrderPojo> paginatedEntities = orderFlow.findOrdersBySubstringIdPaginated(searchId, request);
         
-        List<OrderData> dataList = paginatedEntities.getContent().stream()
-                .map(this::convertEntityToData)
-                .collect(Collectors.toList());
+        List<OrderData> dataList = convertEntitiesToData(paginatedEntities.getContent());
         
-        return new PaginationResponse<>(
-            dataList,
-            paginatedEntities.getTotalElements(),
-            paginatedEntities.getCurrentPage(),
-            paginatedEntities.getPageSize()
-        );
+        return paginatedEntities.withContent(dataList);
     }
 
     public List<OrderItemData> getOrderItemsByOrderId(Integer orderId) {
@@ -262,11 +515,11 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
             throw new ApiException("Order ID must be positive");
         }
         List<OrderItemPojo> orderItemPojoList = ((OrderApi) api).getOrderItemsByOrderId(orderId);
-        List<OrderItemData> orderItemDataList = new ArrayList<>();
-        for (OrderItemPojo orderItemPojo : orderItemPojoList) {
-            orderItemDataList.add(convertOrderItemPojoToData(orderItemPojo));
+        if (orderItemPojoList.isEmpty()) {
+            return new ArrayList<>();
         }
-        return orderItemDataList;
+        OrderPojo order = api.get(orderId);
+        return convertOrderItemPojosToData(orderItemPojoList, Collections.singletonMap(orderId, order));
     }
 
     public OrderItemData getOrderItem(Integer id) {
@@ -274,22 +527,23 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
             throw new ApiException("Order item ID cannot be null");
         }
         OrderItemPojo orderItemPojo = ((OrderApi) api).getOrderItem(id);
-        return convertOrderItemPojoToData(orderItemPojo);
+        OrderPojo order = api.get(orderItemPojo.getOrderId());
+        return convertOrderItemPojosToData(Collections.singletonList(orderItemPojo),
+            Collections.singletonMap(order.getId(), order)).get(0);
     }
 
-    private OrderItemPojo convertOrderItemFormToPojo(OrderItemForm orderItemForm) {
+    private OrderItemPojo convertOrderItemFormToPojo(OrderItemForm orderItemForm, Map<Integer, ProductPojo> productById) {
         OrderItemPojo orderItemPojo = new OrderItemPojo();
         orderItemPojo.setOrderId(orderItemForm.getOrderId());
         orderItemPojo.setProductId(orderItemForm.getProductId());
         orderItemPojo.setQuantity(orderItemForm.getQuantity());
         
-        ProductPojo product = productApi.get(orderItemForm.getProductId());
-        if (product == null) {
-            throw new ApiException("Product with ID " + orderItemForm.getProductId() + " not found");
-        }
+        ProductPojo product = getPrefetchedProduct(productById, orderItemForm.getProductId());
         
-        orderItemPojo.setSellingPrice(product.getMrp());
-        orderItemPojo.setAmount(product.getMrp() * orderItemForm.getQuantity());
+        // Rounded to the paisa once here; the amount and order total are exact from then on
+        long sellingPricePaise = Money.toPaise(product.getMrp());
+        orderItemPojo.setSellingPricePaise(sellingPricePaise);
+        orderItemPojo.setAmountPaise(Money.times(sellingPricePaise, orderItemForm.getQuantity()));
         
         return orderItemPojo;
     }
@@ -302,36 +556,92 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
             throw new ApiException("Order item list cannot be null or empty");
         }
         
+        Set<Integer> productIds = new LinkedHashSet<>();
+        for (OrderItemForm form : orderItemForms) {
+            productIds.add(form.getProductId());
+        }
+        Map<Integer, ProductPojo> productById = new HashMap<>();
+        for (ProductPojo product : productApi.getByIds(productIds)) {
+            productById.put(product.getId(), product);
+        }
+
         List<OrderItemPojo> orderItemPojos = new ArrayList<>();
         for (OrderItemForm form : orderItemForms) {
-            orderItemPojos.add(convertOrderItemFormToPojo(form));
+            orderItemPojos.add(convertOrderItemFormToPojo(form, productById));
         }
         return orderItemPojos;
     }
 
     /**
-     * Convert OrderItemPojo to OrderItemData
+     * Convert order items to data, resolving their products and clients with one query each.
+     * Orders are passed in because the caller already holds them.
      */
-    private OrderItemData convertOrderItemPojoToData(OrderItemPojo orderItemPojo) {
-
-        OrderItemData orderItemData = new OrderItemData();
-        orderItemData.setId(orderItemPojo.getId());
-        orderItemData.setOrderId(orderItemPojo.getOrderId());
-        orderItemData.setProductId(orderItemPojo.getProductId());
-        orderItemData.setQuantity(orderItemPojo.getQuantity());
-        orderItemData.setSellingPrice(orderItemPojo.getSellingPrice());
-        orderItemData.setAmount(orderItemPojo.getAmount());
-        ProductPojo product = productApi.get(orderItemPojo.getProductId());
-        orderItemData.setBarcode(product.getBarcode());
-        orderItemData.setProductName(product.getName());
-        orderItemData.setImageUrl(product.getImageUrl());
-        orderItemData.setClientId(product.getClientId());
-        ClientPojo client = clientApi.get(product.getClientId());
-        orderItemData.setClientName(client.getClientName());
-        OrderPojo order = api.get(orderItemPojo.getOrderId());
-        orderItemData.setDateTime(order.getDate());
-        
-        return orderItemData;
+    private List<OrderItemData> convertOrderItemPojosToData(List<OrderItemPojo> orderItemPojos,
+                                                            Map<Integer, OrderPojo> orderById) {
+        Map<Integer, ProductPojo> productById = getProductsById(orderItemPojos);
+        Map<Integer, ClientPojo> clientById = getClientsById(productById.values());
+
+        List<OrderItemData> orderItemDataList = new ArrayList<>();
+        for (OrderItemPojo orderItemPojo : orderItemPojos) {
+            OrderItemData orderItemData = new OrderItemData();
+            orderItemData.setId(orderItemPojo.getId());
+            orderItemData.setOrderId(orderItemPojo.getOrderId());
+            orderItemData.setProductId(orderItemPojo.getProductId());
+            orderItemData.setQuantity(orderItemPojo.getQuantity());
+            orderItemData.setSellingPrice(orderItemPojo.getSellingPrice());
+            orderItemData.setAmount(orderItemPojo.getAmount());
+            ProductPojo product = getPrefetchedProduct(productById, orderItemPojo.getProductId());
+            orderItemData.setBarcode(product.getBarcode());
+            orderItemData.setProductName(product.getName());
+            orderItemData.setImageUrl(product.getImageUrl());
+            orderItemData.setClientId(product.getClientId());
+            ClientPojo client = product.getClientId() != null ? clientById.get(product.getClientId()) : null;
+            orderItemData.setClientName(client != null ? client.getClientName() : null);
+            OrderPojo order = orderById.get(orderItemPojo.getOrderId());
+            orderItemData.setDateTime(order != null ? order.getDate() : null);
+            orderItemDataList.add(orderItemData);
+        }
+        return orderItemDataList;
+    }
+
+    private Map<Integer, ProductPojo> getProductsById(List<OrderItemPojo> orderItemPojos) {
+        Set<Integer> productIds = new LinkedHashSet<>();
+        for (OrderItemPojo orderItemPojo : orderItemPojos) {
+            productIds.add(orderItemPojo.getProductId());
+        }
+        Map<Integer, ProductPojo> productById = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return productById;
+        }
+        for (ProductPojo product : productApi.getByIds(productIds)) {
+            productById.put(product.getId(), product);
+        }
+        return productById;
+    }
+
+    private Map<Integer, ClientPojo> getClientsById(Collection<ProductPojo> products) {
+        Set<Integer> clientIds = new LinkedHashSet<>();
+        for (ProductPojo product : products) {
+            if (product.getClientId() != null) {
+                clientIds.add(product.getClientId());
+            }
+        }
+        Map<Integer, ClientPojo> clientById = new HashMap<>();
+        if (clientIds.isEmpty()) {
+            return clientById;
+        }
+        for (ClientPojo client : clientApi.getByIds(clientIds)) {
+            clientById.put(client.getId(), client);
+        }
+        return clientById;
+    }
+
+    private static ProductPojo getPrefetchedProduct(Map<Integer, ProductPojo> productById, Integer productId) {
+        ProductPojo product = productById.get(productId);
+        if (product == null) {
+            throw new ApiException("Product with ID " + productId + " not found");
+        }
+        return product;
     }
 
     private InvoiceAppForm invoiceFormSetter(OrderPojo orderPojo,
@@ -367,40 +677,57 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
         itemData.setProductName(product.getName());
         itemData.setProductBarcode(product.getBarcode());
         itemData.setClientId(product.getClientId());
-        itemData.setClientName(client.getClientName());
+        itemData.setClientName(client != null ? client.getClientName() : null);
         itemData.setPrice(itemPojo.getSellingPrice());
         itemData.setQuantity(itemPojo.getQuantity());
         itemData.setAmount(itemPojo.getAmount());
         return itemData;
     }
 
-    private Resource saveInvoice (Integer orderId, String base64Pdf) {
-
-        String fileName = "order-" + orderId + ".pdf";
-        String savePath = "src/main/resources/invoice/" + fileName;
-
-        try {
-            Base64ToPdfUtil.saveBase64AsPdf(base64Pdf, savePath);
-        } catch (Exception e) {
-            throw new ApiException("Failed to save invoice PDF: " + e.getMessage());
+    private static InvoiceJobData convertInvoiceJob(InvoiceJobPojo job) {
+        InvoiceJobData data = new InvoiceJobData();
+        data.setOrderId(job.getOrderId());
+        data.setStatus(job.getStatus());
+        data.setAttempts(job.getAttempts());
+        data.setLastError(job.getLastError());
+        if (job.getStatus() == InvoiceJobStatus.PENDING) {
+            data.setNextAttemptAt(formatExportDate(job.getNextAttemptAt()));
         }
+        if (job.getStatus() == InvoiceJobStatus.DONE) {
+            data.setDownloadUrl(ApiEndpoints.Supervisor.ORDERS + "/" + job.getOrderId() + "/download-invoice");
+        }
+        return data;
+    }
 
-        InvoicePojo invoicePojo = new InvoicePojo();
-        invoicePojo.setOrderId(orderId);
-        invoicePojo.setFilePath("/invoice/" + fileName);
-        invoicePojo.setInvoiceId(orderId.toString());
-        invoiceApi.add(invoicePojo);
-
-        orderFlow.updateStatus(orderId, OrderStatus.INVOICED);
-
-        byte[] pdfBytes = java.util.Base64.getDecoder().decode(base64Pdf);
-
-        return new org.springframework.core.io.ByteArrayResource(pdfBytes) {
-            @Override
-            public String getFilename() {
-                return fileName;
+    // Save the invoices and mark their orders INVOICED in one transaction. When another path saves
+    // one of these orders' invoices between the flow's check and its commit, the unique key on
+    // invoices.orderId rolls the whole batch back; it is retried without the orders now invoiced,
+    // which are reported as not recorded.
+    private Set<Integer> recordInvoices(Map<Integer, InvoiceStore.StoredInvoice> storedByOrderId) {
+        Map<Integer, InvoiceStore.StoredInvoice> remaining = new LinkedHashMap<>(storedByOrderId);
+        while (!remaining.isEmpty()) {
+            // Fresh entities each attempt; the rolled back ones already carry generated IDs
+            List<InvoicePojo> invoices = new ArrayList<>();
+            for (Map.Entry<Integer, InvoiceStore.StoredInvoice> entry : remaining.entrySet()) {
+                InvoicePojo invoicePojo = new InvoicePojo();
+                invoicePojo.setOrderId(entry.getKey());
+                invoicePojo.setFilePath(entry.getValue().getKey());
+                invoicePojo.setInvoiceId(entry.getKey().toString());
+                invoices.add(invoicePojo);
             }
-        };
+            try {
+                return orderFlow.recordInvoices(invoices);
+            } catch (DataIntegrityViolationException e) {
+                List<InvoicePojo> invoiced = invoiceApi.getByOrderIds(remaining.keySet());
+                if (invoiced.isEmpty()) {
+                    throw e;
+                }
+                for (InvoicePojo existing : invoiced) {
+                    remaining.remove(existing.getOrderId());
+                }
+            }
+        }
+        return new LinkedHashSet<>();
     }
 
     private void validateOrderForm(OrderForm form) {
@@ -422,6 +749,28 @@ public class OrderDto extends AbstractDto<OrderPojo, OrderForm, OrderData> {
         }
     }
     
+    /**
+     * Stream orders, optionally limited to a date range, to out one row at a time
+     */
+    public long exportOrders(ExportFormat format, LocalDate startDate, LocalDate endDate, OutputStream out) {
+        try (ExportWriter<OrderPojo> writer = new ExportWriter<>(format, out, ORDER_EXPORT_COLUMNS)) {
+            return ((OrderApi) api).exportOrders(startDate, endDate, writer::write);
+        }
+    }
+
+    /**
+     * Stream every order item to out one row at a time
+     */
+    public long exportOrderItems(ExportFormat format, OutputStream out) {
+        try (ExportWriter<OrderItemPojo> writer = new ExportWriter<>(format, out, ORDER_ITEM_EXPORT_COLUMNS)) {
+            return ((OrderApi) api).exportOrderItems(writer::write);
+        }
+    }
+
+    private static String formatExportDate(ZonedDateTime dateTime) {
+        return dateTime == null ? null : TimeUtil.toIST(dateTime).format(EXPORT_DATE_FORMAT);
+    }
+
     private void validateOrderItemForm(OrderItemForm itemForm) {
         if (Objects.isNull(itemForm)) {
             throw new ApiException("Order item form cannot be null");
@@ -106,7 +106,8 @@ public class ProductDto extends AbstractDto<ProductPojo, ProductForm, ProductDat
     // ========== CUSTOM METHODS ==========
 
     public ProductData getByBarcode(String barcode) {
-        return getByField("barcode", barcode);
+        validateFieldValue("barcode", barcode);
+        return convertEntityToData(((org.example.api.ProductApi) api).getByBarcode(barcode));
     }
 
     public List<ProductData> getByClientName(String clientName) {
@@ -6,11 +6,9 @@ import org.example.model.form.CustomDateRangeSalesForm;
 import org.example.model.data.CustomDateRangeSalesData;
 import org.example.model.data.DaySalesData;
 import org.example.model.form.DaySalesForm;
-import org.example.pojo.OrderItemPojo;
-import org.example.pojo.OrderPojo;
 import org.example.pojo.DaySalesPojo;
 import org.example.dao.DaySalesDao;
-import org.example.dao.OrderItemDao;
+import org.example.dao.SalesFactDao;
 
 import org.example.api.ClientApi;
 import org.example.api.ProductApi;
@@ -25,6 +23,7 @@ import java.util.stream.Collectors;
 import java.util.List;
 import java.util.Objects;
 import java.util.ArrayList;
+import org.example.util.Money;
 import org.example.util.TimeUtil;
 
 @Component
@@ -44,99 +43,25 @@ public class ReportsDto {
         }
         
         try {
-            // Convert LocalDate to IST for filtering
-            LocalDate start = form.getStartDate();
-            LocalDate end = form.getEndDate();
-            
-            // Use ReportsFlow to get all order items
-            List<OrderItemPojo> allItems = reportsFlow.getAllOrderItems();
-            
-            // Filter by date range - need to get orders for each item
-            List<OrderItemPojo> filtered = new ArrayList<>();
-            for (OrderItemPojo item : allItems) {
-                OrderPojo order = reportsFlow.getOrder(item.getOrderId());
-                if (Objects.nonNull(order) && Objects.nonNull(order.getDate())) {
-                    // Convert order date (ZonedDateTime) to LocalDate
-                    LocalDate orderDateIST = order.getDate().toLocalDate();
-                    if ((orderDateIST.isEqual(start) || orderDateIST.isAfter(start)) && orderDateIST.isBefore(end.plusDays(1))) {
-                        filtered.add(item);
-                    }
-                }
-            }
-            
-            // Filter by brand (clientName) if provided
-            if (Objects.nonNull(form.getBrand()) && !form.getBrand().isEmpty()) {
-                filtered = filtered.stream().filter(item -> {
-                    try {
-                        org.example.pojo.ProductPojo product = reportsFlow.getProduct(item.getProductId());
-                        if (product != null && product.getClientId() != null && product.getClientId() > 0) {
-                            org.example.pojo.ClientPojo client = reportsFlow.getClient(product.getClientId());
-                            return client != null && form.getBrand().equalsIgnoreCase(client.getClientName());
-                        }
-                    } catch (Exception e) {
-                        // Product or client not found, exclude from results
-                    }
-                    return false;
-                }).collect(Collectors.toList());
-            }
-            
-            // Filter by category (product name) if provided
-            if (Objects.nonNull(form.getCategory()) && !form.getCategory().isEmpty()) {
-                filtered = filtered.stream().filter(item -> {
-                                    try {
-                    org.example.pojo.ProductPojo product = reportsFlow.getProduct(item.getProductId());
-                    return product != null && form.getCategory().equalsIgnoreCase(product.getName());
-                } catch (Exception e) {
-                        // Product not found, exclude from results
-                        return false;
-                    }
-                }).collect(Collectors.toList());
-            }
-            
-            // Group by brand and category
-            Map<String, SalesReportData> resultMap = new HashMap<>();
-            for (OrderItemPojo item : filtered) {
-                String brand = "Unknown";
-                String productName = "Unknown";
-                String sku = "Unknown";
-                
-                try {
-                    org.example.pojo.ProductPojo product = reportsFlow.getProduct(item.getProductId());
-                    if (product != null) {
-                        productName = product.getName() != null ? product.getName() : "Unknown";
-                        sku = product.getBarcode() != null ? product.getBarcode() : "Unknown";
-                        
-                        // Get client name
-                        if (product.getClientId() != null && product.getClientId() > 0) {
-                            try {
-                                org.example.pojo.ClientPojo client = reportsFlow.getClient(product.getClientId());
-                                if (client != null) {
-                                    brand = client.getClientName() != null ? client.getClientName() : "Unknown";
-                                }
-                            } catch (Exception e) {
-                                // Client not found, use "Unknown"
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    // Product not found, use "Unknown" values
-                }
-                
-                String key = brand + "|" + sku;
-                SalesReportData resp = resultMap.getOrDefault(key, new SalesReportData());
-                if (resp.getBrand() == null) {
-                    resp.setBrand(brand);
-                    resp.setCategory(productName); // Set category to product name
-                    resp.setQuantity(0);
-                    resp.setRevenue(0.0);
-                    resp.setProductName(productName);
-                    resp.setSku(sku);
-                }
-                resp.setQuantity(resp.getQuantity() + (Objects.nonNull(item.getQuantity()) ? item.getQuantity() : 0));
-                resp.setRevenue(resp.getRevenue() + (Objects.nonNull(item.getAmount()) ? item.getAmount() : 0.0));
-                resultMap.put(key, resp);
+            List<SalesFactDao.SalesReportRow> rows = reportsFlow.getSalesReport(
+                form.getStartDate(), form.getEndDate(), form.getBrand(), form.getCategory());
+
+            List<SalesReportData> result = new ArrayList<>();
+            for (SalesFactDao.SalesReportRow row : rows) {
+                String brand = row.getBrand() != null ? row.getBrand() : "Unknown";
+                String productName = row.getCategory() != null ? row.getCategory() : "Unknown";
+                String sku = row.getSku() != null ? row.getSku() : "Unknown";
+
+                SalesReportData resp = new SalesReportData();
+                resp.setBrand(brand);
+                resp.setCategory(productName); // Set category to product name
+                resp.setProductName(productName);
+                resp.setSku(sku);
+                resp.setQuantity(row.getQuantity().intValue());
+                resp.setRevenue(Money.toRupees(row.getRevenuePaise()));
+                result.add(resp);
             }
-            return resultMap.values().stream().collect(Collectors.toList());
+            return result;
         } catch (Exception e) {
             e.printStackTrace();
             throw new ApiException("Failed to generate sales report: " + e.getMessage());
@@ -152,71 +77,52 @@ public class ReportsDto {
             throw new ApiException("End date cannot be before start date");
         }
         try {
-            LocalDate start = form.getStartDate();
-            LocalDate end = form.getEndDate();
-            List<OrderItemPojo> allItems = reportsFlow.getAllOrderItems();
+            List<SalesFactDao.SalesReportRow> rows = reportsFlow.getSalesReport(
+                form.getStartDate(), form.getEndDate(), form.getBrand(), form.getCategory());
             Map<String, CustomDateRangeSalesData> resultMap = new HashMap<>();
-            Map<String, Map<Integer, Boolean>> processedOrders = new HashMap<>(); // Track processed orders for each group
-            for (OrderItemPojo item : allItems) {
-                OrderPojo order = reportsFlow.getOrder(item.getOrderId());
-                if (Objects.isNull(order) || Objects.isNull(order.getDate())) continue;
-                                    // Convert order date (ZonedDateTime) to LocalDate
-                    LocalDate orderDateIST = order.getDate().toLocalDate();
-                // Use inclusive date range filtering (same as getSalesReport)
-                if ((orderDateIST.isEqual(start) || orderDateIST.isAfter(start)) && orderDateIST.isBefore(end.plusDays(1))) {
-                    // Fetch product and client information using productId
-                    String brand = null;
-                    String category = null;
-                    try {
-                        org.example.pojo.ProductPojo product = reportsFlow.getProduct(item.getProductId());
-                        if (product != null) {
-                            category = product.getName();
-                            // Fetch client information
-                            if (product.getClientId() != null && product.getClientId() > 0) {
-                                try {
-                                    org.example.pojo.ClientPojo client = reportsFlow.getClient(product.getClientId());
-                                    if (client != null) {
-                                        brand = client.getClientName();
-                                    }
-                                } catch (Exception e) {
-                                    // Client not found, continue with null
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        // Product not found, continue with null values
-                    }
-                    
-                    // Filtering logic
-                    boolean brandMatch = (form.getBrand() == null || form.getBrand().isEmpty() || (brand != null && form.getBrand().equalsIgnoreCase(brand)));
-                    boolean categoryMatch = (form.getCategory() == null || form.getCategory().isEmpty() || (category != null && form.getCategory().equalsIgnoreCase(category)));
-                    if (!brandMatch || !categoryMatch) continue;
-                    // Grouping key: both present -> brand|category, only brand -> brand|, only category -> |category, neither -> |
-                    String key = (brand != null ? brand : "") + "|" + (category != null ? category : "");
-                    CustomDateRangeSalesData data = resultMap.getOrDefault(key, new CustomDateRangeSalesData());
-                    if (data.getBrand() == null && brand != null) data.setBrand(brand);
-                    if (data.getCategory() == null && category != null) data.setCategory(category);
-                    if (data.getTotalAmount() == null) data.setTotalAmount(0.0);
-                    if (data.getTotalOrders() == null) data.setTotalOrders(0);
-                    if (data.getTotalItems() == null) data.setTotalItems(0);
-                    data.setTotalAmount(data.getTotalAmount() + (Objects.nonNull(item.getAmount()) ? item.getAmount() : 0.0));
-                    data.setTotalItems(data.getTotalItems() + (Objects.nonNull(item.getQuantity()) ? item.getQuantity() : 0));
-                    // Count unique orders per group
-                    processedOrders.putIfAbsent(key, new HashMap<>());
-                    if (!processedOrders.get(key).containsKey(order.getId())) {
-                        data.setTotalOrders(data.getTotalOrders() + 1);
-                        processedOrders.get(key).put(order.getId(), true);
-                    }
+            Map<String, Long> amountPaiseByKey = new HashMap<>();
+            for (SalesFactDao.SalesReportRow row : rows) {
+                String brand = row.getBrand();
+                String category = row.getCategory();
+                String key = groupKey(brand, category);
+                CustomDateRangeSalesData data = resultMap.get(key);
+                if (data == null) {
+                    data = new CustomDateRangeSalesData();
+                    data.setBrand(brand);
+                    data.setCategory(category);
+                    data.setTotalAmount(0.0);
+                    data.setTotalOrders(0);
+                    data.setTotalItems(0);
                     resultMap.put(key, data);
                 }
+                amountPaiseByKey.merge(key, row.getRevenuePaise(), Long::sum);
+                data.setTotalItems(data.getTotalItems() + row.getQuantity().intValue());
+            }
+            // Fact rows count orders per product, so an order with several products in a group
+            // would be counted more than once; count distinct orders per group instead
+            for (SalesFactDao.BrandCategoryOrderCount count : reportsFlow.getOrderCountsByBrandCategory(
+                    form.getStartDate(), form.getEndDate(), form.getBrand(), form.getCategory())) {
+                CustomDateRangeSalesData data = resultMap.get(groupKey(count.getBrand(), count.getCategory()));
+                if (data != null) {
+                    data.setTotalOrders((int) count.getOrderCount());
+                }
             }
-            return resultMap.values().stream().collect(Collectors.toList());
+            // Summed exactly in paise; converted to rupees once per group
+            for (Map.Entry<String, Long> amount : amountPaiseByKey.entrySet()) {
+                resultMap.get(amount.getKey()).setTotalAmount(Money.toRupees(amount.getValue()));
+            }
+            return new ArrayList<>(resultMap.values());
         } catch (Exception e) {
             e.printStackTrace();
             throw new ApiException("Failed to generate custom date range sales report: " + e.getMessage());
         }
     }
 
+    // Grouping key: both present -> brand|category, only brand -> brand|, only category -> |category, neither -> |
+    private static String groupKey(String brand, String category) {
+        return (brand != null ? brand : "") + "|" + (category != null ? category : "");
+    }
+
     public List<DaySalesData> getAllDaySales() {
         try {
             List<DaySalesPojo> daySalesList = reportsFlow.getAllDaySales();
@@ -2,6 +2,7 @@ package org.example.dto;
 
 import org.example.exception.ApiException;
 import org.example.pojo.UserPojo;
+import org.example.model.data.AuthTokenData;
 import org.example.model.data.UserData;
 import org.example.model.form.UserForm;
 import org.example.model.data.PaginationResponse;
@@ -9,18 +10,26 @@ import org.example.model.form.PaginationRequest;
 import org.example.model.form.PaginationQuery;
 import org.example.flow.UserFlow;
 import org.example.api.UserApi;
+import org.example.util.AuthTokenService;
 import org.example.model.enums.Role;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 import jakarta.validation.Valid;
 
 import java.util.List;
+import java.time.Instant;
 import java.util.Objects;
 
 @Component
 public class UserDto {
 
+    @Autowired
+    private AuthTokenService authTokenService;
+
     @Autowired
     private UserFlow userFlow;
 
@@ -173,4 +182,24 @@ public class UserDto {
             throw new ApiException(getEntityName() + " ID must be positive");
         }
     }
+
+    /**
+     * Bearer token for the already authenticated caller
+     */
+    public AuthTokenData issueToken(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new ApiException("User not authenticated");
+        }
+        // A token that could mint its successor would outlive a revocation other nodes have not seen
+        if (!(authentication instanceof UsernamePasswordAuthenticationToken)
+                || authentication instanceof AuthTokenService.BearerAuthentication) {
+            throw new AccessDeniedException("A token can only be issued for an HTTP Basic login");
+        }
+        AuthTokenService.IssuedToken issued = authTokenService.issue(authentication);
+        AuthTokenData data = new AuthTokenData();
+        data.setToken(issued.getToken());
+        data.setTokenType("Bearer");
+        data.setExpiresAt(Instant.ofEpochMilli(issued.getExpiresAtMillis()).toString());
+        return data;
+    }
 }
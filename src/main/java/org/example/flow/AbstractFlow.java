@@ -49,6 +49,7 @@ public abstract class AbstractFlow<T> {
     /**
      * Get all entities
      */
+    @Transactional(readOnly = true)
     public List<T> getAll() {
         return api.getAll();
     }
@@ -56,6 +57,7 @@ public abstract class AbstractFlow<T> {
     /**
      * Get entity by field value
      */
+    @Transactional(readOnly = true)
     public T getByField(String fieldName, Object value) {
         if (fieldName == null || value == null) {
             throw new ApiException("Field name and value cannot be null");
@@ -66,6 +68,7 @@ public abstract class AbstractFlow<T> {
     /**
      * Find entity by field value (returns null if not found)
      */
+    @Transactional(readOnly = true)
     public T findByField(String fieldName, Object value) {
         return api.findByField(fieldName, value);
     }
@@ -73,6 +76,7 @@ public abstract class AbstractFlow<T> {
     /**
      * Get entities by multiple field values
      */
+    @Transactional(readOnly = true)
     public List<T> getByFields(String[] fieldNames, Object[] values) {
         if (fieldNames == null || values == null) {
             throw new ApiException("Field names and values cannot be null");
@@ -134,6 +138,7 @@ public abstract class AbstractFlow<T> {
      * Generalized pagination method that handles all types of queries.
      * This method replaces the need for multiple specific pagination methods.
      */
+    @Transactional(readOnly = true)
     public PaginationResponse<T> getPaginated(PaginationQuery query) {
         if (query == null) {
             throw new ApiException("Pagination query cannot be null");
@@ -4,8 +4,11 @@ import org.example.model.enums.OrderStatus;
 import org.example.model.form.OrderItemForm;
 import org.example.pojo.OrderPojo;
 import org.example.pojo.OrderItemPojo;
+import org.example.pojo.InvoicePojo;
 import org.example.api.OrderApi;
 import org.example.api.InventoryApi;
+import org.example.api.SalesFactApi;
+import org.example.api.InvoiceApi;
 import org.example.dao.OrderItemDao;
 import org.example.model.data.PaginationResponse;
 import org.example.model.form.PaginationRequest;
@@ -15,8 +18,14 @@ import org.example.exception.ApiException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.time.LocalDate;
 
 @Service
@@ -32,6 +41,12 @@ public class OrderFlow extends AbstractFlow<OrderPojo> {
     @Autowired
     private OrderItemDao orderItemDao;
 
+    @Autowired
+    private SalesFactApi salesFactApi;
+
+    @Autowired
+    private InvoiceApi invoiceApi;
+
     public OrderFlow() {
         super(OrderPojo.class);
     }
@@ -57,6 +72,7 @@ public class OrderFlow extends AbstractFlow<OrderPojo> {
         return orderPojo;
     }
 
+    @Transactional(readOnly = true)
     public OrderPojo get(Integer id) {
         if (id == null) {
             throw new ApiException("Order ID cannot be null");
@@ -64,38 +80,55 @@ public class OrderFlow extends AbstractFlow<OrderPojo> {
         return api.get(id);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderPojo> getAll() {
         return api.getAll();
     }
 
-    public org.springframework.core.io.Resource getInvoiceFile(Integer orderId) {
-        String fileName = "order-" + orderId + ".pdf";
-        java.nio.file.Path filePath = java.nio.file.Paths.get("src/main/resources/invoice/", fileName);
-        if (!java.nio.file.Files.exists(filePath)) {
-            throw new ApiException("Invoice PDF not found for order ID: " + orderId);
-        }
-        try {
-            return new org.springframework.core.io.UrlResource(filePath.toUri());
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new ApiException("Failed to load invoice PDF: " + e.getMessage());
+    /**
+     * Save the invoices and mark their orders INVOICED in one transaction, both as JDBC batches.
+     * Orders that have been invoiced in the meantime are left out; one invoiced by another
+     * transaction after this check fails the commit on the unique key of invoices.orderId. Returns
+     * the IDs of the orders recorded.
+     */
+    public Set<Integer> recordInvoices(List<InvoicePojo> invoices) {
+        Set<Integer> orderIds = new LinkedHashSet<>();
+        for (InvoicePojo invoice : invoices) {
+            orderIds.add(invoice.getOrderId());
+        }
+        Set<Integer> alreadyInvoiced = new HashSet<>();
+        for (InvoicePojo existing : invoiceApi.getByOrderIds(orderIds)) {
+            alreadyInvoiced.add(existing.getOrderId());
+        }
+        Set<Integer> recorded = new LinkedHashSet<>();
+        List<InvoicePojo> toInsert = new ArrayList<>();
+        for (InvoicePojo invoice : invoices) {
+            if (!alreadyInvoiced.contains(invoice.getOrderId()) && recorded.add(invoice.getOrderId())) {
+                toInsert.add(invoice);
+            }
         }
+        invoiceApi.addAll(toInsert);
+        api.updateStatuses(recorded, OrderStatus.INVOICED);
+        return recorded;
     }
 
     public void updateStatus(Integer id, OrderStatus status) {
         api.updateStatus(id, status);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderPojo> getOrdersByDateRange(LocalDate startDate, LocalDate endDate) {
         return api.getOrdersByDateRange(startDate, endDate);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderPojo> getOrdersByUserId(String userId) {
         return api.findByUserId(userId);
     }
 
     // ========== SUBSTRING SEARCH METHODS ==========
 
+    @Transactional(readOnly = true)
     public List<OrderPojo> findOrdersBySubstringId(String searchId, int maxResults) {
         if (searchId == null || searchId.trim().isEmpty()) {
             throw new ApiException("Search ID cannot be null or empty");
@@ -106,6 +139,7 @@ public class OrderFlow extends AbstractFlow<OrderPojo> {
         return api.findOrdersBySubstringId(searchId, maxResults);
     }
 
+    @Transactional(readOnly = true)
     public PaginationResponse<OrderPojo> findOrdersBySubstringIdPaginated(
             String searchId, 
             PaginationRequest request) {
@@ -120,6 +154,7 @@ public class OrderFlow extends AbstractFlow<OrderPojo> {
 
     // ========== PAGINATION METHODS ==========
 
+    @Transactional(readOnly = true)
     public PaginationResponse<OrderPojo> getByUserIdPaginated(String userId, PaginationRequest request) {
         if (userId == null || userId.trim().isEmpty()) {
             throw new ApiException("User ID cannot be null or empty");
@@ -127,6 +162,7 @@ public class OrderFlow extends AbstractFlow<OrderPojo> {
         return api.getPaginated(PaginationQuery.byField("userId", userId, request));
     }
 
+    @Transactional(readOnly = true)
     public PaginationResponse<OrderPojo> getByDateRangePaginated(LocalDate startDate, LocalDate endDate, PaginationRequest request) {
         if (startDate == null || endDate == null) {
             throw new ApiException("Start date and end date cannot be null");
@@ -143,6 +179,7 @@ public class OrderFlow extends AbstractFlow<OrderPojo> {
 
     // ========== INVENTORY MANAGEMENT METHODS ==========
 
+    @Transactional(readOnly = true)
     public OrderItemPojo getOrderItem(Integer orderItemId) {
         if (orderItemId == null) {
             throw new ApiException("Order item ID cannot be null");
@@ -160,7 +197,9 @@ public class OrderFlow extends AbstractFlow<OrderPojo> {
             throw new ApiException("Order must contain at least one item");
         }
 
-        // Step 2: Check inventory constraints for all items before creating anything
+        // Step 2: Validate lines, merge repeated products and compute the total up front
+        Map<Integer, Integer> quantitiesByProductId = new LinkedHashMap<>();
+        long totalPaise = 0;
         for (OrderItemPojo orderItemPojo : orderItemPojoList) {
             Integer productId = orderItemPojo.getProductId();
             Integer quantity = orderItemPojo.getQuantity();
@@ -172,40 +211,28 @@ public class OrderFlow extends AbstractFlow<OrderPojo> {
                 throw new ApiException("Quantity must be positive");
             }
 
-            // Validate inventory availability without modifying it
-            inventoryApi.checkInventoryAvailability(productId, quantity);
+            quantitiesByProductId.merge(productId, quantity, Integer::sum);
+            totalPaise = Math.addExact(totalPaise, orderItemPojo.getAmountPaise());
+        }
+
+        // Step 3: Reserve stock with one conditional decrement per line; any failure rolls back the order
+        InventoryApi.StockReservation reservation = inventoryApi.reserveStock(quantitiesByProductId);
+        if (!reservation.isSuccessful()) {
+            throw new ApiException(reservation.getFailureMessage());
         }
 
-        // Step 3: All checks passed, now create the order
+        // Step 4: Create the order with its final total
+        orderPojo.setTotalPaise(totalPaise);
         api.add(orderPojo);
-        
-        double totalAmount = 0.0;
-        
-        // Step 4: Create order items and reduce inventory
+
+        // Step 5: Create order items; inserts are batched on flush
         for (OrderItemPojo orderItemPojo : orderItemPojoList) {
-            // Set the order ID for each item
             orderItemPojo.setOrderId(orderPojo.getId());
-            
-            // Add order item through API
-            api.addOrderItem(orderItemPojo);
-            
-            // Reduce inventory (this should succeed since we already validated)
-            Integer productId = orderItemPojo.getProductId();
-            Integer quantity = orderItemPojo.getQuantity();
-            
-            try {
-                inventoryApi.removeStock(productId, quantity);
-            } catch (Exception e) {
-                throw new ApiException("Failed to reduce inventory: " + e.getMessage());
-            }
-            
-            // Calculate total
-            totalAmount += orderItemPojo.getAmount();
         }
-        
-        // Step 5: Update order total
-        orderPojo.setTotal(totalAmount);
-        api.update(orderPojo.getId(), orderPojo);
+        api.addOrderItems(orderItemPojoList);
+
+        // Step 6: Fold the order into the sales fact table in the same transaction
+        salesFactApi.recordOrder(orderPojo);
         
         return orderPojo;
     }
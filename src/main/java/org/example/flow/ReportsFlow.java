@@ -5,6 +5,7 @@ import org.example.pojo.DaySalesPojo;
 import org.example.pojo.OrderPojo;
 import org.example.dao.OrderItemDao;
 import org.example.dao.DaySalesDao;
+import org.example.dao.SalesFactDao;
 import org.example.api.OrderApi;
 import org.example.api.ProductApi;
 import org.example.api.ClientApi;
@@ -18,7 +19,7 @@ import java.util.List;
 import java.util.Objects;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class ReportsFlow {
 
     @Autowired
@@ -27,6 +28,9 @@ public class ReportsFlow {
     @Autowired
     private DaySalesDao daySalesDao;
 
+    @Autowired
+    private SalesFactDao salesFactDao;
+
     @Autowired
     private OrderApi orderApi;
 
@@ -43,6 +47,32 @@ public class ReportsFlow {
         return orderItemDao.selectAll();
     }
 
+    /**
+     * Get brand|sku sales aggregates for a date range from the pre-aggregated sales fact table
+     */
+    public List<SalesFactDao.SalesReportRow> getSalesReport(LocalDate startDate, LocalDate endDate, String brand, String category) {
+        if (startDate == null || endDate == null) {
+            throw new ApiException("Start date and end date cannot be null");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new ApiException("End date cannot be before start date");
+        }
+        return salesFactDao.getSalesReport(startDate, endDate, brand, category);
+    }
+
+    /**
+     * Get distinct order counts per brand|category for a date range
+     */
+    public List<SalesFactDao.BrandCategoryOrderCount> getOrderCountsByBrandCategory(LocalDate startDate, LocalDate endDate, String brand, String category) {
+        if (startDate == null || endDate == null) {
+            throw new ApiException("Start date and end date cannot be null");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new ApiException("End date cannot be before start date");
+        }
+        return salesFactDao.countOrdersByBrandCategory(startDate, endDate, brand, category);
+    }
+
     /**
      * Get all day sales for reporting purposes
      */
@@ -22,10 +22,12 @@ public class UserFlow {
         api.signup(userPojo);
     }
 
+    @Transactional(readOnly = true)
     public UserPojo getByEmail(String email) {
         return api.getByEmail(email);
     }
 
+    @Transactional(readOnly = true)
     public UserPojo get(Integer id) {
         if (id == null) {
             throw new ApiException("User ID cannot be null");
@@ -47,6 +49,7 @@ public class UserFlow {
         api.update(id, userPojo);
     }
 
+    @Transactional(readOnly = true)
     public java.util.List<UserPojo> getAll() {
         return api.getAll();
     }
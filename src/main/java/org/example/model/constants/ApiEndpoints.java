@@ -9,6 +9,7 @@ public class ApiEndpoints {
         public static final String BASE_PATH = "/api/user";
         public static final String SIGNUP = "/api/user/signup";
         public static final String CURRENT_USER = "/api/user/current-user";
+        public static final String TOKEN = "/api/user/token";
         public static final String ORDERS = "/api/user/orders";
         public static final String PRODUCTS = "/api/user/products";
         public static final String INVENTORY = "/api/user/inventory";
@@ -5,12 +5,44 @@ public class DbConstants {
     public static class DbSourceData {
 
         public static final String DRIVER_CLASS_NAME = "com.mysql.cj.jdbc.Driver";
-        public static final String URL = "jdbc:mysql://localhost:3306/pos";
+        public static final String URL = "jdbc:mysql://localhost:3306/pos?rewriteBatchedStatements=true";
         public static final String USERNAME = "root";
         public static final String PASSWORD = "DiaryMilk123$";
 
     }
 
+    public static class ConnectionPool {
+
+        public static final String POOL_NAME = "pos-pool";
+        public static final String REPLICA_POOL_NAME = "pos-replica-pool";
+        // How long a thread keeps reading from the primary after a read-write transaction; covers replica lag
+        public static final long REPLICA_PRIMARY_PIN_MILLIS = 5_000;
+        // Defaults; each can be overridden with the matching db.pool.* system property
+        public static final int MAXIMUM_POOL_SIZE = 20;
+        public static final int MINIMUM_IDLE = 5;
+        public static final long CONNECTION_TIMEOUT_MILLIS = 3_000;
+        public static final long IDLE_TIMEOUT_MILLIS = 600_000;
+        // Kept below MySQL's wait_timeout so the server never drops a pooled connection first
+        public static final long MAX_LIFETIME_MILLIS = 1_800_000;
+        public static final long LEAK_DETECTION_THRESHOLD_MILLIS = 20_000;
+
+        // Connector/J statement caching: server-side prepared statements are parsed once per
+        // connection and reused, instead of being re-sent and re-parsed on every execution
+        public static final String USE_SERVER_PREP_STMTS = "useServerPrepStmts";
+        public static final String CACHE_PREP_STMTS = "cachePrepStmts";
+        public static final String PREP_STMT_CACHE_SIZE = "prepStmtCacheSize";
+        public static final String PREP_STMT_CACHE_SIZE_VALUE = "250";
+        public static final String PREP_STMT_CACHE_SQL_LIMIT = "prepStmtCacheSqlLimit";
+        public static final String PREP_STMT_CACHE_SQL_LIMIT_VALUE = "2048";
+        public static final String CACHE_RESULT_SET_METADATA = "cacheResultSetMetadata";
+        public static final String CACHE_SERVER_CONFIGURATION = "cacheServerConfiguration";
+        public static final String USE_LOCAL_SESSION_STATE = "useLocalSessionState";
+        public static final String ELIDE_SET_AUTO_COMMITS = "elideSetAutoCommits";
+        // Lets a positive fetch size stream through a server-side cursor instead of buffering the result
+        public static final String USE_CURSOR_FETCH = "useCursorFetch";
+
+    }
+
     public static class EntityPackage {
 
         public static final String PACKAGE_TO_SCAN = "org.example.pojo";
@@ -25,6 +57,163 @@ public class DbConstants {
         public static final String HIBERNATE_PROPERTY_2 = "update";
         public static final String SQL_PROPERTY_1 = "hibernate.show_sql";
         public static final String SQL_PROPERTY_2 = "true";
+        public static final String ID_OPTIMIZER_PROPERTY_1 = "hibernate.id.optimizer.pooled.preferred";
+        public static final String ID_OPTIMIZER_PROPERTY_2 = "pooled-lo";
+        public static final String BATCH_SIZE_PROPERTY_1 = "hibernate.jdbc.batch_size";
+        public static final String BATCH_SIZE_PROPERTY_2 = "50";
+        public static final String ORDER_INSERTS_PROPERTY_1 = "hibernate.order_inserts";
+        public static final String ORDER_INSERTS_PROPERTY_2 = "true";
+        public static final String ORDER_UPDATES_PROPERTY_1 = "hibernate.order_updates";
+        public static final String ORDER_UPDATES_PROPERTY_2 = "true";
+        public static final String SECOND_LEVEL_CACHE_PROPERTY_1 = "hibernate.cache.use_second_level_cache";
+        public static final String SECOND_LEVEL_CACHE_PROPERTY_2 = "true";
+        public static final String QUERY_CACHE_PROPERTY_1 = "hibernate.cache.use_query_cache";
+        public static final String QUERY_CACHE_PROPERTY_2 = "true";
+        public static final String CACHE_REGION_FACTORY_PROPERTY_1 = "hibernate.cache.region.factory_class";
+        public static final String CACHE_REGION_FACTORY_PROPERTY_2 = "jcache";
+        public static final String CACHE_PROVIDER_PROPERTY_1 = "hibernate.javax.cache.provider";
+        public static final String CACHE_PROVIDER_PROPERTY_2 = "org.ehcache.jsr107.EhcacheCachingProvider";
+        public static final String CACHE_CONFIG_PROPERTY_1 = "hibernate.javax.cache.uri";
+        public static final String CACHE_CONFIG_PROPERTY_2 = "ehcache.xml";
+        // Every region must be declared, with bounds, in ehcache.xml
+        public static final String MISSING_CACHE_PROPERTY_1 = "hibernate.javax.cache.missing_cache_strategy";
+        public static final String MISSING_CACHE_PROPERTY_2 = "fail";
+
+    }
+
+    public static class CacheRegions {
+
+        // Second-level cache regions; sizes and expiry are set in ehcache.xml
+        public static final String PRODUCT = "product";
+        public static final String PRODUCT_NATURAL_ID = "product-natural-id";
+        public static final String CLIENT = "client";
+        public static final String CLIENT_NATURAL_ID = "client-natural-id";
+
+    }
+
+    public static class BarcodeIndex {
+
+        // Products kept in the in-memory barcode index; the least recently used are evicted past this
+        public static final int MAX_ENTRIES = 50_000;
+        // How long an indexed product is served before it is read again; bounds staleness from other nodes
+        public static final long TTL_MILLIS = 1_800_000;
+
+    }
+
+    public static class CatalogSearch {
+
+        // How often products and clients updated on other nodes are read into the search indexes
+        public static final long REFRESH_MILLIS = 60_000;
+        // Each refresh reads back this far before the previous one started, covering slow commits and clock skew
+        public static final long REFRESH_OVERLAP_MILLIS = 120_000;
+
+    }
+
+    public static class IdGenerator {
+
+        // IDs reserved per round trip to id_generators; with pooled-lo the stored value is the
+        // last ID of the most recently reserved block, so blocks never overlap across nodes or restarts
+        public static final int ALLOCATION_SIZE = 50;
+
+    }
+
+    public static class OrderSearch {
+
+        // Longest order ID n-gram indexed; longer search terms are matched through all their grams of this length
+        public static final int MAX_GRAM_LENGTH = 3;
+        // Orders whose grams are written per batch when the index is rebuilt
+        public static final int REBUILD_BATCH_SIZE = 5_000;
+        // Gram rows per multi-row INSERT IGNORE
+        public static final int GRAM_INSERT_BATCH_SIZE = 1_000;
+        // How often recently created orders are swept for grams that another node, such as one
+        // still running an older version, did not write
+        public static final long SYNC_INTERVAL_MILLIS = 300_000;
+        // Each sweep starts this long before the previous one did, covering slow commits and clock skew
+        public static final long SYNC_OVERLAP_MILLIS = 600_000;
+
+    }
+
+    public static class InvoiceJobs {
+
+        // Invoices generated at the same time
+        public static final int WORKER_COUNT = 4;
+        // How often the queue is checked for due jobs
+        public static final long POLL_INTERVAL_MILLIS = 1_000;
+        // Attempts before a job is marked FAILED
+        public static final int MAX_ATTEMPTS = 5;
+        // Delay before the first retry; it doubles with every further attempt up to BACKOFF_MAX_MILLIS
+        public static final long BACKOFF_BASE_MILLIS = 2_000;
+        public static final long BACKOFF_MAX_MILLIS = 300_000;
+        // How long a claimed job may run before another worker may take it over
+        public static final long LEASE_MILLIS = 120_000;
+        public static final int LAST_ERROR_LENGTH = 1_000;
+
+    }
+
+    public static class InvoiceService {
+
+        public static final String URL = "http://localhost:8081/api/invoice";
+        public static final long CONNECT_TIMEOUT_MILLIS = 2_000;
+        // Deadline for the response to a call, after which it fails as a timeout
+        public static final long READ_TIMEOUT_MILLIS = 15_000;
+        // Calls allowed at once; more wait up to BULKHEAD_WAIT_MILLIS for a slot and are then refused
+        public static final int MAX_CONCURRENT_CALLS = 8;
+        public static final long BULKHEAD_WAIT_MILLIS = 500;
+        // Consecutive failures that open the circuit breaker, and how long it stays open
+        public static final int BREAKER_FAILURE_THRESHOLD = 5;
+        public static final long BREAKER_OPEN_MILLIS = 30_000;
+
+    }
+
+    public static class Auth {
+
+        public static final String HMAC_ALGORITHM = "HmacSHA256";
+        // How long a verified username and password are trusted without checking BCrypt again
+        public static final long CACHE_TTL_MILLIS = 60_000;
+        // Cached credentials kept before expired entries are swept
+        public static final int CACHE_MAX_ENTRIES = 10_000;
+        // Lifetime of a bearer token minted at login
+        public static final long TOKEN_TTL_MILLIS = 900_000;
+
+    }
+
+    public static class InvoiceBulk {
+
+        // Invoice service calls in flight per run; keep below InvoiceService.MAX_CONCURRENT_CALLS
+        // so single downloads still get through
+        public static final int PARALLELISM = 4;
+        // Generated invoices saved, and their orders marked INVOICED, per transaction
+        public static final int RECORD_BATCH_SIZE = 50;
+        public static final int MAX_ORDERS = 5_000;
+        // Finished runs kept for progress polling
+        public static final int RETAINED_RUNS = 20;
+
+    }
+
+    public static class InvoiceStorage {
+
+        // Shared by every node; kept on one volume so a temp file can be renamed into place
+        public static final String ROOT = "src/main/resources/invoice/";
+        // PDFs are mostly compressed already, so gzip rarely pays for itself
+        public static final boolean COMPRESS = false;
+
+    }
+
+    public static class Export {
+
+        // Rows fetched per round trip while scrolling an export
+        public static final int FETCH_SIZE = 1_000;
+        // Rows streamed between clears of the persistence context
+        public static final int CLEAR_INTERVAL = 1_000;
+
+    }
+
+    public static class Pagination {
+
+        // How long an APPROXIMATE page count is reused before it is recounted
+        public static final long COUNT_CACHE_TTL_MILLIS = 60_000;
+        // Distinct queries whose counts are remembered per DAO before the cache is cleared
+        public static final int COUNT_CACHE_MAX_ENTRIES = 1_000;
 
     }
 }
@@ -0,0 +1,12 @@
+package org.example.model.data;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class AuthTokenData {
+    private String token;
+    private String tokenType; // Always "Bearer"
+    private String expiresAt; // ISO-8601 instant
+}
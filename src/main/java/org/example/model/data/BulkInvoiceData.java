@@ -0,0 +1,22 @@
+package org.example.model.data;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.example.model.enums.BulkInvoiceStatus;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkInvoiceData {
+    private String runId;
+    private BulkInvoiceStatus status;
+    private int total;
+    private int completed; // Orders with an outcome so far
+    private int invoiced;
+    private int skipped;
+    private int failed;
+    private String startedAt;
+    private String finishedAt;
+    private List<BulkInvoiceOrderData> orders; // Outcomes so far, in request order
+}
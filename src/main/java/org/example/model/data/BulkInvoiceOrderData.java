@@ -0,0 +1,13 @@
+package org.example.model.data;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.example.model.enums.BulkInvoiceOutcome;
+
+@Getter
+@Setter
+public class BulkInvoiceOrderData {
+    private Integer orderId;
+    private BulkInvoiceOutcome outcome;
+    private String message; // Why the order was skipped or failed
+}
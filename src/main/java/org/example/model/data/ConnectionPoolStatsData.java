@@ -0,0 +1,24 @@
+package org.example.model.data;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+public class ConnectionPoolStatsData {
+    private String poolName;
+    private Integer activeConnections;
+    private Integer idleConnections;
+    private Integer totalConnections;
+    private Integer waitingThreads; // Callers currently blocked waiting for a connection
+    private Integer maxConnections;
+    private Integer minConnections;
+    private Long acquisitions;
+    private Double averageAcquireMillis;
+    private Double maxAcquireMillis;
+    private Long connectionTimeouts;
+    private Double averageUsageMillis;
+    private Map<String, Long> acquireTimeHistogram; // Upper bound of each bucket -> acquisitions
+}
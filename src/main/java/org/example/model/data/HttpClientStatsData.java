@@ -0,0 +1,23 @@
+package org.example.model.data;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+public class HttpClientStatsData {
+    private String service;
+    private String breakerState; // CLOSED, OPEN or HALF_OPEN
+    private Long breakerOpenings;
+    private Integer inFlightCalls;
+    private Integer maxConcurrentCalls;
+    private Long calls; // Calls that reached the service
+    private Long failedCalls;
+    private Long bulkheadRejections; // Refused because maxConcurrentCalls were already running
+    private Long breakerRejections; // Refused because the breaker was open
+    private Double averageLatencyMillis;
+    private Double maxLatencyMillis;
+    private Map<String, Long> latencyHistogram; // Upper bound of each bucket -> calls
+}
@@ -0,0 +1,17 @@
+package org.example.model.data;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class IdSequenceMetricsData {
+    private String entityName;
+    private Long allocations;
+    private Long averageAllocationNanos;
+    private Long maxAllocationNanos;
+    private Long segmentFetches;
+    private Long segmentExhaustions; // Times a caller had to wait for a segment to be reserved
+    private Long refillFailures;
+    private Long remainingInSegment;
+}
@@ -0,0 +1,16 @@
+package org.example.model.data;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.example.model.enums.InvoiceJobStatus;
+
+@Getter
+@Setter
+public class InvoiceJobData {
+    private Integer orderId;
+    private InvoiceJobStatus status;
+    private int attempts;
+    private String nextAttemptAt; // When a pending job is next tried
+    private String lastError;
+    private String downloadUrl; // Set once the invoice is ready
+}
@@ -2,7 +2,6 @@ package org.example.model.data;
 
 import lombok.Getter;
 import lombok.Setter;
-import org.example.util.TimeUtil;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import java.time.ZonedDateTime;
@@ -22,11 +21,4 @@ public class OrderData {
     private String invoiceBase64; // Base64 encoded invoice PDF
     private String invoiceUrl; // URL to download invoice
     private String userId;
-
-    public void setTotal(Double total) {
-        this.total = total == null ? null : TimeUtil.round2(total);
-    }
-    public Double getTotal() {
-        return total == null ? null : TimeUtil.round2(total);
-    }
 }
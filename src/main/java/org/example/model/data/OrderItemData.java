@@ -2,7 +2,6 @@ package org.example.model.data;
 
 import lombok.Getter;
 import lombok.Setter;
-import org.example.util.TimeUtil;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import java.time.ZonedDateTime;
@@ -25,16 +24,4 @@ public class OrderItemData {
     private Double amount;
     private String imageUrl; // Reference to image endpoint: /api/products/{productId}/image
 
-    public void setSellingPrice(Double sellingPrice) {
-        this.sellingPrice = sellingPrice == null ? null : TimeUtil.round2(sellingPrice);
-    }
-    public Double getSellingPrice() {
-        return sellingPrice == null ? null : TimeUtil.round2(sellingPrice);
-    }
-    public void setAmount(Double amount) {
-        this.amount = amount == null ? null : TimeUtil.round2(amount);
-    }
-    public Double getAmount() {
-        return amount == null ? null : TimeUtil.round2(amount);
-    }
 }
@@ -1,5 +1,7 @@
 package org.example.model.data;
 
+import org.example.model.enums.CountStrategy;
+
 import java.util.List;
 
 public class PaginationResponse<T> {
@@ -13,6 +15,10 @@ public class PaginationResponse<T> {
     private boolean hasPrevious;
     private boolean isFirst;
     private boolean isLast;
+    // Token for the next keyset page; null when there is none or the page was offset-based
+    private String nextCursor;
+    // How totalElements was obtained; SKIP means the totals are -1 and only hasNext is known
+    private CountStrategy countStrategy = CountStrategy.EXACT;
     
     // Default constructor
     public PaginationResponse() {}
@@ -40,6 +46,62 @@ public class PaginationResponse<T> {
         return new PaginationResponse<>(currentPage, pageSize);
     }
     
+    /**
+     * Keyset page: the total is not counted, so totalElements and totalPages are -1
+     */
+    public static <T> PaginationResponse<T> keyset(List<T> content, int pageSize, boolean first, String nextCursor) {
+        PaginationResponse<T> response = new PaginationResponse<>();
+        response.content = content;
+        response.totalElements = -1;
+        response.totalPages = -1;
+        response.currentPage = 0;
+        response.pageSize = pageSize;
+        response.hasNext = nextCursor != null;
+        response.hasPrevious = !first;
+        response.isFirst = first;
+        response.isLast = nextCursor == null;
+        response.nextCursor = nextCursor;
+        response.countStrategy = CountStrategy.SKIP;
+        return response;
+    }
+    
+    /**
+     * Offset page without a count: totalElements and totalPages are -1
+     */
+    public static <T> PaginationResponse<T> uncounted(List<T> content, int currentPage, int pageSize, boolean hasNext) {
+        PaginationResponse<T> response = new PaginationResponse<>();
+        response.content = content;
+        response.totalElements = -1;
+        response.totalPages = -1;
+        response.currentPage = currentPage;
+        response.pageSize = pageSize;
+        response.hasNext = hasNext;
+        response.hasPrevious = currentPage > 0;
+        response.isFirst = currentPage == 0;
+        response.isLast = !hasNext;
+        response.countStrategy = CountStrategy.SKIP;
+        return response;
+    }
+    
+    /**
+     * Same page metadata (including the next cursor) around converted content
+     */
+    public <R> PaginationResponse<R> withContent(List<R> newContent) {
+        PaginationResponse<R> response = new PaginationResponse<>();
+        response.content = newContent;
+        response.totalElements = totalElements;
+        response.totalPages = totalPages;
+        response.currentPage = currentPage;
+        response.pageSize = pageSize;
+        response.hasNext = hasNext;
+        response.hasPrevious = hasPrevious;
+        response.isFirst = isFirst;
+        response.isLast = isLast;
+        response.nextCursor = nextCursor;
+        response.countStrategy = countStrategy;
+        return response;
+    }
+    
     // Static factory method for single page results
     public static <T> PaginationResponse<T> of(List<T> content) {
         return new PaginationResponse<>(content, content.size(), 0, content.size());
@@ -132,6 +194,22 @@ public class PaginationResponse<T> {
         this.isLast = isLast;
     }
     
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public CountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+    
+    public void setCountStrategy(CountStrategy countStrategy) {
+        this.countStrategy = countStrategy;
+    }
+    
     // Utility methods
     public boolean isEmpty() {
         return content == null || content.isEmpty();
@@ -153,6 +231,8 @@ public class PaginationResponse<T> {
                 ", hasPrevious=" + hasPrevious +
                 ", isFirst=" + isFirst +
                 ", isLast=" + isLast +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", countStrategy=" + countStrategy +
                 '}';
     }
 } 
\ No newline at end of file
@@ -0,0 +1,7 @@
+package org.example.model.enums;
+
+public enum BulkInvoiceOutcome {
+    INVOICED,  // Invoice generated and saved by this run
+    SKIPPED,   // Already invoiced, or being invoiced by a job
+    FAILED     // See the message
+}
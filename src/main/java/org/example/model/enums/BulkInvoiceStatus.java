@@ -0,0 +1,7 @@
+package org.example.model.enums;
+
+public enum BulkInvoiceStatus {
+    QUEUED,    // Waiting for an earlier run to finish
+    RUNNING,
+    DONE       // Every order has an outcome
+}
@@ -0,0 +1,10 @@
+package org.example.model.enums;
+
+/**
+ * How a paginated query works out its total row count.
+ */
+public enum CountStrategy {
+    EXACT,       // Run a COUNT query for every page
+    SKIP,        // No count; read one extra row to tell whether a next page exists
+    APPROXIMATE  // Reuse a recent count for the same query, refreshed after a TTL
+}
@@ -0,0 +1,36 @@
+package org.example.model.enums;
+
+import org.example.exception.ApiException;
+
+/**
+ * Line-oriented formats that bulk exports are streamed in.
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),  // One JSON object per line
+    TSV("text/tab-separated-values", "tsv");    // Header line, then one tab-separated row per line
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat from(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new ApiException("Unsupported export format: " + value);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.model.enums;
+
+public enum InvoiceJobStatus {
+    PENDING,   // Waiting for a worker, possibly until a retry is due
+    RUNNING,   // Claimed by a worker until its lease runs out
+    DONE,      // Invoice saved
+    FAILED     // Gave up after the maximum number of attempts
+}
@@ -0,0 +1,15 @@
+package org.example.model.form;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkInvoiceForm {
+    private List<Integer> orderIds; // Either the orders to invoice...
+    private LocalDate startDate;    // ...or every order in this date range
+    private LocalDate endDate;
+}
@@ -3,6 +3,7 @@ package org.example.model.form;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Max;
 import org.example.exception.ApiException;
+import org.example.model.enums.CountStrategy;
 
 public class PaginationRequest {
     
@@ -15,6 +16,13 @@ public class PaginationRequest {
     
     private String sortBy;
     private String sortDirection = "ASC"; // ASC or DESC
+
+    // How the total row count is obtained for offset pages
+    private CountStrategy countStrategy = CountStrategy.EXACT;
+
+    // Keyset mode seeks past the row named by the cursor instead of using an offset
+    private boolean keyset;
+    private String cursor;
     
     // Default constructor
     public PaginationRequest() {}
@@ -33,6 +41,16 @@ public class PaginationRequest {
         this(pageNumber, pageSize, null, "ASC");
     }
     
+    /**
+     * Keyset pagination request; a null or blank cursor asks for the first page
+     */
+    public static PaginationRequest keyset(Integer pageSize, String sortBy, String sortDirection, String cursor) {
+        PaginationRequest request = new PaginationRequest(0, pageSize, sortBy, sortDirection);
+        request.keyset = true;
+        request.cursor = cursor != null && !cursor.trim().isEmpty() ? cursor.trim() : null;
+        return request;
+    }
+    
     // Validation method
     public void validate() {
         if (pageNumber == null || pageNumber < 0) {
@@ -94,6 +112,30 @@ public class PaginationRequest {
         validate();
     }
     
+    public CountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+    
+    public void setCountStrategy(CountStrategy countStrategy) {
+        this.countStrategy = countStrategy != null ? countStrategy : CountStrategy.EXACT;
+    }
+    
+    public boolean isKeyset() {
+        return keyset;
+    }
+    
+    public void setKeyset(boolean keyset) {
+        this.keyset = keyset;
+    }
+    
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+    
     @Override
     public String toString() {
         return "PaginationRequest{" +
@@ -101,6 +143,9 @@ public class PaginationRequest {
                 ", pageSize=" + pageSize +
                 ", sortBy='" + sortBy + '\'' +
                 ", sortDirection='" + sortDirection + '\'' +
+                ", countStrategy=" + countStrategy +
+                ", keyset=" + keyset +
+                ", cursor='" + cursor + '\'' +
                 '}';
     }
 } 
\ No newline at end of file
@@ -3,11 +3,22 @@ package org.example.pojo;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.example.model.constants.DbConstants;
 
 @Setter
 @Getter
 @Entity
-@Table (name = "client")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DbConstants.CacheRegions.CLIENT)
+@NaturalIdCache(region = DbConstants.CacheRegions.CLIENT_NATURAL_ID)
+@Table (name = "client", indexes = {
+    // Refreshes of the catalog search index read recently updated rows
+    @Index(name = "idx_client_updated_at", columnList = "updatedAt")
+})
 public class ClientPojo extends AbstractPojo {
 
     @Id
@@ -18,10 +29,11 @@ public class ClientPojo extends AbstractPojo {
         pkColumnName = "gen_name",
         valueColumnName = "gen_val",
         pkColumnValue = "client_id",
-        allocationSize = 1
+        allocationSize = DbConstants.IdGenerator.ALLOCATION_SIZE
     )
     private Integer id;
 
+    @NaturalId(mutable = true)
     @Column(unique = true)
     private String clientName;
 
@@ -3,6 +3,7 @@ package org.example.pojo;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.example.model.constants.DbConstants;
 
 @Setter
 @Getter
@@ -18,7 +19,7 @@ public class InventoryPojo extends AbstractPojo {
         pkColumnName = "gen_name",
         valueColumnName = "gen_val",
         pkColumnValue = "inventory_id",
-        allocationSize = 1
+        allocationSize = DbConstants.IdGenerator.ALLOCATION_SIZE
     )
     private Integer id;
 
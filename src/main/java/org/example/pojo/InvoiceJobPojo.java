@@ -0,0 +1,40 @@
+package org.example.pojo;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.model.constants.DbConstants;
+import org.example.model.enums.InvoiceJobStatus;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Durable invoice generation request. The order ID is the key, so an order has at most one job.
+ *
+ * nextAttemptAt is when a PENDING job becomes due; for a RUNNING job it is when the worker's
+ * lease expires and another worker may take the job over.
+ */
+@Entity
+@Table(name = "invoice_jobs", indexes = {
+    @Index(name = "idx_invoice_jobs_status_next_attempt", columnList = "status, nextAttemptAt")
+})
+@Getter
+@Setter
+public class InvoiceJobPojo extends AbstractPojo {
+
+    @Id
+    private Integer orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InvoiceJobStatus status = InvoiceJobStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private ZonedDateTime nextAttemptAt;
+
+    @Column(length = DbConstants.InvoiceJobs.LAST_ERROR_LENGTH)
+    private String lastError;
+}
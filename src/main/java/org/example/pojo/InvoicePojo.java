@@ -3,9 +3,12 @@ package org.example.pojo;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.example.model.constants.DbConstants;
 
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = {
+    @Index(name = "uk_invoices_order_id", columnList = "orderId", unique = true)
+})
 @Getter
 @Setter
 public class InvoicePojo extends AbstractPojo {
@@ -18,13 +21,14 @@ public class InvoicePojo extends AbstractPojo {
         pkColumnName = "gen_name",
         valueColumnName = "gen_val",
         pkColumnValue = "invoice_id",
-        allocationSize = 1
+        allocationSize = DbConstants.IdGenerator.ALLOCATION_SIZE
     )
     private Integer id;
 
     @Column(nullable = false)
     private Integer orderId;
 
+    // Key of the PDF in InvoiceStore
     @Column(nullable = false)
     private String filePath;
 
@@ -0,0 +1,49 @@
+package org.example.pojo;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.model.constants.DbConstants;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One row per distinct digit n-gram (up to DbConstants.OrderSearch.MAX_GRAM_LENGTH digits) of an
+ * order ID, so orders whose ID contains a search term can be found through the primary key
+ * instead of scanning the orders table.
+ */
+@Entity
+@Table(name = "order_id_gram")
+@IdClass(OrderIdGramPojo.Key.class)
+@Getter
+@Setter
+public class OrderIdGramPojo {
+
+    @Id
+    @Column(length = DbConstants.OrderSearch.MAX_GRAM_LENGTH)
+    private String gram;
+
+    @Id
+    private Integer orderId;
+
+    @Getter
+    @Setter
+    public static class Key implements Serializable {
+        private String gram;
+        private Integer orderId;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(gram, key.gram) &&
+                    Objects.equals(orderId, key.orderId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(gram, orderId);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package org.example.pojo;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
-import org.example.util.TimeUtil;
+import org.example.model.constants.DbConstants;
+import org.example.util.Money;
 
 @Setter
 @Getter
@@ -19,7 +21,7 @@ public class OrderItemPojo extends AbstractPojo {
         pkColumnName = "gen_name",
         valueColumnName = "gen_val",
         pkColumnValue = "order_item_id",
-        allocationSize = 1
+        allocationSize = DbConstants.IdGenerator.ALLOCATION_SIZE
     )
     private Integer id;
 
@@ -30,19 +32,36 @@ public class OrderItemPojo extends AbstractPojo {
     private Integer productId;
 
     private Integer quantity;
-    private Double sellingPrice;
-    private Double amount;
+    // Unit price and quantity * unit price, both in paise (see Money)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Long sellingPrice;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Long amount;
 
+    public Long getSellingPricePaise() {
+        return sellingPrice;
+    }
+    public void setSellingPricePaise(Long sellingPricePaise) {
+        this.sellingPrice = sellingPricePaise;
+    }
+    public Long getAmountPaise() {
+        return amount;
+    }
+    public void setAmountPaise(Long amountPaise) {
+        this.amount = amountPaise;
+    }
     public void setSellingPrice(Double sellingPrice) {
-        this.sellingPrice = sellingPrice == null ? null : TimeUtil.round2(sellingPrice);
+        this.sellingPrice = sellingPrice == null ? null : Money.toPaise(sellingPrice);
     }
     public Double getSellingPrice() {
-        return sellingPrice == null ? null : TimeUtil.round2(sellingPrice);
+        return sellingPrice == null ? null : Money.toRupees(sellingPrice);
     }
     public void setAmount(Double amount) {
-        this.amount = amount == null ? null : TimeUtil.round2(amount);
+        this.amount = amount == null ? null : Money.toPaise(amount);
     }
     public Double getAmount() {
-        return amount == null ? null : TimeUtil.round2(amount);
+        return amount == null ? null : Money.toRupees(amount);
     }
 }
\ No newline at end of file
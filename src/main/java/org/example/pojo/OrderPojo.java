@@ -1,9 +1,11 @@
 package org.example.pojo;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
-import org.example.util.TimeUtil;
+import org.example.model.constants.DbConstants;
+import org.example.util.Money;
 
 import java.time.ZonedDateTime;
 import org.example.model.enums.OrderStatus;
@@ -11,7 +13,10 @@ import org.example.model.enums.OrderStatus;
 @Getter
 @Setter
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    // Catch-up sweeps of the order ID search index read recently created orders
+    @Index(name = "idx_orders_created_at", columnList = "createdAt")
+})
 public class OrderPojo extends AbstractPojo {
 
     @Id
@@ -22,13 +27,16 @@ public class OrderPojo extends AbstractPojo {
         pkColumnName = "gen_name",
         valueColumnName = "gen_val",
         pkColumnValue = "order_id",
-        allocationSize = 1
+        allocationSize = DbConstants.IdGenerator.ALLOCATION_SIZE
     )
     private Integer id;
 
     private ZonedDateTime date;
 
-    private double total;
+    // In paise (see Money); keeps the attribute and column name "total" so sorting by it still works
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long total;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -40,11 +48,17 @@ public class OrderPojo extends AbstractPojo {
     // Order items are now denormalized and stored separately
     // No direct reference needed - order items reference this order by order_id
 
+    public long getTotalPaise() {
+        return total;
+    }
+    public void setTotalPaise(long totalPaise) {
+        this.total = totalPaise;
+    }
     public void setTotal(double total) {
-        this.total = TimeUtil.round2(total);
+        this.total = Money.toPaise(total);
     }
     public double getTotal() {
-        return TimeUtil.round2(this.total);
+        return Money.toRupees(total);
     }
 
 }
@@ -3,12 +3,23 @@ package org.example.pojo;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.example.model.constants.DbConstants;
 import org.example.util.TimeUtil;
 
 @Setter
 @Getter
 @Entity
-@Table (name = "product")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DbConstants.CacheRegions.PRODUCT)
+@NaturalIdCache(region = DbConstants.CacheRegions.PRODUCT_NATURAL_ID)
+@Table (name = "product", indexes = {
+    // Refreshes of the catalog search index read recently updated rows
+    @Index(name = "idx_product_updated_at", columnList = "updatedAt")
+})
 public class ProductPojo extends AbstractPojo {
 
     @Id
@@ -19,10 +30,11 @@ public class ProductPojo extends AbstractPojo {
         pkColumnName = "gen_name",
         valueColumnName = "gen_val",
         pkColumnValue = "product_id",
-        allocationSize = 1
+        allocationSize = DbConstants.IdGenerator.ALLOCATION_SIZE
     )
     private Integer id;
 
+    @NaturalId(mutable = true)
     @Column(unique = true)
     private String barcode;
 
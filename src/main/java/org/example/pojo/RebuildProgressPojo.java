@@ -0,0 +1,31 @@
+package org.example.pojo;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.ZonedDateTime;
+
+/**
+ * Persisted progress of a resumable startup rebuild, one row per rebuild. position is the
+ * rebuild's own cursor, recorded in the same transaction as the work it covers, so an
+ * interrupted rebuild resumes exactly where the last committed step left off. syncedAt is when
+ * the rebuild started, moved forward by the catch-up sweeps of rebuilds that have them.
+ */
+@Entity
+@Table(name = "pos_rebuild_progress")
+@Getter
+@Setter
+public class RebuildProgressPojo {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private long position;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    private ZonedDateTime syncedAt;
+}
@@ -0,0 +1,64 @@
+package org.example.pojo;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * One row per (order, product) folded into pos_sales_fact, under the same IST date and client as
+ * its fact row, so distinct orders can be counted across products from the fact layer. The flags
+ * say which measures the order has been folded into, so neither the live path nor the startup
+ * rebuild ever folds an order in twice.
+ */
+@Entity
+@Table(name = "pos_sales_fact_order", indexes = {
+    // Range scans of the custom date range report
+    @Index(name = "idx_sales_fact_order_date", columnList = "saleDate, clientId")
+})
+@IdClass(SalesFactOrderPojo.Key.class)
+@Getter
+@Setter
+public class SalesFactOrderPojo {
+
+    @Id
+    private Integer orderId;
+
+    @Id
+    private Integer productId;
+
+    @Column(nullable = false)
+    private LocalDate saleDate; // IST calendar date of the order
+
+    @Column(nullable = false)
+    private Integer clientId;
+
+    @Column(nullable = false)
+    private boolean counted; // folded into quantity, revenue and orderCount
+
+    @Column(nullable = false)
+    private boolean invoiced; // folded into the invoiced measures
+
+    @Getter
+    @Setter
+    public static class Key implements Serializable {
+        private Integer orderId;
+        private Integer productId;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(orderId, key.orderId) &&
+                    Objects.equals(productId, key.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(orderId, productId);
+        }
+    }
+}
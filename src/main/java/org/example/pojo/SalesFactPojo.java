@@ -0,0 +1,87 @@
+package org.example.pojo;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Entity
+@Table(name = "pos_sales_fact")
+@IdClass(SalesFactPojo.Key.class)
+@Getter
+@Setter
+public class SalesFactPojo {
+
+    @Id
+    private LocalDate saleDate; // IST calendar date of the order
+
+    @Id
+    private Integer clientId;
+
+    @Id
+    private Integer productId;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(nullable = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long revenue; // in paise
+
+    @Column(nullable = false)
+    private int orderCount;
+
+    @Column(nullable = false)
+    private long invoicedQuantity;
+
+    @Column(nullable = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long invoicedRevenue; // in paise
+
+    @Column(nullable = false)
+    private int invoicedOrderCount;
+
+    public long getRevenuePaise() {
+        return revenue;
+    }
+
+    public void setRevenuePaise(long revenuePaise) {
+        this.revenue = revenuePaise;
+    }
+
+    public long getInvoicedRevenuePaise() {
+        return invoicedRevenue;
+    }
+
+    public void setInvoicedRevenuePaise(long invoicedRevenuePaise) {
+        this.invoicedRevenue = invoicedRevenuePaise;
+    }
+
+    @Getter
+    @Setter
+    public static class Key implements Serializable {
+        private LocalDate saleDate;
+        private Integer clientId;
+        private Integer productId;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(saleDate, key.saleDate) &&
+                    Objects.equals(clientId, key.clientId) &&
+                    Objects.equals(productId, key.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(saleDate, clientId, productId);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers updates of in-memory state until the surrounding transaction commits, so a rollback
+ * never leaves it describing data that was not saved.
+ */
+public class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Run the action once the current transaction commits, or straight away outside one
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.util;
+
+import org.example.model.constants.DbConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Mints and verifies signed bearer tokens, so a client that has logged in once is authenticated
+ * from the token alone, without a user lookup or a BCrypt check.
+ *
+ * A token is base64url(payload) + "." + base64url(HMAC-SHA256(payload)), where the payload holds
+ * the username, authorities, issue time and expiry. The key comes from auth.token.secret
+ * (base64, at least 32 bytes) so every node accepts the same tokens; without it a random key is
+ * used and tokens stop working on restart. Revoking a user rejects the tokens it was issued
+ * before then on this node. Verified tokens come back as BearerAuthentication, which cannot be
+ * exchanged for a new token, so the short token lifetime bounds how long other nodes accept them.
+ */
+@Component
+public class AuthTokenService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static class IssuedToken {
+        private final String token;
+        private final long expiresAtMillis;
+
+        private IssuedToken(String token, long expiresAtMillis) {
+            this.token = token;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+    }
+
+    /**
+     * An authentication established from a bearer token rather than a password
+     */
+    public static class BearerAuthentication extends UsernamePasswordAuthenticationToken {
+        private static final long serialVersionUID = 1L;
+
+        private BearerAuthentication(String username, List<GrantedAuthority> authorities) {
+            super(username, null, authorities);
+        }
+    }
+
+    private final long ttlMillis;
+    private final SecretKeySpec key;
+    private final Map<String, Long> revokedAtMillis = new ConcurrentHashMap<>();
+
+    public AuthTokenService(
+            @Value("${auth.token.secret:}") String secret,
+            @Value("${auth.token.ttl-ms:" + DbConstants.Auth.TOKEN_TTL_MILLIS + "}") long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        byte[] keyBytes;
+        if (secret == null || secret.trim().isEmpty()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret.trim());
+            if (keyBytes.length < 32) {
+                throw new IllegalArgumentException("auth.token.secret must be at least 32 bytes");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, DbConstants.Auth.HMAC_ALGORITHM);
+    }
+
+    public IssuedToken issue(Authentication authentication) {
+        long issuedAt = System.currentTimeMillis();
+        long expiresAt = issuedAt + ttlMillis;
+        String authorities = authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .collect(Collectors.joining(","));
+        String payload = authentication.getName() + "\n" + authorities + "\n" + issuedAt + "\n" + expiresAt;
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        String token = ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+        return new IssuedToken(token, expiresAt);
+    }
+
+    /**
+     * The authentication the token stands for, or null when it is malformed, forged, expired or revoked
+     */
+    public Authentication verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            payloadBytes = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+            return null;
+        }
+
+        String[] fields = new String(payloadBytes, StandardCharsets.UTF_8).split("\n", -1);
+        if (fields.length != 4) {
+            return null;
+        }
+        String username = fields[0];
+        long issuedAt;
+        long expiresAt;
+        try {
+            issuedAt = Long.parseLong(fields[2]);
+            expiresAt = Long.parseLong(fields[3]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        Long revokedAt = revokedAtMillis.get(normalise(username));
+        if (revokedAt != null && issuedAt <= revokedAt) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String authority : fields[1].split(",")) {
+            if (!authority.isEmpty()) {
+                authorities.add(new SimpleGrantedAuthority(authority));
+            }
+        }
+        return new BearerAuthentication(username, authorities);
+    }
+
+    /**
+     * Reject every token issued to the user up to now, e.g. after a password or role change
+     */
+    public void revoke(String username) {
+        revokedAtMillis.put(normalise(username), System.currentTimeMillis());
+        // Entries older than a token lifetime can no longer reject anything
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        revokedAtMillis.values().removeIf(revokedAt -> revokedAt < cutoff);
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(DbConstants.Auth.HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign token", e);
+        }
+    }
+
+    private static String normalise(String username) {
+        return username == null ? "" : username.toLowerCase().trim();
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.util;
+
+import org.example.model.constants.DbConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers recently verified username/password pairs for a short time, so repeated HTTP Basic
+ * requests skip the user lookup and the BCrypt check.
+ *
+ * Entries are keyed by an HMAC of the credentials under a key generated at startup, so the cache
+ * never holds a password or anything that can be checked against one offline. UserApi drops a
+ * user's entries when the user is updated.
+ *
+ * Each invalidation also bumps the user's generation. A caller reads the generation before
+ * verifying credentials and passes it to put, which drops the entry if the user was invalidated
+ * in between, so a login checked against the old password cannot be cached after the update.
+ */
+@Component
+public class AuthenticationCache {
+
+    private static class Entry {
+        private final String username;
+        private final Object principal;
+        private final List<GrantedAuthority> authorities;
+        private final long expiresAtMillis;
+
+        private Entry(String username, Object principal, Collection<? extends GrantedAuthority> authorities, long expiresAtMillis) {
+            this.username = username;
+            this.principal = principal;
+            this.authorities = new ArrayList<>(authorities);
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final SecretKeySpec key;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Only users invalidated since startup have one; the others are at generation 0
+    private final ConcurrentHashMap<String, Long> generations = new ConcurrentHashMap<>();
+
+    public AuthenticationCache(
+            @Value("${auth.cache.ttl-ms:" + DbConstants.Auth.CACHE_TTL_MILLIS + "}") long ttlMillis,
+            @Value("${auth.cache.max-entries:" + DbConstants.Auth.CACHE_MAX_ENTRIES + "}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, DbConstants.Auth.HMAC_ALGORITHM);
+    }
+
+    /**
+     * The cached authentication for these credentials, or null when they have not been verified recently
+     */
+    public Authentication get(String username, String password) {
+        if (ttlMillis <= 0) {
+            return null;
+        }
+        String cacheKey = keyOf(username, password);
+        Entry entry = entries.get(cacheKey);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+            entries.remove(cacheKey, entry);
+            return null;
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(entry.principal, null, entry.authorities);
+    }
+
+    /**
+     * The user's current generation; read it before verifying credentials that are then put
+     */
+    public long generation(String username) {
+        return generations.getOrDefault(normalise(username), 0L);
+    }
+
+    public void put(String username, String password, Authentication authentication) {
+        put(username, password, authentication, generation(username));
+    }
+
+    /**
+     * Cache a login verified while the user was at the given generation, unless the user has been
+     * invalidated since
+     */
+    public void put(String username, String password, Authentication authentication, long generation) {
+        if (ttlMillis <= 0 || authentication == null || !authentication.isAuthenticated()) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(entry -> entry.expiresAtMillis <= now);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        String normalised = normalise(username);
+        Entry entry = new Entry(normalised, authentication.getPrincipal(), authentication.getAuthorities(),
+            System.currentTimeMillis() + ttlMillis);
+        // Runs under the lock invalidate bumps the generation with, so the check and the put are atomic
+        generations.compute(normalised, (user, current) -> {
+            if ((current == null ? 0L : current) == generation) {
+                entries.put(keyOf(username, password), entry);
+            }
+            return current;
+        });
+    }
+
+    /**
+     * Forget every cached login of the user, e.g. after a password or role change, and refuse puts
+     * of logins verified before this call
+     */
+    public void invalidate(String username) {
+        String normalised = normalise(username);
+        generations.merge(normalised, 1L, Long::sum);
+        entries.values().removeIf(entry -> entry.username.equals(normalised));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private String keyOf(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(DbConstants.Auth.HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            // Separator byte that cannot occur in UTF-8 text
+            mac.update((byte) 0xFF);
+            mac.update(password.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot hash credentials", e);
+        }
+    }
+
+    private static String normalise(String username) {
+        return username == null ? "" : username.toLowerCase().trim();
+    }
+}
@@ -1,26 +1,44 @@
 package org.example.util;
 
-import java.io.FileOutputStream;
-import java.io.OutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Base64;
 import java.io.File;
 
 public class Base64ToPdfUtil {
 
     public static File saveBase64AsPdf(String base64, String filePath) throws Exception {
-        byte[] pdfBytes = Base64.getDecoder().decode(base64);
-        File file = new File(filePath);
-
-        // Ensure parent directories exist
-        File parent = file.getParentFile();
-        if (parent != null && !parent.exists()) {
-            parent.mkdirs();
-        }
+        Path target = Path.of(filePath);
+        saveBase64AsPdf(new ByteArrayInputStream(base64.getBytes(StandardCharsets.US_ASCII)), target);
+        return target.toFile();
+    }
 
-        try (OutputStream outputStream = new FileOutputStream(file)) {
-            outputStream.write(pdfBytes);
+    /**
+     * Decode base64 from the stream straight into the file, a buffer at a time, so the PDF is never
+     * held in memory. Line breaks in the input are ignored. The file is written under a temporary
+     * name and moved into place when complete, so readers never see a partly written PDF.
+     */
+    public static Path saveBase64AsPdf(InputStream base64, Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path partial = Files.createTempFile(parent, target.getFileName().toString(), ".part");
+        try {
+            try (InputStream pdf = Base64.getMimeDecoder().wrap(base64)) {
+                Files.copy(pdf, partial, StandardCopyOption.REPLACE_EXISTING);
+            }
+            try {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (java.nio.file.AtomicMoveNotSupportedException e) {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return target;
+        } finally {
+            Files.deleteIfExists(partial);
         }
-
-        return file;
     }
 }
@@ -0,0 +1,111 @@
+package org.example.util;
+
+import org.example.model.data.BulkInvoiceData;
+import org.example.model.data.BulkInvoiceOrderData;
+import org.example.model.enums.BulkInvoiceOutcome;
+import org.example.model.enums.BulkInvoiceStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Progress of one bulk invoice run: its status and the outcome of each order once known. Updated
+ * by the run's worker threads while request threads read snapshots of it.
+ */
+public class BulkInvoiceRun {
+
+    private final String id = UUID.randomUUID().toString();
+    private final List<Integer> orderIds;
+    // Guarded by this; in request order, null until the order has an outcome
+    private final Map<Integer, BulkInvoiceOrderData> outcomes = new LinkedHashMap<>();
+    private BulkInvoiceStatus status = BulkInvoiceStatus.QUEUED;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private int invoiced;
+    private int skipped;
+    private int failed;
+
+    public BulkInvoiceRun(List<Integer> orderIds) {
+        this.orderIds = List.copyOf(orderIds);
+        for (Integer orderId : this.orderIds) {
+            outcomes.put(orderId, null);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<Integer> getOrderIds() {
+        return orderIds;
+    }
+
+    public synchronized void start() {
+        status = BulkInvoiceStatus.RUNNING;
+        startedAt = Instant.now();
+    }
+
+    public synchronized void finish() {
+        // Anything left without an outcome was lost to an unexpected error
+        for (Map.Entry<Integer, BulkInvoiceOrderData> entry : outcomes.entrySet()) {
+            if (entry.getValue() == null) {
+                entry.setValue(outcome(entry.getKey(), BulkInvoiceOutcome.FAILED, "Run stopped before the order was invoiced"));
+                failed++;
+            }
+        }
+        status = BulkInvoiceStatus.DONE;
+        finishedAt = Instant.now();
+    }
+
+    public synchronized boolean isFinished() {
+        return status == BulkInvoiceStatus.DONE;
+    }
+
+    /**
+     * Record the order's outcome; the first outcome recorded for an order wins
+     */
+    public synchronized void record(Integer orderId, BulkInvoiceOutcome outcome, String message) {
+        if (!outcomes.containsKey(orderId) || outcomes.get(orderId) != null) {
+            return;
+        }
+        outcomes.put(orderId, outcome(orderId, outcome, message));
+        switch (outcome) {
+            case INVOICED -> invoiced++;
+            case SKIPPED -> skipped++;
+            case FAILED -> failed++;
+        }
+    }
+
+    public synchronized BulkInvoiceData toData() {
+        BulkInvoiceData data = new BulkInvoiceData();
+        data.setRunId(id);
+        data.setStatus(status);
+        data.setTotal(orderIds.size());
+        data.setCompleted(invoiced + skipped + failed);
+        data.setInvoiced(invoiced);
+        data.setSkipped(skipped);
+        data.setFailed(failed);
+        data.setStartedAt(startedAt == null ? null : startedAt.toString());
+        data.setFinishedAt(finishedAt == null ? null : finishedAt.toString());
+        List<BulkInvoiceOrderData> orders = new ArrayList<>();
+        for (BulkInvoiceOrderData order : outcomes.values()) {
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        data.setOrders(orders);
+        return data;
+    }
+
+    private static BulkInvoiceOrderData outcome(Integer orderId, BulkInvoiceOutcome outcome, String message) {
+        BulkInvoiceOrderData data = new BulkInvoiceOrderData();
+        data.setOrderId(orderId);
+        data.setOutcome(outcome);
+        data.setMessage(message);
+        return data;
+    }
+}
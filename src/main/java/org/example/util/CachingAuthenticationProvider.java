@@ -0,0 +1,44 @@
+package org.example.util;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Answers logins the AuthenticationCache has seen recently and sends the rest to the delegate,
+ * caching what it accepts. Failed logins are never cached.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final AuthenticationCache cache;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, AuthenticationCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+        if (credentials == null) {
+            return delegate.authenticate(authentication);
+        }
+        String username = authentication.getName();
+        String password = credentials.toString();
+        Authentication cached = cache.get(username, password);
+        if (cached != null) {
+            return cached;
+        }
+        // Read first, so an invalidation while the delegate checks the old password blocks the put
+        long generation = cache.generation(username);
+        Authentication result = delegate.authenticate(authentication);
+        cache.put(username, password, result, generation);
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.util;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.example.model.data.ConnectionPoolStatsData;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects live statistics from the connection pool: connection counts come from the pool
+ * itself, and every checkout is timed into a fixed-bucket histogram so the pool can be sized
+ * from how long callers actually wait for a connection.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    // Inclusive upper bounds of the acquire-time buckets; the last bucket takes everything slower
+    private static final long[] BUCKET_BOUNDS_MILLIS = {1, 5, 10, 50, 100, 500, 1000};
+
+    private volatile String poolName;
+    private volatile PoolStats poolStats;
+
+    private final AtomicLongArray acquireBuckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder totalAcquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder connectionTimeouts = new LongAdder();
+    private final LongAdder usages = new LongAdder();
+    private final LongAdder totalUsageMillis = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                recordAcquire(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usages.increment();
+                totalUsageMillis.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                connectionTimeouts.increment();
+            }
+        };
+    }
+
+    void recordAcquire(long nanos) {
+        acquisitions.increment();
+        totalAcquireNanos.add(nanos);
+        maxAcquireNanos.accumulateAndGet(nanos, Math::max);
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MILLIS.length && millis > BUCKET_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        acquireBuckets.incrementAndGet(bucket);
+    }
+
+    public ConnectionPoolStatsData getStats() {
+        ConnectionPoolStatsData data = new ConnectionPoolStatsData();
+        data.setPoolName(poolName);
+        PoolStats stats = poolStats;
+        if (stats != null) {
+            data.setActiveConnections(stats.getActiveConnections());
+            data.setIdleConnections(stats.getIdleConnections());
+            data.setTotalConnections(stats.getTotalConnections());
+            data.setWaitingThreads(stats.getPendingThreads());
+            data.setMaxConnections(stats.getMaxConnections());
+            data.setMinConnections(stats.getMinConnections());
+        }
+
+        long count = acquisitions.sum();
+        data.setAcquisitions(count);
+        data.setAverageAcquireMillis(count == 0 ? 0.0 : totalAcquireNanos.sum() / (double) count / 1_000_000);
+        data.setMaxAcquireMillis(maxAcquireNanos.get() / 1_000_000.0);
+        data.setConnectionTimeouts(connectionTimeouts.sum());
+        long usageCount = usages.sum();
+        data.setAverageUsageMillis(usageCount == 0 ? 0.0 : totalUsageMillis.sum() / (double) usageCount);
+
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            histogram.put("<=" + BUCKET_BOUNDS_MILLIS[i] + "ms", acquireBuckets.get(i));
+        }
+        histogram.put(">" + BUCKET_BOUNDS_MILLIS[BUCKET_BOUNDS_MILLIS.length - 1] + "ms",
+            acquireBuckets.get(BUCKET_BOUNDS_MILLIS.length));
+        data.setAcquireTimeHistogram(histogram);
+        return data;
+    }
+}
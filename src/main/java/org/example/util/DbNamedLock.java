@@ -0,0 +1,57 @@
+package org.example.util;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A MySQL named lock (GET_LOCK) held on a connection of its own, so it spans any number of
+ * transactions run while it is held and is released when closed or when the connection dies.
+ * Used to let one node at a time run a startup rebuild that other nodes would otherwise race on.
+ */
+public class DbNamedLock implements AutoCloseable {
+
+    private final Connection connection;
+    private final String name;
+
+    private DbNamedLock(Connection connection, String name) {
+        this.connection = connection;
+        this.name = name;
+    }
+
+    /**
+     * The lock, or null when another session still holds it after waiting timeoutSeconds
+     */
+    public static DbNamedLock tryAcquire(DataSource dataSource, String name, int timeoutSeconds) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(true);
+            try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+                statement.setString(1, name);
+                statement.setInt(2, timeoutSeconds);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) == 1) {
+                        return new DbNamedLock(connection, name);
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        connection.close();
+        return null;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, name);
+            statement.execute();
+        } finally {
+            connection.close();
+        }
+    }
+}
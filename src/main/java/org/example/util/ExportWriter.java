@@ -0,0 +1,138 @@
+package org.example.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.example.model.enums.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes rows to an output stream one at a time as NDJSON or TSV, so an export never holds more
+ * than the current row. Columns are fixed up front; a TSV export starts with their names as a
+ * header line. Tabs and line breaks inside TSV values are replaced with spaces.
+ */
+public class ExportWriter<T> implements AutoCloseable {
+
+    public static class Column<T> {
+        private final String name;
+        private final Function<T, Object> value;
+
+        public Column(String name, Function<T, Object> value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ExportFormat format;
+    private final List<Column<T>> columns;
+    private final Writer writer;
+    private final JsonGenerator json;
+    private long rows;
+
+    public ExportWriter(ExportFormat format, OutputStream out, List<Column<T>> columns) {
+        this.format = format;
+        this.columns = columns;
+        try {
+            if (format == ExportFormat.NDJSON) {
+                this.writer = null;
+                this.json = JSON_FACTORY.createGenerator(out);
+                this.json.setRootValueSeparator(null);
+                this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            } else {
+                this.json = null;
+                this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                for (int i = 0; i < columns.size(); i++) {
+                    writer.write(i == 0 ? "" : "\t");
+                    writer.write(columns.get(i).getName());
+                }
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(T row) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                writeJson(row);
+            } else {
+                writeTsv(row);
+            }
+            rows++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    private void writeJson(T row) throws IOException {
+        json.writeStartObject();
+        for (Column<T> column : columns) {
+            json.writeFieldName(column.name);
+            Object value = column.value.apply(row);
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof Integer || value instanceof Long) {
+                json.writeNumber(((Number) value).longValue());
+            } else if (value instanceof BigDecimal) {
+                json.writeNumber((BigDecimal) value);
+            } else if (value instanceof Number) {
+                json.writeNumber(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                json.writeBoolean((Boolean) value);
+            } else {
+                json.writeString(value.toString());
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void writeTsv(T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write('\t');
+            }
+            Object value = columns.get(i).value.apply(row);
+            if (value != null) {
+                writer.write(value.toString().replace('\t', ' ').replace('\r', ' ').replace('\n', ' '));
+            }
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Flush what is buffered; the underlying stream is left open
+     */
+    @Override
+    public void close() {
+        try {
+            if (json != null) {
+                json.close();
+            } else {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
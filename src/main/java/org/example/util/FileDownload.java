@@ -0,0 +1,222 @@
+package org.example.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Sends a stored file as the response body through FileChannel.transferTo. The servlet output
+ * stream is not a file or socket channel, so the JDK copies it through a small buffer rather than
+ * in the kernel; the file is still streamed and never loaded onto the heap whole.
+ *
+ * Unless the caller supplies one, the ETag is derived from the file's size and modification time.
+ * A matching If-None-Match is answered with 304 and no body. A single "Range: bytes=..." is
+ * answered with 206 and that part of the file, unless If-Range names another version; an
+ * unsatisfiable range gets 416. Requests for several ranges get the whole file, which RFC 9110
+ * allows.
+ *
+ * A gzipped file is sent as is with "Content-Encoding: gzip" to clients whose Accept-Encoding
+ * gives gzip a non-zero q-value, and decompressed on the fly for the rest; ranges are not offered
+ * for it. The two bodies differ, so the gzip-encoded one carries the ETag with a "-gz" suffix.
+ */
+public class FileDownload {
+
+    private FileDownload() {
+    }
+
+    public static void send(Path file, String contentType, String fileName,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(file, etag(Files.size(file), Files.getLastModifiedTime(file).toMillis()), false,
+            contentType, fileName, request, response);
+    }
+
+    public static void send(Path file, String etag, boolean gzipped, String contentType, String fileName,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long size = Files.size(file);
+        boolean passThrough = gzipped && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (passThrough) {
+            etag = gzipEtag(etag);
+        }
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (gzipped) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        } else {
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        }
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        if (gzipped) {
+            sendGzipped(file, size, passThrough, contentType, fileName, request, response);
+            return;
+        }
+
+        long start = 0;
+        long length = size;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.trim().equals(etag))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                length = bounds[1] - bounds[0] + 1;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + bounds[0] + "-" + bounds[1] + "/" + size);
+            }
+        }
+
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        transfer(file, start, length, response);
+    }
+
+    private static void sendGzipped(Path file, long size, boolean passThrough, String contentType, String fileName,
+                                    HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
+        if (passThrough) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLengthLong(size);
+        }
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (passThrough) {
+            transfer(file, 0, size, response);
+        } else {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+                in.transferTo(response.getOutputStream());
+            }
+        }
+    }
+
+    private static void transfer(Path file, long start, long length, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    public static String etag(long size, long lastModifiedMillis) {
+        return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModifiedMillis) + "\"";
+    }
+
+    // "<tag>-gz" inside the quotes, keeping a weak tag weak
+    static String gzipEtag(String etag) {
+        return etag.endsWith("\"") ? etag.substring(0, etag.length() - 1) + "-gz\"" : etag + "-gz";
+    }
+
+    /**
+     * Whether Accept-Encoding gives gzip (or x-gzip) a non-zero q-value, directly or through "*".
+     * A missing header is taken as not accepting it, since the file can be decompressed instead.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQ = null;
+        Double anyQ = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double q = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().toLowerCase();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQ = gzipQ == null ? q : Math.max(gzipQ, q);
+            } else if (coding.equals("*")) {
+                anyQ = q;
+            }
+        }
+        double q = gzipQ != null ? gzipQ : anyQ != null ? anyQ : 0;
+        return q > 0;
+    }
+
+    static final long[] UNSATISFIABLE = new long[0];
+
+    /**
+     * The first and last byte of a single-range header, null when the header should be ignored
+     * (not a byte range, malformed, or several ranges), or UNSATISFIABLE
+     */
+    static long[] parseRange(String header, long size) {
+        String value = header.trim();
+        if (!value.startsWith("bytes=") || value.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = value.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[] {Math.max(0, size - suffix), size - 1};
+            }
+            long from = Long.parseLong(first);
+            long to = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (from < 0 || (!last.isEmpty() && Long.parseLong(last) < from)) {
+                return null;
+            }
+            return from >= size ? UNSATISFIABLE : new long[] {from, to};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // If-None-Match holds "*" or a list of tags; weak tags compare equal to strong ones here
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
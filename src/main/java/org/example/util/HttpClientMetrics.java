@@ -0,0 +1,80 @@
+package org.example.util;
+
+import org.example.model.data.HttpClientStatsData;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call statistics for one remote service: outcome counts, rejections, and a fixed-bucket latency
+ * histogram of the calls that were actually made.
+ */
+public class HttpClientMetrics {
+
+    // Inclusive upper bounds of the latency buckets; the last bucket takes everything slower
+    private static final long[] BUCKET_BOUNDS_MILLIS = {10, 50, 100, 500, 1000, 5000, 10000};
+
+    private final String service;
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failedCalls = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final LongAdder bulkheadRejections = new LongAdder();
+    private final LongAdder breakerRejections = new LongAdder();
+
+    public HttpClientMetrics(String service) {
+        this.service = service;
+    }
+
+    public void recordCall(long nanos, boolean succeeded) {
+        calls.increment();
+        if (!succeeded) {
+            failedCalls.increment();
+        }
+        totalLatencyNanos.add(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MILLIS.length && millis > BUCKET_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        latencyBuckets.incrementAndGet(bucket);
+    }
+
+    public void recordBulkheadRejection() {
+        bulkheadRejections.increment();
+    }
+
+    public void recordBreakerRejection() {
+        breakerRejections.increment();
+    }
+
+    /**
+     * Counters so far; the caller fills in breaker and concurrency state
+     */
+    public HttpClientStatsData getStats() {
+        HttpClientStatsData data = new HttpClientStatsData();
+        data.setService(service);
+        long count = calls.sum();
+        data.setCalls(count);
+        data.setFailedCalls(failedCalls.sum());
+        data.setBulkheadRejections(bulkheadRejections.sum());
+        data.setBreakerRejections(breakerRejections.sum());
+        data.setAverageLatencyMillis(count == 0 ? 0.0 : totalLatencyNanos.sum() / (double) count / 1_000_000);
+        data.setMaxLatencyMillis(maxLatencyNanos.get() / 1_000_000.0);
+
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            histogram.put("<=" + BUCKET_BOUNDS_MILLIS[i] + "ms", latencyBuckets.get(i));
+        }
+        histogram.put(">" + BUCKET_BOUNDS_MILLIS[BUCKET_BOUNDS_MILLIS.length - 1] + "ms",
+            latencyBuckets.get(BUCKET_BOUNDS_MILLIS.length));
+        data.setLatencyHistogram(histogram);
+        return data;
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.util;
+
+import org.example.model.constants.DbConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed store for invoice PDFs under a configurable root, shared safely by every node
+ * that mounts the same volume.
+ *
+ * A PDF is stored as ab/cd/abcd...ef.pdf, named by the SHA-256 of its bytes and sharded by the
+ * first two byte pairs of the hash, so no directory grows past a few hundred entries. That
+ * relative key is what InvoicePojo.filePath records. Writes go to a unique temporary file under
+ * tmp/ on the same volume, are flushed to disk and then renamed into place; two nodes storing the
+ * same PDF write the same bytes to the same name, so neither can corrupt the other. With
+ * compression on, new PDFs are gzipped and get a .pdf.gz key. Keys written before the store
+ * existed ("/invoice/order-N.pdf") are read from the root directly.
+ */
+@Component
+public class InvoiceStore {
+
+    private static final String LEGACY_PREFIX = "/invoice/";
+    private static final String PDF = ".pdf";
+    private static final String GZIP = ".gz";
+
+    public static class StoredInvoice {
+        private final String key;
+        private final Path path;
+        private final String etag;
+        private final boolean compressed;
+
+        private StoredInvoice(String key, Path path, String etag, boolean compressed) {
+            this.key = key;
+            this.path = path;
+            this.etag = etag;
+            this.compressed = compressed;
+        }
+
+        // Relative key recorded in InvoicePojo.filePath
+        public String getKey() {
+            return key;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        // True when the file holds the gzipped PDF
+        public boolean isCompressed() {
+            return compressed;
+        }
+    }
+
+    private final Path root;
+    private final Path tmp;
+    private final boolean compress;
+
+    public InvoiceStore(
+            @Value("${invoice.output.directory:" + DbConstants.InvoiceStorage.ROOT + "}") String root,
+            @Value("${invoice.storage.compress:" + DbConstants.InvoiceStorage.COMPRESS + "}") boolean compress) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.tmp = this.root.resolve("tmp");
+        this.compress = compress;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Store the PDF encoded as base64 in the stream, decoding it on the way to disk
+     */
+    public StoredInvoice writeBase64(InputStream base64) throws IOException {
+        return write(Base64.getMimeDecoder().wrap(base64));
+    }
+
+    /**
+     * Store the PDF read from the stream, a buffer at a time
+     */
+    public StoredInvoice write(InputStream pdf) throws IOException {
+        Files.createDirectories(tmp);
+        Path partial = Files.createTempFile(tmp, "invoice-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            try (FileOutputStream file = new FileOutputStream(partial.toFile())) {
+                OutputStream out = compress ? new GZIPOutputStream(file) : file;
+                try (DigestOutputStream hashing = new DigestOutputStream(out, digest)) {
+                    pdf.transferTo(hashing);
+                    if (out instanceof GZIPOutputStream) {
+                        ((GZIPOutputStream) out).finish();
+                    }
+                    hashing.flush();
+                    // Durable before it becomes visible to other nodes
+                    file.getChannel().force(true);
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String key = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + PDF + (compress ? GZIP : "");
+            Path target = root.resolve(key);
+            Files.createDirectories(target.getParent());
+            if (!Files.exists(target)) {
+                try {
+                    Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            return new StoredInvoice(key, target, "\"" + hash + "\"", compress);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    /**
+     * The stored invoice behind an InvoicePojo.filePath, or null when its file is missing
+     */
+    public StoredInvoice get(String key) {
+        if (key == null) {
+            return null;
+        }
+        String relative = key.startsWith(LEGACY_PREFIX) ? key.substring(LEGACY_PREFIX.length()) : key;
+        Path path = root.resolve(relative).normalize();
+        if (!path.startsWith(root) || !Files.isRegularFile(path)) {
+            return null;
+        }
+        boolean compressed = relative.endsWith(PDF + GZIP);
+        String name = path.getFileName().toString();
+        String hash = name.substring(0, name.indexOf('.'));
+        String etag;
+        if (hash.length() == 64 && !key.startsWith(LEGACY_PREFIX)) {
+            etag = "\"" + hash + "\"";
+        } else {
+            try {
+                etag = FileDownload.etag(Files.size(path), Files.getLastModifiedTime(path).toMillis());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return new StoredInvoice(key, path, etag, compressed);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money is held as a whole number of paise in a long. Rupee amounts are rounded to the paisa
+ * once, where they enter (product MRP, forms), and converted back to rupees only for display;
+ * sums and products in between are exact integer arithmetic.
+ */
+public class Money {
+
+    private Money() {
+    }
+
+    /**
+     * Rupees rounded half-up to the nearest paisa. Uses the shortest decimal form of the double,
+     * so 1.005 becomes 101 paise rather than 100.
+     */
+    public static long toPaise(double rupees) {
+        return BigDecimal.valueOf(rupees).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static double toRupees(long paise) {
+        return paise / 100.0;
+    }
+
+    /**
+     * Price of quantity units; fails rather than wrapping on overflow
+     */
+    public static long times(long paise, int quantity) {
+        return Math.multiplyExact(paise, (long) quantity);
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.util;
+
+import org.example.exception.ApiException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+/**
+ * Continuation token for keyset pagination.
+ *
+ * A cursor records the sort field, the sort direction and the sort key and ID of the last row
+ * returned, so the next page can seek past that row instead of skipping an offset. Callers only
+ * ever see the URL-safe base64 form, which they pass back unchanged.
+ */
+public class PaginationCursor {
+
+    private static final String SEPARATOR = "\n";
+
+    private final String sortBy;
+    private final boolean descending;
+    private final Integer lastId;
+    private final String lastSortValue;
+
+    public PaginationCursor(String sortBy, boolean descending, Integer lastId, Object lastSortValue) {
+        this.sortBy = sortBy;
+        this.descending = descending;
+        this.lastId = lastId;
+        this.lastSortValue = lastSortValue == null ? null : lastSortValue.toString();
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public Integer getLastId() {
+        return lastId;
+    }
+
+    public String getLastSortValue() {
+        return lastSortValue;
+    }
+
+    /**
+     * Encode as the opaque token handed to callers
+     */
+    public String encode() {
+        String raw = sortBy + SEPARATOR + (descending ? "DESC" : "ASC") + SEPARATOR + lastId;
+        if (lastSortValue != null) {
+            raw += SEPARATOR + lastSortValue;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by encode; rejects anything malformed
+     */
+    public static PaginationCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The sort value comes last and may itself contain the separator
+            String[] parts = raw.split(SEPARATOR, 4);
+            if (parts.length < 3 || parts[0].isEmpty()
+                    || !("ASC".equals(parts[1]) || "DESC".equals(parts[1]))) {
+                throw new ApiException("Invalid pagination cursor");
+            }
+            return new PaginationCursor(
+                parts[0],
+                "DESC".equals(parts[1]),
+                Integer.valueOf(parts[2]),
+                parts.length == 4 ? parts[3] : null
+            );
+        } catch (IllegalArgumentException e) {
+            throw new ApiException("Invalid pagination cursor");
+        }
+    }
+
+    /**
+     * Convert the stored sort value back to the Java type of the sort field
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Object getLastSortValue(Class<?> type) {
+        if (lastSortValue == null) {
+            return null;
+        }
+        try {
+            if (type == String.class) return lastSortValue;
+            if (type == Integer.class || type == int.class) return Integer.valueOf(lastSortValue);
+            if (type == Long.class || type == long.class) return Long.valueOf(lastSortValue);
+            if (type == Double.class || type == double.class) return Double.valueOf(lastSortValue);
+            if (type == Float.class || type == float.class) return Float.valueOf(lastSortValue);
+            if (type == BigDecimal.class) return new BigDecimal(lastSortValue);
+            if (type == Boolean.class || type == boolean.class) return Boolean.valueOf(lastSortValue);
+            if (type == ZonedDateTime.class) return ZonedDateTime.parse(lastSortValue);
+            if (type == Instant.class) return Instant.parse(lastSortValue);
+            if (type == LocalDate.class) return LocalDate.parse(lastSortValue);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(lastSortValue);
+            if (type.isEnum()) return Enum.valueOf((Class<? extends Enum>) type, lastSortValue);
+        } catch (RuntimeException e) {
+            throw new ApiException("Invalid pagination cursor");
+        }
+        throw new ApiException("Cursor pagination is not supported when sorting by " + sortBy);
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.util;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends connections for read-only transactions to a replica and everything else to the primary.
+ *
+ * The routing key is the read-only flag of the current Spring transaction, which is only set
+ * once the transaction has begun, so this must sit behind a LazyConnectionDataSourceProxy that
+ * defers fetching the physical connection to the first statement. Without a replica every
+ * connection comes from the primary.
+ *
+ * Replica reads may lag the primary, so a thread that has just run a read-write transaction
+ * keeps reading from the primary for primaryPinMillis after it completes. A request that writes
+ * and then reads back what it wrote through read-only calls, like order creation converting the
+ * new order and its items, sees its own writes.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long primaryPinNanos;
+    // When the current thread last used the primary for a read-write transaction
+    private final ThreadLocal<Long> lastWriteNanos = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long primaryPinMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.primaryPinNanos = TimeUnit.MILLISECONDS.toNanos(primaryPinMillis);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        if (replica != null) {
+            targets.put(REPLICA, replica);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public boolean hasReplica() {
+        return replica != null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replica == null) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite();
+            }
+            return PRIMARY;
+        }
+        Long lastWrite = lastWriteNanos.get();
+        if (lastWrite != null) {
+            if (System.nanoTime() - lastWrite < primaryPinNanos) {
+                return PRIMARY;
+            }
+            lastWriteNanos.remove();
+        }
+        return REPLICA;
+    }
+
+    // The pin runs from when the transaction completes, since that is when its writes are visible
+    private void recordWrite() {
+        lastWriteNanos.set(System.nanoTime());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lastWriteNanos.set(System.nanoTime());
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (replica instanceof AutoCloseable) {
+            ((AutoCloseable) replica).close();
+        }
+        if (primary instanceof AutoCloseable) {
+            ((AutoCloseable) primary).close();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package org.example.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory typeahead index over a fixed set of text fields of one kind of entity.
+ *
+ * Values are split into lowercase letter/digit tokens, and each field keeps a sorted map from
+ * token to the IDs containing it, so every token starting with a prefix is one range of the map.
+ * A query matches a document when every query token is a prefix of some token of the field, which
+ * keeps lookups proportional to the matches rather than to the number of documents.
+ *
+ * Matches are ranked: the whole value equal to the query, then values starting with the query,
+ * then values containing every query token as a whole word, then the remaining prefix matches.
+ * Within a rank shorter values come first, then alphabetical order, then ID.
+ *
+ * Documents carry the entity version and an older version never replaces a newer one, so a stale
+ * write that lost a race cannot undo a later one. Safe for concurrent use.
+ */
+public class SearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static class Document {
+        private final int version;
+        private final Map<String, String> values = new HashMap<>();
+        private final Map<String, Set<String>> tokens = new HashMap<>();
+
+        private Document(int version) {
+            this.version = version;
+        }
+    }
+
+    private static class Match {
+        private final Integer id;
+        private final int rank;
+        private final String value;
+
+        private Match(Integer id, int rank, String value) {
+            this.id = id;
+            this.rank = rank;
+            this.value = value;
+        }
+    }
+
+    private static final Comparator<Match> BY_RANK = Comparator.<Match>comparingInt(m -> m.rank)
+        .thenComparingInt(m -> m.value.length())
+        .thenComparing(m -> m.value)
+        .thenComparing(m -> m.id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, NavigableMap<String, Set<Integer>>> postings = new HashMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+
+    public SearchIndex(String... fields) {
+        for (String field : fields) {
+            postings.put(field, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Lowercase with surrounding whitespace removed and inner runs collapsed to one space
+     */
+    public static String normalise(String value) {
+        return value == null ? "" : WHITESPACE.matcher(value.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    /**
+     * The distinct letter/digit tokens of the value, in order of appearance
+     */
+    public static Set<String> tokenize(String value) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(normalise(value))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public boolean covers(String field) {
+        return postings.containsKey(field);
+    }
+
+    /**
+     * Index the document's values, replacing what was indexed for the ID unless that is newer.
+     * Fields missing from the map are left unindexed.
+     */
+    public void put(Integer id, int version, Map<String, String> values) {
+        lock.writeLock().lock();
+        try {
+            Document existing = documents.get(id);
+            if (existing != null && existing.version > version) {
+                return;
+            }
+            if (existing != null) {
+                unindex(id, existing);
+            }
+            Document document = new Document(version);
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                NavigableMap<String, Set<Integer>> fieldPostings = postings.get(entry.getKey());
+                if (fieldPostings == null || entry.getValue() == null) {
+                    continue;
+                }
+                Set<String> tokens = tokenize(entry.getValue());
+                document.values.put(entry.getKey(), normalise(entry.getValue()));
+                document.tokens.put(entry.getKey(), tokens);
+                for (String token : tokens) {
+                    fieldPostings.computeIfAbsent(token, t -> new HashSet<>()).add(id);
+                }
+            }
+            documents.put(id, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            Document existing = documents.remove(id);
+            if (existing != null) {
+                unindex(id, existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs of the documents whose field matches every token of the query as a prefix, best first.
+     * A query without any letters or digits matches nothing.
+     */
+    public List<Integer> search(String field, String query) {
+        NavigableMap<String, Set<Integer>> fieldPostings = postings.get(field);
+        if (fieldPostings == null) {
+            throw new IllegalArgumentException("Field is not indexed: " + field);
+        }
+        List<String> queryTokens = new ArrayList<>(tokenize(query));
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Longer tokens tend to match fewer documents, so start the intersection with them
+        queryTokens.sort(Comparator.comparingInt(String::length).reversed());
+        String normalisedQuery = normalise(query);
+
+        lock.readLock().lock();
+        try {
+            Set<Integer> candidates = null;
+            for (String queryToken : queryTokens) {
+                Set<Integer> matches = new HashSet<>();
+                for (Map.Entry<String, Set<Integer>> entry : fieldPostings.tailMap(queryToken, true).entrySet()) {
+                    if (!entry.getKey().startsWith(queryToken)) {
+                        break;
+                    }
+                    if (candidates == null) {
+                        matches.addAll(entry.getValue());
+                    } else {
+                        for (Integer id : entry.getValue()) {
+                            if (candidates.contains(id)) {
+                                matches.add(id);
+                            }
+                        }
+                    }
+                }
+                candidates = matches;
+                if (candidates.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            List<Match> ranked = new ArrayList<>(candidates.size());
+            for (Integer id : candidates) {
+                Document document = documents.get(id);
+                String value = document.values.get(field);
+                ranked.add(new Match(id, rank(value, document.tokens.get(field), normalisedQuery, queryTokens), value));
+            }
+            ranked.sort(BY_RANK);
+            List<Integer> ids = new ArrayList<>(ranked.size());
+            for (Match match : ranked) {
+                ids.add(match.id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            for (NavigableMap<String, Set<Integer>> fieldPostings : postings.values()) {
+                fieldPostings.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Lower is better
+    private static int rank(String value, Set<String> tokens, String query, List<String> queryTokens) {
+        if (value.equals(query)) {
+            return 0;
+        }
+        if (value.startsWith(query)) {
+            return 1;
+        }
+        return tokens.containsAll(queryTokens) ? 2 : 3;
+    }
+
+    private void unindex(Integer id, Document document) {
+        for (Map.Entry<String, Set<String>> entry : document.tokens.entrySet()) {
+            NavigableMap<String, Set<Integer>> fieldPostings = postings.get(entry.getKey());
+            for (String token : entry.getValue()) {
+                Set<Integer> ids = fieldPostings.get(token);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        fieldPostings.remove(token);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.example.util;
+
+import org.example.model.data.IdSequenceMetricsData;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out entity IDs from in-memory segments reserved in the entity_sequences table.
+ * A segment is reserved with one short transaction on its own connection, and the next
+ * segment is prefetched in the background once the current one is mostly used up, so
+ * callers normally only bump an in-memory counter.
+ */
+public class SegmentSequenceService {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 100;
+    // Fraction of a segment left when the background refill is started
+    private static final double REFILL_THRESHOLD = 0.2;
+
+    private static final SegmentSequenceService INSTANCE = new SegmentSequenceService(DEFAULT_SEGMENT_SIZE);
+
+    /**
+     * Reserves {@code size} consecutive IDs for an entity and returns the first one.
+     */
+    @FunctionalInterface
+    public interface SegmentSource {
+        long reserve(String entityName, int size) throws Exception;
+    }
+
+    private final int segmentSize;
+    private final ExecutorService refillExecutor;
+    private final Map<String, EntitySequence> sequences = new ConcurrentHashMap<>();
+
+    public SegmentSequenceService(int segmentSize) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+        this.segmentSize = segmentSize;
+        this.refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "id-segment-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static SegmentSequenceService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Next ID for the entity, reserving segments through the session factory's own connections.
+     */
+    public long nextId(String entityName, SharedSessionContractImplementor session) {
+        ConnectionProvider provider = session.getFactory().getServiceRegistry().requireService(ConnectionProvider.class);
+        return nextId(entityName, (name, size) -> JdbcSegments.reserve(provider, name, size));
+    }
+
+    public long nextId(String entityName, SegmentSource source) {
+        return sequences.computeIfAbsent(entityName, EntitySequence::new).next(source);
+    }
+
+    public List<IdSequenceMetricsData> getMetrics() {
+        List<IdSequenceMetricsData> metrics = new ArrayList<>();
+        for (EntitySequence sequence : new TreeMap<>(sequences).values()) {
+            metrics.add(sequence.snapshot());
+        }
+        return metrics;
+    }
+
+    private static class Segment {
+        private final AtomicLong cursor;
+        private final long end;
+
+        private Segment(long start, long end) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+
+    // Placeholder before the first reservation; always reads as used up
+    private static final Segment EMPTY_SEGMENT = new Segment(1, 0);
+
+    private class EntitySequence {
+        private final String entityName;
+        private volatile Segment current = EMPTY_SEGMENT;
+        private final AtomicReference<CompletableFuture<Segment>> pending = new AtomicReference<>();
+
+        private final AtomicLong allocations = new AtomicLong();
+        private final AtomicLong allocationNanos = new AtomicLong();
+        private final AtomicLong maxAllocationNanos = new AtomicLong();
+        private final AtomicLong segmentFetches = new AtomicLong();
+        private final AtomicLong segmentExhaustions = new AtomicLong();
+        private final AtomicLong refillFailures = new AtomicLong();
+
+        private EntitySequence(String entityName) {
+            this.entityName = entityName;
+        }
+
+        private long next(SegmentSource source) {
+            long started = System.nanoTime();
+            Segment segment = current;
+            long id = segment.cursor.getAndIncrement();
+            if (id > segment.end) {
+                id = nextFromNewSegment(source);
+            } else if (segment.end - id < segmentSize * REFILL_THRESHOLD) {
+                startRefill(source);
+            }
+            record(System.nanoTime() - started);
+            return id;
+        }
+
+        private synchronized long nextFromNewSegment(SegmentSource source) {
+            // Another thread may already have switched segments while we waited
+            Segment segment = current;
+            long id = segment.cursor.getAndIncrement();
+            if (id <= segment.end) {
+                return id;
+            }
+
+            // Ran dry before a prefetched segment was ready to take over
+            CompletableFuture<Segment> refill = pending.getAndSet(null);
+            if (segment != EMPTY_SEGMENT && (refill == null || !refill.isDone())) {
+                segmentExhaustions.incrementAndGet();
+            }
+            Segment next = null;
+            if (refill != null) {
+                try {
+                    next = refill.join();
+                } catch (CompletionException e) {
+                    refillFailures.incrementAndGet();
+                }
+            }
+            if (next == null) {
+                next = fetch(source);
+            }
+            current = next;
+            return next.cursor.getAndIncrement();
+        }
+
+        private void startRefill(SegmentSource source) {
+            if (pending.get() != null) {
+                return;
+            }
+            CompletableFuture<Segment> refill = new CompletableFuture<>();
+            if (pending.compareAndSet(null, refill)) {
+                refillExecutor.execute(() -> {
+                    try {
+                        refill.complete(fetch(source));
+                    } catch (RuntimeException e) {
+                        refill.completeExceptionally(e);
+                    }
+                });
+            }
+        }
+
+        private Segment fetch(SegmentSource source) {
+            try {
+                long start = source.reserve(entityName, segmentSize);
+                segmentFetches.incrementAndGet();
+                return new Segment(start, start + segmentSize - 1);
+            } catch (Exception e) {
+                throw new HibernateException("Could not reserve ID segment for " + entityName + ": " + e.getMessage(), e);
+            }
+        }
+
+        private void record(long nanos) {
+            allocations.incrementAndGet();
+            allocationNanos.addAndGet(nanos);
+            maxAllocationNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private IdSequenceMetricsData snapshot() {
+            IdSequenceMetricsData data = new IdSequenceMetricsData();
+            long count = allocations.get();
+            Segment segment = current;
+            data.setEntityName(entityName);
+            data.setAllocations(count);
+            data.setAverageAllocationNanos(count == 0 ? 0 : allocationNanos.get() / count);
+            data.setMaxAllocationNanos(maxAllocationNanos.get());
+            data.setSegmentFetches(segmentFetches.get());
+            data.setSegmentExhaustions(segmentExhaustions.get());
+            data.setRefillFailures(refillFailures.get());
+            data.setRemainingInSegment(Math.max(0, segment.end - segment.cursor.get() + 1));
+            return data;
+        }
+    }
+
+    /**
+     * Segment reservation against entity_sequences, where next_id holds the last ID handed out.
+     */
+    private static class JdbcSegments {
+        private static final Set<String> initializedEntities = ConcurrentHashMap.newKeySet();
+        private static volatile boolean tableCreated;
+
+        private static long reserve(ConnectionProvider provider, String entityName, int size) throws SQLException {
+            Connection connection = provider.getConnection();
+            boolean autoCommit = connection.getAutoCommit();
+            try {
+                connection.setAutoCommit(false);
+                ensureSequenceRow(connection, entityName);
+                long last;
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT next_id FROM entity_sequences WHERE entity_name = ? FOR UPDATE")) {
+                    select.setString(1, entityName);
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (!rs.next()) {
+                            initializedEntities.remove(entityName);
+                            throw new SQLException("No sequence row for " + entityName);
+                        }
+                        last = rs.getLong(1);
+                    }
+                }
+                try (PreparedStatement update = connection.prepareStatement(
+                        "UPDATE entity_sequences SET next_id = ? WHERE entity_name = ?")) {
+                    update.setLong(1, last + size);
+                    update.setString(2, entityName);
+                    update.executeUpdate();
+                }
+                connection.commit();
+                return last + 1;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+                provider.closeConnection(connection);
+            }
+        }
+
+        private static void ensureSequenceRow(Connection connection, String entityName) throws SQLException {
+            if (!tableCreated) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("CREATE TABLE IF NOT EXISTS entity_sequences (" +
+                        "entity_name VARCHAR(100) PRIMARY KEY, " +
+                        "next_id BIGINT NOT NULL DEFAULT 0)");
+                }
+                tableCreated = true;
+            }
+            if (initializedEntities.contains(entityName)) {
+                return;
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT IGNORE INTO entity_sequences (entity_name, next_id) VALUES (?, 0)")) {
+                insert.setString(1, entityName);
+                insert.executeUpdate();
+            }
+            initializedEntities.add(entityName);
+        }
+    }
+}
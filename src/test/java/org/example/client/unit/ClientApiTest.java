@@ -2,9 +2,11 @@ package org.example.client.unit;
 
 import org.example.api.ClientApi;
 import org.example.api.ProductApi;
+import org.example.api.CatalogSearchIndex;
 import org.example.dao.ClientDao;
 import org.example.pojo.ClientPojo;
 import org.example.exception.ApiException;
+import org.example.util.SearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,6 +31,9 @@ class ClientApiTest {
     @Mock
     private ProductApi productApi;
 
+    @Mock
+    private CatalogSearchIndex searchIndex;
+
     @InjectMocks
     private ClientApi clientApi;
 
@@ -121,6 +126,23 @@ class ClientApiTest {
         verify(clientDao).selectByFieldLike("clientName", "test");
     }
 
+    @Test
+    void testGetByNameLike_FromSearchIndex() {
+        // Arrange
+        SearchIndex index = new SearchIndex("clientName");
+        index.put(1, 0, java.util.Map.of("clientName", "test client"));
+        index.put(2, 0, java.util.Map.of("clientName", "other"));
+        when(searchIndex.getClients()).thenReturn(index);
+        when(clientDao.selectByIds(List.of(1))).thenReturn(Arrays.asList(testClient));
+
+        // Act
+        List<ClientPojo> result = clientApi.getByNameLike("tes");
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(clientDao, never()).selectByFieldLike(anyString(), anyString());
+    }
+
     @Test
     void testGetByNameLike_NullName() {
         // Act & Assert
@@ -259,6 +281,7 @@ class ClientApiTest {
 
         // Assert
         verify(clientDao).insert(testClient);
+        verify(searchIndex).putAfterCommit(testClient);
     }
 
     @Test
@@ -303,12 +326,14 @@ class ClientApiTest {
     void testUpdate_Success() {
         // Arrange
         doNothing().when(clientDao).update(eq(1), any(ClientPojo.class));
+        when(clientDao.select(1)).thenReturn(testClient);
 
         // Act
         clientApi.update(1, testClient);
 
         // Assert
         verify(clientDao).update(1, testClient);
+        verify(searchIndex).putAfterCommit(testClient);
     }
 
     @Test
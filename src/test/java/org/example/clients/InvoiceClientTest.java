@@ -0,0 +1,177 @@
+package org.example.clients;
+
+import com.sun.net.httpserver.HttpServer;
+import org.example.config.SpringConfig;
+import org.example.exception.ApiException;
+import org.example.model.data.HttpClientStatsData;
+import org.example.model.data.InvoiceAppForm;
+import org.example.util.InvoiceStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs InvoiceClient against a stub invoice service on a local port
+ */
+class InvoiceClientTest {
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long delayMillis;
+    private volatile CountDownLatch release;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/invoice", exchange -> {
+            requests.incrementAndGet();
+            try {
+                if (release != null) {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+                byte[] body = "JVBERi0=".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(status, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (Exception e) {
+                // Client gave up
+            } finally {
+                exchange.close();
+            }
+        });
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void testSuccessfulCallReturnsBodyAndIsTimed() {
+        InvoiceClient client = client(4, 3);
+
+        assertEquals("JVBERi0=", client.callInvoiceService(new InvoiceAppForm()));
+
+        HttpClientStatsData stats = client.getStats();
+        assertEquals(1, stats.getCalls());
+        assertEquals(0, stats.getFailedCalls());
+        assertEquals("CLOSED", stats.getBreakerState());
+        assertEquals(0, stats.getInFlightCalls());
+    }
+
+    @Test
+    void testWriteInvoiceDecodesIntoStore(@TempDir Path dir) throws Exception {
+        InvoiceClient client = client(4, 3);
+
+        InvoiceStore.StoredInvoice stored = client.writeInvoice(new InvoiceAppForm(), new InvoiceStore(dir.toString(), false));
+
+        assertEquals("%PDF-", Files.readString(stored.getPath(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testFailedWriteStoresNothing(@TempDir Path dir) throws Exception {
+        status = 500;
+        InvoiceClient client = client(4, 3);
+
+        assertThrows(HttpServerErrorException.class, () ->
+            client.writeInvoice(new InvoiceAppForm(), new InvoiceStore(dir.toString(), false)));
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testSlowResponseTimesOut() {
+        delayMillis = 1_000;
+        InvoiceClient client = client(4, 3);
+
+        assertThrows(ResourceAccessException.class, () -> client.callInvoiceService(new InvoiceAppForm()));
+        assertEquals(1, client.getStats().getFailedCalls());
+    }
+
+    @Test
+    void testBreakerOpensAndFailsFast() {
+        status = 503;
+        InvoiceClient client = client(4, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpServerErrorException.class, () -> client.callInvoiceService(new InvoiceAppForm()));
+        }
+        assertThrows(ApiException.class, () -> client.callInvoiceService(new InvoiceAppForm()));
+
+        assertEquals(3, requests.get());
+        HttpClientStatsData stats = client.getStats();
+        assertEquals("OPEN", stats.getBreakerState());
+        assertEquals(1, stats.getBreakerRejections());
+    }
+
+    @Test
+    void testClientErrorsDoNotOpenBreaker() {
+        status = 400;
+        InvoiceClient client = client(4, 2);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpClientErrorException.class, () -> client.callInvoiceService(new InvoiceAppForm()));
+        }
+
+        assertEquals(3, requests.get());
+        assertEquals("CLOSED", client.getStats().getBreakerState());
+    }
+
+    @Test
+    void testBulkheadRefusesCallsOverLimit() throws Exception {
+        release = new CountDownLatch(1);
+        InvoiceClient client = client(1, 3);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = caller.submit(() -> client.callInvoiceService(new InvoiceAppForm()));
+            while (requests.get() == 0) {
+                Thread.sleep(5);
+            }
+
+            assertThrows(ApiException.class, () -> client.callInvoiceService(new InvoiceAppForm()));
+            assertEquals(1, client.getStats().getInFlightCalls());
+
+            release.countDown();
+            assertEquals("JVBERi0=", first.get(5, TimeUnit.SECONDS));
+            HttpClientStatsData stats = client.getStats();
+            assertEquals(1, stats.getBulkheadRejections());
+            assertEquals(1, stats.getCalls());
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    private InvoiceClient client(int maxConcurrentCalls, int failureThreshold) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/invoice";
+        return new InvoiceClient(new SpringConfig().restTemplate(500, 300), url, maxConcurrentCalls, 50,
+            failureThreshold, 60_000);
+    }
+}
@@ -19,6 +19,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -214,127 +216,120 @@ class InventoryApiTest {
     @Test
     void testRemoveStock_Success() {
         // Arrange
-        when(inventoryDao.getByProductId(1)).thenReturn(testInventory);
         when(productApi.get(1)).thenReturn(testProduct);
         when(clientApi.get(1)).thenReturn(testClient);
-        doNothing().when(inventoryDao).update(anyInt(), any(InventoryPojo.class));
+        when(inventoryDao.decrementIfAvailable(Map.of(1, 3))).thenReturn(List.of());
 
         // Act
         inventoryApi.removeStock(1, 3);
 
         // Assert
-        verify(inventoryDao).getByProductId(1);
         verify(productApi).get(1);
         verify(clientApi).get(1);
-        verify(inventoryDao).update(eq(1), any(InventoryPojo.class));
+        verify(inventoryDao).decrementIfAvailable(Map.of(1, 3));
+        verify(inventoryDao, never()).getByProductId(any());
+        verify(inventoryDao, never()).update(any(), any());
     }
 
     @Test
     void testRemoveStock_NullQuantity() {
         // Act & Assert
         assertThrows(ApiException.class, () -> inventoryApi.removeStock(1, null));
-        verify(inventoryDao, never()).getByProductId(any());
-        verify(inventoryDao, never()).update(any(), any());
+        verify(inventoryDao, never()).decrementIfAvailable(any());
     }
 
     @Test
     void testRemoveStock_ZeroQuantity() {
         // Act & Assert
         assertThrows(ApiException.class, () -> inventoryApi.removeStock(1, 0));
-        verify(inventoryDao, never()).getByProductId(any());
-        verify(inventoryDao, never()).update(any(), any());
+        verify(inventoryDao, never()).decrementIfAvailable(any());
     }
 
     @Test
     void testRemoveStock_NegativeQuantity() {
         // Act & Assert
         assertThrows(ApiException.class, () -> inventoryApi.removeStock(1, -3));
-        verify(inventoryDao, never()).getByProductId(any());
-        verify(inventoryDao, never()).update(any(), any());
+        verify(inventoryDao, never()).decrementIfAvailable(any());
     }
 
     @Test
     void testRemoveStock_InventoryNotFound() {
         // Arrange
-        when(inventoryDao.getByProductId(1)).thenReturn(null);
+        when(productApi.get(1)).thenReturn(testProduct);
+        when(clientApi.get(1)).thenReturn(testClient);
+        when(inventoryDao.decrementIfAvailable(Map.of(1, 3))).thenReturn(List.of(1));
+        when(inventoryDao.selectByProductIds(List.of(1))).thenReturn(List.of());
 
         // Act & Assert
-        assertThrows(ApiException.class, () -> inventoryApi.removeStock(1, 3));
-        verify(inventoryDao).getByProductId(1);
-        verify(inventoryDao, never()).update(any(), any());
+        ApiException ex = assertThrows(ApiException.class, () -> inventoryApi.removeStock(1, 3));
+        assertEquals("No inventory found for product ID: 1", ex.getMessage());
     }
 
     @Test
     void testRemoveStock_InsufficientStock() {
         // Arrange
-        when(inventoryDao.getByProductId(1)).thenReturn(testInventory);
+        when(productApi.get(1)).thenReturn(testProduct);
+        when(clientApi.get(1)).thenReturn(testClient);
+        when(inventoryDao.decrementIfAvailable(Map.of(1, 15))).thenReturn(List.of(1));
+        when(inventoryDao.selectByProductIds(List.of(1))).thenReturn(List.of(testInventory));
 
         // Act & Assert
-        assertThrows(ApiException.class, () -> inventoryApi.removeStock(1, 15));
-        verify(inventoryDao).getByProductId(1);
-        verify(inventoryDao, never()).update(any(), any());
+        ApiException ex = assertThrows(ApiException.class, () -> inventoryApi.removeStock(1, 15));
+        assertEquals("Insufficient stock. Available: 10, Requested: 15", ex.getMessage());
     }
 
     @Test
     void testRemoveStock_ProductNotFound() {
         // Arrange
-        when(inventoryDao.getByProductId(1)).thenReturn(testInventory);
         when(productApi.get(1)).thenReturn(null);
 
         // Act & Assert
         assertThrows(ApiException.class, () -> inventoryApi.removeStock(1, 3));
-        verify(inventoryDao).getByProductId(1);
         verify(productApi).get(1);
-        verify(inventoryDao, never()).update(any(), any());
+        verify(inventoryDao, never()).decrementIfAvailable(any());
     }
 
     @Test
     void testRemoveStock_ClientNotFound() {
         // Arrange
-        when(inventoryDao.getByProductId(1)).thenReturn(testInventory);
         when(productApi.get(1)).thenReturn(testProduct);
         when(clientApi.get(1)).thenReturn(null);
 
         // Act & Assert
         assertThrows(ApiException.class, () -> inventoryApi.removeStock(1, 3));
-        verify(inventoryDao).getByProductId(1);
         verify(productApi).get(1);
         verify(clientApi).get(1);
-        verify(inventoryDao, never()).update(any(), any());
+        verify(inventoryDao, never()).decrementIfAvailable(any());
     }
 
     @Test
     void testRemoveStock_InactiveClient() {
         // Arrange
         testClient.setStatus(false);
-        when(inventoryDao.getByProductId(1)).thenReturn(testInventory);
         when(productApi.get(1)).thenReturn(testProduct);
         when(clientApi.get(1)).thenReturn(testClient);
 
         // Act & Assert
         assertThrows(ApiException.class, () -> inventoryApi.removeStock(1, 3));
-        verify(inventoryDao).getByProductId(1);
         verify(productApi).get(1);
         verify(clientApi).get(1);
-        verify(inventoryDao, never()).update(any(), any());
+        verify(inventoryDao, never()).decrementIfAvailable(any());
     }
 
     @Test
     void testRemoveStock_ProductWithoutClient() {
         // Arrange
         testProduct.setClientId(null);
-        when(inventoryDao.getByProductId(1)).thenReturn(testInventory);
         when(productApi.get(1)).thenReturn(testProduct);
-        doNothing().when(inventoryDao).update(anyInt(), any(InventoryPojo.class));
+        when(inventoryDao.decrementIfAvailable(Map.of(1, 3))).thenReturn(List.of());
 
         // Act
         inventoryApi.removeStock(1, 3);
 
         // Assert
-        verify(inventoryDao).getByProductId(1);
         verify(productApi).get(1);
         verify(clientApi, never()).get(any());
-        verify(inventoryDao).update(eq(1), any(InventoryPojo.class));
+        verify(inventoryDao).decrementIfAvailable(Map.of(1, 3));
     }
 
     @Test
@@ -441,4 +436,77 @@ class InventoryApiTest {
         assertEquals(1, result.get(0).getProductId());
         verify(inventoryDao).selectAll();
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testReserveStock_Success() {
+        // Arrange
+        ProductPojo secondProduct = new ProductPojo();
+        secondProduct.setId(2);
+        secondProduct.setClientId(1);
+
+        Map<Integer, Integer> quantities = Map.of(1, 3, 2, 4);
+        when(productApi.getByIds(quantities.keySet())).thenReturn(Arrays.asList(testProduct, secondProduct));
+        when(clientApi.getByIds(Set.of(1))).thenReturn(Arrays.asList(testClient));
+        when(inventoryDao.decrementIfAvailable(quantities)).thenReturn(List.of());
+
+        // Act
+        InventoryApi.StockReservation reservation = inventoryApi.reserveStock(quantities);
+
+        // Assert
+        assertTrue(reservation.isSuccessful());
+        assertTrue(reservation.getFailedProductIds().isEmpty());
+        verify(inventoryDao, never()).selectByProductIds(any());
+        verify(inventoryDao, never()).getByProductId(any());
+        verify(productApi, never()).get(any());
+    }
+
+    @Test
+    void testReserveStock_ReportsFailedLines() {
+        // Arrange
+        ProductPojo secondProduct = new ProductPojo();
+        secondProduct.setId(2);
+        ProductPojo thirdProduct = new ProductPojo();
+        thirdProduct.setId(3);
+
+        Map<Integer, Integer> quantities = new java.util.LinkedHashMap<>();
+        quantities.put(1, 15);
+        quantities.put(2, 1);
+        quantities.put(3, 1);
+        when(productApi.getByIds(quantities.keySet())).thenReturn(Arrays.asList(testProduct, secondProduct, thirdProduct));
+        when(clientApi.getByIds(Set.of(1))).thenReturn(Arrays.asList(testClient));
+        when(inventoryDao.decrementIfAvailable(quantities)).thenReturn(List.of(1, 3));
+        when(inventoryDao.selectByProductIds(List.of(1, 3))).thenReturn(List.of(testInventory));
+
+        // Act
+        InventoryApi.StockReservation reservation = inventoryApi.reserveStock(quantities);
+
+        // Assert
+        assertFalse(reservation.isSuccessful());
+        assertEquals(List.of(1, 3), reservation.getFailedProductIds());
+        assertEquals(10, reservation.getAvailable(1));
+        assertNull(reservation.getAvailable(3));
+        assertEquals("Insufficient stock for product ID 1. Available: 10, Requested: 15; "
+            + "No inventory found for product ID: 3", reservation.getFailureMessage());
+    }
+
+    @Test
+    void testReserveStock_InvalidQuantity() {
+        // Act & Assert
+        assertThrows(ApiException.class, () -> inventoryApi.reserveStock(Map.of(1, 0)));
+        verify(inventoryDao, never()).decrementIfAvailable(any());
+    }
+
+    @Test
+    void testReserveStock_InactiveClient() {
+        // Arrange
+        testClient.setStatus(false);
+        Map<Integer, Integer> quantities = Map.of(1, 2);
+        when(productApi.getByIds(quantities.keySet())).thenReturn(Arrays.asList(testProduct));
+        when(clientApi.getByIds(Set.of(1))).thenReturn(Arrays.asList(testClient));
+
+        // Act & Assert
+        ApiException ex = assertThrows(ApiException.class, () -> inventoryApi.reserveStock(quantities));
+        assertEquals("Client is not active", ex.getMessage());
+        verify(inventoryDao, never()).decrementIfAvailable(any());
+    }
+}
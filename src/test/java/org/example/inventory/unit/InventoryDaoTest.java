@@ -4,6 +4,10 @@ import org.example.dao.InventoryDao;
 import org.example.pojo.InventoryPojo;
 import org.example.pojo.ProductPojo;
 import org.example.dao.ProductDao;
+import org.example.model.data.PaginationResponse;
+import org.example.model.enums.CountStrategy;
+import org.example.model.form.PaginationQuery;
+import org.example.model.form.PaginationRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,6 +15,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
@@ -269,4 +274,96 @@ class InventoryDaoTest {
             inventoryDao.getByParams("productId", null);
         });
     }
-} 
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSelectWithProductPaginated_JoinsProductAndMapsRows() {
+        // Arrange
+        TypedQuery<Long> countQuery = mock(TypedQuery.class);
+        TypedQuery<Object[]> pageQuery = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(Long.class))).thenReturn(countQuery);
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(pageQuery);
+        when(countQuery.getSingleResult()).thenReturn(1L);
+        when(pageQuery.setFirstResult(0)).thenReturn(pageQuery);
+        when(pageQuery.setMaxResults(10)).thenReturn(pageQuery);
+        List<Object[]> rows = List.<Object[]>of(new Object[]{1, 7, 10, "Test Product", "123456789", 100.0});
+        when(pageQuery.getResultList()).thenReturn(rows);
+
+        PaginationRequest request = new PaginationRequest(0, 10, "barcode", "DESC");
+
+        // Act
+        PaginationResponse<InventoryDao.InventoryProductRow> result =
+            inventoryDao.selectWithProductPaginated(PaginationQuery.byFieldLike("productName", "Test", request));
+
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        InventoryDao.InventoryProductRow row = result.getContent().get(0);
+        assertEquals(7, row.getProductId());
+        assertEquals(10, row.getQuantity());
+        assertEquals("Test Product", row.getProductName());
+        assertEquals("123456789", row.getBarcode());
+        assertEquals(100.0, row.getMrp());
+        verify(entityManager).createQuery(
+            "select count(i) from InventoryPojo i left join ProductPojo p on p.id = i.productId " +
+            "where lower(p.name) like :v0", Long.class);
+        verify(entityManager).createQuery(
+            "select i.id, i.productId, i.quantity, p.name, p.barcode, p.mrp " +
+            "from InventoryPojo i left join ProductPojo p on p.id = i.productId " +
+            "where lower(p.name) like :v0 order by p.barcode desc", Object[].class);
+        verify(countQuery).setParameter("v0", "%test%");
+        verify(pageQuery).setParameter("v0", "%test%");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSelectWithProductPaginated_EmptySkipsPageQuery() {
+        // Arrange
+        TypedQuery<Long> countQuery = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(Long.class))).thenReturn(countQuery);
+        when(countQuery.getSingleResult()).thenReturn(0L);
+
+        // Act
+        PaginationResponse<InventoryDao.InventoryProductRow> result =
+            inventoryDao.selectWithProductPaginated(PaginationQuery.all(new PaginationRequest()));
+
+        // Assert
+        assertTrue(result.getContent().isEmpty());
+        verify(entityManager, never()).createQuery(anyString(), eq(Object[].class));
+    }
+
+    @Test
+    void testSelectWithProductPaginated_UnsupportedField() {
+        // Act & Assert
+        PaginationQuery query = PaginationQuery.byField("clientId; drop table inventory", 1, new PaginationRequest());
+        assertThrows(IllegalArgumentException.class, () -> inventoryDao.selectWithProductPaginated(query));
+        verify(entityManager, never()).createQuery(anyString(), eq(Long.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSelectWithProductPaginated_SkipCountReadsOneExtraRow() {
+        // Arrange
+        TypedQuery<Object[]> pageQuery = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(pageQuery);
+        when(pageQuery.setFirstResult(0)).thenReturn(pageQuery);
+        when(pageQuery.setMaxResults(2)).thenReturn(pageQuery);
+        List<Object[]> rows = List.<Object[]>of(
+            new Object[]{1, 1, 10, "A", "a", 1.0},
+            new Object[]{2, 2, 20, "B", "b", 2.0});
+        when(pageQuery.getResultList()).thenReturn(rows);
+
+        PaginationRequest request = new PaginationRequest(0, 1);
+        request.setCountStrategy(CountStrategy.SKIP);
+
+        // Act
+        PaginationResponse<InventoryDao.InventoryProductRow> result =
+            inventoryDao.selectWithProductPaginated(PaginationQuery.all(request));
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(-1, result.getTotalElements());
+        assertEquals(CountStrategy.SKIP, result.getCountStrategy());
+        verify(entityManager, never()).createQuery(anyString(), eq(Long.class));
+    }
+}
@@ -3,10 +3,12 @@ package org.example.inventory.unit;
 import org.example.dto.InventoryDto;
 import org.example.api.InventoryApi;
 import org.example.api.ProductApi;
+import org.example.dao.InventoryDao;
 import org.example.model.data.InventoryData;
 import org.example.model.form.InventoryForm;
 import org.example.model.data.TsvUploadResult;
 import org.example.model.data.PaginationResponse;
+import org.example.model.form.PaginationQuery;
 import org.example.model.form.PaginationRequest;
 import org.example.pojo.InventoryPojo;
 import org.example.pojo.ProductPojo;
@@ -319,12 +321,10 @@ class InventoryDtoTest {
         request.setPageNumber(0);
         request.setPageSize(10);
         
-        PaginationResponse<InventoryPojo> expectedResponse = new PaginationResponse<>();
-        expectedResponse.setContent(Arrays.asList(testInventory));
-        expectedResponse.setTotalElements(1);
+        PaginationResponse<InventoryDao.InventoryProductRow> expectedResponse = new PaginationResponse<>(
+            Arrays.asList(new InventoryDao.InventoryProductRow(1, 1, 10, "Test Product", "123456789", 100.0)), 1, 0, 10);
         
-        when(inventoryApi.getPaginated(any())).thenReturn(expectedResponse);
-        when(productApi.get(1)).thenReturn(testProduct);
+        when(inventoryApi.getWithProductPaginated(any())).thenReturn(expectedResponse);
 
         // Act
         PaginationResponse<InventoryData> result = inventoryDto.getByProductIdPaginated(1, request);
@@ -333,7 +333,30 @@ class InventoryDtoTest {
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
         assertEquals(1, result.getContent().size());
-        verify(inventoryApi).getPaginated(any());
+        assertEquals("Test Product", result.getContent().get(0).getProductName());
+        assertEquals("123456789", result.getContent().get(0).getBarcode());
+        assertEquals(100.0, result.getContent().get(0).getMrp());
+        verify(inventoryApi).getWithProductPaginated(any());
+        verify(inventoryApi, never()).getPaginated(any());
+        verify(productApi, never()).get(any());
+    }
+
+    @Test
+    void testGetPaginated_MissingProductLeavesProductFieldsNull() {
+        // Arrange
+        PaginationResponse<InventoryDao.InventoryProductRow> expectedResponse = new PaginationResponse<>(
+            Arrays.asList(new InventoryDao.InventoryProductRow(1, 99, 5, null, null, null)), 1, 0, 20);
+        when(inventoryApi.getWithProductPaginated(any())).thenReturn(expectedResponse);
+
+        // Act
+        PaginationResponse<InventoryData> result = inventoryDto.getPaginated(PaginationQuery.all(new PaginationRequest()));
+
+        // Assert
+        InventoryData data = result.getContent().get(0);
+        assertEquals(99, data.getProductId());
+        assertNull(data.getProductName());
+        assertNull(data.getBarcode());
+        assertNull(data.getMrp());
     }
 
     @Test
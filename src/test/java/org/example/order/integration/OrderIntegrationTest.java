@@ -34,6 +34,7 @@ import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -130,7 +131,7 @@ class OrderIntegrationTest {
     void testAdd_Integration_Success() {
         // Arrange
         testForm.setOrderItemFormList(Arrays.asList(testOrderItemForm));
-        when(productApi.get(1)).thenReturn(testProduct);
+        when(productApi.getByIds(Set.of(1))).thenReturn(List.of(testProduct));
         when(orderFlow.createOrderWithItems(any(OrderPojo.class), anyList())).thenReturn(testOrder);
 
         // Act
@@ -147,7 +148,7 @@ class OrderIntegrationTest {
     void testGet_Integration_Success() {
         // Arrange
         when(orderApi.get(1)).thenReturn(testOrder);
-        when(orderApi.getOrderItemsByOrderId(1)).thenReturn(Arrays.asList());
+        when(orderApi.getOrderItemsByOrderIds(Set.of(1))).thenReturn(Arrays.asList());
 
         // Act
         OrderData result = orderDto.get(1);
@@ -171,7 +172,7 @@ class OrderIntegrationTest {
         // Arrange
         List<OrderPojo> orders = Arrays.asList(testOrder);
         when(orderApi.getAll()).thenReturn(orders);
-        when(orderApi.getOrderItemsByOrderId(1)).thenReturn(Arrays.asList());
+        when(orderApi.getOrderItemsByOrderIds(Set.of(1))).thenReturn(Arrays.asList());
 
         // Act
         List<OrderData> result = orderDto.getAll();
@@ -190,7 +191,7 @@ class OrderIntegrationTest {
         LocalDate endDate = LocalDate.now().plusDays(1);
         List<OrderPojo> orders = Arrays.asList(testOrder);
         when(orderFlow.getOrdersByDateRange(startDate, endDate)).thenReturn(orders);
-        when(orderApi.getOrderItemsByOrderId(1)).thenReturn(Arrays.asList());
+        when(orderApi.getOrderItemsByOrderIds(Set.of(1))).thenReturn(Arrays.asList());
 
         // Act
         List<OrderData> result = orderDto.getOrdersByDateRange(startDate, endDate);
@@ -208,7 +209,7 @@ class OrderIntegrationTest {
         String userId = "testuser@example.com";
         List<OrderPojo> orders = Arrays.asList(testOrder);
         when(orderFlow.getOrdersByUserId(userId)).thenReturn(orders);
-        when(orderApi.getOrderItemsByOrderId(1)).thenReturn(Arrays.asList());
+        when(orderApi.getOrderItemsByOrderIds(Set.of(1))).thenReturn(Arrays.asList());
 
         // Act
         List<OrderData> result = orderDto.getOrdersByUserId(userId);
@@ -232,8 +233,8 @@ class OrderIntegrationTest {
         orderItemPojo.setAmount(100.0);
         
         when(orderApi.getOrderItemsByOrderId(1)).thenReturn(Arrays.asList(orderItemPojo));
-        when(productApi.get(1)).thenReturn(testProduct);
-        when(clientApi.get(1)).thenReturn(testClient);
+        when(productApi.getByIds(Set.of(1))).thenReturn(List.of(testProduct));
+        when(clientApi.getByIds(Set.of(1))).thenReturn(List.of(testClient));
         when(orderApi.get(1)).thenReturn(testOrder);
 
         // Act
@@ -0,0 +1,107 @@
+package org.example.order.unit;
+
+import org.example.api.DaySalesScheduler;
+import org.example.dao.DaySalesDao;
+import org.example.dao.OrderDao;
+import org.example.pojo.DaySalesPojo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DaySalesSchedulerTest {
+
+    private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
+
+    @Mock
+    private DaySalesDao daySalesRepo;
+
+    @Mock
+    private OrderDao orderDao;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DaySalesScheduler daySalesScheduler;
+
+    @Test
+    void testCalculateDaySalesForRange_TotalsPerIstDay() {
+        // Arrange
+        LocalDate start = LocalDate.of(2026, 3, 1);
+        LocalDate end = LocalDate.of(2026, 3, 3);
+        when(orderDao.findOrderSummariesByDateRange(start, end)).thenReturn(List.of(
+            // 23:59:59 IST on the 1st
+            new OrderDao.OrderSummaryRow(ZonedDateTime.parse("2026-03-01T18:29:59Z"), 10050, 2),
+            new OrderDao.OrderSummaryRow(ZonedDateTime.parse("2026-03-01T10:00:00Z"), 20025, 3),
+            // 00:00 IST on the 2nd, still the 1st in UTC
+            new OrderDao.OrderSummaryRow(ZonedDateTime.parse("2026-03-01T18:30:00Z"), 999, 1)
+        ));
+
+        // Act
+        daySalesScheduler.calculateDaySalesForRange(start, end);
+
+        // Assert
+        List<DaySalesPojo> saved = captureSaved();
+        assertEquals(3, saved.size());
+        assertDay(saved.get(0), start, 2, 5, 300.75);
+        assertDay(saved.get(1), LocalDate.of(2026, 3, 2), 1, 1, 9.99);
+        // A day without orders is still written, as zeros
+        assertDay(saved.get(2), end, 0, 0, 0.0);
+    }
+
+    @Test
+    void testCalculateDaySalesForRange_UpsertErrorPropagates() {
+        // Arrange
+        LocalDate date = LocalDate.of(2026, 3, 1);
+        when(orderDao.findOrderSummariesByDateRange(date, date)).thenReturn(List.of());
+        doThrow(new RuntimeException("Deadlock")).when(daySalesRepo).saveOrUpdateAll(any());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> daySalesScheduler.calculateDaySalesForRange(date, date));
+    }
+
+    @Test
+    void testBackfillDaySales_StopsAtFailedChunk() {
+        // Arrange
+        LocalDate yesterday = LocalDate.now(IST_ZONE).minusDays(1);
+        LocalDate lastCalculated = yesterday.minusDays(40);
+        when(daySalesRepo.findLatestDate()).thenReturn(lastCalculated);
+        when(orderDao.findOrderSummariesByDateRange(any(), any())).thenReturn(List.of());
+        doThrow(new RuntimeException("Deadlock")).when(daySalesRepo).saveOrUpdateAll(any());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> daySalesScheduler.backfillDaySales());
+        // The second chunk is not attempted, so the latest date stays before the failed one
+        verify(daySalesRepo, times(1)).saveOrUpdateAll(any());
+        verify(orderDao).findOrderSummariesByDateRange(lastCalculated.plusDays(1), lastCalculated.plusDays(31));
+        verify(transactionManager).rollback(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DaySalesPojo> captureSaved() {
+        ArgumentCaptor<List<DaySalesPojo>> captor = ArgumentCaptor.forClass(List.class);
+        verify(daySalesRepo).saveOrUpdateAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private void assertDay(DaySalesPojo daySales, LocalDate date, int orders, int items, double revenue) {
+        assertEquals(date.atStartOfDay(IST_ZONE), daySales.getDate());
+        assertEquals(orders, daySales.getInvoicedOrdersCount());
+        assertEquals(items, daySales.getInvoicedItemsCount());
+        assertEquals(revenue, daySales.getTotalRevenue(), 0.0001);
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.order.unit;
+
+import org.example.api.AbstractApi;
+import org.example.api.InvoiceJobApi;
+import org.example.dao.InvoiceJobDao;
+import org.example.exception.ApiException;
+import org.example.model.constants.DbConstants;
+import org.example.model.enums.InvoiceJobStatus;
+import org.example.pojo.InvoiceJobPojo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Field;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceJobApiTest {
+
+    @Mock
+    private InvoiceJobDao invoiceJobDao;
+
+    @InjectMocks
+    private InvoiceJobApi invoiceJobApi;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Field daoField = AbstractApi.class.getDeclaredField("dao");
+        daoField.setAccessible(true);
+        daoField.set(invoiceJobApi, invoiceJobDao);
+    }
+
+    @Test
+    void testSubmit_NewJobIsPending() {
+        // Act
+        InvoiceJobPojo job = invoiceJobApi.submit(7, false);
+
+        // Assert
+        assertEquals(7, job.getOrderId());
+        assertEquals(InvoiceJobStatus.PENDING, job.getStatus());
+        assertNotNull(job.getNextAttemptAt());
+        verify(invoiceJobDao).insert(job);
+    }
+
+    @Test
+    void testSubmit_InvoicedOrderGetsDoneJob() {
+        // Act
+        InvoiceJobPojo job = invoiceJobApi.submit(7, true);
+
+        // Assert
+        assertEquals(InvoiceJobStatus.DONE, job.getStatus());
+    }
+
+    @Test
+    void testSubmit_ExistingJobIsReused() {
+        // Arrange
+        InvoiceJobPojo existing = job(7, InvoiceJobStatus.RUNNING, 2);
+        when(invoiceJobDao.select(7)).thenReturn(existing);
+
+        // Act
+        InvoiceJobPojo job = invoiceJobApi.submit(7, false);
+
+        // Assert
+        assertSame(existing, job);
+        assertEquals(InvoiceJobStatus.RUNNING, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        verify(invoiceJobDao, never()).insert(any());
+    }
+
+    @Test
+    void testSubmit_FailedJobStartsOver() {
+        // Arrange
+        InvoiceJobPojo existing = job(7, InvoiceJobStatus.FAILED, 5);
+        existing.setLastError("Invoice service is not available");
+        when(invoiceJobDao.select(7)).thenReturn(existing);
+
+        // Act
+        InvoiceJobPojo job = invoiceJobApi.submit(7, false);
+
+        // Assert
+        assertEquals(InvoiceJobStatus.PENDING, job.getStatus());
+        assertEquals(0, job.getAttempts());
+        assertNull(job.getLastError());
+    }
+
+    @Test
+    void testSubmit_NullOrderId() {
+        assertThrows(ApiException.class, () -> invoiceJobApi.submit(null, false));
+    }
+
+    @Test
+    void testGetByOrderId_NotFound() {
+        assertThrows(ApiException.class, () -> invoiceJobApi.getByOrderId(7));
+    }
+
+    @Test
+    void testClaimDue_MarksJobsRunningUnderLease() {
+        // Arrange
+        InvoiceJobPojo first = job(1, InvoiceJobStatus.PENDING, 0);
+        InvoiceJobPojo second = job(2, InvoiceJobStatus.RUNNING, 1);
+        when(invoiceJobDao.selectDueForUpdate(any(ZonedDateTime.class), eq(2))).thenReturn(Arrays.asList(first, second));
+
+        // Act
+        List<Integer> claimed = invoiceJobApi.claimDue(2);
+
+        // Assert
+        assertEquals(Arrays.asList(1, 2), claimed);
+        assertEquals(InvoiceJobStatus.RUNNING, first.getStatus());
+        assertEquals(1, first.getAttempts());
+        assertEquals(2, second.getAttempts());
+        assertTrue(first.getNextAttemptAt().isAfter(ZonedDateTime.now().plusSeconds(60)));
+    }
+
+    @Test
+    void testMarkFailed_SchedulesRetryWithBackoff() {
+        // Arrange
+        InvoiceJobPojo job = job(7, InvoiceJobStatus.RUNNING, 2);
+        when(invoiceJobDao.select(7)).thenReturn(job);
+
+        // Act
+        invoiceJobApi.markFailed(7, "timeout", 5);
+
+        // Assert
+        assertEquals(InvoiceJobStatus.PENDING, job.getStatus());
+        assertEquals("timeout", job.getLastError());
+        assertTrue(job.getNextAttemptAt().isAfter(ZonedDateTime.now().plusSeconds(3)));
+    }
+
+    @Test
+    void testMarkFailed_LastAttemptFailsJob() {
+        // Arrange
+        InvoiceJobPojo job = job(7, InvoiceJobStatus.RUNNING, 5);
+        when(invoiceJobDao.select(7)).thenReturn(job);
+
+        // Act
+        invoiceJobApi.markFailed(7, "x".repeat(DbConstants.InvoiceJobs.LAST_ERROR_LENGTH + 10), 5);
+
+        // Assert
+        assertEquals(InvoiceJobStatus.FAILED, job.getStatus());
+        assertEquals(DbConstants.InvoiceJobs.LAST_ERROR_LENGTH, job.getLastError().length());
+    }
+
+    @Test
+    void testMarkDone() {
+        // Arrange
+        InvoiceJobPojo job = job(7, InvoiceJobStatus.RUNNING, 1);
+        job.setLastError("timeout");
+        when(invoiceJobDao.select(7)).thenReturn(job);
+
+        // Act
+        invoiceJobApi.markDone(7);
+
+        // Assert
+        assertEquals(InvoiceJobStatus.DONE, job.getStatus());
+        assertNull(job.getLastError());
+    }
+
+    @Test
+    void testBackoffDoublesUpToMaximum() {
+        long base = DbConstants.InvoiceJobs.BACKOFF_BASE_MILLIS;
+        assertEquals(base, InvoiceJobApi.backoffMillis(1));
+        assertEquals(2 * base, InvoiceJobApi.backoffMillis(2));
+        assertEquals(4 * base, InvoiceJobApi.backoffMillis(3));
+        assertEquals(DbConstants.InvoiceJobs.BACKOFF_MAX_MILLIS, InvoiceJobApi.backoffMillis(40));
+    }
+
+    private static InvoiceJobPojo job(Integer orderId, InvoiceJobStatus status, int attempts) {
+        InvoiceJobPojo job = new InvoiceJobPojo();
+        job.setOrderId(orderId);
+        job.setStatus(status);
+        job.setAttempts(attempts);
+        job.setNextAttemptAt(ZonedDateTime.now());
+        return job;
+    }
+}
@@ -3,10 +3,15 @@ package org.example.order.unit;
 import org.example.api.OrderApi;
 import org.example.api.InventoryApi;
 import org.example.api.InvoiceApi;
+import org.example.api.SalesFactApi;
 import org.example.dao.OrderDao;
+import org.example.dao.OrderIdGramDao;
 import org.example.dao.OrderItemDao;
+import org.example.dao.RebuildProgressDao;
+import org.example.model.constants.DbConstants;
 import org.example.pojo.OrderPojo;
 import org.example.pojo.OrderItemPojo;
+import org.example.pojo.RebuildProgressPojo;
 import org.example.model.enums.OrderStatus;
 import org.example.exception.ApiException;
 import org.example.model.form.PaginationRequest;
@@ -19,8 +24,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.sql.DataSource;
 
 import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.time.ZonedDateTime;
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -39,12 +51,30 @@ class OrderApiTest {
     @Mock
     private OrderItemDao orderItemDao;
 
+    @Mock
+    private OrderIdGramDao orderIdGramDao;
+
+    @Mock
+    private RebuildProgressDao rebuildProgressDao;
+
     @Mock
     private InventoryApi inventoryApi;
 
     @Mock
     private InvoiceApi invoiceApi;
 
+    @Mock
+    private SalesFactApi salesFactApi;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection lockConnection;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private OrderApi orderApi;
 
@@ -103,10 +133,94 @@ class OrderApiTest {
 
         // Assert
         verify(orderDao).insert(testOrder);
+        verify(orderIdGramDao).insertForOrder(1);
         assertEquals(OrderStatus.CREATED, testOrder.getStatus());
         assertNotNull(testOrder.getDate());
     }
 
+    @Test
+    void testSyncIdSearchIndex_ResumesSeedBelowRecordedPosition() throws Exception {
+        // Arrange
+        lockResult(1);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(rebuildProgressDao.getOrCreate(eq("order_id_gram"), anyLong())).thenReturn(progress(100, false));
+        when(orderIdGramDao.indexOrdersBelow(100)).thenReturn(40);
+        when(orderIdGramDao.indexOrdersBelow(40)).thenReturn(null);
+
+        // Act
+        orderApi.syncIdSearchIndex();
+
+        // Assert
+        verify(orderIdGramDao).indexOrdersBelow(100);
+        verify(orderIdGramDao).indexOrdersBelow(40);
+        verify(rebuildProgressDao).advance("order_id_gram", 40);
+        verify(rebuildProgressDao).complete("order_id_gram");
+        verify(orderIdGramDao, never()).indexOrdersCreatedSince(any(), any());
+        verify(transactionManager, times(3)).commit(any());
+        verify(lockConnection).close();
+    }
+
+    @Test
+    void testSyncIdSearchIndex_SweepsOrdersCreatedSinceLastSyncOnceSeeded() throws Exception {
+        // Arrange
+        lockResult(1);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        RebuildProgressPojo progress = progress(0, true);
+        ZonedDateTime syncedAt = ZonedDateTime.now().minusHours(1);
+        progress.setSyncedAt(syncedAt);
+        when(rebuildProgressDao.getOrCreate(eq("order_id_gram"), anyLong())).thenReturn(progress);
+        ZonedDateTime since = syncedAt.minusNanos(DbConstants.OrderSearch.SYNC_OVERLAP_MILLIS * 1_000_000);
+        when(orderIdGramDao.indexOrdersCreatedSince(since, null)).thenReturn(70);
+        when(orderIdGramDao.indexOrdersCreatedSince(since, 70)).thenReturn(null);
+
+        // Act
+        orderApi.syncIdSearchIndex();
+
+        // Assert
+        verify(orderIdGramDao).indexOrdersCreatedSince(since, null);
+        verify(orderIdGramDao).indexOrdersCreatedSince(since, 70);
+        verify(rebuildProgressDao).sync(eq("order_id_gram"), any(ZonedDateTime.class));
+        verify(orderIdGramDao, never()).indexOrdersBelow(any());
+    }
+
+    @Test
+    void testSyncIdSearchIndex_SkipsWhileAnotherNodeHoldsTheLock() throws Exception {
+        // Arrange
+        lockResult(0);
+
+        // Act
+        orderApi.syncIdSearchIndex();
+
+        // Assert
+        verifyNoInteractions(orderIdGramDao, rebuildProgressDao, transactionManager);
+    }
+
+    private RebuildProgressPojo progress(long position, boolean completed) {
+        RebuildProgressPojo progress = new RebuildProgressPojo();
+        progress.setName("order_id_gram");
+        progress.setPosition(position);
+        progress.setCompleted(completed);
+        progress.setSyncedAt(ZonedDateTime.now());
+        return progress;
+    }
+
+    private void lockResult(int result) throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(lockConnection);
+        when(lockConnection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getInt(1)).thenReturn(result);
+    }
+
+    @Test
+    void testGramsOfOrderId() {
+        assertEquals(new java.util.LinkedHashSet<>(Arrays.asList("1", "2", "12", "21", "121")), OrderIdGramDao.gramsOf(121));
+        assertEquals(java.util.Collections.singleton("12"), OrderIdGramDao.searchGramsOf("12"));
+        assertEquals(new java.util.LinkedHashSet<>(Arrays.asList("123", "234")), OrderIdGramDao.searchGramsOf("1234"));
+    }
+
     @Test
     void testAdd_NullOrder() {
         // Act & Assert
@@ -260,6 +374,21 @@ class OrderApiTest {
         // Assert
         verify(orderDao).select(1);
         verify(orderDao).update(eq(1), argThat(order -> order.getStatus() == OrderStatus.INVOICED));
+        verify(salesFactApi).recordInvoiced(testOrder);
+    }
+
+    @Test
+    void testUpdateStatus_AlreadyInvoiced() {
+        // Arrange
+        testOrder.setStatus(OrderStatus.INVOICED);
+        when(orderDao.select(1)).thenReturn(testOrder);
+
+        // Act
+        orderApi.updateStatus(1, OrderStatus.INVOICED);
+
+        // Assert
+        verify(orderDao).update(eq(1), any(OrderPojo.class));
+        verify(salesFactApi, never()).recordInvoiced(any());
     }
 
     @Test
@@ -604,4 +733,40 @@ class OrderApiTest {
         assertThrows(ApiException.class, () -> orderApi.getByDateRangePaginated(startDate, endDate, request));
         verify(orderDao, never()).getByDateRangePaginated(any(), any(), any());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testExportOrders_WithoutDatesScrollsAllOrders() {
+        // Arrange
+        when(orderDao.scrollAll(any())).thenReturn(3L);
+
+        // Act
+        long rows = orderApi.exportOrders(null, null, order -> { });
+
+        // Assert
+        assertEquals(3L, rows);
+        verify(orderDao, never()).scrollByDateRange(any(), any(), any());
+    }
+
+    @Test
+    void testExportOrders_WithDatesScrollsRange() {
+        // Arrange
+        LocalDate startDate = LocalDate.of(2025, 1, 1);
+        LocalDate endDate = LocalDate.of(2025, 1, 31);
+        when(orderDao.scrollByDateRange(eq(startDate), eq(endDate), any())).thenReturn(2L);
+
+        // Act
+        long rows = orderApi.exportOrders(startDate, endDate, order -> { });
+
+        // Assert
+        assertEquals(2L, rows);
+        verify(orderDao, never()).scrollAll(any());
+    }
+
+    @Test
+    void testExportOrders_OnlyOneDate() {
+        // Act & Assert
+        assertThrows(ApiException.class, () -> orderApi.exportOrders(LocalDate.now(), null, order -> { }));
+        verify(orderDao, never()).scrollAll(any());
+        verify(orderDao, never()).scrollByDateRange(any(), any(), any());
+    }
+}
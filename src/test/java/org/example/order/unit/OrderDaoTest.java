@@ -0,0 +1,59 @@
+package org.example.order.unit;
+
+import org.example.dao.OrderDao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderDaoTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private OrderDao orderDao;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindOrderSummariesByDateRange_IstDayBounds() {
+        // Arrange
+        TypedQuery<Object[]> query = mock(TypedQuery.class);
+        ZonedDateTime placed = ZonedDateTime.parse("2026-03-01T18:29:59Z");
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of(
+            new Object[] {placed, 10050L, 3L},
+            // An order without items sums no quantity
+            new Object[] {placed, 999L, null}
+        ));
+
+        // Act
+        List<OrderDao.OrderSummaryRow> rows = orderDao.findOrderSummariesByDateRange(
+            LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 2));
+
+        // Assert
+        ZoneId istZone = ZoneId.of("Asia/Kolkata");
+        verify(query).setParameter("start", LocalDate.of(2026, 3, 1).atStartOfDay(istZone));
+        verify(query).setParameter("end", LocalDate.of(2026, 3, 3).atStartOfDay(istZone));
+        assertEquals(2, rows.size());
+        assertEquals(placed, rows.get(0).getDate());
+        assertEquals(10050L, rows.get(0).getTotalPaise());
+        assertEquals(3L, rows.get(0).getItemCount());
+        assertEquals(999L, rows.get(1).getTotalPaise());
+        assertEquals(0L, rows.get(1).getItemCount());
+    }
+}
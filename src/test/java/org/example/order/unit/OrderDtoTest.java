@@ -1,8 +1,16 @@
 package org.example.order.unit;
 
+import org.example.dto.BulkInvoiceRunner;
 import org.example.dto.OrderDto;
 import org.example.flow.OrderFlow;
+import org.example.model.data.BulkInvoiceData;
+import org.example.model.data.BulkInvoiceOrderData;
 import org.example.model.data.OrderData;
+import org.example.model.enums.BulkInvoiceOutcome;
+import org.example.model.enums.BulkInvoiceStatus;
+import org.example.model.form.BulkInvoiceForm;
+import org.example.pojo.InvoicePojo;
+import org.example.util.InvoiceStore;
 import org.example.model.form.OrderForm;
 import org.example.model.data.OrderItemData;
 import org.example.model.form.OrderItemForm;
@@ -14,6 +22,8 @@ import org.example.exception.ApiException;
 import org.example.api.ProductApi;
 import org.example.api.ClientApi;
 import org.example.api.InvoiceApi;
+import org.example.api.InvoiceClientApi;
+import org.example.api.InvoiceJobApi;
 import org.example.api.InventoryApi;
 import org.example.api.OrderApi;
 import org.example.dao.OrderItemDao;
@@ -25,6 +35,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.client.RestTemplate;
 import org.example.model.enums.OrderStatus;
 
@@ -33,6 +44,7 @@ import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -156,7 +168,7 @@ class OrderDtoTest {
         createdOrder.setUserId("testuser@example.com");
         createdOrder.setStatus(OrderStatus.CREATED);
         
-        when(productApi.get(1)).thenReturn(testProduct);
+        when(productApi.getByIds(Set.of(1))).thenReturn(List.of(testProduct));
         when(orderFlow.createOrderWithItems(any(OrderPojo.class), anyList())).thenReturn(createdOrder);
 
         // Act
@@ -318,8 +330,7 @@ class OrderDtoTest {
         
         List<OrderPojo> orders = Arrays.asList(order1, order2);
         when(orderApi.getAll()).thenReturn(orders);
-        when(orderApi.getOrderItemsByOrderId(1)).thenReturn(Arrays.asList());
-        when(orderApi.getOrderItemsByOrderId(2)).thenReturn(Arrays.asList());
+        when(orderApi.getOrderItemsByOrderIds(Set.of(1, 2))).thenReturn(Arrays.asList());
 
         // When
         List<OrderData> result = orderDto.getAll();
@@ -329,6 +340,45 @@ class OrderDtoTest {
         verify(orderApi).getAll();
     }
 
+    @Test
+    void testGetAll_PrefetchesItemsProductsAndClients() {
+        // Given
+        OrderPojo order2 = new OrderPojo();
+        order2.setId(2);
+        order2.setDate(ZonedDateTime.now());
+
+        List<OrderItemPojo> items = new java.util.ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            OrderItemPojo item = new OrderItemPojo();
+            item.setId(i + 1);
+            item.setOrderId(i % 2 == 0 ? 1 : 2);
+            item.setProductId(1);
+            item.setQuantity(1);
+            item.setSellingPrice(100.0);
+            item.setAmount(100.0);
+            items.add(item);
+        }
+        when(orderApi.getAll()).thenReturn(Arrays.asList(testOrder, order2));
+        when(orderApi.getOrderItemsByOrderIds(Set.of(1, 2))).thenReturn(items);
+        when(productApi.getByIds(Set.of(1))).thenReturn(List.of(testProduct));
+        when(clientApi.getByIds(Set.of(1))).thenReturn(List.of(testClient));
+
+        // When
+        List<OrderData> result = orderDto.getAll();
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(2, result.get(0).getOrderItemDataList().size());
+        assertEquals(2, result.get(1).getOrderItemDataList().size());
+        assertEquals("Test Client", result.get(1).getOrderItemDataList().get(0).getClientName());
+        assertEquals(order2.getDate(), result.get(1).getOrderItemDataList().get(0).getDateTime());
+        verify(productApi, times(1)).getByIds(any());
+        verify(clientApi, times(1)).getByIds(any());
+        verify(productApi, never()).get(any());
+        verify(clientApi, never()).get(any());
+        verify(orderApi, never()).get(any());
+    }
+
     @Test
     void testUpdate_Success() {
         // Given
@@ -448,8 +498,8 @@ class OrderDtoTest {
         orderItemPojo.setAmount(100.0);
         
         when(orderApi.getOrderItemsByOrderId(1)).thenReturn(Arrays.asList(orderItemPojo));
-        when(productApi.get(1)).thenReturn(testProduct);
-        when(clientApi.get(1)).thenReturn(testClient);
+        when(productApi.getByIds(Set.of(1))).thenReturn(List.of(testProduct));
+        when(clientApi.getByIds(Set.of(1))).thenReturn(List.of(testClient));
         when(orderApi.get(1)).thenReturn(testOrder);
 
         // Act
@@ -490,8 +540,8 @@ class OrderDtoTest {
         orderItemPojo.setAmount(100.0);
         
         when(orderApi.getOrderItem(1)).thenReturn(orderItemPojo);
-        when(productApi.get(1)).thenReturn(testProduct);
-        when(clientApi.get(1)).thenReturn(testClient);
+        when(productApi.getByIds(Set.of(1))).thenReturn(List.of(testProduct));
+        when(clientApi.getByIds(Set.of(1))).thenReturn(List.of(testClient));
         when(orderApi.get(1)).thenReturn(testOrder);
 
         // Act
@@ -525,7 +575,7 @@ class OrderDtoTest {
         expectedResponse.setTotalElements(1);
         
         when(orderFlow.getByUserIdPaginated(userId, request)).thenReturn(expectedResponse);
-        when(orderApi.getOrderItemsByOrderId(1)).thenReturn(Arrays.asList());
+        when(orderApi.getOrderItemsByOrderIds(Set.of(1))).thenReturn(Arrays.asList());
 
         // Act
         PaginationResponse<OrderData> result = orderDto.getOrdersByUserIdPaginated(userId, request);
@@ -551,7 +601,7 @@ class OrderDtoTest {
         expectedResponse.setTotalElements(1);
         
         when(orderFlow.getByDateRangePaginated(startDate, endDate, request)).thenReturn(expectedResponse);
-        when(orderApi.getOrderItemsByOrderId(1)).thenReturn(Arrays.asList());
+        when(orderApi.getOrderItemsByOrderIds(Set.of(1))).thenReturn(Arrays.asList());
 
         // Act
         PaginationResponse<OrderData> result = orderDto.getOrdersByDateRangePaginated(startDate, endDate, request);
@@ -572,7 +622,7 @@ class OrderDtoTest {
         int maxResults = 10;
         List<OrderPojo> orders = Arrays.asList(testOrder);
         when(orderFlow.findOrdersBySubstringId(searchId, maxResults)).thenReturn(orders);
-        when(orderApi.getOrderItemsByOrderId(1)).thenReturn(Arrays.asList());
+        when(orderApi.getOrderItemsByOrderIds(Set.of(1))).thenReturn(Arrays.asList());
 
         // Act
         List<OrderData> result = orderDto.findOrdersBySubstringId(searchId, maxResults);
@@ -618,7 +668,7 @@ class OrderDtoTest {
         expectedResponse.setTotalElements(1);
         
         when(orderFlow.findOrdersBySubstringIdPaginated(searchId, request)).thenReturn(expectedResponse);
-        when(orderApi.getOrderItemsByOrderId(1)).thenReturn(Arrays.asList());
+        when(orderApi.getOrderItemsByOrderIds(Set.of(1))).thenReturn(Arrays.asList());
 
         // Act
         PaginationResponse<OrderData> result = orderDto.findOrdersBySubstringIdPaginated(searchId, request);
@@ -643,4 +693,125 @@ class OrderDtoTest {
         assertThrows(ApiException.class, () -> orderDto.findOrdersBySubstringIdPaginated("", new PaginationRequest()));
         verify(orderFlow, never()).findOrdersBySubstringIdPaginated(any(), any());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testStartBulkInvoice_RequiresOrderIdsOrDateRange() {
+        // Act & Assert
+        assertThrows(ApiException.class, () -> orderDto.startBulkInvoice(new BulkInvoiceForm()));
+    }
+
+    @Test
+    void testStartBulkInvoice_RecordsOutcomePerOrder() throws Exception {
+        // Arrange
+        InvoiceJobApi invoiceJobApi = mock(InvoiceJobApi.class);
+        InvoiceClientApi invoiceClientApi = mock(InvoiceClientApi.class);
+        InvoiceStore.StoredInvoice stored = mock(InvoiceStore.StoredInvoice.class);
+        inject("invoiceJobApi", invoiceJobApi);
+        inject("invoiceClientApi", invoiceClientApi);
+        inject("invoiceStore", mock(InvoiceStore.class));
+        inject("bulkInvoiceRunner", new BulkInvoiceRunner(2, 10, 100));
+
+        OrderPojo invoicedOrder = new OrderPojo();
+        invoicedOrder.setId(2);
+        OrderItemPojo item = new OrderItemPojo();
+        item.setId(1);
+        item.setOrderId(1);
+        item.setProductId(1);
+        item.setQuantity(2);
+        item.setSellingPrice(50.0);
+        InvoicePojo existingInvoice = new InvoicePojo();
+        existingInvoice.setOrderId(2);
+        List<Integer> orderIds = List.of(1, 2, 3);
+
+        when(orderApi.getByIds(orderIds)).thenReturn(List.of(testOrder, invoicedOrder));
+        when(invoiceApi.getByOrderIds(orderIds)).thenReturn(List.of(existingInvoice));
+        when(invoiceJobApi.getInProgressOrderIds(orderIds)).thenReturn(Set.of());
+        when(orderApi.getOrderItemsByOrderIds(List.of(1))).thenReturn(List.of(item));
+        when(productApi.getByIds(any())).thenReturn(List.of(testProduct));
+        when(clientApi.getByIds(any())).thenReturn(List.of(testClient));
+        when(invoiceClientApi.writeInvoice(any(), any())).thenReturn(stored);
+        when(stored.getKey()).thenReturn("ab/cd/abcd.pdf");
+        when(orderFlow.recordInvoices(any())).thenReturn(Set.of(1));
+
+        BulkInvoiceForm form = new BulkInvoiceForm();
+        form.setOrderIds(List.of(1, 2, 3, 1));
+
+        // Act
+        BulkInvoiceData started = orderDto.startBulkInvoice(form);
+        BulkInvoiceData run = orderDto.getBulkInvoice(started.getRunId());
+        for (int i = 0; i < 500 && run.getStatus() != BulkInvoiceStatus.DONE; i++) {
+            Thread.sleep(10);
+            run = orderDto.getBulkInvoice(started.getRunId());
+        }
+
+        // Assert
+        assertEquals(3, started.getTotal());
+        assertEquals(BulkInvoiceStatus.DONE, run.getStatus());
+        assertEquals(3, run.getCompleted());
+        assertEquals(1, run.getInvoiced());
+        assertEquals(1, run.getSkipped());
+        assertEquals(1, run.getFailed());
+        assertEquals(List.of(1, 2, 3), run.getOrders().stream().map(BulkInvoiceOrderData::getOrderId).toList());
+        assertEquals(BulkInvoiceOutcome.INVOICED, run.getOrders().get(0).getOutcome());
+        assertEquals("Already invoiced", run.getOrders().get(1).getMessage());
+        assertEquals("Order not found", run.getOrders().get(2).getMessage());
+        verify(invoiceClientApi, times(1)).writeInvoice(any(), any());
+    }
+
+    @Test
+    void testGenerateInvoice_InvoiceSavedConcurrentlyCountsAsInvoiced() throws Exception {
+        // Arrange
+        InvoiceClientApi invoiceClientApi = mock(InvoiceClientApi.class);
+        InvoiceStore.StoredInvoice stored = mock(InvoiceStore.StoredInvoice.class);
+        inject("invoiceClientApi", invoiceClientApi);
+        inject("invoiceStore", mock(InvoiceStore.class));
+        InvoicePojo concurrentInvoice = new InvoicePojo();
+        concurrentInvoice.setOrderId(1);
+
+        when(orderApi.get(1)).thenReturn(testOrder);
+        when(invoiceApi.getByOrderId(1)).thenReturn(null);
+        when(orderApi.getOrderItemsByOrderId(1)).thenReturn(List.of());
+        when(invoiceClientApi.writeInvoice(any(), any())).thenReturn(stored);
+        when(stored.getKey()).thenReturn("ab/cd/abcd.pdf");
+        when(orderFlow.recordInvoices(any()))
+            .thenThrow(new DataIntegrityViolationException("Duplicate entry '1' for key 'uk_invoices_order_id'"));
+        when(invoiceApi.getByOrderIds(Set.of(1))).thenReturn(List.of(concurrentInvoice));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> orderDto.generateInvoice(1));
+        verify(orderFlow, times(1)).recordInvoices(any());
+    }
+
+    @Test
+    void testGenerateInvoice_OtherConstraintViolationIsRethrown() throws Exception {
+        // Arrange
+        InvoiceClientApi invoiceClientApi = mock(InvoiceClientApi.class);
+        InvoiceStore.StoredInvoice stored = mock(InvoiceStore.StoredInvoice.class);
+        inject("invoiceClientApi", invoiceClientApi);
+        inject("invoiceStore", mock(InvoiceStore.class));
+
+        when(orderApi.get(1)).thenReturn(testOrder);
+        when(invoiceApi.getByOrderId(1)).thenReturn(null);
+        when(orderApi.getOrderItemsByOrderId(1)).thenReturn(List.of());
+        when(invoiceClientApi.writeInvoice(any(), any())).thenReturn(stored);
+        when(stored.getKey()).thenReturn("ab/cd/abcd.pdf");
+        when(orderFlow.recordInvoices(any())).thenThrow(new DataIntegrityViolationException("Column 'filePath' cannot be null"));
+        when(invoiceApi.getByOrderIds(Set.of(1))).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> orderDto.generateInvoice(1));
+    }
+
+    @Test
+    void testGetBulkInvoice_UnknownRun() throws Exception {
+        inject("bulkInvoiceRunner", new BulkInvoiceRunner(1, 10, 100));
+
+        assertThrows(ApiException.class, () -> orderDto.getBulkInvoice("missing"));
+    }
+
+    private void inject(String fieldName, Object value) throws Exception {
+        Field field = OrderDto.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(orderDto, value);
+    }
+}
@@ -3,10 +3,13 @@ package org.example.order.unit;
 import org.example.flow.OrderFlow;
 import org.example.api.OrderApi;
 import org.example.api.InventoryApi;
+import org.example.api.SalesFactApi;
+import org.example.api.InvoiceApi;
 
 import org.example.model.enums.OrderStatus;
 import org.example.pojo.OrderPojo;
 import org.example.pojo.OrderItemPojo;
+import org.example.pojo.InvoicePojo;
 import org.example.model.form.OrderItemForm;
 import org.example.exception.ApiException;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +23,8 @@ import java.lang.reflect.Field;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +38,11 @@ class OrderFlowTest {
     @Mock
     private InventoryApi inventoryApi;
 
+    @Mock
+    private SalesFactApi salesFactApi;
+
+    @Mock
+    private InvoiceApi invoiceApi;
 
 
     @InjectMocks
@@ -162,11 +172,14 @@ class OrderFlowTest {
         
         List<OrderItemPojo> itemPojos = Arrays.asList(itemPojo);
         
-        doNothing().when(api).add(any(OrderPojo.class));
-        doNothing().when(api).addOrderItem(any(OrderItemPojo.class));
-        doNothing().when(api).update(anyInt(), any(OrderPojo.class));
-        doNothing().when(inventoryApi).removeStock(anyInt(), anyInt());
-        doNothing().when(inventoryApi).checkInventoryAvailability(anyInt(), anyInt());
+        // Total must already be set when the order row is written
+        doAnswer(invocation -> {
+            assertEquals(100.0, ((OrderPojo) invocation.getArgument(0)).getTotal());
+            return null;
+        }).when(api).add(any(OrderPojo.class));
+        doNothing().when(api).addOrderItems(anyList());
+        InventoryApi.StockReservation reservation = successfulReservation();
+        when(inventoryApi.reserveStock(anyMap())).thenReturn(reservation);
 
         // Act
         OrderPojo result = orderFlow.createOrderWithItems(order, itemPojos);
@@ -174,11 +187,64 @@ class OrderFlowTest {
         // Assert
         assertNotNull(result);
         assertEquals(100.0, result.getTotal()); // 2 * 50.0
+        assertEquals(1, itemPojo.getOrderId());
         verify(api).add(order);
-        verify(api).addOrderItem(any(OrderItemPojo.class));
-        verify(api).update(eq(1), any(OrderPojo.class));
-        verify(inventoryApi).checkInventoryAvailability(1, 2);
-        verify(inventoryApi).removeStock(1, 2);
+        verify(api).addOrderItems(itemPojos);
+        verify(api, never()).addOrderItem(any());
+        verify(api, never()).update(anyInt(), any(OrderPojo.class));
+        verify(inventoryApi).reserveStock(Map.of(1, 2));
+        verify(salesFactApi).recordOrder(order);
+    }
+
+    @Test
+    void testCreateOrderWithItems_MergesRepeatedProducts() {
+        // Arrange
+        OrderPojo order = new OrderPojo();
+        order.setId(1);
+
+        OrderItemPojo first = new OrderItemPojo();
+        first.setProductId(1);
+        first.setQuantity(2);
+        first.setAmount(100.0);
+        OrderItemPojo second = new OrderItemPojo();
+        second.setProductId(2);
+        second.setQuantity(1);
+        second.setAmount(30.0);
+        OrderItemPojo third = new OrderItemPojo();
+        third.setProductId(1);
+        third.setQuantity(3);
+        third.setAmount(150.0);
+        InventoryApi.StockReservation reservation = successfulReservation();
+        when(inventoryApi.reserveStock(anyMap())).thenReturn(reservation);
+
+        // Act
+        OrderPojo result = orderFlow.createOrderWithItems(order, Arrays.asList(first, second, third));
+
+        // Assert
+        assertEquals(280.0, result.getTotal());
+        verify(inventoryApi).reserveStock(Map.of(1, 5, 2, 1));
+        verify(api).addOrderItems(Arrays.asList(first, second, third));
+    }
+
+    @Test
+    void testCreateOrderWithItems_InsufficientStock() {
+        // Arrange
+        OrderPojo order = new OrderPojo();
+        OrderItemPojo itemPojo = new OrderItemPojo();
+        itemPojo.setProductId(1);
+        itemPojo.setQuantity(20);
+        itemPojo.setAmount(100.0);
+        InventoryApi.StockReservation reservation = mock(InventoryApi.StockReservation.class);
+        when(reservation.isSuccessful()).thenReturn(false);
+        when(reservation.getFailureMessage()).thenReturn("Insufficient stock. Available: 10, Requested: 20");
+        when(inventoryApi.reserveStock(anyMap())).thenReturn(reservation);
+
+        // Act & Assert
+        ApiException ex = assertThrows(ApiException.class,
+            () -> orderFlow.createOrderWithItems(order, Arrays.asList(itemPojo)));
+        assertTrue(ex.getMessage().contains("Insufficient stock"));
+        verify(api, never()).add(any());
+        verify(api, never()).addOrderItems(anyList());
     }
 
     @Test
@@ -190,6 +256,7 @@ class OrderFlowTest {
         // Act & Assert
         assertThrows(ApiException.class, () -> orderFlow.createOrderWithItems(null, itemPojos));
         verify(api, never()).add(any());
+        verify(salesFactApi, never()).recordOrder(any());
     }
 
     @Test
@@ -212,4 +279,31 @@ class OrderFlowTest {
         assertThrows(ApiException.class, () -> orderFlow.createOrderWithItems(order, itemPojos));
         verify(api, never()).add(any());
     }
-} 
\ No newline at end of file
+
+    private InventoryApi.StockReservation successfulReservation() {
+        InventoryApi.StockReservation reservation = mock(InventoryApi.StockReservation.class);
+        when(reservation.isSuccessful()).thenReturn(true);
+        return reservation;
+    }
+
+    @Test
+    void testRecordInvoicesSkipsOrdersInvoicedMeanwhile() {
+        InvoicePojo first = invoice(1);
+        InvoicePojo second = invoice(2);
+        when(invoiceApi.getByOrderIds(Set.of(1, 2))).thenReturn(List.of(invoice(2)));
+
+        Set<Integer> recorded = orderFlow.recordInvoices(List.of(first, second));
+
+        assertEquals(Set.of(1), recorded);
+        verify(invoiceApi).addAll(List.of(first));
+        verify(api).updateStatuses(Set.of(1), OrderStatus.INVOICED);
+    }
+
+    private static InvoicePojo invoice(Integer orderId) {
+        InvoicePojo invoice = new InvoicePojo();
+        invoice.setOrderId(orderId);
+        invoice.setFilePath("ab/cd/" + orderId + ".pdf");
+        invoice.setInvoiceId(orderId.toString());
+        return invoice;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.order.unit;
+
+import org.example.dao.SalesFactDao;
+import org.example.dto.ReportsDto;
+import org.example.flow.ReportsFlow;
+import org.example.model.data.CustomDateRangeSalesData;
+import org.example.model.form.CustomDateRangeSalesForm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportsDtoTest {
+
+    @Mock
+    private ReportsFlow reportsFlow;
+
+    @InjectMocks
+    private ReportsDto reportsDto;
+
+    @Test
+    void testGetCustomDateRangeSalesReport_OrderWithTwoProductsInGroupCountsOnce() {
+        // Arrange
+        LocalDate start = LocalDate.of(2026, 3, 1);
+        LocalDate end = LocalDate.of(2026, 3, 31);
+        CustomDateRangeSalesForm form = new CustomDateRangeSalesForm();
+        form.setStartDate(start);
+        form.setEndDate(end);
+        // One order bought two SKUs of the same brand|category, so each fact row counts it once
+        when(reportsFlow.getSalesReport(start, end, null, null)).thenReturn(List.of(
+            new SalesFactDao.SalesReportRow("Acme", "Soap", "SKU1", 2L, 10050, 1L),
+            new SalesFactDao.SalesReportRow("Acme", "Soap", "SKU2", 1L, 999, 1L)
+        ));
+        when(reportsFlow.getOrderCountsByBrandCategory(start, end, null, null)).thenReturn(List.of(
+            new SalesFactDao.BrandCategoryOrderCount("Acme", "Soap", 1)
+        ));
+
+        // Act
+        List<CustomDateRangeSalesData> result = reportsDto.getCustomDateRangeSalesReport(form);
+
+        // Assert
+        assertEquals(1, result.size());
+        CustomDateRangeSalesData data = result.get(0);
+        assertEquals("Acme", data.getBrand());
+        assertEquals("Soap", data.getCategory());
+        assertEquals(1, data.getTotalOrders());
+        assertEquals(3, data.getTotalItems());
+        assertEquals(110.49, data.getTotalAmount(), 0.0001);
+    }
+
+    @Test
+    void testGetCustomDateRangeSalesReport_EndBeforeStart() {
+        // Arrange
+        CustomDateRangeSalesForm form = new CustomDateRangeSalesForm();
+        form.setStartDate(LocalDate.of(2026, 3, 2));
+        form.setEndDate(LocalDate.of(2026, 3, 1));
+
+        // Act & Assert
+        assertThrows(org.example.exception.ApiException.class, () -> reportsDto.getCustomDateRangeSalesReport(form));
+        verifyNoInteractions(reportsFlow);
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.order.unit;
+
+import org.example.api.SalesFactApi;
+import org.example.dao.OrderDao;
+import org.example.dao.RebuildProgressDao;
+import org.example.dao.SalesFactDao;
+import org.example.pojo.RebuildProgressPojo;
+import org.example.pojo.SalesFactOrderPojo;
+import org.example.pojo.SalesFactPojo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesFactApiTest {
+
+    private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
+    private static final LocalDate SALE_DATE = LocalDate.of(2026, 2, 20);
+
+    @Mock
+    private SalesFactDao salesFactDao;
+
+    @Mock
+    private OrderDao orderDao;
+
+    @Mock
+    private RebuildProgressDao rebuildProgressDao;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SalesFactApi salesFactApi;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // The rebuild lock is always granted
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet result = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(result);
+        when(result.next()).thenReturn(true);
+        when(result.getInt(1)).thenReturn(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRebuildMissing_ResumesFromProgressAndSkipsFoldedLines() throws Exception {
+        // Arrange
+        LocalDate resumeAt = LocalDate.of(2026, 3, 1);
+        RebuildProgressPojo progress = new RebuildProgressPojo();
+        progress.setName("pos_sales_fact");
+        progress.setPosition(resumeAt.toEpochDay());
+        when(rebuildProgressDao.getOrCreate(eq("pos_sales_fact"), anyLong())).thenReturn(progress);
+        when(orderDao.countAll()).thenReturn(4L);
+        when(orderDao.findEarliestOrderDate()).thenReturn(LocalDate.of(2026, 2, 15));
+        LocalDate chunkStart = resumeAt.minusDays(31);
+        when(salesFactDao.selectLinesByDateRange(chunkStart.atStartOfDay(IST_ZONE), resumeAt.atStartOfDay(IST_ZONE)))
+            .thenReturn(List.of(
+                // Already counted by the live path
+                new SalesFactDao.FactLine(SALE_DATE, false, 1, 1, 10, 5, 500, true, false),
+                // Missing entirely
+                new SalesFactDao.FactLine(SALE_DATE, false, 2, 1, 10, 2, 200, false, false),
+                // Counted, but its invoicing has not been folded in yet
+                new SalesFactDao.FactLine(SALE_DATE, true, 3, 1, 10, 3, 300, true, false),
+                // Counted and invoiced already
+                new SalesFactDao.FactLine(SALE_DATE, true, 4, 1, 10, 7, 700, true, true)
+            ));
+
+        // Act
+        salesFactApi.rebuildMissing();
+
+        // Assert
+        ArgumentCaptor<List<SalesFactPojo>> facts = ArgumentCaptor.forClass(List.class);
+        verify(salesFactDao).addFacts(facts.capture());
+        assertEquals(1, facts.getValue().size());
+        SalesFactPojo delta = facts.getValue().get(0);
+        assertEquals(SALE_DATE, delta.getSaleDate());
+        assertEquals(2, delta.getQuantity());
+        assertEquals(200, delta.getRevenuePaise());
+        assertEquals(1, delta.getOrderCount());
+        assertEquals(3, delta.getInvoicedQuantity());
+        assertEquals(300, delta.getInvoicedRevenuePaise());
+        assertEquals(1, delta.getInvoicedOrderCount());
+
+        ArgumentCaptor<List<SalesFactOrderPojo>> orderRows = ArgumentCaptor.forClass(List.class);
+        verify(salesFactDao).recordOrderRows(orderRows.capture());
+        List<SalesFactOrderPojo> recorded = orderRows.getValue().stream()
+            .sorted(Comparator.comparing(SalesFactOrderPojo::getOrderId))
+            .toList();
+        assertEquals(2, recorded.size());
+        assertEquals(2, recorded.get(0).getOrderId());
+        assertTrue(recorded.get(0).isCounted());
+        assertFalse(recorded.get(0).isInvoiced());
+        assertEquals(3, recorded.get(1).getOrderId());
+        assertFalse(recorded.get(1).isCounted());
+        assertTrue(recorded.get(1).isInvoiced());
+
+        // One chunk below the saved position reaches the first order, then the rebuild is done
+        verify(salesFactDao, times(1)).selectLinesByDateRange(any(), any());
+        verify(rebuildProgressDao).advance("pos_sales_fact", chunkStart.toEpochDay());
+        verify(rebuildProgressDao).complete("pos_sales_fact");
+    }
+
+    @Test
+    void testRebuildMissing_CompletedDoesNothing() throws Exception {
+        // Arrange
+        RebuildProgressPojo progress = new RebuildProgressPojo();
+        progress.setName("pos_sales_fact");
+        progress.setCompleted(true);
+        when(rebuildProgressDao.getOrCreate(eq("pos_sales_fact"), anyLong())).thenReturn(progress);
+
+        // Act
+        salesFactApi.rebuildMissing();
+
+        // Assert
+        verifyNoInteractions(salesFactDao, orderDao);
+        verify(rebuildProgressDao, never()).complete(any());
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.order.unit;
+
+import org.example.dao.SalesFactDao;
+import org.example.pojo.SalesFactOrderPojo;
+import org.example.pojo.SalesFactPojo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SalesFactDaoTest {
+
+    private static final LocalDate SALE_DATE = LocalDate.of(2026, 3, 1);
+
+    private SalesFactDao salesFactDao;
+    private List<SalesFactDao.FactLine> lines;
+
+    @BeforeEach
+    void setUp() {
+        // The upserts are native SQL; these tests only check the rows handed to them
+        salesFactDao = spy(new SalesFactDao());
+        doNothing().when(salesFactDao).addFacts(any());
+        doNothing().when(salesFactDao).recordOrderRows(any());
+        lines = List.of(
+            new SalesFactDao.FactLine(null, false, 7, 1, 10, 2, 10050, false, false),
+            new SalesFactDao.FactLine(null, false, 7, 2, 20, 1, 999, false, false)
+        );
+    }
+
+    @Test
+    void testAddOrderLines_OneOrderPerProduct() {
+        // Act
+        salesFactDao.addOrderLines(SALE_DATE, lines);
+
+        // Assert
+        List<SalesFactPojo> deltas = captureFacts();
+        assertEquals(2, deltas.size());
+        assertFact(deltas.get(0), 1, 10);
+        assertEquals(2, deltas.get(0).getQuantity());
+        assertEquals(10050, deltas.get(0).getRevenuePaise());
+        assertEquals(1, deltas.get(0).getOrderCount());
+        assertEquals(1, deltas.get(1).getQuantity());
+        assertEquals(999, deltas.get(1).getRevenuePaise());
+        // Invoiced measures are left to addInvoicedLines
+        assertEquals(0, deltas.get(0).getInvoicedQuantity());
+        assertEquals(0, deltas.get(0).getInvoicedRevenuePaise());
+        assertEquals(0, deltas.get(0).getInvoicedOrderCount());
+
+        List<SalesFactOrderPojo> orderRows = captureOrderRows();
+        assertEquals(2, orderRows.size());
+        assertOrderRow(orderRows.get(0), 1, 10);
+        assertTrue(orderRows.get(0).isCounted());
+        assertFalse(orderRows.get(0).isInvoiced());
+    }
+
+    @Test
+    void testAddInvoicedLines_OnlyInvoicedMeasures() {
+        // Act
+        salesFactDao.addInvoicedLines(SALE_DATE, lines);
+
+        // Assert
+        List<SalesFactPojo> deltas = captureFacts();
+        assertEquals(2, deltas.size());
+        assertFact(deltas.get(1), 2, 20);
+        assertEquals(1, deltas.get(1).getInvoicedQuantity());
+        assertEquals(999, deltas.get(1).getInvoicedRevenuePaise());
+        assertEquals(1, deltas.get(1).getInvoicedOrderCount());
+        assertEquals(0, deltas.get(1).getQuantity());
+        assertEquals(0, deltas.get(1).getRevenuePaise());
+        assertEquals(0, deltas.get(1).getOrderCount());
+
+        List<SalesFactOrderPojo> orderRows = captureOrderRows();
+        assertOrderRow(orderRows.get(1), 2, 20);
+        assertFalse(orderRows.get(1).isCounted());
+        assertTrue(orderRows.get(1).isInvoiced());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SalesFactPojo> captureFacts() {
+        ArgumentCaptor<List<SalesFactPojo>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesFactDao).addFacts(captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SalesFactOrderPojo> captureOrderRows() {
+        ArgumentCaptor<List<SalesFactOrderPojo>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesFactDao).recordOrderRows(captor.capture());
+        return captor.getValue();
+    }
+
+    private void assertFact(SalesFactPojo fact, Integer productId, Integer clientId) {
+        assertEquals(SALE_DATE, fact.getSaleDate());
+        assertEquals(productId, fact.getProductId());
+        assertEquals(clientId, fact.getClientId());
+    }
+
+    private void assertOrderRow(SalesFactOrderPojo orderRow, Integer productId, Integer clientId) {
+        assertEquals(7, orderRow.getOrderId());
+        assertEquals(SALE_DATE, orderRow.getSaleDate());
+        assertEquals(productId, orderRow.getProductId());
+        assertEquals(clientId, orderRow.getClientId());
+    }
+}
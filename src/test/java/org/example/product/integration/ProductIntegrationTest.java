@@ -205,7 +205,7 @@ class ProductIntegrationTest {
     @Test
     void testGetByBarcode_Integration_Success() {
         // Arrange
-        when(productApi.getByField("barcode", "123456789")).thenReturn(testProduct);
+        when(productApi.getByBarcode("123456789")).thenReturn(testProduct);
         when(clientApi.get(1)).thenReturn(testClient);
 
         // Act
@@ -214,17 +214,17 @@ class ProductIntegrationTest {
         // Assert
         assertNotNull(result);
         assertEquals("123456789", result.getBarcode());
-        verify(productApi).getByField("barcode", "123456789");
+        verify(productApi).getByBarcode("123456789");
     }
 
     @Test
     void testGetByBarcode_Integration_NotFound() {
         // Arrange
-        when(productApi.getByField("barcode", "123456789")).thenThrow(new ApiException("Product not found"));
+        when(productApi.getByBarcode("123456789")).thenThrow(new ApiException("Product not found"));
 
         // Act & Assert
         assertThrows(ApiException.class, () -> productDto.getByBarcode("123456789"));
-        verify(productApi).getByField("barcode", "123456789");
+        verify(productApi).getByBarcode("123456789");
     }
 
     @Test
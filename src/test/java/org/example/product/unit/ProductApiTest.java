@@ -2,6 +2,8 @@ package org.example.product.unit;
 
 import org.example.api.ProductApi;
 import org.example.api.ClientApi;
+import org.example.api.ProductBarcodeIndex;
+import org.example.api.CatalogSearchIndex;
 import org.example.dao.ProductDao;
 import org.example.dao.InventoryDao;
 import org.example.pojo.ProductPojo;
@@ -9,6 +11,7 @@ import org.example.pojo.ClientPojo;
 import org.example.exception.ApiException;
 import org.example.model.data.PaginationResponse;
 import org.example.model.form.PaginationRequest;
+import org.example.util.SearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,6 +38,12 @@ class ProductApiTest {
     @Mock
     private ClientApi clientApi;
 
+    @Mock
+    private ProductBarcodeIndex barcodeIndex;
+
+    @Mock
+    private CatalogSearchIndex searchIndex;
+
     @InjectMocks
     private ProductApi productApi;
 
@@ -113,6 +122,30 @@ class ProductApiTest {
         assertNotNull(result);
         assertEquals("123456789", result.getBarcode());
         verify(productDao).selectByField("barcode", "123456789");
+        verify(barcodeIndex).putAfterCommit(testProduct);
+    }
+
+    @Test
+    void testGetByBarcode_IndexHitSkipsDatabase() {
+        // Arrange
+        when(barcodeIndex.get("123456789")).thenReturn(testProduct);
+
+        // Act
+        ProductPojo result = productApi.getByBarcode("123456789");
+
+        // Assert
+        assertEquals(1, result.getId());
+        verify(productDao, never()).selectByField(anyString(), any());
+    }
+
+    @Test
+    void testGetByBarcode_NotFoundIsNotIndexed() {
+        // Arrange
+        when(productDao.selectByField("barcode", "missing")).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(ApiException.class, () -> productApi.getByBarcode("missing"));
+        verify(barcodeIndex, never()).putAfterCommit(any());
     }
 
     @Test
@@ -158,6 +191,74 @@ class ProductApiTest {
         verify(productDao, never()).selectByFieldLike(anyString(), any());
     }
 
+    @Test
+    void testGetByNameLike_RankedFromSearchIndex() {
+        // Arrange
+        SearchIndex index = new SearchIndex("name", "barcode");
+        index.put(1, 0, java.util.Map.of("name", "Organic Green Tea", "barcode", "111"));
+        index.put(2, 0, java.util.Map.of("name", "Green Apple", "barcode", "222"));
+        when(searchIndex.getProducts()).thenReturn(index);
+        when(productDao.selectByIds(List.of(2, 1))).thenReturn(Arrays.asList(testProduct));
+
+        // Act
+        List<ProductPojo> result = productApi.getByNameLike("gre");
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(productDao).selectByIds(List.of(2, 1));
+        verify(productDao, never()).selectByFieldLike(anyString(), any());
+    }
+
+    @Test
+    void testGetByBarcodeLike_FromSearchIndex() {
+        // Arrange
+        SearchIndex index = new SearchIndex("name", "barcode");
+        index.put(1, 0, java.util.Map.of("name", "Test Product", "barcode", "123456789"));
+        when(searchIndex.getProducts()).thenReturn(index);
+        when(productDao.selectByIds(List.of(1))).thenReturn(Arrays.asList(testProduct));
+
+        // Act
+        List<ProductPojo> result = productApi.getByBarcodeLike("1234");
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(productDao, never()).selectByFieldLike(anyString(), any());
+    }
+
+    @Test
+    void testGetByNameLikePaginated_PageFromSearchIndex() {
+        // Arrange
+        SearchIndex index = new SearchIndex("name", "barcode");
+        index.put(1, 0, java.util.Map.of("name", "Milk"));
+        index.put(2, 0, java.util.Map.of("name", "Milk Chocolate"));
+        index.put(3, 0, java.util.Map.of("name", "Almond Milk"));
+        when(searchIndex.getProducts()).thenReturn(index);
+        when(productDao.selectByIds(List.of(3))).thenReturn(Arrays.asList(testProduct));
+
+        // Act
+        PaginationResponse<ProductPojo> result = productApi.getByNameLikePaginated("milk", new PaginationRequest(1, 2));
+
+        // Assert
+        assertEquals(3, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+        assertEquals(1, result.getContent().size());
+        verify(productDao, never()).getPaginated(any());
+    }
+
+    @Test
+    void testGetByNameLikePaginated_ExplicitSortUsesDatabase() {
+        // Arrange
+        when(searchIndex.getProducts()).thenReturn(new SearchIndex("name", "barcode"));
+        when(productDao.getPaginated(any())).thenReturn(new PaginationResponse<>(0, 10));
+
+        // Act
+        productApi.getByNameLikePaginated("milk", new PaginationRequest(0, 10, "mrp", "DESC"));
+
+        // Assert
+        verify(productDao).getPaginated(any());
+        verify(productDao, never()).selectByIds(any());
+    }
+
     @Test
     void testGetByClientId_Success() {
         // Arrange
@@ -488,6 +589,8 @@ class ProductApiTest {
 
         // Assert
         verify(productDao).insert(testProduct);
+        verify(barcodeIndex).putAfterCommit(testProduct);
+        verify(searchIndex).putAfterCommit(testProduct);
     }
 
     @Test
@@ -546,12 +649,15 @@ class ProductApiTest {
     void testUpdate_Success() {
         // Arrange
         doNothing().when(productDao).update(1, testProduct);
+        when(productDao.select(1)).thenReturn(testProduct);
 
         // Act
         productApi.update(1, testProduct);
 
         // Assert
         verify(productDao).update(1, testProduct);
+        verify(barcodeIndex).putAfterCommit(testProduct);
+        verify(searchIndex).putAfterCommit(testProduct);
     }
 
     @Test
@@ -0,0 +1,117 @@
+package org.example.product.unit;
+
+import org.example.api.ProductBarcodeIndex;
+import org.example.dao.ProductDao;
+import org.example.pojo.ProductPojo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBarcodeIndexTest {
+
+    @Mock
+    private ProductDao productDao;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductBarcodeIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        index = new ProductBarcodeIndex(2, 60_000);
+        inject("productDao", productDao);
+        inject("transactionManager", transactionManager);
+    }
+
+    @Test
+    void testPutAndGetReturnsCopy() {
+        index.putAfterCommit(product(1, "111", 0));
+
+        ProductPojo result = index.get("111");
+        result.setName("changed");
+
+        assertEquals(1, result.getId());
+        assertEquals("Product 1", index.get("111").getName());
+        assertNull(index.get("222"));
+    }
+
+    @Test
+    void testBarcodeChangeDropsOldKey() {
+        index.putAfterCommit(product(1, "111", 0));
+        index.putAfterCommit(product(1, "999", 1));
+
+        assertNull(index.get("111"));
+        assertEquals(1, index.get("999").getId());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testOlderVersionDoesNotOverwrite() {
+        index.putAfterCommit(product(1, "999", 2));
+        index.putAfterCommit(product(1, "111", 1));
+
+        assertNull(index.get("111"));
+        assertEquals(2, index.get("999").getVersion());
+    }
+
+    @Test
+    void testExpiredEntryIsDropped() throws Exception {
+        ProductBarcodeIndex shortLived = new ProductBarcodeIndex(2, 1);
+        shortLived.putAfterCommit(product(1, "111", 0));
+        Thread.sleep(5);
+
+        assertNull(shortLived.get("111"));
+        assertEquals(0, shortLived.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        index.putAfterCommit(product(1, "111", 0));
+        index.putAfterCommit(product(2, "222", 0));
+        index.get("111");
+        index.putAfterCommit(product(3, "333", 0));
+
+        assertNotNull(index.get("111"));
+        assertNull(index.get("222"));
+        assertNotNull(index.get("333"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testWarmUpLoadsOnce() {
+        when(productDao.selectFirst(2)).thenReturn(Arrays.asList(product(1, "111", 0), product(2, "222", 0)));
+
+        index.warmUp();
+        index.warmUp();
+
+        assertEquals(2, index.size());
+        verify(productDao, times(1)).selectFirst(2);
+    }
+
+    private ProductPojo product(int id, String barcode, int version) {
+        ProductPojo product = new ProductPojo();
+        product.setId(id);
+        product.setBarcode(barcode);
+        product.setName("Product " + id);
+        product.setClientId(1);
+        product.setMrp(10.0);
+        product.setVersion(version);
+        return product;
+    }
+
+    private void inject(String fieldName, Object value) throws Exception {
+        java.lang.reflect.Field field = ProductBarcodeIndex.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(index, value);
+    }
+}
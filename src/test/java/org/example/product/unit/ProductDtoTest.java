@@ -329,7 +329,7 @@ class ProductDtoTest {
     @Test
     void testGetByBarcode_Success() {
         // Arrange
-        when(productApi.getByField("barcode", "123456789")).thenReturn(testProduct);
+        when(productApi.getByBarcode("123456789")).thenReturn(testProduct);
         when(clientApi.get(1)).thenReturn(testClient);
 
         // Act
@@ -338,7 +338,7 @@ class ProductDtoTest {
         // Assert
         assertNotNull(result);
         assertEquals("123456789", result.getBarcode());
-        verify(productApi).getByField("barcode", "123456789");
+        verify(productApi).getByBarcode("123456789");
     }
 
     @Test
@@ -0,0 +1,66 @@
+package org.example.user.unit;
+
+import org.example.api.UserApi;
+import org.example.dto.UserDto;
+import org.example.flow.UserFlow;
+import org.example.model.data.AuthTokenData;
+import org.example.util.AuthTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.lang.reflect.Field;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDtoTest {
+
+    @Mock
+    private UserFlow userFlow;
+
+    @Mock
+    private UserApi userApi;
+
+    @InjectMocks
+    private UserDto userDto;
+
+    private AuthTokenService authTokenService;
+    private Authentication basicLogin;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        authTokenService = new AuthTokenService(Base64.getEncoder().encodeToString(new byte[32]), 60_000);
+        Field authTokenServiceField = userDto.getClass().getDeclaredField("authTokenService");
+        authTokenServiceField.setAccessible(true);
+        authTokenServiceField.set(userDto, authTokenService);
+
+        basicLogin = UsernamePasswordAuthenticationToken.authenticated("user@example.com", null,
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void testIssueToken_BasicLoginGetsToken() {
+        AuthTokenData data = userDto.issueToken(basicLogin);
+
+        assertEquals("Bearer", data.getTokenType());
+        assertEquals("user@example.com", authTokenService.verify(data.getToken()).getName());
+    }
+
+    @Test
+    void testIssueToken_BearerTokenCannotMintAnother() {
+        Authentication bearer = authTokenService.verify(userDto.issueToken(basicLogin).getToken());
+
+        assertInstanceOf(AuthTokenService.BearerAuthentication.class, bearer);
+        assertThrows(AccessDeniedException.class, () -> userDto.issueToken(bearer));
+    }
+}
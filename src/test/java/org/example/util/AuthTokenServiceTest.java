@@ -0,0 +1,94 @@
+package org.example.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class AuthTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private AuthTokenService service;
+    private Authentication login;
+
+    @BeforeEach
+    void setUp() {
+        service = new AuthTokenService(SECRET, 60_000);
+        login = UsernamePasswordAuthenticationToken.authenticated("user@example.com", null,
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void testIssuedTokenVerifies() {
+        AuthTokenService.IssuedToken issued = service.issue(login);
+
+        Authentication verified = service.verify(issued.getToken());
+
+        assertNotNull(verified);
+        assertTrue(verified.isAuthenticated());
+        assertEquals("user@example.com", verified.getName());
+        assertEquals(List.of("ROLE_USER"), verified.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority).collect(Collectors.toList()));
+        assertTrue(issued.getExpiresAtMillis() > System.currentTimeMillis());
+    }
+
+    @Test
+    void testTamperedTokenIsRejected() {
+        String token = service.issue(login).getToken();
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("admin@example.com\nROLE_SUPERVISOR\n0\n9999999999999".getBytes());
+        String signature = token.substring(token.indexOf('.') + 1);
+
+        assertNull(service.verify(forgedPayload + "." + signature));
+        assertNull(service.verify(token + "x"));
+        assertNull(service.verify("not-a-token"));
+        assertNull(service.verify("!!!.???"));
+    }
+
+    @Test
+    void testTokenFromAnotherKeyIsRejected() {
+        String token = new AuthTokenService("", 60_000).issue(login).getToken();
+
+        assertNull(service.verify(token));
+    }
+
+    @Test
+    void testSharedSecretIsAcceptedByEveryInstance() {
+        String token = service.issue(login).getToken();
+
+        assertNotNull(new AuthTokenService(SECRET, 60_000).verify(token));
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        AuthTokenService expiring = new AuthTokenService(SECRET, -1);
+
+        assertNull(expiring.verify(expiring.issue(login).getToken()));
+    }
+
+    @Test
+    void testRevokeRejectsEarlierTokens() throws InterruptedException {
+        String token = service.issue(login).getToken();
+
+        service.revoke("USER@example.com ");
+        assertNull(service.verify(token));
+
+        Thread.sleep(2);
+        assertNotNull(service.verify(service.issue(login).getToken()));
+    }
+
+    @Test
+    void testShortSecretIsRejected() {
+        String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalArgumentException.class, () -> new AuthTokenService(shortSecret, 60_000));
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+public class AuthenticationCacheTest {
+
+    private AuthenticationCache cache;
+    private Authentication verified;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AuthenticationCache(60_000, 100);
+        verified = UsernamePasswordAuthenticationToken.authenticated("user@example.com", null,
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void testGetReturnsCachedLoginForSameCredentials() {
+        cache.put("user@example.com", "secret", verified);
+
+        Authentication cached = cache.get("user@example.com", "secret");
+
+        assertNotNull(cached);
+        assertTrue(cached.isAuthenticated());
+        assertEquals("user@example.com", cached.getName());
+        assertNull(cached.getCredentials());
+        assertNull(cache.get("user@example.com", "wrong"));
+        assertNull(cache.get("other@example.com", "secret"));
+    }
+
+    @Test
+    void testUnauthenticatedResultIsNotCached() {
+        cache.put("user@example.com", "secret", UsernamePasswordAuthenticationToken.unauthenticated("user@example.com", "secret"));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testInvalidateDropsEveryEntryOfUser() {
+        cache.put("user@example.com", "old", verified);
+        cache.put("user@example.com", "new", verified);
+        cache.put("other@example.com", "secret", verified);
+
+        cache.invalidate(" User@Example.com");
+
+        assertNull(cache.get("user@example.com", "old"));
+        assertNull(cache.get("user@example.com", "new"));
+        assertNotNull(cache.get("other@example.com", "secret"));
+    }
+
+    @Test
+    void testPutIsDroppedWhenUserWasInvalidatedAfterGenerationWasRead() {
+        long generation = cache.generation("user@example.com");
+        cache.invalidate("user@example.com");
+
+        cache.put("user@example.com", "old", verified, generation);
+
+        assertNull(cache.get("user@example.com", "old"));
+        cache.put("user@example.com", "new", verified, cache.generation("user@example.com"));
+        assertNotNull(cache.get("user@example.com", "new"));
+    }
+
+    @Test
+    void testProviderDoesNotCacheLoginVerifiedAcrossAnInvalidation() {
+        AuthenticationProvider delegate = mock(AuthenticationProvider.class);
+        when(delegate.authenticate(any())).thenAnswer(invocation -> {
+            // The user's password changes while the old one is being checked
+            cache.invalidate("user@example.com");
+            return verified;
+        });
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(delegate, cache);
+
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user@example.com", "old"));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testZeroTtlDisablesCache() {
+        AuthenticationCache disabled = new AuthenticationCache(0, 100);
+        disabled.put("user@example.com", "secret", verified);
+
+        assertNull(disabled.get("user@example.com", "secret"));
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    void testSizeStaysWithinMaxEntries() {
+        AuthenticationCache small = new AuthenticationCache(60_000, 2);
+        for (int i = 0; i < 5; i++) {
+            small.put("user" + i + "@example.com", "secret", verified);
+        }
+
+        assertTrue(small.size() <= 2);
+    }
+
+    @Test
+    void testProviderCallsDelegateOnlyOnMiss() {
+        AuthenticationProvider delegate = mock(AuthenticationProvider.class);
+        when(delegate.authenticate(any())).thenReturn(verified);
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(delegate, cache);
+
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user@example.com", "secret"));
+        Authentication second = provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user@example.com", "secret"));
+
+        assertEquals("user@example.com", second.getName());
+        verify(delegate, times(1)).authenticate(any());
+    }
+
+    @Test
+    void testProviderDoesNotCacheFailedLogin() {
+        AuthenticationProvider delegate = mock(AuthenticationProvider.class);
+        when(delegate.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(delegate, cache);
+
+        assertThrows(BadCredentialsException.class, () ->
+            provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user@example.com", "wrong")));
+        assertThrows(BadCredentialsException.class, () ->
+            provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user@example.com", "wrong")));
+
+        assertEquals(0, cache.size());
+        verify(delegate, times(2)).authenticate(any());
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(3, 1_000, now::get);
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        breaker.onFailure();
+        breaker.onFailure();
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getOpenings());
+    }
+
+    @Test
+    void testSuccessResetsFailureCount() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testSingleTrialCallAfterOpenPeriod() {
+        openBreaker();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void testFailedTrialReopens() {
+        openBreaker();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpenings());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertFalse(breaker.tryAcquire());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        assertFalse(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.util;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.example.model.data.ConnectionPoolStatsData;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class ConnectionPoolMetricsTest {
+
+    private static class FixedPoolStats extends PoolStats {
+        FixedPoolStats() {
+            super(0);
+        }
+
+        @Override
+        protected void update() {
+            totalConnections = 10;
+            activeConnections = 7;
+            idleConnections = 3;
+            pendingThreads = 2;
+            maxConnections = 20;
+            minConnections = 5;
+        }
+    }
+
+    @Test
+    void testPoolCountsComeFromPool() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+        metrics.create("test-pool", new FixedPoolStats());
+
+        ConnectionPoolStatsData stats = metrics.getStats();
+
+        assertEquals("test-pool", stats.getPoolName());
+        assertEquals(7, stats.getActiveConnections());
+        assertEquals(3, stats.getIdleConnections());
+        assertEquals(10, stats.getTotalConnections());
+        assertEquals(2, stats.getWaitingThreads());
+        assertEquals(20, stats.getMaxConnections());
+    }
+
+    @Test
+    void testAcquireTimesAreBucketed() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+        IMetricsTracker tracker = metrics.create("test-pool", new FixedPoolStats());
+
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MICROSECONDS.toNanos(200));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(30));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(3000));
+        tracker.recordConnectionTimeout();
+        tracker.recordConnectionUsageMillis(10);
+        tracker.recordConnectionUsageMillis(30);
+
+        ConnectionPoolStatsData stats = metrics.getStats();
+        Map<String, Long> histogram = stats.getAcquireTimeHistogram();
+
+        assertEquals(2L, histogram.get("<=1ms"));
+        assertEquals(1L, histogram.get("<=50ms"));
+        assertEquals(1L, histogram.get(">1000ms"));
+        assertEquals(0L, histogram.get("<=5ms"));
+        assertEquals(4L, stats.getAcquisitions());
+        assertEquals(3000.0, stats.getMaxAcquireMillis());
+        assertEquals(1L, stats.getConnectionTimeouts());
+        assertEquals(20.0, stats.getAverageUsageMillis());
+    }
+
+    @Test
+    void testStatsBeforePoolStartsAreEmpty() {
+        ConnectionPoolStatsData stats = new ConnectionPoolMetrics().getStats();
+
+        assertNull(stats.getActiveConnections());
+        assertEquals(0L, stats.getAcquisitions());
+        assertEquals(0.0, stats.getAverageAcquireMillis());
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DbNamedLockTest {
+
+    private DataSource dataSource;
+    private Connection connection;
+    private PreparedStatement getLock;
+    private PreparedStatement releaseLock;
+    private ResultSet result;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        getLock = mock(PreparedStatement.class);
+        releaseLock = mock(PreparedStatement.class);
+        result = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT GET_LOCK(?, ?)")).thenReturn(getLock);
+        when(getLock.executeQuery()).thenReturn(result);
+    }
+
+    @Test
+    void testAcquiredLockIsReleasedAndConnectionClosed() throws SQLException {
+        when(connection.prepareStatement("SELECT RELEASE_LOCK(?)")).thenReturn(releaseLock);
+        when(result.next()).thenReturn(true);
+        when(result.getInt(1)).thenReturn(1);
+
+        DbNamedLock lock = DbNamedLock.tryAcquire(dataSource, "rebuild", 5);
+
+        assertNotNull(lock);
+        verify(getLock).setString(1, "rebuild");
+        verify(getLock).setInt(2, 5);
+        verify(connection, never()).close();
+
+        lock.close();
+
+        verify(releaseLock).setString(1, "rebuild");
+        verify(releaseLock).execute();
+        verify(connection).close();
+    }
+
+    @Test
+    void testLockHeldElsewhereReturnsNullAndClosesConnection() throws SQLException {
+        when(result.next()).thenReturn(true);
+        when(result.getInt(1)).thenReturn(0);
+
+        assertNull(DbNamedLock.tryAcquire(dataSource, "rebuild", 0));
+        verify(connection).close();
+    }
+
+    @Test
+    void testFailureClosesConnection() throws SQLException {
+        when(getLock.executeQuery()).thenThrow(new SQLException("gone"));
+
+        assertThrows(SQLException.class, () -> DbNamedLock.tryAcquire(dataSource, "rebuild", 0));
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.util;
+
+import org.example.exception.ApiException;
+import org.example.model.enums.ExportFormat;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+public class ExportWriterTest {
+
+    private static final List<ExportWriter.Column<String[]>> COLUMNS = Arrays.asList(
+        new ExportWriter.Column<>("id", row -> Integer.valueOf(row[0])),
+        new ExportWriter.Column<>("name", row -> row[1]),
+        new ExportWriter.Column<>("total", row -> row[2] == null ? null : Double.valueOf(row[2]))
+    );
+
+    @Test
+    void testNdjsonWritesOneObjectPerLine() {
+        String output = export(ExportFormat.NDJSON, new String[]{"1", "Soap \"large\"", "12.5"}, new String[]{"2", "Tea", null});
+
+        assertEquals("{\"id\":1,\"name\":\"Soap \\\"large\\\"\",\"total\":12.5}\n"
+            + "{\"id\":2,\"name\":\"Tea\",\"total\":null}\n", output);
+    }
+
+    @Test
+    void testTsvStartsWithHeaderAndFlattensSeparators() {
+        String output = export(ExportFormat.TSV, new String[]{"1", "Soap\tbar\nlarge", "12.5"}, new String[]{"2", "Tea", null});
+
+        assertEquals("id\tname\ttotal\n1\tSoap bar large\t12.5\n2\tTea\t\n", output);
+    }
+
+    @Test
+    void testEmptyTsvExportHasHeaderOnly() {
+        assertEquals("id\tname\ttotal\n", export(ExportFormat.TSV));
+    }
+
+    @Test
+    void testFormatIsCaseInsensitive() {
+        assertEquals(ExportFormat.NDJSON, ExportFormat.from("ndjson"));
+        assertEquals(ExportFormat.TSV, ExportFormat.from("TSV"));
+        assertThrows(ApiException.class, () -> ExportFormat.from("xml"));
+    }
+
+    private String export(ExportFormat format, String[]... rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter<String[]> writer = new ExportWriter<>(format, out, COLUMNS)) {
+            for (String[] row : rows) {
+                writer.write(row);
+            }
+            assertEquals(rows.length, writer.getRowCount());
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.util;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+public class FileDownloadTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private ByteArrayOutputStream body;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.writeString(dir.resolve("order-1.pdf"), "0123456789", StandardCharsets.US_ASCII);
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        body = new ByteArrayOutputStream();
+        when(request.getMethod()).thenReturn("GET");
+        lenient().when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                body.write(b, off, len);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        });
+    }
+
+    @Test
+    void testSendsWholeFileWithEtag() throws Exception {
+        FileDownload.send(file, "application/pdf", "order-1.pdf", request, response);
+
+        assertEquals("0123456789", body.toString(StandardCharsets.US_ASCII));
+        verify(response).setContentLengthLong(10);
+        verify(response).setHeader("ETag", etag());
+        verify(response).setHeader("Accept-Ranges", "bytes");
+        verify(response, never()).setStatus(anyInt());
+    }
+
+    @Test
+    void testMatchingIfNoneMatchGetsNotModified() throws Exception {
+        when(request.getHeader("If-None-Match")).thenReturn("\"other\", W/" + etag());
+
+        FileDownload.send(file, "application/pdf", "order-1.pdf", request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertEquals(0, body.size());
+    }
+
+    @Test
+    void testRangeGetsPartialContent() throws Exception {
+        when(request.getHeader("Range")).thenReturn("bytes=2-5");
+
+        FileDownload.send(file, "application/pdf", "order-1.pdf", request, response);
+
+        assertEquals("2345", body.toString(StandardCharsets.US_ASCII));
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Range", "bytes 2-5/10");
+        verify(response).setContentLengthLong(4);
+    }
+
+    @Test
+    void testStaleIfRangeGetsWholeFile() throws Exception {
+        when(request.getHeader("Range")).thenReturn("bytes=2-5");
+        when(request.getHeader("If-Range")).thenReturn("\"stale\"");
+
+        FileDownload.send(file, "application/pdf", "order-1.pdf", request, response);
+
+        assertEquals("0123456789", body.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testUnsatisfiableRange() throws Exception {
+        when(request.getHeader("Range")).thenReturn("bytes=10-");
+
+        FileDownload.send(file, "application/pdf", "order-1.pdf", request, response);
+
+        verify(response).setHeader("Content-Range", "bytes */10");
+        verify(response).sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertEquals(0, body.size());
+    }
+
+    @Test
+    void testParseRange() {
+        assertArrayEquals(new long[] {0, 9}, FileDownload.parseRange("bytes=0-", 10));
+        assertArrayEquals(new long[] {7, 9}, FileDownload.parseRange("bytes=-3", 10));
+        assertArrayEquals(new long[] {0, 9}, FileDownload.parseRange("bytes=-30", 10));
+        assertArrayEquals(new long[] {4, 9}, FileDownload.parseRange("bytes=4-100", 10));
+        assertNull(FileDownload.parseRange("bytes=0-1,4-5", 10));
+        assertNull(FileDownload.parseRange("bytes=5-2", 10));
+        assertNull(FileDownload.parseRange("items=0-1", 10));
+        assertNull(FileDownload.parseRange("bytes=a-b", 10));
+        assertSame(FileDownload.UNSATISFIABLE, FileDownload.parseRange("bytes=-0", 10));
+    }
+
+    @Test
+    void testGzipPassThroughGetsSuffixedEtag() throws Exception {
+        Path gz = gzip("0123456789");
+        when(request.getHeader("Accept-Encoding")).thenReturn("br, gzip");
+
+        FileDownload.send(gz, "\"abc\"", true, "application/pdf", "order-1.pdf", request, response);
+
+        verify(response).setHeader("ETag", "\"abc-gz\"");
+        verify(response).setHeader("Content-Encoding", "gzip");
+        assertArrayEquals(Files.readAllBytes(gz), body.toByteArray());
+    }
+
+    @Test
+    void testGzipRefusedWithZeroQualityIsDecompressed() throws Exception {
+        Path gz = gzip("0123456789");
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip;q=0, identity");
+
+        FileDownload.send(gz, "\"abc\"", true, "application/pdf", "order-1.pdf", request, response);
+
+        verify(response).setHeader("ETag", "\"abc\"");
+        verify(response, never()).setHeader(eq("Content-Encoding"), any());
+        assertEquals("0123456789", body.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testDecompressedEtagDoesNotMatchGzipVariant() throws Exception {
+        Path gz = gzip("0123456789");
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        when(request.getHeader("If-None-Match")).thenReturn("\"abc\"");
+
+        FileDownload.send(gz, "\"abc\"", true, "application/pdf", "order-1.pdf", request, response);
+
+        verify(response, never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertArrayEquals(Files.readAllBytes(gz), body.toByteArray());
+    }
+
+    @Test
+    void testAcceptsGzip() {
+        assertTrue(FileDownload.acceptsGzip("gzip"));
+        assertTrue(FileDownload.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(FileDownload.acceptsGzip("x-gzip"));
+        assertTrue(FileDownload.acceptsGzip("*"));
+        assertFalse(FileDownload.acceptsGzip(null));
+        assertFalse(FileDownload.acceptsGzip("gzip;q=0"));
+        assertFalse(FileDownload.acceptsGzip("gzip; q=0.0, *"));
+        assertFalse(FileDownload.acceptsGzip("*;q=0"));
+        assertFalse(FileDownload.acceptsGzip("br, deflate"));
+    }
+
+    private Path gzip(String content) throws Exception {
+        Path gz = dir.resolve("order-1.pdf.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz))) {
+            out.write(content.getBytes(StandardCharsets.US_ASCII));
+        }
+        return gz;
+    }
+
+    private String etag() throws Exception {
+        return FileDownload.etag(10, Files.getLastModifiedTime(file).toMillis());
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+public class InvoiceStoreTest {
+
+    private static final byte[] PDF = "%PDF-1.4 invoice".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path root;
+
+    @Test
+    void testWriteShardsByContentHash() throws Exception {
+        InvoiceStore store = new InvoiceStore(root.toString(), false);
+
+        InvoiceStore.StoredInvoice stored = store.write(new ByteArrayInputStream(PDF));
+
+        String key = stored.getKey();
+        assertTrue(key.matches("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.pdf"), key);
+        assertTrue(key.substring(6).startsWith(key.substring(0, 2) + key.substring(3, 5)));
+        assertEquals(root.resolve(key), stored.getPath());
+        assertArrayEquals(PDF, Files.readAllBytes(stored.getPath()));
+        assertEquals("\"" + key.substring(6, 70) + "\"", stored.getEtag());
+        assertFalse(stored.isCompressed());
+    }
+
+    @Test
+    void testSameContentIsStoredOnce() throws Exception {
+        InvoiceStore store = new InvoiceStore(root.toString(), false);
+
+        String first = store.write(new ByteArrayInputStream(PDF)).getKey();
+        String second = store.writeBase64(new ByteArrayInputStream(Base64.getEncoder().encode(PDF))).getKey();
+
+        assertEquals(first, second);
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void testCompressedWrite() throws Exception {
+        InvoiceStore store = new InvoiceStore(root.toString(), true);
+
+        InvoiceStore.StoredInvoice stored = store.write(new ByteArrayInputStream(PDF));
+
+        assertTrue(stored.getKey().endsWith(".pdf.gz"));
+        assertTrue(stored.isCompressed());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(stored.getPath()))) {
+            assertArrayEquals(PDF, in.readAllBytes());
+        }
+        assertTrue(store.get(stored.getKey()).isCompressed());
+    }
+
+    @Test
+    void testGetResolvesStoredAndLegacyKeys() throws Exception {
+        InvoiceStore store = new InvoiceStore(root.toString(), false);
+        String key = store.write(new ByteArrayInputStream(PDF)).getKey();
+        Files.write(root.resolve("order-7.pdf"), PDF);
+
+        InvoiceStore.StoredInvoice stored = store.get(key);
+        InvoiceStore.StoredInvoice legacy = store.get("/invoice/order-7.pdf");
+
+        assertEquals(root.resolve(key), stored.getPath());
+        assertEquals("\"" + key.substring(6, 70) + "\"", stored.getEtag());
+        assertEquals(root.resolve("order-7.pdf"), legacy.getPath());
+        assertNotNull(legacy.getEtag());
+    }
+
+    @Test
+    void testGetRejectsMissingAndEscapingKeys() throws Exception {
+        InvoiceStore store = new InvoiceStore(root.resolve("store").toString(), false);
+        Files.write(root.resolve("outside.pdf"), PDF);
+
+        assertNull(store.get("ab/cd/missing.pdf"));
+        assertNull(store.get("../outside.pdf"));
+        assertNull(store.get(null));
+    }
+
+    @Test
+    void testFailedWriteLeavesNoTempFile() throws Exception {
+        InvoiceStore store = new InvoiceStore(root.toString(), false);
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws java.io.IOException {
+                throw new java.io.IOException("Connection reset");
+            }
+        };
+
+        assertThrows(java.io.IOException.class, () -> store.write(broken));
+
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+}
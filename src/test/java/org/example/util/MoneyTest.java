@@ -0,0 +1,50 @@
+package org.example.util;
+
+import org.example.pojo.OrderItemPojo;
+import org.example.pojo.OrderPojo;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    void testToPaiseRoundsHalfUpOnDecimalValue() {
+        assertEquals(101, Money.toPaise(1.005));
+        assertEquals(29, Money.toPaise(0.285));
+        assertEquals(1999, Money.toPaise(19.99));
+        assertEquals(-101, Money.toPaise(-1.005));
+        assertEquals(0, Money.toPaise(0.0));
+    }
+
+    @Test
+    void testSumsStayExact() {
+        long total = 0;
+        for (int i = 0; i < 10; i++) {
+            total += Money.toPaise(0.1);
+        }
+        assertEquals(100, total);
+        assertEquals(1.0, Money.toRupees(total));
+    }
+
+    @Test
+    void testTimesMultipliesAndRejectsOverflow() {
+        assertEquals(5997, Money.times(1999, 3));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+    }
+
+    @Test
+    void testPojoRupeeAccessorsRoundTripThroughPaise() {
+        OrderPojo order = new OrderPojo();
+        order.setTotal(280.456);
+        assertEquals(28046, order.getTotalPaise());
+        assertEquals(280.46, order.getTotal());
+
+        OrderItemPojo item = new OrderItemPojo();
+        item.setSellingPrice(49.995);
+        item.setAmount(null);
+        assertEquals(5000L, item.getSellingPricePaise());
+        assertEquals(50.0, item.getSellingPrice());
+        assertNull(item.getAmountPaise());
+        assertNull(item.getAmount());
+    }
+}
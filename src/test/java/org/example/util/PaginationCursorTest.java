@@ -0,0 +1,64 @@
+package org.example.util;
+
+import org.example.exception.ApiException;
+import org.example.model.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+public class PaginationCursorTest {
+
+    @Test
+    void testRoundTripKeepsSortAndPosition() {
+        ZonedDateTime date = ZonedDateTime.of(2025, 1, 1, 10, 30, 0, 123000000, ZoneId.of("Asia/Kolkata"));
+        String token = new PaginationCursor("date", true, 42, date).encode();
+
+        PaginationCursor cursor = PaginationCursor.decode(token);
+
+        assertEquals("date", cursor.getSortBy());
+        assertTrue(cursor.isDescending());
+        assertEquals(42, cursor.getLastId());
+        assertEquals(date, cursor.getLastSortValue(ZonedDateTime.class));
+    }
+
+    @Test
+    void testTokenIsUrlSafe() {
+        String token = new PaginationCursor("name", false, 7, "a/b+c?d=e").encode();
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void testSortValueMayContainSeparator() {
+        String token = new PaginationCursor("name", false, 7, "line one\nline two").encode();
+        assertEquals("line one\nline two", PaginationCursor.decode(token).getLastSortValue(String.class));
+    }
+
+    @Test
+    void testNullSortValueSurvivesRoundTrip() {
+        PaginationCursor cursor = PaginationCursor.decode(new PaginationCursor("mrp", false, 3, null).encode());
+        assertNull(cursor.getLastSortValue(Double.class));
+        assertEquals(3, cursor.getLastId());
+    }
+
+    @Test
+    void testSortValueConvertsToFieldType() {
+        assertEquals(12.5, PaginationCursor.decode(new PaginationCursor("total", false, 1, 12.5).encode())
+            .getLastSortValue(double.class));
+        assertEquals(OrderStatus.INVOICED, PaginationCursor.decode(new PaginationCursor("status", false, 1, OrderStatus.INVOICED).encode())
+            .getLastSortValue(OrderStatus.class));
+    }
+
+    @Test
+    void testMalformedTokenIsRejected() {
+        assertThrows(ApiException.class, () -> PaginationCursor.decode("not a cursor!"));
+        assertThrows(ApiException.class, () -> PaginationCursor.decode("bm9zZXBhcmF0b3I"));
+    }
+
+    @Test
+    void testUnparseableSortValueIsRejected() {
+        PaginationCursor cursor = PaginationCursor.decode(new PaginationCursor("total", false, 1, "abc").encode());
+        assertThrows(ApiException.class, () -> cursor.getLastSortValue(Double.class));
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private static final long PIN_MILLIS = 5_000;
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() throws Exception {
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, new ReplicaRoutingDataSource(primary, replica, PIN_MILLIS).getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void testReadWriteTransactionUsesPrimary() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, new ReplicaRoutingDataSource(primary, replica, PIN_MILLIS).getConnection());
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void testWithoutReplicaEverythingUsesPrimary() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, null, PIN_MILLIS);
+
+        assertFalse(dataSource.hasReplica());
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void testReadOnlyCallRightAfterWriteUsesPrimary() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replica, PIN_MILLIS);
+        commitReadWriteTransaction(dataSource);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void testReadOnlyCallAfterPinExpiresUsesReplica() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replica, 0);
+        commitReadWriteTransaction(dataSource);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void testWriteOnOneThreadDoesNotPinAnother() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replica, PIN_MILLIS);
+        commitReadWriteTransaction(dataSource);
+
+        Connection connection = CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            try {
+                return dataSource.getConnection();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            } finally {
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            }
+        }).get();
+
+        assertSame(replicaConnection, connection);
+    }
+
+    @Test
+    void testConnectionOutsideTransactionDoesNotPin() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replica, PIN_MILLIS);
+        dataSource.getConnection();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, dataSource.getConnection());
+    }
+
+    // What a read-write transaction manager does around the first statement and the commit
+    private void commitReadWriteTransaction(ReplicaRoutingDataSource dataSource) throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertSame(primaryConnection, dataSource.getConnection());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+}
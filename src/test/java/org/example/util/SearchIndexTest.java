@@ -0,0 +1,88 @@
+package org.example.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex("name", "barcode");
+        index.put(1, 0, Map.of("name", "Almond Milk", "barcode", "AB-100"));
+        index.put(2, 0, Map.of("name", "Milk", "barcode", "AB-200"));
+        index.put(3, 0, Map.of("name", "Milk Chocolate Bar", "barcode", "CD-300"));
+        index.put(4, 0, Map.of("name", "Milky Way", "barcode", "CD-400"));
+        index.put(5, 0, Map.of("name", "Dark Chocolate", "barcode", "EF-500"));
+    }
+
+    @Test
+    void testTokenizeLowercasesAndSplitsOnPunctuation() {
+        assertEquals(Set.of("green", "tea", "500g"), SearchIndex.tokenize("  Green-Tea (500g) "));
+        assertTrue(SearchIndex.tokenize("--").isEmpty());
+    }
+
+    @Test
+    void testRanksExactThenPrefixThenWordThenTokenPrefix() {
+        // Exact value, then values starting with the query (shorter first), then a whole word
+        assertEquals(List.of(2, 4, 3, 1), index.search("name", "milk"));
+        assertEquals(List.of(5, 3), index.search("name", "chocolate"));
+    }
+
+    @Test
+    void testEveryQueryTokenMustMatchAsPrefix() {
+        assertEquals(List.of(3), index.search("name", "choc mil"));
+        assertEquals(List.of(5, 3), index.search("name", "CHOC"));
+        assertTrue(index.search("name", "ilk").isEmpty());
+    }
+
+    @Test
+    void testFieldsAreSearchedSeparately() {
+        assertEquals(List.of(1, 2), index.search("barcode", "ab"));
+        assertEquals(List.of(4), index.search("barcode", "cd 4"));
+        assertTrue(index.search("name", "ab").isEmpty());
+    }
+
+    @Test
+    void testPutReplacesOldValues() {
+        index.put(2, 1, Map.of("name", "Oat Drink", "barcode", "AB-200"));
+
+        assertEquals(List.of(4, 3, 1), index.search("name", "milk"));
+        assertEquals(List.of(2), index.search("name", "oat"));
+    }
+
+    @Test
+    void testOlderVersionIsIgnored() {
+        index.put(2, 3, Map.of("name", "Oat Drink"));
+        index.put(2, 2, Map.of("name", "Milk"));
+
+        assertEquals(List.of(2), index.search("name", "oat"));
+        assertFalse(index.search("name", "milk").contains(2));
+    }
+
+    @Test
+    void testRemove() {
+        index.remove(2);
+
+        assertEquals(4, index.size());
+        assertFalse(index.search("name", "milk").contains(2));
+        assertTrue(index.search("barcode", "200").isEmpty());
+    }
+
+    @Test
+    void testQueryWithoutLettersOrDigitsMatchesNothing() {
+        assertTrue(index.search("name", " - ").isEmpty());
+    }
+
+    @Test
+    void testUnindexedFieldIsRejected() {
+        assertFalse(index.covers("mrp"));
+        assertThrows(IllegalArgumentException.class, () -> index.search("mrp", "1"));
+    }
+}
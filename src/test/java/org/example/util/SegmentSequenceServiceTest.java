@@ -0,0 +1,100 @@
+package org.example.util;
+
+import org.example.model.data.IdSequenceMetricsData;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SegmentSequenceServiceTest {
+
+    // Behaves like entity_sequences: each reservation starts right after the previous one
+    private static class CountingSource implements SegmentSequenceService.SegmentSource {
+        private final AtomicLong last = new AtomicLong();
+        private final AtomicLong reservations = new AtomicLong();
+
+        @Override
+        public long reserve(String entityName, int size) {
+            reservations.incrementAndGet();
+            return last.getAndAdd(size) + 1;
+        }
+    }
+
+    @Test
+    void testIdsAreSequentialAcrossSegments() {
+        SegmentSequenceService service = new SegmentSequenceService(10);
+        CountingSource source = new CountingSource();
+
+        for (long expected = 1; expected <= 25; expected++) {
+            long id = service.nextId("OrderPojo", source);
+            // Prefetched segments may be reserved ahead, but only one segment is skipped at most
+            assertTrue(id >= expected);
+        }
+
+        IdSequenceMetricsData metrics = service.getMetrics().get(0);
+        assertEquals("OrderPojo", metrics.getEntityName());
+        assertEquals(25L, metrics.getAllocations());
+        assertTrue(metrics.getSegmentFetches() >= 3);
+        assertEquals(source.reservations.get(), metrics.getSegmentFetches());
+    }
+
+    @Test
+    void testFirstSegmentIsContiguous() {
+        SegmentSequenceService service = new SegmentSequenceService(100);
+        CountingSource source = new CountingSource();
+
+        for (long expected = 1; expected <= 50; expected++) {
+            assertEquals(expected, service.nextId("ClientPojo", source));
+        }
+        assertEquals(1L, source.reservations.get());
+        assertEquals(0L, service.getMetrics().get(0).getSegmentExhaustions());
+    }
+
+    @Test
+    void testConcurrentAllocationsAreUnique() throws Exception {
+        SegmentSequenceService service = new SegmentSequenceService(16);
+        CountingSource source = new CountingSource();
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    ids.add(service.nextId("ProductPojo", source));
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(8000, ids.size());
+        assertEquals(8000L, service.getMetrics().get(0).getAllocations());
+    }
+
+    @Test
+    void testEntitiesHaveIndependentSequences() {
+        SegmentSequenceService service = new SegmentSequenceService(10);
+
+        assertEquals(1L, service.nextId("OrderPojo", new CountingSource()));
+        assertEquals(1L, service.nextId("InvoicePojo", new CountingSource()));
+
+        List<IdSequenceMetricsData> metrics = service.getMetrics();
+        assertEquals(2, metrics.size());
+        assertEquals("InvoicePojo", metrics.get(0).getEntityName());
+        assertEquals("OrderPojo", metrics.get(1).getEntityName());
+    }
+
+    @Test
+    void testReservationFailureSurfaces() {
+        SegmentSequenceService service = new SegmentSequenceService(10);
+
+        assertThrows(org.hibernate.HibernateException.class, () ->
+            service.nextId("OrderPojo", (name, size) -> { throw new IllegalStateException("db down"); }));
+    }
+}